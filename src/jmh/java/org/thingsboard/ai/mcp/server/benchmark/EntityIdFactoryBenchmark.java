@@ -0,0 +1,44 @@
+package org.thingsboard.ai.mcp.server.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.thingsboard.server.common.data.EntityType;
+import org.thingsboard.server.common.data.id.EntityId;
+import org.thingsboard.server.common.data.id.EntityIdFactory;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing of the entity type and id strings passed to the tools.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EntityIdFactoryBenchmark {
+
+    private String entityType = "DEVICE";
+    private String entityId = UUID.randomUUID().toString();
+    private UUID uuid = UUID.fromString(entityId);
+
+    @Benchmark
+    public EntityId getByTypeAndId() {
+        return EntityIdFactory.getByTypeAndId(entityType, entityId);
+    }
+
+    @Benchmark
+    public EntityId getByTypeAndUuid() {
+        return EntityIdFactory.getByTypeAndUuid(EntityType.DEVICE, uuid);
+    }
+
+}
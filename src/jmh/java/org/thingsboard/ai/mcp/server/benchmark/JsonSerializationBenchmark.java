@@ -0,0 +1,85 @@
+package org.thingsboard.ai.mcp.server.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.thingsboard.common.util.JacksonUtil;
+import org.thingsboard.server.common.data.id.DeviceId;
+import org.thingsboard.server.common.data.kv.BasicTsKvEntry;
+import org.thingsboard.server.common.data.kv.DoubleDataEntry;
+import org.thingsboard.server.common.data.kv.TsKvEntry;
+import org.thingsboard.server.common.data.page.PageData;
+import org.thingsboard.server.common.data.query.EntityData;
+import org.thingsboard.server.common.data.query.EntityKeyType;
+import org.thingsboard.server.common.data.query.TsValue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialization of large tool results with {@link JacksonUtil#toString(Object)}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+    @Param({"100", "1000"})
+    private int entities;
+
+    private PageData<EntityData> entityData;
+    private List<TsKvEntry> timeseries;
+
+    @Setup
+    public void setup() {
+        List<EntityData> data = new ArrayList<>(entities);
+        for (int i = 0; i < entities; i++) {
+            EntityData ed = new EntityData();
+            ed.setEntityId(new DeviceId(UUID.randomUUID()));
+            Map<EntityKeyType, Map<String, TsValue>> latest = new HashMap<>();
+            Map<String, TsValue> fields = new HashMap<>();
+            fields.put("name", new TsValue(0, "Device " + i));
+            fields.put("type", new TsValue(0, "thermostat"));
+            Map<String, TsValue> telemetry = new HashMap<>();
+            telemetry.put("temperature", new TsValue(1_700_000_000_000L, String.valueOf(20.0 + i % 10)));
+            telemetry.put("humidity", new TsValue(1_700_000_000_000L, String.valueOf(40 + i % 20)));
+            latest.put(EntityKeyType.ENTITY_FIELD, fields);
+            latest.put(EntityKeyType.TIME_SERIES, telemetry);
+            ed.setLatest(latest);
+            data.add(ed);
+        }
+        entityData = new PageData<>(data, 1, entities, false);
+
+        int points = entities * 10;
+        timeseries = new ArrayList<>(points);
+        for (int i = 0; i < points; i++) {
+            timeseries.add(new BasicTsKvEntry(1_700_000_000_000L + i * 1000L, new DoubleDataEntry("temperature", 20.0 + i % 100 / 10.0)));
+        }
+    }
+
+    @Benchmark
+    public String entityDataPage() {
+        return JacksonUtil.toString(entityData);
+    }
+
+    @Benchmark
+    public String timeseries() {
+        return JacksonUtil.toString(timeseries);
+    }
+
+}
@@ -0,0 +1,85 @@
+package org.thingsboard.ai.mcp.server.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.thingsboard.ai.mcp.server.rest.RestClient;
+import org.thingsboard.ai.mcp.server.rest.RestCompressionInterceptor;
+import org.thingsboard.ai.mcp.server.stub.ThingsBoardStubServer;
+import org.thingsboard.server.common.data.id.DeviceId;
+import org.thingsboard.server.common.data.kv.TsKvEntry;
+import org.thingsboard.server.common.data.page.SortOrder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Large time series results fetched from {@link ThingsBoardStubServer} with and without gzip, on loopback and over a
+ * simulated 10 Mbit/s link. The bytes transferred per request are printed at the end of each trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RestCompressionBenchmark {
+
+    private static final List<String> KEYS = List.of("temperature", "humidity", "pressure");
+
+    @Param({"true", "false"})
+    private boolean compression;
+
+    @Param({"0", "1250000"})
+    private long bandwidthBytesPerSecond;
+
+    @Param({"1000", "5000"})
+    private int points;
+
+    private ThingsBoardStubServer stub;
+    private RestClient client;
+    private DeviceId deviceId;
+    private final AtomicLong requests = new AtomicLong();
+    private long bytesSentAtStart;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        stub = new ThingsBoardStubServer(1);
+        stub.setCompression(compression);
+        stub.setBandwidthBytesPerSecond(bandwidthBytesPerSecond);
+        stub.setTimeseriesPoints(points);
+        stub.start();
+        deviceId = stub.getDeviceIds().get(0);
+        client = new RestClient(stub.getUrl());
+        client.getRestTemplate().getInterceptors().add(0, new RestCompressionInterceptor());
+        client.login("tenant@thingsboard.org", "tenant");
+        bytesSentAtStart = stub.getBytesSent();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.out.printf("%nwireBytes per request: %d (compression=%s, points=%d)%n",
+                (stub.getBytesSent() - bytesSentAtStart) / Math.max(1, requests.get()), compression, points);
+        client.close();
+        stub.close();
+    }
+
+    @Benchmark
+    public List<TsKvEntry> getTimeseries() {
+        requests.incrementAndGet();
+        return client.getTimeseries(deviceId, KEYS, 0L, null, null, null, SortOrder.Direction.ASC,
+                0L, System.currentTimeMillis(), points * KEYS.size(), true);
+    }
+
+}
@@ -0,0 +1,80 @@
+package org.thingsboard.ai.mcp.server.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.thingsboard.ai.mcp.server.util.RestJsonConverter;
+import org.thingsboard.common.util.JacksonUtil;
+import org.thingsboard.server.common.data.kv.AttributeKvEntry;
+import org.thingsboard.server.common.data.kv.TsKvEntry;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conversion of raw ThingsBoard telemetry and attribute responses into KV entries.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RestJsonConverterBenchmark {
+
+    @Param({"100", "10000"})
+    private int points;
+
+    private Map<String, List<JsonNode>> timeseries;
+    private List<JsonNode> attributes;
+
+    @Setup
+    public void setup() {
+        timeseries = new LinkedHashMap<>();
+        String[] keys = {"temperature", "humidity", "active", "status", "config"};
+        for (int k = 0; k < keys.length; k++) {
+            List<JsonNode> values = new ArrayList<>(points);
+            for (int i = 0; i < points; i++) {
+                values.add(JacksonUtil.toJsonNode("{\"ts\":" + (1_700_000_000_000L + i * 1000L) + ",\"value\":" + value(k, i) + "}"));
+            }
+            timeseries.put(keys[k], values);
+        }
+        attributes = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            attributes.add(JacksonUtil.toJsonNode("{\"key\":\"attr" + i + "\",\"lastUpdateTs\":1700000000000,\"value\":" + value(i % keys.length, i) + "}"));
+        }
+    }
+
+    @Benchmark
+    public List<TsKvEntry> toTimeseries() {
+        return RestJsonConverter.toTimeseries(timeseries);
+    }
+
+    @Benchmark
+    public List<AttributeKvEntry> toAttributes() {
+        return RestJsonConverter.toAttributes(attributes);
+    }
+
+    private static String value(int kind, int i) {
+        return switch (kind) {
+            case 0 -> String.valueOf(20.0 + i % 100 / 10.0);
+            case 1 -> String.valueOf(i % 100);
+            case 2 -> String.valueOf(i % 2 == 0);
+            case 3 -> "\"status-" + i % 10 + "\"";
+            default -> "{\"mode\":\"auto\",\"level\":" + i % 5 + "}";
+        };
+    }
+
+}
@@ -0,0 +1,64 @@
+package org.thingsboard.ai.mcp.server.benchmark;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.core.type.filter.AssignableTypeFilter;
+import org.thingsboard.ai.mcp.server.config.EditionAwareToolProvider;
+import org.thingsboard.ai.mcp.server.result.ResultStore;
+import org.thingsboard.ai.mcp.server.tools.McpTools;
+
+import java.lang.reflect.Constructor;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tool callback lookup of the MCP server, built from every {@link McpTools} implementation on the classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ToolCallbackProviderBenchmark {
+
+    private EditionAwareToolProvider provider;
+
+    @Setup
+    public void setup() throws Exception {
+        ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false);
+        scanner.addIncludeFilter(new AssignableTypeFilter(McpTools.class));
+        List<McpTools> tools = new ArrayList<>();
+        for (BeanDefinition definition : scanner.findCandidateComponents("org.thingsboard.ai.mcp.server.tools")) {
+            Constructor<?> constructor = Class.forName(definition.getBeanClassName()).getConstructors()[0];
+            tools.add((McpTools) constructor.newInstance(new Object[constructor.getParameterCount()]));
+        }
+        provider = new EditionAwareToolProvider(tools, event -> {}, new SimpleMeterRegistry(), ObservationRegistry.NOOP,
+                new ResultStore(0, 0, 0, 1), null, "PE", 0);
+    }
+
+    @Benchmark
+    public ToolCallback[] getToolCallbacks() {
+        return provider.getToolCallbacks();
+    }
+
+    @Benchmark
+    public String getToolListing() {
+        return provider.getToolListing();
+    }
+
+}
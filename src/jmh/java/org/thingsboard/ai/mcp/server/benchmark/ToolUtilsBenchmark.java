@@ -0,0 +1,60 @@
+package org.thingsboard.ai.mcp.server.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.thingsboard.ai.mcp.server.util.ToolUtils;
+import org.thingsboard.server.common.data.exception.ThingsboardException;
+import org.thingsboard.server.common.data.page.PageLink;
+import org.thingsboard.server.common.data.page.TimePageLink;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Page link construction done by almost every list tool, including the sort property validation regex.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ToolUtilsBenchmark {
+
+    private String sortProperty = "createdTime";
+    private String unicodeSortProperty = "температура_датчика-1";
+    private String pageSize = "100";
+    private String page = "3";
+
+    @Benchmark
+    public PageLink createPageLink() throws ThingsboardException {
+        return ToolUtils.createPageLink(pageSize, page, "thermostat", null, null);
+    }
+
+    @Benchmark
+    public PageLink createSortedPageLink() throws ThingsboardException {
+        return ToolUtils.createPageLink(pageSize, page, "thermostat", sortProperty, "desc");
+    }
+
+    @Benchmark
+    public TimePageLink createTimePageLink() throws ThingsboardException {
+        return ToolUtils.createTimePageLink(pageSize, page, null, sortProperty, "ASC", "1700000000000", "1700086400000");
+    }
+
+    @Benchmark
+    public boolean propertyPattern() {
+        return ToolUtils.PROPERTY_PATTERN.matcher(sortProperty).matches();
+    }
+
+    @Benchmark
+    public boolean propertyPatternUnicode() {
+        return ToolUtils.PROPERTY_PATTERN.matcher(unicodeSortProperty).matches();
+    }
+
+}
@@ -4,9 +4,12 @@ import org.springframework.ai.tool.ToolCallbackProvider;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ImportRuntimeHints;
 import org.thingsboard.ai.mcp.server.config.EditionAwareToolProvider;
+import org.thingsboard.ai.mcp.server.config.ToolRuntimeHints;
 
 @SpringBootApplication
+@ImportRuntimeHints(ToolRuntimeHints.class)
 public class McpServerApplication {
 
     public static void main(String[] args) {
@@ -0,0 +1,320 @@
+package org.thingsboard.ai.mcp.server.buffer;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.thingsboard.ai.mcp.server.rest.ClientCredentials;
+import org.thingsboard.ai.mcp.server.rest.RestClient;
+import org.thingsboard.ai.mcp.server.rest.RestClientService;
+import org.thingsboard.common.util.JacksonUtil;
+import org.thingsboard.common.util.ThingsBoardThreadFactory;
+import org.thingsboard.server.common.data.EntityType;
+import org.thingsboard.server.common.data.id.EntityId;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Optional write-behind buffer of time series saves. Points saved to the same entity, scope and TTL are merged into
+ * a single {@code [{ts, values}]} request, sent once the entity has {@code batchPoints} pending points, once its oldest
+ * pending point is {@code maxAgeMs} old, or on {@link #flush()}. Requests are sent one by one from a single thread, so
+ * saves of an entity reach ThingsBoard in order. Every buffered point gets an id from a single counter of the buffer;
+ * a flush reports the points that failed in the given id range, from {@code fromPointId} through
+ * {@code completedThrough}, and counts every other point of the range as saved. The ids are not tracked per caller,
+ * so the range also covers the points that other sessions buffered in between. A flush does not clear the failures,
+ * the latest ones are kept for later flushes up to a fixed number. When the buffer holds {@code maxPoints} points,
+ * saves wait up to {@code maxWaitMs} for earlier requests to complete.
+ * Only saves with the ThingsBoard credentials configured on the server are buffered.
+ */
+@Slf4j
+@Service
+public class TelemetryWriteBuffer {
+
+    public record AddResult(String status, long firstPointId, long lastPointId, int bufferedPoints) {}
+
+    public record FlushResult(long fromPointId, long completedThrough, long acknowledged, long failed, List<FailedPoint> failedPoints,
+                              boolean failuresTruncated, int bufferedPoints) {}
+
+    public record FailedPoint(long pointId, EntityType entityType, String entityId, long ts, String error) {}
+
+    private record Key(EntityId entityId, String scope, Long ttl) {}
+
+    private record Point(long id, long ts, ObjectNode values) {}
+
+    private static final class Batch {
+
+        private final List<Point> points = new ArrayList<>();
+        private final long createdMs;
+
+        private Batch(long createdMs) {
+            this.createdMs = createdMs;
+        }
+
+    }
+
+    private static final int MAX_REPORTED_FAILURES = 1000;
+    private static final int MAX_RETAINED_FAILURES = 10000;
+
+    private final RestClientService clientService;
+    private final boolean enabled;
+    private final int maxPoints;
+    private final int batchPoints;
+    private final long maxAgeMs;
+    private final long maxWaitMs;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notFull = lock.newCondition();
+    private final Map<Key, Batch> pending = new LinkedHashMap<>();
+    private final TreeMap<Long, FailedPoint> failures = new TreeMap<>();
+    private final ScheduledExecutorService executor;
+
+    /**
+     * Points added and not yet sent or in flight.
+     */
+    private int bufferedPoints;
+    private long lastPointId;
+    /**
+     * Highest id of a failed point dropped from {@link #failures} to keep it bounded.
+     */
+    private long droppedFailuresThrough;
+
+    public TelemetryWriteBuffer(RestClientService clientService, MeterRegistry meterRegistry,
+                                @Value("${thingsboard.telemetry-buffer-enabled:false}") boolean enabled,
+                                @Value("${thingsboard.telemetry-buffer-max-points:10000}") int maxPoints,
+                                @Value("${thingsboard.telemetry-buffer-batch-points:500}") int batchPoints,
+                                @Value("${thingsboard.telemetry-buffer-max-age-ms:1000}") long maxAgeMs,
+                                @Value("${thingsboard.telemetry-buffer-max-wait-ms:10000}") long maxWaitMs) {
+        this.clientService = clientService;
+        this.enabled = enabled;
+        this.maxPoints = maxPoints;
+        this.batchPoints = batchPoints;
+        this.maxAgeMs = maxAgeMs;
+        this.maxWaitMs = maxWaitMs;
+        if (enabled) {
+            executor = Executors.newSingleThreadScheduledExecutor(ThingsBoardThreadFactory.forName("tb-telemetry-buffer"));
+            long period = Math.max(10, maxAgeMs / 4);
+            executor.scheduleWithFixedDelay(this::sendExpired, period, period, TimeUnit.MILLISECONDS);
+        } else {
+            executor = null;
+        }
+        Gauge.builder("thingsboard.telemetry.buffer.points", this, b -> b.bufferedPoints)
+                .description("Number of time series points buffered or in flight")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        if (executor == null) {
+            return;
+        }
+        lock.lock();
+        try {
+            sendAll();
+        } finally {
+            lock.unlock();
+        }
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(maxWaitMs, TimeUnit.MILLISECONDS)) {
+                log.warn("Dropped {} buffered time series points on shutdown", bufferedPoints);
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Whether saves of the current caller are buffered.
+     */
+    public boolean isEnabled() {
+        return enabled && ClientCredentials.current() == null;
+    }
+
+    /**
+     * Buffers the points of a time series save request in any of the formats the ThingsBoard endpoint accepts. Points
+     * without a timestamp get the current time, since they are sent later.
+     *
+     * @param ttl the TTL in seconds, or null to save without TTL
+     */
+    public AddResult add(EntityId entityId, String scope, Long ttl, JsonNode request) {
+        long now = System.currentTimeMillis();
+        List<Point> points = parse(request, now);
+        Key key = new Key(entityId, scope, ttl);
+        lock.lock();
+        try {
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxWaitMs);
+            while (bufferedPoints > 0 && bufferedPoints + points.size() > maxPoints) {
+                sendAll();
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    throw new IllegalStateException("Telemetry write buffer is full, flush it or retry later");
+                }
+                notFull.awaitNanos(remaining);
+            }
+            Batch batch = pending.computeIfAbsent(key, k -> new Batch(now));
+            long firstPointId = lastPointId + 1;
+            for (Point point : points) {
+                batch.points.add(new Point(++lastPointId, point.ts(), point.values()));
+            }
+            bufferedPoints += points.size();
+            if (batch.points.size() >= batchPoints) {
+                pending.remove(key);
+                executor.execute(() -> send(key, batch));
+            }
+            return new AddResult("Telemetry buffered", firstPointId, lastPointId, bufferedPoints);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the telemetry write buffer", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Sends all buffered points, waits for them and returns the acknowledgements of the points from
+     * {@code fromPointId} through the last point added before the flush, whichever caller added them.
+     */
+    public FlushResult flush(long fromPointId) {
+        if (executor == null) {
+            throw new IllegalStateException("Telemetry write buffer is disabled");
+        }
+        long completedThrough;
+        Future<?> done;
+        lock.lock();
+        try {
+            completedThrough = lastPointId;
+            sendAll();
+            // The executor runs tasks in order, so this one completes after all requests sent before
+            done = executor.submit(() -> {});
+        } finally {
+            lock.unlock();
+        }
+        try {
+            done.get(maxWaitMs + TimeUnit.SECONDS.toMillis(60), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while flushing the telemetry write buffer", e);
+        } catch (ExecutionException | TimeoutException e) {
+            throw new IllegalStateException("Failed to flush the telemetry write buffer", e);
+        }
+        long from = Math.max(1, fromPointId);
+        lock.lock();
+        try {
+            Map<Long, FailedPoint> rangeFailures = from <= completedThrough ? failures.subMap(from, true, completedThrough, true) : Map.of();
+            List<FailedPoint> failedPoints = rangeFailures.values().stream().limit(MAX_REPORTED_FAILURES).toList();
+            long failed = rangeFailures.size();
+            long acknowledged = Math.max(0, completedThrough - from + 1 - failed);
+            return new FlushResult(from, completedThrough, acknowledged, failed, failedPoints,
+                    from <= droppedFailuresThrough || failed > failedPoints.size(), bufferedPoints);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void sendAll() {
+        for (Map.Entry<Key, Batch> entry : pending.entrySet()) {
+            Key key = entry.getKey();
+            Batch batch = entry.getValue();
+            executor.execute(() -> send(key, batch));
+        }
+        pending.clear();
+    }
+
+    private void sendExpired() {
+        List<Map.Entry<Key, Batch>> expired = new ArrayList<>();
+        long now = System.currentTimeMillis();
+        lock.lock();
+        try {
+            Iterator<Map.Entry<Key, Batch>> it = pending.entrySet().iterator();
+            while (it.hasNext()) {
+                Map.Entry<Key, Batch> entry = it.next();
+                if (now - entry.getValue().createdMs >= maxAgeMs) {
+                    expired.add(entry);
+                    it.remove();
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        expired.forEach(entry -> send(entry.getKey(), entry.getValue()));
+    }
+
+    private void send(Key key, Batch batch) {
+        // Later values of a key with the same timestamp win, like they would with separate requests
+        TreeMap<Long, ObjectNode> merged = new TreeMap<>();
+        for (Point point : batch.points) {
+            merged.computeIfAbsent(point.ts(), ts -> JacksonUtil.newObjectNode()).setAll(point.values());
+        }
+        ArrayNode request = JacksonUtil.newArrayNode();
+        merged.forEach((ts, values) -> request.addObject().put("ts", ts).set("values", values));
+        String error;
+        try {
+            RestClient client = clientService.getClient();
+            boolean saved = key.ttl() != null
+                    ? client.saveEntityTelemetryWithTTL(key.entityId(), key.scope(), key.ttl(), request)
+                    : client.saveEntityTelemetry(key.entityId(), key.scope(), request);
+            error = saved ? null : "Not saved";
+        } catch (Exception e) {
+            log.debug("Failed to save {} buffered points of {}", batch.points.size(), key.entityId(), e);
+            error = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+        }
+        lock.lock();
+        try {
+            bufferedPoints -= batch.points.size();
+            if (error != null) {
+                for (Point point : batch.points) {
+                    failures.put(point.id(), new FailedPoint(point.id(), key.entityId().getEntityType(), key.entityId().getId().toString(), point.ts(), error));
+                }
+                while (failures.size() > MAX_RETAINED_FAILURES) {
+                    droppedFailuresThrough = Math.max(droppedFailuresThrough, failures.pollFirstEntry().getKey());
+                }
+            }
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static List<Point> parse(JsonNode request, long now) {
+        List<Point> points = new ArrayList<>();
+        if (request != null && request.isArray()) {
+            request.forEach(node -> points.add(parsePoint(node, now)));
+        } else {
+            points.add(parsePoint(request, now));
+        }
+        return points;
+    }
+
+    private static Point parsePoint(JsonNode node, long now) {
+        if (node == null || !node.isObject() || node.isEmpty()) {
+            throw new IllegalArgumentException("Time series point must be a non-empty JSON object");
+        }
+        if (node.has("ts") && node.has("values")) {
+            if (!node.get("ts").canConvertToLong() || !node.get("values").isObject()) {
+                throw new IllegalArgumentException("Time series point must have a numeric 'ts' and a 'values' object");
+            }
+            return new Point(0, node.get("ts").asLong(), (ObjectNode) node.get("values"));
+        }
+        return new Point(0, now, (ObjectNode) node);
+    }
+
+}
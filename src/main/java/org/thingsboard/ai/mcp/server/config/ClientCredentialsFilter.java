@@ -0,0 +1,47 @@
+package org.thingsboard.ai.mcp.server.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.thingsboard.ai.mcp.server.rest.ClientCredentials;
+
+import java.io.IOException;
+
+/**
+ * Exposes the ThingsBoard credentials of an SSE request to the tools via {@link ClientCredentials#current()}. In the
+ * servlet mode, the MCP server runs tool calls on the thread of the message request, so every tool call uses the
+ * credentials its client sent.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class ClientCredentialsFilter extends OncePerRequestFilter {
+
+    private static final String TB_AUTHORIZATION_HEADER = "X-Authorization";
+
+    @Override
+    protected void doFilterInternal(@NotNull HttpServletRequest request, @NotNull HttpServletResponse response,
+                                    @NotNull FilterChain filterChain) throws ServletException, IOException {
+        String header = request.getHeader(TB_AUTHORIZATION_HEADER);
+        if (header == null) {
+            header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        }
+        ClientCredentials credentials = ClientCredentials.parse(header);
+        if (credentials == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        ClientCredentials.setCurrent(credentials);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ClientCredentials.clearCurrent();
+        }
+    }
+
+}
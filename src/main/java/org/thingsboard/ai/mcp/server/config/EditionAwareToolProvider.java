@@ -1,62 +1,179 @@
 package org.thingsboard.ai.mcp.server.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import io.modelcontextprotocol.server.McpServerFeatures;
+import io.modelcontextprotocol.spec.McpSchema;
 import lombok.extern.slf4j.Slf4j;
 import org.jetbrains.annotations.NotNull;
+import org.springframework.ai.mcp.McpToolUtils;
 import org.springframework.ai.tool.ToolCallback;
 import org.springframework.ai.tool.ToolCallbackProvider;
 import org.springframework.ai.tool.annotation.Tool;
 import org.springframework.ai.tool.method.MethodToolCallbackProvider;
 import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.event.EventListener;
 import org.springframework.core.annotation.AnnotationUtils;
 import org.springframework.stereotype.Component;
 import org.thingsboard.ai.mcp.server.annotation.CeOnly;
 import org.thingsboard.ai.mcp.server.annotation.PeOnly;
+import org.thingsboard.ai.mcp.server.data.AddToolsEvent;
 import org.thingsboard.ai.mcp.server.data.EditionChangedEvent;
 import org.thingsboard.ai.mcp.server.data.RemoveToolsEvent;
 import org.thingsboard.ai.mcp.server.data.ThingsBoardEdition;
+import org.thingsboard.ai.mcp.server.rest.RestClientService;
+import org.thingsboard.ai.mcp.server.result.ResultStore;
 import org.thingsboard.ai.mcp.server.tools.McpTools;
+import org.thingsboard.common.util.JacksonUtil;
 import org.thingsboard.server.common.data.StringUtils;
 
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Set;
 
+/**
+ * Serves the tool list of the connected ThingsBoard edition. The callbacks, MCP tool specifications and encoded
+ * 'tools/list' listing of each edition are computed once at startup. The first listing waits up to
+ * {@code thingsboard.edition-detection-timeout-ms} for the edition, unless {@code thingsboard.edition} is set, so
+ * clients see the final tool list without removals and list-changed notifications. Only if the edition is not known
+ * in time are the tools of all editions published and those of the other edition removed once it is detected.
+ */
 @Slf4j
 @Component
 public class EditionAwareToolProvider implements ToolCallbackProvider {
 
-    private final MethodToolCallbackProvider delegate;
+    private final Catalog allTools;
+    private final Catalog ceTools;
+    private final Catalog peTools;
     private final ApplicationEventPublisher eventPublisher;
-    private final Set<String> ceOnlyToolNames;
-    private final Set<String> peOnlyToolNames;
+    private final RestClientService clientService;
+    private final ThingsBoardEdition configuredEdition;
+    private final long editionDetectionTimeoutMs;
 
-    private volatile ThingsBoardEdition edition = ThingsBoardEdition.PE;
+    private volatile Catalog published;
+    private volatile ThingsBoardEdition publishedEdition;
 
-    public EditionAwareToolProvider(List<McpTools> tools, ApplicationEventPublisher eventPublisher) {
-        this.delegate = MethodToolCallbackProvider.builder().toolObjects(tools.toArray()).build();
-        this.peOnlyToolNames = scanEditionToolName(tools, true);
-        this.ceOnlyToolNames = scanEditionToolName(tools, false);
+    public EditionAwareToolProvider(List<McpTools> tools, ApplicationEventPublisher eventPublisher,
+                                    MeterRegistry meterRegistry, ObservationRegistry observationRegistry,
+                                    ResultStore resultStore, RestClientService clientService,
+                                    @Value("${thingsboard.edition:}") String configuredEdition,
+                                    @Value("${thingsboard.edition-detection-timeout-ms:5000}") long editionDetectionTimeoutMs) {
+        MethodToolCallbackProvider delegate = MethodToolCallbackProvider.builder().toolObjects(tools.toArray()).build();
+        ToolCallback[] allToolCallbacks = Arrays.stream(delegate.getToolCallbacks())
+                .map(callback -> new MeteredToolCallback(callback, meterRegistry, observationRegistry))
+                .map(callback -> resultStore.isEnabled() ? new ResultStoreToolCallback(callback, resultStore) : callback)
+                .toArray(ToolCallback[]::new);
+        Set<String> peOnlyToolNames = scanEditionToolName(tools, true);
+        Set<String> ceOnlyToolNames = scanEditionToolName(tools, false);
+        this.allTools = Catalog.of(allToolCallbacks);
+        this.ceTools = Catalog.of(exclude(allToolCallbacks, peOnlyToolNames));
+        this.peTools = Catalog.of(exclude(allToolCallbacks, ceOnlyToolNames));
         this.eventPublisher = eventPublisher;
+        this.clientService = clientService;
+        this.configuredEdition = StringUtils.hasText(configuredEdition)
+                ? ThingsBoardEdition.valueOf(configuredEdition.trim().toUpperCase(Locale.ROOT)) : null;
+        this.editionDetectionTimeoutMs = editionDetectionTimeoutMs;
     }
 
+    /**
+     * Returns the precomputed tool list of the resolved edition, or of both editions if the edition is not known in
+     * time. The array is shared and must not be modified.
+     */
     @NotNull
     @Override
     public ToolCallback[] getToolCallbacks() {
-        return Arrays.stream(delegate.getToolCallbacks()).toArray(ToolCallback[]::new);
+        return resolve().callbacks();
+    }
+
+    /**
+     * Returns the encoded 'tools/list' result of the published tool list, computed once per edition.
+     */
+    public String getToolListing() {
+        return resolve().listing();
+    }
+
+    private Catalog resolve() {
+        Catalog catalog = published;
+        if (catalog == null) {
+            synchronized (this) {
+                catalog = published;
+                if (catalog == null) {
+                    ThingsBoardEdition edition = configuredEdition != null ? configuredEdition
+                            : clientService.awaitEdition(editionDetectionTimeoutMs).orElse(null);
+                    if (edition == null) {
+                        log.warn("ThingsBoard edition was not detected within {} ms, publishing tools of all editions", editionDetectionTimeoutMs);
+                    }
+                    publishedEdition = edition;
+                    published = catalog = forEdition(edition);
+                }
+            }
+        }
+        return catalog;
     }
 
     @EventListener
-    public void onEditionChanged(EditionChangedEvent evt) {
-        this.edition = evt.edition();
+    public synchronized void onEditionChanged(EditionChangedEvent evt) {
+        ThingsBoardEdition edition = evt.edition();
+        Catalog current = published;
+        if (edition == null || current == null || edition == publishedEdition) {
+            return;
+        }
+        Catalog target = forEdition(edition);
+        Set<String> targetNames = target.names();
+        Set<String> publishedNames = current.names();
+        List<String> toRemove = publishedNames.stream().filter(name -> !targetNames.contains(name)).toList();
+        List<McpServerFeatures.SyncToolSpecification> toAdd = target.specifications().stream()
+                .filter(specification -> !publishedNames.contains(specification.tool().name())).toList();
+        if (configuredEdition != null) {
+            log.warn("Configured ThingsBoard edition {} does not match the detected edition {}, updating the tool list", configuredEdition, edition);
+        }
+        publishedEdition = edition;
+        published = target;
+        if (!toRemove.isEmpty()) {
+            eventPublisher.publishEvent(new RemoveToolsEvent(toRemove));
+        }
+        if (!toAdd.isEmpty()) {
+            eventPublisher.publishEvent(new AddToolsEvent(toAdd));
+        }
+    }
+
+    private Catalog forEdition(ThingsBoardEdition edition) {
         if (edition == ThingsBoardEdition.CE) {
-            eventPublisher.publishEvent(new RemoveToolsEvent(peOnlyToolNames.stream().toList()));
+            return ceTools;
         } else if (edition == ThingsBoardEdition.PE) {
-            eventPublisher.publishEvent(new RemoveToolsEvent(ceOnlyToolNames.stream().toList()));
+            return peTools;
+        }
+        return allTools;
+    }
+
+    private static ToolCallback[] exclude(ToolCallback[] callbacks, Set<String> names) {
+        return Arrays.stream(callbacks)
+                .filter(callback -> !names.contains(callback.getToolDefinition().name()))
+                .toArray(ToolCallback[]::new);
+    }
+
+    /**
+     * The tool list of one edition: the callbacks, their MCP tool specifications and the encoded 'tools/list' result.
+     */
+    private record Catalog(ToolCallback[] callbacks, List<McpServerFeatures.SyncToolSpecification> specifications,
+                           Set<String> names, String listing) {
+
+        static Catalog of(ToolCallback[] callbacks) {
+            List<McpServerFeatures.SyncToolSpecification> specifications = Arrays.stream(callbacks)
+                    .map(McpToolUtils::toSyncToolSpecification)
+                    .toList();
+            List<McpSchema.Tool> tools = specifications.stream().map(McpServerFeatures.SyncToolSpecification::tool).toList();
+            Set<String> names = new HashSet<>();
+            tools.forEach(tool -> names.add(tool.name()));
+            return new Catalog(callbacks, specifications, Collections.unmodifiableSet(names),
+                    JacksonUtil.toString(new McpSchema.ListToolsResult(tools, null)));
         }
+
     }
 
     private static Set<String> scanEditionToolName(List<McpTools> tools, boolean isPe) {
@@ -0,0 +1,94 @@
+package org.thingsboard.ai.mcp.server.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.ai.chat.model.ToolContext;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.definition.ToolDefinition;
+import org.springframework.ai.tool.metadata.ToolMetadata;
+import org.thingsboard.ai.mcp.server.trace.ToolCallObservationContext;
+
+/**
+ * Observes every invocation of the wrapped tool. The observation is recorded as the {@code mcp.tool.calls} timer and
+ * becomes the parent of the ThingsBoard REST exchanges made by the tool, so it can be exported as a trace span.
+ */
+class MeteredToolCallback implements ToolCallback {
+
+    static final String TOOL_CALLS_METRIC = "mcp.tool.calls";
+    static final String TOOL_ERRORS_METRIC = "mcp.tool.errors";
+    static final String TOOL_RESULT_SIZE_METRIC = "mcp.tool.result.size";
+
+    private final ToolCallback delegate;
+    private final MeterRegistry registry;
+    private final ObservationRegistry observationRegistry;
+    private final String toolName;
+    private final DistributionSummary resultSize;
+
+    MeteredToolCallback(ToolCallback delegate, MeterRegistry registry, ObservationRegistry observationRegistry) {
+        this.delegate = delegate;
+        this.registry = registry;
+        this.observationRegistry = observationRegistry;
+        this.toolName = delegate.getToolDefinition().name();
+        this.resultSize = DistributionSummary.builder(TOOL_RESULT_SIZE_METRIC)
+                .description("Size of MCP tool results in characters")
+                .baseUnit("characters")
+                .tag("tool", toolName)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    @Override
+    public ToolDefinition getToolDefinition() {
+        return delegate.getToolDefinition();
+    }
+
+    @Override
+    public ToolMetadata getToolMetadata() {
+        return delegate.getToolMetadata();
+    }
+
+    @Override
+    public String call(String toolInput) {
+        return call(toolInput, null);
+    }
+
+    @Override
+    public String call(String toolInput, ToolContext toolContext) {
+        ToolCallObservationContext context = new ToolCallObservationContext(toolName);
+        Observation observation = Observation.createNotStarted(TOOL_CALLS_METRIC, () -> context, observationRegistry)
+                .contextualName("tool " + toolName)
+                .lowCardinalityKeyValue("tool", toolName)
+                .start();
+        try (Observation.Scope scope = observation.openScope()) {
+            String result = toolContext != null ? delegate.call(toolInput, toolContext) : delegate.call(toolInput);
+            if (result != null) {
+                context.setResultSize(result.length());
+                resultSize.record(result.length());
+            }
+            return result;
+        } catch (RuntimeException e) {
+            observation.error(e);
+            Counter.builder(TOOL_ERRORS_METRIC)
+                    .description("Number of failed MCP tool calls")
+                    .tag("tool", toolName)
+                    .tag("exception", rootCause(e).getClass().getSimpleName())
+                    .register(registry)
+                    .increment();
+            throw e;
+        } finally {
+            observation.stop();
+        }
+    }
+
+    private static Throwable rootCause(Throwable e) {
+        Throwable cause = e;
+        while (cause.getCause() != null && cause.getCause() != cause) {
+            cause = cause.getCause();
+        }
+        return cause;
+    }
+
+}
@@ -0,0 +1,44 @@
+package org.thingsboard.ai.mcp.server.config;
+
+import org.springframework.ai.chat.model.ToolContext;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.definition.ToolDefinition;
+import org.springframework.ai.tool.metadata.ToolMetadata;
+import org.thingsboard.ai.mcp.server.result.ResultStore;
+
+/**
+ * Replaces oversized results of the wrapped tool with a summary and a handle of the result kept in {@link ResultStore}.
+ */
+class ResultStoreToolCallback implements ToolCallback {
+
+    private final ToolCallback delegate;
+    private final ResultStore resultStore;
+    private final String toolName;
+
+    ResultStoreToolCallback(ToolCallback delegate, ResultStore resultStore) {
+        this.delegate = delegate;
+        this.resultStore = resultStore;
+        this.toolName = delegate.getToolDefinition().name();
+    }
+
+    @Override
+    public ToolDefinition getToolDefinition() {
+        return delegate.getToolDefinition();
+    }
+
+    @Override
+    public ToolMetadata getToolMetadata() {
+        return delegate.getToolMetadata();
+    }
+
+    @Override
+    public String call(String toolInput) {
+        return resultStore.offload(toolName, delegate.call(toolInput));
+    }
+
+    @Override
+    public String call(String toolInput, ToolContext toolContext) {
+        return resultStore.offload(toolName, delegate.call(toolInput, toolContext));
+    }
+
+}
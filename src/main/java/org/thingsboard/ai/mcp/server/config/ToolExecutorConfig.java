@@ -0,0 +1,32 @@
+package org.thingsboard.ai.mcp.server.config;
+
+import io.micrometer.context.ContextExecutorService;
+import io.micrometer.context.ContextSnapshotFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.thingsboard.common.util.ThingsBoardExecutors;
+
+import java.util.concurrent.ExecutorService;
+
+@Configuration
+public class ToolExecutorConfig {
+
+    @Value("${thingsboard.tool-executor-threads:10}")
+    private int threads;
+
+    /**
+     * Shared pool for tools that fan out several ThingsBoard requests within a single call. Tasks run with the
+     * observation of the submitting thread in scope, so their REST exchanges are attached to the tool call.
+     */
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService toolExecutor() {
+        return wrap(ThingsBoardExecutors.newWorkStealingPool(threads, "mcp-tool-executor"));
+    }
+
+    static ExecutorService wrap(ExecutorService executor) {
+        ContextSnapshotFactory snapshots = ContextSnapshotFactory.builder().build();
+        return ContextExecutorService.wrap(executor, snapshots::captureAll);
+    }
+
+}
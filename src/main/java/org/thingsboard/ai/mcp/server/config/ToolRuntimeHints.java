@@ -0,0 +1,55 @@
+package org.thingsboard.ai.mcp.server.config;
+
+import org.springframework.ai.tool.annotation.Tool;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.core.type.filter.AssignableTypeFilter;
+import org.springframework.util.ClassUtils;
+import org.thingsboard.ai.mcp.server.rest.RestClient;
+import org.thingsboard.ai.mcp.server.tools.McpTools;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Type;
+
+/**
+ * Reflection hints for the native image: {@code @Tool} methods are invoked reflectively, and their arguments as well as
+ * the ThingsBoard data types used by {@link RestClient} are bound by Jackson.
+ */
+public class ToolRuntimeHints implements RuntimeHintsRegistrar {
+
+    private static final String TOOLS_PACKAGE = "org.thingsboard.ai.mcp.server.tools";
+
+    private final BindingReflectionHintsRegistrar bindingRegistrar = new BindingReflectionHintsRegistrar();
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false);
+        scanner.setResourceLoader(new DefaultResourceLoader(classLoader));
+        scanner.addIncludeFilter(new AssignableTypeFilter(McpTools.class));
+        for (BeanDefinition definition : scanner.findCandidateComponents(TOOLS_PACKAGE)) {
+            Class<?> toolClass = ClassUtils.resolveClassName(definition.getBeanClassName(), classLoader);
+            hints.reflection().registerType(toolClass, MemberCategory.INVOKE_PUBLIC_METHODS);
+            for (Method method : toolClass.getMethods()) {
+                if (AnnotationUtils.findAnnotation(method, Tool.class) != null) {
+                    for (Type type : method.getGenericParameterTypes()) {
+                        bindingRegistrar.registerReflectionHints(hints.reflection(), type);
+                    }
+                }
+            }
+        }
+        for (Method method : RestClient.class.getDeclaredMethods()) {
+            bindingRegistrar.registerReflectionHints(hints.reflection(), method.getGenericReturnType());
+            for (Type type : method.getGenericParameterTypes()) {
+                bindingRegistrar.registerReflectionHints(hints.reflection(), type);
+            }
+        }
+        hints.resources().registerPattern("guide/*.md");
+    }
+
+}
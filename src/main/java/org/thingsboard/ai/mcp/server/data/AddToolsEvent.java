@@ -0,0 +1,7 @@
+package org.thingsboard.ai.mcp.server.data;
+
+import io.modelcontextprotocol.server.McpServerFeatures;
+
+import java.util.List;
+
+public record AddToolsEvent(List<McpServerFeatures.SyncToolSpecification> tools) {}
@@ -0,0 +1,8 @@
+package org.thingsboard.ai.mcp.server.data;
+
+import org.thingsboard.server.common.data.id.EntityId;
+
+/**
+ * A named entity was saved (with its new name) or deleted (with a null name) through the configured ThingsBoard client.
+ */
+public record EntityChangedEvent(EntityId entityId, String name) {}
@@ -0,0 +1,213 @@
+package org.thingsboard.ai.mcp.server.index;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.thingsboard.ai.mcp.server.data.EntityChangedEvent;
+import org.thingsboard.ai.mcp.server.rest.RestClient;
+import org.thingsboard.ai.mcp.server.rest.RestClientService;
+import org.thingsboard.common.util.ThingsBoardThreadFactory;
+import org.thingsboard.server.common.data.EntityType;
+import org.thingsboard.server.common.data.HasName;
+import org.thingsboard.server.common.data.id.EntityId;
+import org.thingsboard.server.common.data.id.HasId;
+import org.thingsboard.server.common.data.page.PageData;
+import org.thingsboard.server.common.data.page.PageLink;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+/**
+ * In-memory trigram index of device, asset, customer and entity view names of the configured ThingsBoard user, used
+ * to resolve approximate names without round trips. The index is built in background by paging the tenant entities,
+ * rebuilt periodically, and kept current in between by the {@link EntityChangedEvent}s of saved and deleted entities.
+ */
+@Slf4j
+@Service
+public class EntityNameIndex {
+
+    public record Match(EntityType entityType, String id, String name, double score) {}
+
+    static final List<EntityType> INDEXED_TYPES = List.of(EntityType.DEVICE, EntityType.ASSET, EntityType.CUSTOMER, EntityType.ENTITY_VIEW);
+    private static final int PAGE_SIZE = 1000;
+
+    private final RestClientService clientService;
+    private final boolean enabled;
+    private final long refreshMinutes;
+    private final int maxEntities;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ScheduledExecutorService executor;
+
+    private TrigramIndex index = new TrigramIndex();
+    private volatile boolean ready;
+    /**
+     * Changes received while a rebuild is in progress, applied to the rebuilt index before it replaces the current one.
+     */
+    private List<EntityChangedEvent> pendingChanges;
+
+    public EntityNameIndex(RestClientService clientService, MeterRegistry meterRegistry,
+                           @Value("${thingsboard.name-index-enabled:true}") boolean enabled,
+                           @Value("${thingsboard.name-index-refresh-minutes:60}") long refreshMinutes,
+                           @Value("${thingsboard.name-index-max-entities:500000}") int maxEntities) {
+        this.clientService = clientService;
+        this.enabled = enabled;
+        this.refreshMinutes = refreshMinutes;
+        this.maxEntities = maxEntities;
+        this.executor = enabled ? Executors.newSingleThreadScheduledExecutor(ThingsBoardThreadFactory.forName("tb-name-index")) : null;
+        Gauge.builder("thingsboard.name.index.size", this, EntityNameIndex::size)
+                .description("Number of entity names in the name index")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        executor.execute(this::rebuild);
+        if (refreshMinutes > 0) {
+            executor.scheduleWithFixedDelay(this::rebuild, refreshMinutes, refreshMinutes, TimeUnit.MINUTES);
+        }
+    }
+
+    @PreDestroy
+    public void destroy() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return index.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the entities whose names are the most similar to the query, best first.
+     */
+    public List<Match> search(String query, EntityType entityType, int limit, double minScore) {
+        lock.readLock().lock();
+        try {
+            return toMatches(index.search(query, entityType, limit, minScore));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Ranks the given entities like the index does, for callers that cannot use the index.
+     */
+    public static List<Match> rank(List<? extends HasName> entities, String query, EntityType entityType, int limit, double minScore) {
+        TrigramIndex temporary = new TrigramIndex();
+        for (HasName entity : entities) {
+            if (entity instanceof HasId<?> hasId && hasId.getId() instanceof EntityId entityId && entity.getName() != null) {
+                temporary.put(entityId, entity.getName());
+            }
+        }
+        return toMatches(temporary.search(query, entityType, limit, minScore));
+    }
+
+    @EventListener
+    public void onEntityChanged(EntityChangedEvent event) {
+        if (!enabled || !INDEXED_TYPES.contains(event.entityId().getEntityType())) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            apply(index, event);
+            if (pendingChanges != null) {
+                pendingChanges.add(event);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void rebuild() {
+        RestClient client = clientService.getClient();
+        if (client == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            pendingChanges = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        long startTs = System.currentTimeMillis();
+        TrigramIndex rebuilt = new TrigramIndex();
+        try {
+            load(rebuilt, EntityType.DEVICE, pageLink -> client.getTenantDevices(null, pageLink));
+            load(rebuilt, EntityType.ASSET, pageLink -> client.getTenantAssets(pageLink, null));
+            load(rebuilt, EntityType.CUSTOMER, client::getCustomers);
+            load(rebuilt, EntityType.ENTITY_VIEW, pageLink -> client.getTenantEntityViews(null, pageLink));
+        } finally {
+            lock.writeLock().lock();
+            try {
+                pendingChanges.forEach(change -> apply(rebuilt, change));
+                pendingChanges = null;
+                index = rebuilt;
+                ready = true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        log.info("Indexed {} entity names in {} ms", rebuilt.size(), System.currentTimeMillis() - startTs);
+    }
+
+    private <T extends HasName & HasId<? extends EntityId>> void load(TrigramIndex target, EntityType entityType,
+                                                                      Function<PageLink, PageData<T>> pageFetcher) {
+        try {
+            PageData<T> page;
+            int pageNumber = 0;
+            do {
+                page = pageFetcher.apply(new PageLink(PAGE_SIZE, pageNumber++));
+                for (T entity : page.getData()) {
+                    if (target.size() >= maxEntities) {
+                        log.warn("Name index is limited to {} entities, the remaining {} names are not indexed", maxEntities, entityType);
+                        return;
+                    }
+                    target.put(entity.getId(), entity.getName());
+                }
+            } while (page.hasNext());
+        } catch (Exception e) {
+            // E.g. customer users may not list tenant entities
+            log.warn("Failed to index {} names: {}", entityType, e.getMessage());
+        }
+    }
+
+    private static void apply(TrigramIndex target, EntityChangedEvent event) {
+        if (event.name() != null) {
+            target.put(event.entityId(), event.name());
+        } else {
+            target.remove(event.entityId());
+        }
+    }
+
+    private static List<Match> toMatches(List<TrigramIndex.Candidate> candidates) {
+        return candidates.stream()
+                .map(c -> new Match(c.entityId().getEntityType(), c.entityId().getId().toString(), c.name(),
+                        Math.round(c.score() * 1000) / 1000.0))
+                .toList();
+    }
+
+}
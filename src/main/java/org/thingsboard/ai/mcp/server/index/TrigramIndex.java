@@ -0,0 +1,208 @@
+package org.thingsboard.ai.mcp.server.index;
+
+import org.thingsboard.server.common.data.EntityType;
+import org.thingsboard.server.common.data.id.EntityId;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Inverted index from character trigrams to entity names, ranking names by the Jaccard similarity of their trigram
+ * sets with the query, like PostgreSQL 'pg_trgm'. Names are lower-cased, runs of non-alphanumeric characters become
+ * a single space, and every word is padded with two leading and one trailing space, so short names and word
+ * prefixes match too. Entities are kept in slots of parallel arrays; a removed or renamed entity leaves an empty
+ * slot behind, skipped by searches until the index is rebuilt. Not thread-safe.
+ */
+final class TrigramIndex {
+
+    record Candidate(EntityId entityId, String name, double score) {}
+
+    private static final ThreadLocal<int[]> SHARED_COUNTS = ThreadLocal.withInitial(() -> new int[1024]);
+
+    private final Map<EntityId, Integer> slots = new HashMap<>();
+    private final Map<Long, Postings> postings = new HashMap<>();
+    private EntityId[] entityIds = new EntityId[1024];
+    private String[] names = new String[1024];
+    private String[] normalizedNames = new String[1024];
+    private int[] trigramCounts = new int[1024];
+    private int size;
+
+    int size() {
+        return slots.size();
+    }
+
+    /**
+     * Adds the entity or updates its name.
+     */
+    void put(EntityId entityId, String name) {
+        Integer existing = slots.get(entityId);
+        if (existing != null) {
+            if (names[existing].equals(name)) {
+                return;
+            }
+            remove(entityId);
+        }
+        if (size == entityIds.length) {
+            grow();
+        }
+        int slot = size++;
+        String normalized = normalize(name);
+        long[] trigrams = trigrams(normalized);
+        entityIds[slot] = entityId;
+        names[slot] = name;
+        normalizedNames[slot] = normalized;
+        trigramCounts[slot] = trigrams.length;
+        for (long trigram : trigrams) {
+            postings.computeIfAbsent(trigram, t -> new Postings()).add(slot);
+        }
+        slots.put(entityId, slot);
+    }
+
+    void remove(EntityId entityId) {
+        Integer slot = slots.remove(entityId);
+        if (slot != null) {
+            entityIds[slot] = null;
+            names[slot] = null;
+            normalizedNames[slot] = null;
+        }
+    }
+
+    /**
+     * Returns up to {@code limit} entities of the type, or of any type if null, whose names are the most similar to
+     * the query and score at least {@code minScore}. Names containing the whole query score higher than names that
+     * merely share its trigrams; an exact match scores 1.
+     */
+    List<Candidate> search(String query, EntityType entityType, int limit, double minScore) {
+        String normalizedQuery = normalize(query);
+        long[] queryTrigrams = trigrams(normalizedQuery);
+        if (queryTrigrams.length == 0 || limit <= 0) {
+            return List.of();
+        }
+        int[] counts = SHARED_COUNTS.get();
+        if (counts.length < size) {
+            counts = new int[Math.max(size, counts.length * 2)];
+            SHARED_COUNTS.set(counts);
+        }
+        int[] touched = new int[64];
+        int touchedCount = 0;
+        for (long trigram : queryTrigrams) {
+            Postings list = postings.get(trigram);
+            if (list == null) {
+                continue;
+            }
+            for (int i = 0; i < list.size; i++) {
+                int slot = list.slots[i];
+                if (counts[slot]++ == 0) {
+                    if (touchedCount == touched.length) {
+                        touched = Arrays.copyOf(touched, touchedCount * 2);
+                    }
+                    touched[touchedCount++] = slot;
+                }
+            }
+        }
+        PriorityQueue<Candidate> top = new PriorityQueue<>(limit + 1, (a, b) -> Double.compare(a.score(), b.score()));
+        for (int i = 0; i < touchedCount; i++) {
+            int slot = touched[i];
+            int shared = counts[slot];
+            counts[slot] = 0;
+            EntityId entityId = entityIds[slot];
+            if (entityId == null || entityType != null && entityId.getEntityType() != entityType) {
+                continue;
+            }
+            double score = score(normalizedQuery, normalizedNames[slot], shared, queryTrigrams.length, trigramCounts[slot]);
+            if (score < minScore) {
+                continue;
+            }
+            if (top.size() < limit) {
+                top.add(new Candidate(entityId, names[slot], score));
+            } else if (score > top.peek().score()) {
+                top.poll();
+                top.add(new Candidate(entityId, names[slot], score));
+            }
+        }
+        List<Candidate> result = new ArrayList<>(top);
+        result.sort((a, b) -> Double.compare(b.score(), a.score()));
+        return result;
+    }
+
+    private static double score(String query, String name, int shared, int queryCount, int nameCount) {
+        if (query.equals(name)) {
+            return 1.0;
+        }
+        double similarity = (double) shared / (queryCount + nameCount - shared);
+        if (name.contains(query)) {
+            similarity = 0.5 + similarity / 2;
+        }
+        return Math.min(similarity, 0.99);
+    }
+
+    static String normalize(String name) {
+        StringBuilder sb = new StringBuilder(name.length());
+        boolean space = false;
+        for (int i = 0; i < name.length(); i++) {
+            char c = Character.toLowerCase(name.charAt(i));
+            if (Character.isLetterOrDigit(c)) {
+                if (space && !sb.isEmpty()) {
+                    sb.append(' ');
+                }
+                sb.append(c);
+                space = false;
+            } else {
+                space = true;
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Distinct trigrams of the normalized name, each packed into a long as three 16-bit chars.
+     */
+    static long[] trigrams(String normalized) {
+        if (normalized.isEmpty()) {
+            return new long[0];
+        }
+        long[] result = new long[normalized.length() * 2 + 4];
+        int count = 0;
+        for (String word : normalized.split(" ")) {
+            String padded = "  " + word + " ";
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                result[count++] = (long) padded.charAt(i) << 32 | (long) padded.charAt(i + 1) << 16 | padded.charAt(i + 2);
+            }
+        }
+        Arrays.sort(result, 0, count);
+        int distinct = 0;
+        for (int i = 0; i < count; i++) {
+            if (distinct == 0 || result[distinct - 1] != result[i]) {
+                result[distinct++] = result[i];
+            }
+        }
+        return Arrays.copyOf(result, distinct);
+    }
+
+    private void grow() {
+        int capacity = entityIds.length * 2;
+        entityIds = Arrays.copyOf(entityIds, capacity);
+        names = Arrays.copyOf(names, capacity);
+        normalizedNames = Arrays.copyOf(normalizedNames, capacity);
+        trigramCounts = Arrays.copyOf(trigramCounts, capacity);
+    }
+
+    private static final class Postings {
+
+        private int[] slots = new int[4];
+        private int size;
+
+        private void add(int slot) {
+            if (size == slots.length) {
+                slots = Arrays.copyOf(slots, size * 2);
+            }
+            slots[size++] = slot;
+        }
+
+    }
+
+}
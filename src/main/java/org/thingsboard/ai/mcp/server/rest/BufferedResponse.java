@@ -0,0 +1,58 @@
+package org.thingsboard.ai.mcp.server.rest;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Response read into memory, so interceptors can look at the body and still return it.
+ */
+record BufferedResponse(HttpStatusCode statusCode, String statusText, HttpHeaders headers, byte[] body) {
+
+    /**
+     * Reads and closes the response.
+     */
+    static BufferedResponse read(ClientHttpResponse response) throws IOException {
+        try (response) {
+            HttpHeaders headers = new HttpHeaders();
+            headers.putAll(response.getHeaders());
+            return new BufferedResponse(response.getStatusCode(), response.getStatusText(),
+                    HttpHeaders.readOnlyHttpHeaders(headers), response.getBody().readAllBytes());
+        }
+    }
+
+    ClientHttpResponse copy() {
+        return new ClientHttpResponse() {
+
+            @Override
+            public HttpStatusCode getStatusCode() {
+                return statusCode;
+            }
+
+            @Override
+            public String getStatusText() {
+                return statusText;
+            }
+
+            @Override
+            public HttpHeaders getHeaders() {
+                return headers;
+            }
+
+            @Override
+            public InputStream getBody() {
+                return new ByteArrayInputStream(body);
+            }
+
+            @Override
+            public void close() {
+            }
+
+        };
+    }
+
+}
@@ -0,0 +1,84 @@
+package org.thingsboard.ai.mcp.server.rest;
+
+import org.thingsboard.server.common.data.StringUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.HexFormat;
+
+/**
+ * ThingsBoard credentials of the current MCP request, taken from its 'X-Authorization' or 'Authorization' header:
+ * {@code Basic <base64 of username:password>}, {@code Bearer <JWT>} or {@code ApiKey <key>}.
+ */
+public record ClientCredentials(RestClient.AuthType authType, String username, String password, String token) {
+
+    private static final ThreadLocal<ClientCredentials> CURRENT = new ThreadLocal<>();
+
+    public static ClientCredentials parse(String header) {
+        if (StringUtils.isBlank(header)) {
+            return null;
+        }
+        String value = header.trim();
+        int space = value.indexOf(' ');
+        if (space < 0) {
+            return null;
+        }
+        String scheme = value.substring(0, space);
+        String secret = value.substring(space + 1).trim();
+        if (secret.isEmpty()) {
+            return null;
+        }
+        if ("Basic".equalsIgnoreCase(scheme)) {
+            String decoded;
+            try {
+                decoded = new String(Base64.getDecoder().decode(secret), StandardCharsets.UTF_8);
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+            int colon = decoded.indexOf(':');
+            return colon > 0 ? new ClientCredentials(RestClient.AuthType.JWT, decoded.substring(0, colon), decoded.substring(colon + 1), null) : null;
+        } else if ("Bearer".equalsIgnoreCase(scheme)) {
+            return new ClientCredentials(RestClient.AuthType.JWT, null, null, secret);
+        } else if ("ApiKey".equalsIgnoreCase(scheme)) {
+            return new ClientCredentials(RestClient.AuthType.API_KEY, null, null, secret);
+        }
+        return null;
+    }
+
+    /**
+     * Credentials of the MCP request handled by the current thread, or null if the request has none (STDIO mode or no
+     * authorization header), in which case the configured ThingsBoard user is used.
+     */
+    public static ClientCredentials current() {
+        return CURRENT.get();
+    }
+
+    public static void setCurrent(ClientCredentials credentials) {
+        CURRENT.set(credentials);
+    }
+
+    public static void clearCurrent() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Short stable identifier of these credentials that does not reveal the secret, e.g. to scope per-session state.
+     */
+    public String id() {
+        String subject = username != null ? authType + ":" + username : authType + ":" + token;
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(subject.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash, 0, 8);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return username != null ? "ClientCredentials[" + username + "]" : "ClientCredentials[" + authType + " " + id() + "]";
+    }
+
+}
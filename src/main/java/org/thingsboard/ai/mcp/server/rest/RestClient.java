@@ -222,6 +222,7 @@ import java.util.UUID;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 import static org.thingsboard.server.common.data.StringUtils.isEmpty;
@@ -247,6 +248,8 @@ public class RestClient implements Closeable {
     private long mainTokenExpTs;
     private long refreshTokenExpTs;
     private long clientServerTimeDiff;
+    private final AtomicLong loginCount = new AtomicLong();
+    private final AtomicLong tokenRefreshCount = new AtomicLong();
 
     public enum AuthType {JWT, API_KEY}
 
@@ -300,12 +303,25 @@ public class RestClient implements Closeable {
         return mainToken;
     }
 
+    public long getTokenExpirationTs() {
+        return mainTokenExpTs;
+    }
+
+    public long getLoginCount() {
+        return loginCount.get();
+    }
+
+    public long getTokenRefreshCount() {
+        return tokenRefreshCount.get();
+    }
+
     public void refreshToken() {
         Map<String, String> refreshTokenRequest = new HashMap<>();
         refreshTokenRequest.put("refreshToken", refreshToken);
         long ts = System.currentTimeMillis();
         ResponseEntity<JsonNode> tokenInfo = loginRestTemplate.postForEntity(baseURL + "/api/auth/token", refreshTokenRequest, JsonNode.class);
         setTokenInfo(ts, tokenInfo.getBody());
+        tokenRefreshCount.incrementAndGet();
     }
 
     public void login(String username, String password) {
@@ -321,6 +337,7 @@ public class RestClient implements Closeable {
         loginRequest.put("password", password);
         ResponseEntity<JsonNode> tokenInfo = loginRestTemplate.postForEntity(baseURL + "/api/auth/login", loginRequest, JsonNode.class);
         setTokenInfo(ts, tokenInfo.getBody());
+        loginCount.incrementAndGet();
     }
 
     private synchronized void setTokenInfo(long ts, JsonNode tokenInfo) {
@@ -0,0 +1,117 @@
+package org.thingsboard.ai.mcp.server.rest;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Bounded pool of {@link RestClient} instances keyed by session credentials. Each client keeps its own token and
+ * refreshes or re-logins on demand. The least recently used client is closed when the pool is full, and clients that
+ * were not used for the idle timeout are closed by {@link #evictIdle()}.
+ */
+@Slf4j
+class RestClientPool implements Closeable {
+
+    private final Function<ClientCredentials, RestClient> clientFactory;
+    private final int maxSize;
+    private final long idleTimeoutMs;
+    private final LinkedHashMap<ClientCredentials, PooledClient> clients = new LinkedHashMap<>(16, 0.75f, true);
+    private final AtomicLong evictionCount = new AtomicLong();
+
+    private static final class PooledClient {
+
+        private final RestClient client;
+        private volatile long lastAccessTs = System.currentTimeMillis();
+
+        private PooledClient(RestClient client) {
+            this.client = client;
+        }
+
+        private RestClient touch() {
+            lastAccessTs = System.currentTimeMillis();
+            return client;
+        }
+
+    }
+
+    RestClientPool(Function<ClientCredentials, RestClient> clientFactory, int maxSize, long idleTimeoutMs) {
+        this.clientFactory = clientFactory;
+        this.maxSize = Math.max(1, maxSize);
+        this.idleTimeoutMs = idleTimeoutMs;
+    }
+
+    RestClient getClient(ClientCredentials credentials) {
+        synchronized (this) {
+            PooledClient pooled = clients.get(credentials);
+            if (pooled != null) {
+                return pooled.touch();
+            }
+        }
+        // Login happens outside the lock, so a slow or failing login does not block other sessions
+        RestClient created = clientFactory.apply(credentials);
+        List<RestClient> toClose = new ArrayList<>(1);
+        RestClient result;
+        synchronized (this) {
+            PooledClient pooled = clients.get(credentials);
+            if (pooled != null) {
+                toClose.add(created);
+                result = pooled.touch();
+            } else {
+                clients.put(credentials, new PooledClient(created));
+                result = created;
+                Iterator<PooledClient> eldest = clients.values().iterator();
+                while (clients.size() > maxSize && eldest.hasNext()) {
+                    toClose.add(eldest.next().client);
+                    eldest.remove();
+                    evictionCount.incrementAndGet();
+                }
+            }
+        }
+        toClose.forEach(RestClient::close);
+        return result;
+    }
+
+    void evictIdle() {
+        long now = System.currentTimeMillis();
+        List<RestClient> toClose = new ArrayList<>();
+        synchronized (this) {
+            Iterator<Map.Entry<ClientCredentials, PooledClient>> it = clients.entrySet().iterator();
+            while (it.hasNext()) {
+                Map.Entry<ClientCredentials, PooledClient> entry = it.next();
+                if (now - entry.getValue().lastAccessTs > idleTimeoutMs) {
+                    log.debug("Closing idle ThingsBoard client of {}", entry.getKey());
+                    toClose.add(entry.getValue().client);
+                    it.remove();
+                    evictionCount.incrementAndGet();
+                }
+            }
+        }
+        toClose.forEach(RestClient::close);
+    }
+
+    synchronized int size() {
+        return clients.size();
+    }
+
+    long getEvictionCount() {
+        return evictionCount.get();
+    }
+
+    @Override
+    public void close() {
+        List<RestClient> toClose;
+        synchronized (this) {
+            toClose = clients.values().stream().map(pooled -> pooled.client).toList();
+            clients.clear();
+        }
+        toClose.forEach(RestClient::close);
+    }
+
+}
@@ -1,6 +1,11 @@
 package org.thingsboard.ai.mcp.server.rest;
 
 import com.fasterxml.jackson.databind.JsonNode;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.BaseUnits;
+import io.micrometer.observation.ObservationRegistry;
 import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
 import lombok.Getter;
@@ -11,13 +16,19 @@ import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestTemplate;
 import org.thingsboard.ai.mcp.server.data.EditionChangedEvent;
 import org.thingsboard.ai.mcp.server.data.ThingsBoardEdition;
+import org.thingsboard.common.util.ThingsBoardThreadFactory;
 import org.thingsboard.server.common.data.StringUtils;
 
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 @Slf4j
 @Service
@@ -25,6 +36,10 @@ import java.util.concurrent.TimeUnit;
 public class RestClientService {
 
     private final ApplicationEventPublisher events;
+    private final MeterRegistry meterRegistry;
+    private final ObservationRegistry observationRegistry;
+    private final RestCoalescingInterceptor coalescingInterceptor;
+    private final RestResilienceInterceptor resilienceInterceptor;
 
     @Value("${thingsboard.url:}")
     private String url;
@@ -35,30 +50,68 @@ public class RestClientService {
     @Value("${thingsboard.password:}")
     private String password;
 
+    @Value("${thingsboard.api-key:}")
+    private String apiKey;
+
     @Value("${thingsboard.login-interval-seconds:1800}")
     private int intervalSeconds;
 
+    @Value("${thingsboard.rest-compression-enabled:true}")
+    private boolean compressionEnabled;
+
+    @Value("${thingsboard.rest-rate-limit-telemetry-reads:}")
+    private String rateLimitTelemetryReads;
+
+    @Value("${thingsboard.rest-rate-limit-entity-queries:}")
+    private String rateLimitEntityQueries;
+
+    @Value("${thingsboard.rest-rate-limit-writes:}")
+    private String rateLimitWrites;
+
+    @Value("${thingsboard.rest-rate-limit-max-wait-ms:10000}")
+    private long rateLimitMaxWaitMs;
+
+    @Value("${thingsboard.client-pool-max-size:100}")
+    private int clientPoolMaxSize;
+
+    @Value("${thingsboard.client-pool-idle-timeout-seconds:900}")
+    private int clientPoolIdleTimeoutSeconds;
+
+    private volatile RestClient client;
+    private volatile ThingsBoardEdition edition;
     @Getter
-    private RestClient client;
-    private ThingsBoardEdition edition;
-    @Getter
-    private String version;
+    private volatile String version;
     private ScheduledExecutorService scheduledExecutorService;
+    private RestClientPool clientPool;
+    private final CompletableFuture<Void> connected = new CompletableFuture<>();
 
+    /**
+     * Connects to ThingsBoard in background, so the MCP server is able to answer 'initialize' and 'tools/list'
+     * before the first round trip to ThingsBoard. Tool calls wait for the connection in {@link #getClient()}.
+     */
     @PostConstruct
     public void init() {
-        try {
-            initClient();
-            scheduledExecutorService = Executors.newSingleThreadScheduledExecutor();
-            scheduledExecutorService.scheduleAtFixedRate(() -> {
-                try {
-                    client.login(username, password);
-                } catch (Exception ignored) {
-                }
-            }, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
-        } catch (Exception e) {
-            log.error("Failed to init client service", e);
+        scheduledExecutorService = Executors.newSingleThreadScheduledExecutor(ThingsBoardThreadFactory.forName("tb-client-login"));
+        if (StringUtils.isNotBlank(url)) {
+            initClientPool();
         }
+        scheduledExecutorService.execute(() -> {
+            try {
+                initClient();
+                if (client != null && !isApiKeyMode()) {
+                    scheduledExecutorService.scheduleAtFixedRate(() -> {
+                        try {
+                            client.login(username, password);
+                        } catch (Exception ignored) {
+                        }
+                    }, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+                }
+            } catch (Exception e) {
+                log.error("Failed to init client service", e);
+            } finally {
+                connected.complete(null);
+            }
+        });
     }
 
     @PreDestroy
@@ -66,32 +119,166 @@ public class RestClientService {
         if (scheduledExecutorService != null) {
             scheduledExecutorService.shutdown();
         }
+        if (clientPool != null) {
+            clientPool.close();
+        }
+    }
+
+    /**
+     * Clients of MCP sessions that pass their own ThingsBoard credentials, see {@link ClientCredentials}.
+     */
+    private void initClientPool() {
+        long idleTimeoutMs = TimeUnit.SECONDS.toMillis(clientPoolIdleTimeoutSeconds);
+        clientPool = new RestClientPool(this::createSessionClient, clientPoolMaxSize, idleTimeoutMs);
+        long evictionPeriodMs = Math.max(1000L, Math.min(idleTimeoutMs, TimeUnit.MINUTES.toMillis(1)));
+        scheduledExecutorService.scheduleWithFixedDelay(clientPool::evictIdle, evictionPeriodMs, evictionPeriodMs, TimeUnit.MILLISECONDS);
+        Gauge.builder("thingsboard.client.pool.size", clientPool, RestClientPool::size)
+                .description("Number of pooled ThingsBoard clients of sessions with their own credentials")
+                .register(meterRegistry);
+        FunctionCounter.builder("thingsboard.client.pool.evictions", clientPool, RestClientPool::getEvictionCount)
+                .description("Number of pooled ThingsBoard clients closed because the pool was full or they were idle")
+                .register(meterRegistry);
+    }
+
+    private RestClient createSessionClient(ClientCredentials credentials) {
+        if (credentials.username() != null) {
+            RestClient sessionClient = withResilience(instrument(new RestClient(createRestTemplate(), url)));
+            try {
+                sessionClient.login(credentials.username(), credentials.password());
+            } catch (RuntimeException e) {
+                sessionClient.close();
+                throw e;
+            }
+            log.info("Logged in to ThingsBoard at {} as {}", url, credentials.username());
+            return sessionClient;
+        }
+        return withResilience(instrument(new RestClient(createRestTemplate(), url, credentials.authType(), credentials.token())));
     }
 
     private void initClient() {
-        if (StringUtils.isNotBlank(url) && StringUtils.isNotBlank(username) && StringUtils.isNotBlank(password)) {
-            client = new RestClient(url);
+        if (StringUtils.isBlank(url)) {
+            return;
+        }
+        if (isApiKeyMode()) {
+            // API keys do not expire like JWT tokens, so there is neither a login nor a re-login loop
+            client = withResilience(reportEntityChanges(instrument(new RestClient(createRestTemplate(), url, RestClient.AuthType.API_KEY, apiKey))));
+        } else if (StringUtils.isNotBlank(username) && StringUtils.isNotBlank(password)) {
+            client = withResilience(reportEntityChanges(instrument(new RestClient(createRestTemplate(), url))));
+            bindClientMetrics(client);
             try {
                 client.login(username, password);
             } catch (Exception e) {
                 log.error("Failed to login to thingsboard {} using credentials [{} {}]", url, username, password, e);
                 throw new RuntimeException(e);
             }
-            JsonNode jsonNode = client.getSystemVersionInfo().orElse(null);
-            if (jsonNode != null) {
-                edition = ThingsBoardEdition.valueOf(jsonNode.get("type").asText());
-                version = jsonNode.get("version").asText();
-            } else {
-                edition = ThingsBoardEdition.CE;
-                version = "latest";
-            }
-            log.info("Connected to ThingsBoard [{} {}] at {}", edition.getName(), version, url);
+        } else {
+            return;
+        }
+        JsonNode jsonNode = client.getSystemVersionInfo().orElse(null);
+        if (jsonNode != null) {
+            edition = ThingsBoardEdition.valueOf(jsonNode.get("type").asText());
+            version = jsonNode.get("version").asText();
+        } else {
+            edition = ThingsBoardEdition.CE;
+            version = "latest";
+        }
+        log.info("Connected to ThingsBoard [{} {}] at {}", edition.getName(), version, url);
+    }
+
+    private boolean isApiKeyMode() {
+        return StringUtils.isNotBlank(apiKey);
+    }
+
+    /**
+     * Template without interceptors: the client builds its login template from the request factory of this template,
+     * and once the template has interceptors that factory runs them, including the authentication interceptor of the
+     * client, so every login would log in again. Interceptors are added after the client is created.
+     */
+    private RestTemplate createRestTemplate() {
+        RestTemplate restTemplate = new RestTemplate();
+        restTemplate.setObservationRegistry(observationRegistry);
+        return restTemplate;
+    }
+
+    private RestClient instrument(RestClient client) {
+        if (compressionEnabled) {
+            // Goes before the metrics, so the response size metric records the compressed size as received
+            client.getRestTemplate().getInterceptors().add(new RestCompressionInterceptor());
         }
+        client.getRestTemplate().getInterceptors().add(new RestMetricsInterceptor(meterRegistry, observationRegistry));
+        return client;
+    }
+
+    /**
+     * Used for the client of the configured ThingsBoard user only. Sessions with their own credentials may belong to
+     * another tenant, so their saved and deleted entities are not reported.
+     */
+    private RestClient reportEntityChanges(RestClient client) {
+        client.getRestTemplate().getInterceptors().add(new RestEntityChangeInterceptor(events));
+        return client;
+    }
+
+    /**
+     * Adds request coalescing, the rate limit, retries and the circuit breaker after the authentication interceptor of
+     * the client, so coalescing tells apart callers with different tokens and retried requests keep their token.
+     * Coalesced requests do not consume the rate limit. The resilience interceptor applies the rate limit to every
+     * attempt, so retries and hedges take a token as well. Each client has a rate limit and circuit breakers of its own.
+     */
+    private RestClient withResilience(RestClient client) {
+        RestRateLimitInterceptor rateLimiter = new RestRateLimitInterceptor(meterRegistry,
+                rateLimitTelemetryReads, rateLimitEntityQueries, rateLimitWrites, rateLimitMaxWaitMs);
+        client.getRestTemplate().getInterceptors().add(coalescingInterceptor);
+        client.getRestTemplate().getInterceptors().add(resilienceInterceptor.forClient(rateLimiter));
+        return client;
+    }
+
+    private void bindClientMetrics(RestClient client) {
+        FunctionCounter.builder("thingsboard.auth.logins", client, RestClient::getLoginCount)
+                .description("Number of logins to ThingsBoard")
+                .register(meterRegistry);
+        FunctionCounter.builder("thingsboard.auth.token.refreshes", client, RestClient::getTokenRefreshCount)
+                .description("Number of JWT token refreshes")
+                .register(meterRegistry);
+        Gauge.builder("thingsboard.auth.token.ttl", client, c -> Math.max(0L, c.getTokenExpirationTs() - System.currentTimeMillis()) / 1000.0)
+                .description("Time left until the current JWT token expires")
+                .baseUnit(BaseUnits.SECONDS)
+                .register(meterRegistry);
     }
 
     @EventListener(ApplicationReadyEvent.class)
     public void initEdition() {
-        events.publishEvent(new EditionChangedEvent(edition));
+        connected.thenRun(() -> events.publishEvent(new EditionChangedEvent(edition)));
+    }
+
+    /**
+     * Returns the client of the current MCP request: a pooled client if the request carries its own credentials,
+     * otherwise the client of the configured ThingsBoard user. Tools that fan out requests to other threads should
+     * obtain the client once on the calling thread.
+     */
+    public RestClient getClient() {
+        ClientCredentials credentials = ClientCredentials.current();
+        if (credentials != null && clientPool != null) {
+            return clientPool.getClient(credentials);
+        }
+        if (!connected.isDone()) {
+            connected.join();
+        }
+        return client;
+    }
+
+    /**
+     * Waits up to {@code timeoutMs} for the initial connection and returns the detected edition, if any.
+     */
+    public Optional<ThingsBoardEdition> awaitEdition(long timeoutMs) {
+        try {
+            connected.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Optional.empty();
+        } catch (ExecutionException | TimeoutException e) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(edition);
     }
 
     public ThingsBoardEdition getEdition() {
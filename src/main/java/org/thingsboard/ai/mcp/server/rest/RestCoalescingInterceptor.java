@@ -0,0 +1,87 @@
+package org.thingsboard.ai.mcp.server.rest;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Lets concurrent identical read requests share a single ThingsBoard round trip. Requests are identical if they have
+ * the same method, URI, body and authorization header, so callers with different credentials never share a response.
+ * The first caller executes the request and buffers the response, the others wait for it and get their own copy.
+ * Nothing is cached once the request is complete.
+ */
+@Component
+class RestCoalescingInterceptor implements ClientHttpRequestInterceptor {
+
+    private final boolean enabled;
+    private final Counter coalescedCounter;
+    private final ConcurrentMap<RequestKey, CompletableFuture<BufferedResponse>> inFlight = new ConcurrentHashMap<>();
+
+    private record RequestKey(HttpMethod method, URI uri, ByteBuffer body, String authorization) {}
+
+    RestCoalescingInterceptor(MeterRegistry registry,
+                              @Value("${thingsboard.rest-coalescing-enabled:true}") boolean enabled) {
+        this.enabled = enabled;
+        this.coalescedCounter = Counter.builder("thingsboard.rest.coalesced")
+                .description("ThingsBoard read requests served by an identical request that was already in flight")
+                .register(registry);
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution) throws IOException {
+        if (!enabled || !RestResilienceInterceptor.isIdempotent(request)) {
+            return execution.execute(request, body);
+        }
+        RequestKey key = new RequestKey(request.getMethod(), request.getURI(), ByteBuffer.wrap(body),
+                request.getHeaders().getFirst("X-Authorization"));
+        CompletableFuture<BufferedResponse> leader = new CompletableFuture<>();
+        CompletableFuture<BufferedResponse> existing = inFlight.putIfAbsent(key, leader);
+        if (existing != null) {
+            coalescedCounter.increment();
+            return await(existing).copy();
+        }
+        try {
+            BufferedResponse response = BufferedResponse.read(execution.execute(request, body));
+            leader.complete(response);
+            return response.copy();
+        } catch (IOException | RuntimeException e) {
+            leader.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, leader);
+        }
+    }
+
+    private static BufferedResponse await(CompletableFuture<BufferedResponse> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            if (e.getCause() instanceof RuntimeException re) {
+                throw re;
+            }
+            throw new IOException(e.getCause());
+        }
+    }
+
+}
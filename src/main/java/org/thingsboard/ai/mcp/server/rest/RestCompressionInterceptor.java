@@ -0,0 +1,90 @@
+package org.thingsboard.ai.mcp.server.rest;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Locale;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Asks ThingsBoard for gzip or deflate compressed responses and decompresses them while they are read, so large
+ * query results travel compressed without being buffered. Responses without 'Content-Encoding' pass through as is.
+ */
+public class RestCompressionInterceptor implements ClientHttpRequestInterceptor {
+
+    private static final String ACCEPT_ENCODING = "gzip, deflate";
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution) throws IOException {
+        if (!request.getHeaders().containsKey(HttpHeaders.ACCEPT_ENCODING)) {
+            request.getHeaders().set(HttpHeaders.ACCEPT_ENCODING, ACCEPT_ENCODING);
+        }
+        ClientHttpResponse response = execution.execute(request, body);
+        String encoding = response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING);
+        if (encoding == null || response.getHeaders().getContentLength() == 0) {
+            return response;
+        }
+        encoding = encoding.trim().toLowerCase(Locale.ROOT);
+        if (encoding.equals("gzip") || encoding.equals("x-gzip") || encoding.equals("deflate")) {
+            return new DecompressingResponse(response, encoding.equals("deflate"));
+        }
+        return response;
+    }
+
+    private static class DecompressingResponse implements ClientHttpResponse {
+
+        private final ClientHttpResponse delegate;
+        private final boolean deflate;
+        private final HttpHeaders headers;
+        private InputStream body;
+
+        DecompressingResponse(ClientHttpResponse delegate, boolean deflate) {
+            this.delegate = delegate;
+            this.deflate = deflate;
+            HttpHeaders headers = new HttpHeaders();
+            headers.putAll(delegate.getHeaders());
+            // The body is decoded here, so the encoding and the compressed length no longer apply
+            headers.remove(HttpHeaders.CONTENT_ENCODING);
+            headers.remove(HttpHeaders.CONTENT_LENGTH);
+            this.headers = HttpHeaders.readOnlyHttpHeaders(headers);
+        }
+
+        @Override
+        public HttpStatusCode getStatusCode() throws IOException {
+            return delegate.getStatusCode();
+        }
+
+        @Override
+        public String getStatusText() throws IOException {
+            return delegate.getStatusText();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+
+        @Override
+        public InputStream getBody() throws IOException {
+            if (body == null) {
+                InputStream raw = delegate.getBody();
+                body = deflate ? new InflaterInputStream(raw) : new GZIPInputStream(raw, 8192);
+            }
+            return body;
+        }
+
+        @Override
+        public void close() {
+            delegate.close();
+        }
+
+    }
+
+}
@@ -0,0 +1,85 @@
+package org.thingsboard.ai.mcp.server.rest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.thingsboard.ai.mcp.server.data.EntityChangedEvent;
+import org.thingsboard.common.util.JacksonUtil;
+import org.thingsboard.server.common.data.id.EntityId;
+import org.thingsboard.server.common.data.id.EntityIdFactory;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Publishes an {@link EntityChangedEvent} for every device, asset, customer and entity view saved or deleted through
+ * the client, whichever tool made the request, so local views of entity names stay current. Only responses of
+ * successful saves are buffered to read the saved entity; all other responses pass through as is.
+ */
+@Slf4j
+@RequiredArgsConstructor
+class RestEntityChangeInterceptor implements ClientHttpRequestInterceptor {
+
+    private static final Pattern SAVE_PATH = Pattern.compile("^/api/(device|device-with-credentials|asset|customer|entityView)$");
+    private static final Pattern DELETE_PATH = Pattern.compile("^/api/(device|asset|customer|entityView)/([0-9a-fA-F-]{36})$");
+
+    private final ApplicationEventPublisher events;
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution) throws IOException {
+        String path = request.getURI().getPath();
+        if (HttpMethod.POST.equals(request.getMethod()) && SAVE_PATH.matcher(path).matches()) {
+            ClientHttpResponse response = execution.execute(request, body);
+            if (!response.getStatusCode().is2xxSuccessful()) {
+                return response;
+            }
+            BufferedResponse buffered = BufferedResponse.read(response);
+            onSaved(buffered.body());
+            return buffered.copy();
+        }
+        Matcher m;
+        if (HttpMethod.DELETE.equals(request.getMethod()) && (m = DELETE_PATH.matcher(path)).matches()) {
+            ClientHttpResponse response = execution.execute(request, body);
+            if (response.getStatusCode().is2xxSuccessful()) {
+                String entityType = m.group(1).equals("entityView") ? "ENTITY_VIEW" : m.group(1).toUpperCase(Locale.ROOT);
+                publish(new EntityChangedEvent(EntityIdFactory.getByTypeAndId(entityType, m.group(2)), null));
+            }
+            return response;
+        }
+        return execution.execute(request, body);
+    }
+
+    private void onSaved(byte[] body) {
+        try {
+            JsonNode entity = JacksonUtil.fromBytes(body);
+            JsonNode id = entity != null ? entity.path("id") : null;
+            if (id == null || !id.hasNonNull("entityType") || !id.hasNonNull("id")) {
+                return;
+            }
+            EntityId entityId = EntityIdFactory.getByTypeAndId(id.get("entityType").asText(), id.get("id").asText());
+            String name = entity.hasNonNull("name") ? entity.get("name").asText() : entity.path("title").asText(null);
+            if (name != null) {
+                publish(new EntityChangedEvent(entityId, name));
+            }
+        } catch (RuntimeException e) {
+            log.debug("Failed to read saved entity", e);
+        }
+    }
+
+    private void publish(EntityChangedEvent event) {
+        try {
+            events.publishEvent(event);
+        } catch (RuntimeException e) {
+            log.warn("Failed to handle change of {}", event.entityId(), e);
+        }
+    }
+
+}
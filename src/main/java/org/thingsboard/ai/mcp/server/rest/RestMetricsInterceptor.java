@@ -0,0 +1,136 @@
+package org.thingsboard.ai.mcp.server.rest;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.BaseUnits;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.client.observation.ClientRequestObservationContext;
+import org.thingsboard.ai.mcp.server.trace.ToolCallTraceHandler;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Records the number of body bytes read from every ThingsBoard response and the time until the response headers
+ * were received. Request latency per URI template is recorded separately by the {@code http.client.requests}
+ * observation of the {@link org.springframework.web.client.RestTemplate}.
+ */
+@RequiredArgsConstructor
+class RestMetricsInterceptor implements ClientHttpRequestInterceptor {
+
+    static final String RESPONSE_BYTES_METRIC = "thingsboard.rest.response.bytes";
+
+    private final MeterRegistry registry;
+    private final ObservationRegistry observationRegistry;
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution) throws IOException {
+        long startNs = System.nanoTime();
+        ClientHttpResponse response = execution.execute(request, body);
+        Observation observation = observationRegistry.getCurrentObservation();
+        if (observation != null && observation.getContext() instanceof ClientRequestObservationContext context) {
+            context.put(ToolCallTraceHandler.EXCHANGE_NANOS_KEY, System.nanoTime() - startNs);
+        }
+        return new CountingResponse(request, response);
+    }
+
+    private class CountingResponse implements ClientHttpResponse {
+
+        private final HttpRequest request;
+        private final ClientHttpResponse delegate;
+        private CountingInputStream body;
+
+        CountingResponse(HttpRequest request, ClientHttpResponse delegate) {
+            this.request = request;
+            this.delegate = delegate;
+        }
+
+        @Override
+        public HttpStatusCode getStatusCode() throws IOException {
+            return delegate.getStatusCode();
+        }
+
+        @Override
+        public String getStatusText() throws IOException {
+            return delegate.getStatusText();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return delegate.getHeaders();
+        }
+
+        @Override
+        public InputStream getBody() throws IOException {
+            if (body == null) {
+                body = new CountingInputStream(delegate.getBody());
+            }
+            return body;
+        }
+
+        @Override
+        public void close() {
+            try {
+                if (body != null) {
+                    DistributionSummary.builder(RESPONSE_BYTES_METRIC)
+                            .description("Size of ThingsBoard REST response bodies as received, before decompression")
+                            .baseUnit(BaseUnits.BYTES)
+                            .tag("method", request.getMethod().name())
+                            .tag("status", String.valueOf(delegate.getStatusCode().value()))
+                            .publishPercentileHistogram()
+                            .register(registry)
+                            .record(body.count);
+                }
+            } catch (IOException ignored) {
+            } finally {
+                delegate.close();
+            }
+        }
+
+    }
+
+    private static class CountingInputStream extends FilterInputStream {
+
+        private long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                count += n;
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            count += skipped;
+            return skipped;
+        }
+
+    }
+
+}
@@ -0,0 +1,195 @@
+package org.thingsboard.ai.mcp.server.rest;
+
+import io.micrometer.core.instrument.LongTaskTimer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.thingsboard.server.common.data.StringUtils;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Keeps the request rate of each endpoint class below the configured ThingsBoard tenant limits. Limits use the
+ * ThingsBoard format: comma-separated {@code capacity:seconds} pairs, e.g. {@code 100:1,2000:60}. A request that
+ * exceeds the limit waits for its turn, up to the configured maximum wait, instead of getting a 429 from ThingsBoard.
+ * Every {@link RestClient} gets a limiter of its own, so sessions with their own credentials do not share tokens. The
+ * clients do not add it to their interceptors, but hand it to {@link RestResilienceInterceptor#forClient}, so that
+ * every retried and hedged attempt takes a token too.
+ */
+@Slf4j
+class RestRateLimitInterceptor implements ClientHttpRequestInterceptor {
+
+    enum EndpointClass {TELEMETRY_READS, ENTITY_QUERIES, WRITES}
+
+    /**
+     * Multi-query time series reads are POSTs, but count against the telemetry read limit.
+     */
+    private static final Pattern TELEMETRY_READ_POST_PATH = Pattern.compile("^/api/plugins/telemetry/[^/]+/[^/]+/values/timeseries$");
+
+    private final Map<EndpointClass, Limiter> limiters = new EnumMap<>(EndpointClass.class);
+    private final long maxWaitMs;
+
+    RestRateLimitInterceptor(MeterRegistry registry, String telemetryReads, String entityQueries, String writes, long maxWaitMs) {
+        this.maxWaitMs = maxWaitMs;
+        addLimiter(registry, EndpointClass.TELEMETRY_READS, telemetryReads);
+        addLimiter(registry, EndpointClass.ENTITY_QUERIES, entityQueries);
+        addLimiter(registry, EndpointClass.WRITES, writes);
+    }
+
+    private void addLimiter(MeterRegistry registry, EndpointClass endpointClass, String config) {
+        if (StringUtils.isBlank(config)) {
+            return;
+        }
+        String name = endpointClass.name().toLowerCase(Locale.ROOT).replace('_', '-');
+        // The meters are shared by the interceptors of all clients
+        Limiter limiter = new Limiter(parse(config), Timer.builder("thingsboard.rest.rate.limit.wait")
+                .description("Time ThingsBoard requests waited for the client-side rate limit")
+                .tag("class", name)
+                .register(registry), LongTaskTimer.builder("thingsboard.rest.rate.limit.queue")
+                .description("ThingsBoard requests waiting for the client-side rate limit")
+                .tag("class", name)
+                .register(registry));
+        limiters.put(endpointClass, limiter);
+        log.debug("ThingsBoard {} are limited to {}", name, config);
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution) throws IOException {
+        acquire(request);
+        return execution.execute(request, body);
+    }
+
+    /**
+     * Waits for a token of the endpoint class of the request, or fails if the wait would exceed the maximum.
+     */
+    void acquire(HttpRequest request) throws IOException {
+        EndpointClass endpointClass = classify(request);
+        Limiter limiter = endpointClass != null ? limiters.get(endpointClass) : null;
+        if (limiter != null) {
+            limiter.acquire(endpointClass);
+        }
+    }
+
+    static EndpointClass classify(HttpRequest request) {
+        HttpMethod method = request.getMethod();
+        String path = request.getURI().getPath();
+        if (path.startsWith("/api/entitiesQuery/") || path.startsWith("/api/alarmsQuery/")) {
+            return EndpointClass.ENTITY_QUERIES;
+        }
+        if (HttpMethod.GET.equals(method) || HttpMethod.HEAD.equals(method)) {
+            return path.startsWith("/api/plugins/telemetry/") ? EndpointClass.TELEMETRY_READS : null;
+        }
+        if (HttpMethod.POST.equals(method) && TELEMETRY_READ_POST_PATH.matcher(path).matches()) {
+            return EndpointClass.TELEMETRY_READS;
+        }
+        return path.startsWith("/api/auth/") ? null : EndpointClass.WRITES;
+    }
+
+    static List<TokenBucket> parse(String config) {
+        List<TokenBucket> buckets = new ArrayList<>();
+        for (String limit : config.split(",")) {
+            String[] parts = limit.trim().split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid rate limit '" + limit + "', expected 'capacity:seconds'");
+            }
+            buckets.add(new TokenBucket(Long.parseLong(parts[0].trim()), TimeUnit.SECONDS.toNanos(Long.parseLong(parts[1].trim()))));
+        }
+        return buckets;
+    }
+
+    private class Limiter {
+
+        private final List<TokenBucket> buckets;
+        private final Timer waitTimer;
+        private final LongTaskTimer queue;
+
+        Limiter(List<TokenBucket> buckets, Timer waitTimer, LongTaskTimer queue) {
+            this.buckets = buckets;
+            this.waitTimer = waitTimer;
+            this.queue = queue;
+        }
+
+        void acquire(EndpointClass endpointClass) throws IOException {
+            long waitNs = reserve(System.nanoTime());
+            if (waitNs < 0) {
+                throw new IOException("Client-side rate limit of ThingsBoard " + endpointClass + " exceeded, retry later");
+            }
+            waitTimer.record(waitNs, TimeUnit.NANOSECONDS);
+            if (waitNs == 0) {
+                return;
+            }
+            LongTaskTimer.Sample sample = queue.start();
+            try {
+                TimeUnit.NANOSECONDS.sleep(waitNs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException();
+            } finally {
+                sample.stop();
+            }
+        }
+
+        /**
+         * Takes a token from every bucket and returns how long the caller has to wait for them, or -1 without taking
+         * anything if the wait would exceed the maximum.
+         */
+        private synchronized long reserve(long now) {
+            long waitNs = 0;
+            for (TokenBucket bucket : buckets) {
+                waitNs = Math.max(waitNs, bucket.waitNanos(now));
+            }
+            if (waitNs > TimeUnit.MILLISECONDS.toNanos(maxWaitMs)) {
+                return -1;
+            }
+            for (TokenBucket bucket : buckets) {
+                bucket.take();
+            }
+            return waitNs;
+        }
+
+    }
+
+    /**
+     * Bucket of {@code capacity} tokens refilled evenly over {@code periodNs}. Tokens may go negative: the deficit is
+     * the queue of callers that already reserved a token and are waiting for the refill.
+     */
+    static class TokenBucket {
+
+        private final long capacity;
+        private final double nanosPerToken;
+        private double tokens;
+        private long lastRefillNs;
+
+        TokenBucket(long capacity, long periodNs) {
+            this.capacity = capacity;
+            this.nanosPerToken = (double) periodNs / capacity;
+            this.tokens = capacity;
+            this.lastRefillNs = System.nanoTime();
+        }
+
+        long waitNanos(long now) {
+            tokens = Math.min(capacity, tokens + (now - lastRefillNs) / nanosPerToken);
+            lastRefillNs = now;
+            return tokens >= 1 ? 0 : (long) Math.ceil((1 - tokens) * nanosPerToken);
+        }
+
+        void take() {
+            tokens -= 1;
+        }
+
+    }
+
+}
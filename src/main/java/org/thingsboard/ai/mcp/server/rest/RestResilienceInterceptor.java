@@ -0,0 +1,334 @@
+package org.thingsboard.ai.mcp.server.rest;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.stereotype.Component;
+import org.thingsboard.common.util.ThingsBoardThreadFactory;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.regex.Pattern;
+
+/**
+ * Retries idempotent ThingsBoard requests that failed with a transient error (I/O error, 429, 502, 503 or 504) using
+ * exponential backoff with full jitter, and honors 'Retry-After'. Read requests that take longer than the hedge delay
+ * are optionally sent a second time and the first response wins. A circuit breaker per endpoint group (the first path
+ * segment after '/api/') rejects requests right away after a series of transient errors, and lets a single trial
+ * request through once the open period is over. A 429 is paced by 'Retry-After' and does not count as an error of the
+ * breaker.
+ * <p>
+ * The bean holds the configuration and the hedge threads; every {@link RestClient} gets its own interceptor from
+ * {@link #forClient}, so the errors of one session's credentials do not open the breakers of other sessions. The
+ * client's rate limit is applied to every attempt, including retries and hedges, so they cannot exceed the ThingsBoard
+ * tenant limits either.
+ * <p>
+ * Must be the last interceptor of the {@link org.springframework.web.client.RestTemplate}, because repeating
+ * {@link ClientHttpRequestExecution#execute} skips the interceptors that follow.
+ */
+@Slf4j
+@Component
+class RestResilienceInterceptor implements ClientHttpRequestInterceptor {
+
+    private static final int TOO_MANY_REQUESTS = 429;
+    private static final Set<Integer> TRANSIENT_STATUSES = Set.of(TOO_MANY_REQUESTS, 502, 503, 504);
+    private static final Pattern READ_POST_PATH = Pattern.compile("^/api/((entitiesQuery|alarmsQuery)/.*|plugins/telemetry/[^/]+/[^/]+/values/timeseries)$");
+
+    private final MeterRegistry registry;
+    private final int maxRetries;
+    private final long baseDelayMs;
+    private final long maxDelayMs;
+    private final long hedgeDelayMs;
+    private final int failureThreshold;
+    private final long openMs;
+    private final ConcurrentMap<String, CircuitBreaker> breakers = new ConcurrentHashMap<>();
+    private final ExecutorService hedgeExecutor;
+    private final RestRateLimitInterceptor rateLimiter;
+
+    RestResilienceInterceptor(MeterRegistry registry,
+                              @Value("${thingsboard.rest-max-retries:3}") int maxRetries,
+                              @Value("${thingsboard.rest-retry-base-delay-ms:200}") long baseDelayMs,
+                              @Value("${thingsboard.rest-retry-max-delay-ms:5000}") long maxDelayMs,
+                              @Value("${thingsboard.rest-hedge-delay-ms:0}") long hedgeDelayMs,
+                              @Value("${thingsboard.rest-circuit-breaker-failure-threshold:20}") int failureThreshold,
+                              @Value("${thingsboard.rest-circuit-breaker-open-ms:30000}") long openMs) {
+        this.registry = registry;
+        this.maxRetries = Math.max(0, maxRetries);
+        this.baseDelayMs = Math.max(1, baseDelayMs);
+        this.maxDelayMs = Math.max(this.baseDelayMs, maxDelayMs);
+        this.hedgeDelayMs = hedgeDelayMs;
+        this.failureThreshold = failureThreshold;
+        this.openMs = openMs;
+        this.hedgeExecutor = hedgeDelayMs > 0 ? Executors.newCachedThreadPool(ThingsBoardThreadFactory.forName("tb-rest-hedge")) : null;
+        this.rateLimiter = null;
+    }
+
+    private RestResilienceInterceptor(RestResilienceInterceptor shared, RestRateLimitInterceptor rateLimiter) {
+        this.registry = shared.registry;
+        this.maxRetries = shared.maxRetries;
+        this.baseDelayMs = shared.baseDelayMs;
+        this.maxDelayMs = shared.maxDelayMs;
+        this.hedgeDelayMs = shared.hedgeDelayMs;
+        this.failureThreshold = shared.failureThreshold;
+        this.openMs = shared.openMs;
+        this.hedgeExecutor = shared.hedgeExecutor;
+        this.rateLimiter = rateLimiter;
+    }
+
+    /**
+     * Returns an interceptor with the same configuration and hedge threads, but with circuit breakers of its own. Every
+     * attempt waits for a token of the given rate limiter, if any.
+     */
+    RestResilienceInterceptor forClient(RestRateLimitInterceptor rateLimiter) {
+        return new RestResilienceInterceptor(this, rateLimiter);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        if (hedgeExecutor != null) {
+            hedgeExecutor.shutdownNow();
+        }
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution) throws IOException {
+        String group = endpointGroup(request);
+        CircuitBreaker breaker = failureThreshold > 0 ? breakers.computeIfAbsent(group, CircuitBreaker::new) : null;
+        boolean idempotent = isIdempotent(request);
+        boolean hedged = idempotent && hedgeExecutor != null;
+        for (int attempt = 0; ; attempt++) {
+            // Taken before the breaker, so a rejection by the rate limit neither retries nor leaves a trial in flight
+            acquireToken(request);
+            if (breaker != null && !breaker.tryAcquire()) {
+                count("thingsboard.rest.circuit.rejections", "Requests rejected by an open circuit breaker", group);
+                throw new IOException("ThingsBoard endpoint group '" + group + "' is unavailable after repeated errors, retry later");
+            }
+            ClientHttpResponse response;
+            try {
+                response = hedged ? executeHedged(request, body, execution, group) : execution.execute(request, body);
+            } catch (IOException e) {
+                onResult(breaker, false);
+                if (!idempotent || attempt >= maxRetries) {
+                    throw e;
+                }
+                log.debug("Retrying {} {} after I/O error: {}", request.getMethod(), request.getURI().getPath(), e.getMessage());
+                sleep(backoff(attempt), group);
+                continue;
+            }
+            int status = response.getStatusCode().value();
+            boolean transientError = TRANSIENT_STATUSES.contains(status);
+            // ThingsBoard rejected the rate of these credentials, it is not failing
+            onResult(breaker, !transientError || status == TOO_MANY_REQUESTS);
+            if (!transientError || !idempotent || attempt >= maxRetries) {
+                return response;
+            }
+            long delay = retryAfter(response.getHeaders()).orElse(backoff(attempt));
+            if (delay > maxDelayMs) {
+                return response;
+            }
+            response.close();
+            log.debug("Retrying {} {} after status {}", request.getMethod(), request.getURI().getPath(), status);
+            sleep(delay, group);
+        }
+    }
+
+    /**
+     * The token of the primary attempt is already taken by the caller; the hedge takes its own on the hedge thread, and
+     * a hedge rejected by the rate limit just leaves the primary attempt to finish.
+     */
+    private ClientHttpResponse executeHedged(HttpRequest request, byte[] body, ClientHttpRequestExecution execution, String group) throws IOException {
+        CompletableFuture<ClientHttpResponse> primary = submit(request, body, execution, false);
+        try {
+            return primary.get(hedgeDelayMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            count("thingsboard.rest.hedged", "Read requests sent a second time because the first one was slow", group);
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException();
+        }
+        CompletableFuture<ClientHttpResponse> hedge = submit(request, body, execution, true);
+        ClientHttpResponse winner;
+        try {
+            try {
+                winner = (ClientHttpResponse) CompletableFuture.anyOf(primary, hedge).get();
+            } catch (ExecutionException e) {
+                // The first finished attempt failed, the other one may still succeed
+                winner = (primary.isCompletedExceptionally() ? hedge : primary).get();
+            }
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException();
+        }
+        ClientHttpResponse result = winner;
+        for (CompletableFuture<ClientHttpResponse> attempt : List.of(primary, hedge)) {
+            attempt.thenAccept(response -> {
+                if (response != result) {
+                    response.close();
+                }
+            });
+        }
+        return result;
+    }
+
+    private CompletableFuture<ClientHttpResponse> submit(HttpRequest request, byte[] body, ClientHttpRequestExecution execution, boolean takeToken) {
+        CompletableFuture<ClientHttpResponse> future = new CompletableFuture<>();
+        hedgeExecutor.execute(() -> {
+            try {
+                if (takeToken) {
+                    acquireToken(request);
+                }
+                future.complete(execution.execute(request, body));
+            } catch (Throwable t) {
+                future.completeExceptionally(t);
+            }
+        });
+        return future;
+    }
+
+    private void acquireToken(HttpRequest request) throws IOException {
+        if (rateLimiter != null) {
+            rateLimiter.acquire(request);
+        }
+    }
+
+    private static IOException unwrap(ExecutionException e) {
+        Throwable cause = e.getCause();
+        if (cause instanceof IOException io) {
+            return io;
+        }
+        if (cause instanceof RuntimeException re) {
+            throw re;
+        }
+        return new IOException(cause);
+    }
+
+    private void onResult(CircuitBreaker breaker, boolean success) {
+        if (breaker == null) {
+            return;
+        }
+        if (success) {
+            breaker.onSuccess();
+        } else {
+            breaker.onFailure();
+        }
+    }
+
+    private long backoff(int attempt) {
+        long cap = Math.min(maxDelayMs, baseDelayMs << Math.min(attempt, 20));
+        return ThreadLocalRandom.current().nextLong(cap + 1);
+    }
+
+    private void sleep(long delayMs, String group) throws IOException {
+        count("thingsboard.rest.retries", "Retried ThingsBoard requests", group);
+        try {
+            Thread.sleep(delayMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException();
+        }
+    }
+
+    private void count(String name, String description, String group) {
+        Counter.builder(name).description(description).tag("group", group).register(registry).increment();
+    }
+
+    static OptionalLong retryAfter(HttpHeaders headers) {
+        String value = headers.getFirst(HttpHeaders.RETRY_AFTER);
+        if (value == null || value.isBlank()) {
+            return OptionalLong.empty();
+        }
+        try {
+            return OptionalLong.of(Math.max(0L, TimeUnit.SECONDS.toMillis(Long.parseLong(value.trim()))));
+        } catch (NumberFormatException e) {
+            try {
+                ZonedDateTime date = ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME);
+                return OptionalLong.of(Math.max(0L, date.toInstant().toEpochMilli() - System.currentTimeMillis()));
+            } catch (DateTimeParseException ignored) {
+                return OptionalLong.empty();
+            }
+        }
+    }
+
+    static String endpointGroup(HttpRequest request) {
+        String path = request.getURI().getPath();
+        if (path == null || !path.startsWith("/api/")) {
+            return "other";
+        }
+        int end = path.indexOf('/', 5);
+        return end < 0 ? path.substring(5) : path.substring(5, end);
+    }
+
+    static boolean isIdempotent(HttpRequest request) {
+        HttpMethod method = request.getMethod();
+        return HttpMethod.GET.equals(method) || HttpMethod.HEAD.equals(method)
+                || HttpMethod.POST.equals(method) && READ_POST_PATH.matcher(request.getURI().getPath()).matches();
+    }
+
+    private class CircuitBreaker {
+
+        private final String group;
+        private int consecutiveFailures;
+        private long openUntilTs;
+        private boolean trialInFlight;
+
+        CircuitBreaker(String group) {
+            this.group = group;
+        }
+
+        synchronized boolean tryAcquire() {
+            if (openUntilTs == 0) {
+                return true;
+            }
+            if (System.currentTimeMillis() < openUntilTs || trialInFlight) {
+                return false;
+            }
+            trialInFlight = true;
+            return true;
+        }
+
+        synchronized void onSuccess() {
+            consecutiveFailures = 0;
+            openUntilTs = 0;
+            trialInFlight = false;
+        }
+
+        synchronized void onFailure() {
+            trialInFlight = false;
+            if (++consecutiveFailures >= failureThreshold || openUntilTs != 0) {
+                if (openUntilTs == 0) {
+                    log.warn("Too many errors from ThingsBoard endpoint group '{}', rejecting its requests for {} ms", group, openMs);
+                }
+                openUntilTs = System.currentTimeMillis() + openMs;
+            }
+        }
+
+    }
+
+}
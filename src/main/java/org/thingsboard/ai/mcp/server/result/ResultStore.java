@@ -0,0 +1,295 @@
+package org.thingsboard.ai.mcp.server.result;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+import jakarta.annotation.PreDestroy;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.thingsboard.ai.mcp.server.rest.ClientCredentials;
+import org.thingsboard.common.util.JacksonUtil;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps oversized JSON tool results on the server, so the tool returns a short summary with a handle instead of the
+ * whole result, and the model reads the parts it needs with the 'readResultSlice' tool. Results are kept on heap up to
+ * the heap budget and written to memory-mapped temporary files beyond it. Results expire after the TTL; the oldest
+ * results are dropped when the store is full. A result can only be read and released with the credentials of the
+ * session that stored it.
+ */
+@Slf4j
+@Component
+public class ResultStore {
+
+    static final int PREVIEW_ROWS = 3;
+
+    @Getter
+    private final int thresholdChars;
+    private final long heapBudgetBytes;
+    private final long ttlMs;
+    private final int maxResults;
+    private final Map<String, StoredResult> results = new ConcurrentHashMap<>();
+    private final AtomicLong heapBytes = new AtomicLong();
+
+    public ResultStore(@Value("${thingsboard.result-store-threshold-chars:100000}") int thresholdChars,
+                       @Value("${thingsboard.result-store-heap-budget-mb:64}") long heapBudgetMb,
+                       @Value("${thingsboard.result-store-ttl-minutes:30}") long ttlMinutes,
+                       @Value("${thingsboard.result-store-max-results:200}") int maxResults) {
+        this.thresholdChars = thresholdChars;
+        this.heapBudgetBytes = heapBudgetMb * 1024 * 1024;
+        this.ttlMs = TimeUnit.MINUTES.toMillis(ttlMinutes);
+        this.maxResults = Math.max(1, maxResults);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        results.values().forEach(StoredResult::release);
+        results.clear();
+    }
+
+    public boolean isEnabled() {
+        return thresholdChars > 0;
+    }
+
+    /**
+     * Returns the result as is if it is small or not JSON, otherwise stores it and returns its summary with a handle.
+     */
+    public String offload(String toolName, String result) {
+        if (!isEnabled() || result == null || result.length() <= thresholdChars) {
+            return result;
+        }
+        JsonNode json;
+        try {
+            json = JacksonUtil.toJsonNode(result);
+        } catch (IllegalArgumentException e) {
+            return result;
+        }
+        if (json != null && json.isTextual()) {
+            // Tool results may arrive as a JSON string that contains the JSON document
+            String text = json.textValue();
+            try {
+                json = JacksonUtil.toJsonNode(text);
+            } catch (IllegalArgumentException e) {
+                return result;
+            }
+            result = text;
+        }
+        if (json == null || !json.isContainerNode()) {
+            return result;
+        }
+        evictExpired();
+        evictOldest();
+        String handle = "res-" + UUID.randomUUID();
+        results.put(handle, store(toolName, result));
+        log.debug("Stored {} characters of '{}' result as {}", result.length(), toolName, handle);
+        return JacksonUtil.toString(summary(handle, toolName, result.length(), json));
+    }
+
+    public Optional<JsonNode> read(String handle) {
+        evictExpired();
+        StoredResult stored = handle != null ? results.get(handle.trim()) : null;
+        if (stored == null || !stored.owner.equals(currentOwner())) {
+            return Optional.empty();
+        }
+        stored.lastAccessTs = System.currentTimeMillis();
+        return Optional.of(JacksonUtil.toJsonNode(stored.content()));
+    }
+
+    public boolean release(String handle) {
+        StoredResult stored = handle != null ? results.get(handle.trim()) : null;
+        if (stored == null || !stored.owner.equals(currentOwner()) || !results.remove(handle.trim(), stored)) {
+            return false;
+        }
+        drop(stored);
+        return true;
+    }
+
+    /**
+     * Credentials id of the current MCP request; empty for requests served with the configured ThingsBoard user.
+     */
+    private static String currentOwner() {
+        ClientCredentials credentials = ClientCredentials.current();
+        return credentials != null ? credentials.id() : "";
+    }
+
+    int size() {
+        return results.size();
+    }
+
+    long getHeapBytes() {
+        return heapBytes.get();
+    }
+
+    /**
+     * The array a slice reads rows from by default: the result itself, its 'data' array (page of entities) or its
+     * largest array field.
+     */
+    static String defaultRowsPointer(JsonNode json) {
+        if (json.isArray()) {
+            return "";
+        }
+        if (json.path("data").isArray()) {
+            return "/data";
+        }
+        String pointer = null;
+        int maxSize = -1;
+        for (Iterator<Map.Entry<String, JsonNode>> it = json.fields(); it.hasNext(); ) {
+            Map.Entry<String, JsonNode> field = it.next();
+            if (field.getValue().isArray() && field.getValue().size() > maxSize) {
+                maxSize = field.getValue().size();
+                pointer = "/" + field.getKey().replace("~", "~0").replace("/", "~1");
+            }
+        }
+        return pointer;
+    }
+
+    private ObjectNode summary(String handle, String toolName, int size, JsonNode json) {
+        ObjectNode summary = JacksonUtil.newObjectNode();
+        summary.put("resultHandle", handle);
+        summary.put("tool", toolName);
+        summary.put("sizeChars", size);
+        summary.set("structure", describe(json));
+        String rowsPointer = defaultRowsPointer(json);
+        if (rowsPointer != null) {
+            JsonNode rows = json.at(rowsPointer);
+            summary.put("rowsPointer", rowsPointer);
+            summary.put("rowCount", rows.size());
+            ArrayNode preview = summary.putArray("preview");
+            for (int i = 0; i < Math.min(PREVIEW_ROWS, rows.size()); i++) {
+                preview.add(rows.get(i));
+            }
+        }
+        summary.put("message", "The result is too large to return at once, so it is kept on the server for " +
+                TimeUnit.MILLISECONDS.toMinutes(ttlMs) + " minutes. Use 'readResultSlice' with 'resultHandle' to read rows" +
+                (rowsPointer != null ? " of '" + rowsPointer + "'" : "") + " or any other part selected by a JSON pointer.");
+        return summary;
+    }
+
+    private static JsonNode describe(JsonNode json) {
+        if (json.isArray()) {
+            return TextNode.valueOf("array[" + json.size() + "]");
+        }
+        ObjectNode fields = JacksonUtil.newObjectNode();
+        for (Iterator<Map.Entry<String, JsonNode>> it = json.fields(); it.hasNext(); ) {
+            Map.Entry<String, JsonNode> field = it.next();
+            JsonNode value = field.getValue();
+            if (value.isArray()) {
+                fields.put(field.getKey(), "array[" + value.size() + "]");
+            } else if (value.isTextual() && value.textValue().length() > 100) {
+                fields.put(field.getKey(), "string[" + value.textValue().length() + "]");
+            } else if (value.isValueNode() || value.isNull()) {
+                fields.set(field.getKey(), value);
+            } else {
+                fields.put(field.getKey(), "object");
+            }
+        }
+        return fields;
+    }
+
+    private StoredResult store(String toolName, String result) {
+        String owner = currentOwner();
+        byte[] bytes = result.getBytes(StandardCharsets.UTF_8);
+        if (heapBytes.addAndGet(bytes.length) <= heapBudgetBytes) {
+            return new StoredResult(toolName, owner, bytes, null, null, bytes.length);
+        }
+        heapBytes.addAndGet(-bytes.length);
+        try {
+            Path file = Files.createTempFile("mcp-result-", ".json");
+            Files.write(file, bytes);
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, bytes.length);
+                return new StoredResult(toolName, owner, null, buffer, file, bytes.length);
+            }
+        } catch (IOException e) {
+            log.warn("Failed to spill '{}' result to disk, keeping it on heap", toolName, e);
+            heapBytes.addAndGet(bytes.length);
+            return new StoredResult(toolName, owner, bytes, null, null, bytes.length);
+        }
+    }
+
+    private void evictExpired() {
+        long now = System.currentTimeMillis();
+        results.entrySet().removeIf(entry -> {
+            if (now - entry.getValue().lastAccessTs > ttlMs) {
+                drop(entry.getValue());
+                return true;
+            }
+            return false;
+        });
+    }
+
+    private void evictOldest() {
+        while (results.size() >= maxResults) {
+            results.entrySet().stream()
+                    .min((a, b) -> Long.compare(a.getValue().lastAccessTs, b.getValue().lastAccessTs))
+                    .ifPresent(oldest -> {
+                        if (results.remove(oldest.getKey(), oldest.getValue())) {
+                            drop(oldest.getValue());
+                        }
+                    });
+        }
+    }
+
+    private void drop(StoredResult stored) {
+        if (stored.heap != null) {
+            heapBytes.addAndGet(-stored.size);
+        }
+        stored.release();
+    }
+
+    private static final class StoredResult {
+
+        private final String toolName;
+        private final String owner;
+        private final byte[] heap;
+        private final MappedByteBuffer mapped;
+        private final Path file;
+        private final int size;
+        private volatile long lastAccessTs = System.currentTimeMillis();
+
+        private StoredResult(String toolName, String owner, byte[] heap, MappedByteBuffer mapped, Path file, int size) {
+            this.toolName = toolName;
+            this.owner = owner;
+            this.heap = heap;
+            this.mapped = mapped;
+            this.file = file;
+            this.size = size;
+        }
+
+        private String content() {
+            if (heap != null) {
+                return new String(heap, StandardCharsets.UTF_8);
+            }
+            return StandardCharsets.UTF_8.decode(mapped.duplicate()).toString();
+        }
+
+        private void release() {
+            if (file != null) {
+                try {
+                    Files.deleteIfExists(file);
+                } catch (IOException e) {
+                    log.debug("Failed to delete spilled '{}' result {}", toolName, file, e);
+                }
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,113 @@
+package org.thingsboard.ai.mcp.server.tools.alarm;
+
+import lombok.Getter;
+import org.thingsboard.server.common.data.alarm.AlarmInfo;
+import org.thingsboard.server.common.data.alarm.AlarmSeverity;
+import org.thingsboard.server.common.data.alarm.AlarmStatus;
+
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Server-side watermark of a single alarm feed.
+ * <p>
+ * Keeps the highest 'createdTime' seen so far together with the alarm ids created at exactly that timestamp,
+ * and a compact snapshot (status, severity, endTs) of every alarm that is not yet cleared and acknowledged.
+ * Alarms that reach the final state are reported once and dropped from the map. New alarms are read from the
+ * watermark on; tracked alarms are re-read by id, least recently checked first.
+ */
+class AlarmFeedState {
+
+    enum Change {NEW, UPDATED, DELETED}
+
+    record AlarmSnapshot(long createdTime, AlarmStatus status, AlarmSeverity severity, long endTs) {
+
+        static AlarmSnapshot of(AlarmInfo alarm) {
+            return new AlarmSnapshot(alarm.getCreatedTime(), alarm.getStatus(), alarm.getSeverity(), alarm.getEndTs());
+        }
+
+    }
+
+    private final Map<UUID, AlarmSnapshot> tracked = new LinkedHashMap<>();
+    private final Set<UUID> idsAtWatermark = new HashSet<>();
+    @Getter
+    private long watermark;
+    @Getter
+    private volatile long lastAccessTs;
+
+    AlarmFeedState(long startTs) {
+        this.watermark = startTs;
+        touch();
+    }
+
+    void touch() {
+        lastAccessTs = System.currentTimeMillis();
+    }
+
+    int getTrackedCount() {
+        return tracked.size();
+    }
+
+    /**
+     * The ids of up to {@code max} tracked alarms that were checked least recently.
+     */
+    List<UUID> getLeastRecentlyChecked(int max) {
+        return tracked.keySet().stream().limit(max).toList();
+    }
+
+    /**
+     * Diffs the alarm against the feed state and updates the state.
+     *
+     * @return the detected change or null if the alarm was already reported in its current state.
+     */
+    Change apply(AlarmInfo alarm) {
+        UUID id = alarm.getId().getId();
+        AlarmSnapshot current = AlarmSnapshot.of(alarm);
+        boolean closed = alarm.isCleared() && alarm.isAcknowledged();
+        AlarmSnapshot previous = tracked.get(id);
+        Change change;
+        if (previous != null) {
+            change = previous.equals(current) ? null : Change.UPDATED;
+        } else if (isAfterWatermark(id, current.createdTime())) {
+            change = Change.NEW;
+        } else {
+            // Already reported in its final state, it can't change anymore.
+            return null;
+        }
+        // Re-inserted, so the alarm moves to the end of the check order
+        tracked.remove(id);
+        if (!closed) {
+            tracked.put(id, current);
+        }
+        advanceWatermark(id, current.createdTime());
+        return change;
+    }
+
+    /**
+     * Drops a tracked alarm that was deleted on the server.
+     *
+     * @return true if the alarm was tracked.
+     */
+    boolean remove(UUID id) {
+        return tracked.remove(id) != null;
+    }
+
+    private boolean isAfterWatermark(UUID id, long createdTime) {
+        return createdTime > watermark || (createdTime == watermark && !idsAtWatermark.contains(id));
+    }
+
+    private void advanceWatermark(UUID id, long createdTime) {
+        if (createdTime > watermark) {
+            watermark = createdTime;
+            idsAtWatermark.clear();
+            idsAtWatermark.add(id);
+        } else if (createdTime == watermark) {
+            idsAtWatermark.add(id);
+        }
+    }
+
+}
@@ -0,0 +1,201 @@
+package org.thingsboard.ai.mcp.server.tools.alarm;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.tool.annotation.Tool;
+import org.springframework.ai.tool.annotation.ToolParam;
+import org.springframework.stereotype.Service;
+import org.thingsboard.ai.mcp.server.rest.ClientCredentials;
+import org.thingsboard.ai.mcp.server.rest.RestClient;
+import org.thingsboard.ai.mcp.server.rest.RestClientService;
+import org.thingsboard.ai.mcp.server.tools.McpTools;
+import org.thingsboard.common.util.JacksonUtil;
+import org.thingsboard.server.common.data.StringUtils;
+import org.thingsboard.server.common.data.alarm.AlarmInfo;
+import org.thingsboard.server.common.data.id.AlarmId;
+import org.thingsboard.server.common.data.id.EntityId;
+import org.thingsboard.server.common.data.id.EntityIdFactory;
+import org.thingsboard.server.common.data.page.PageData;
+import org.thingsboard.server.common.data.page.PageLink;
+import org.thingsboard.server.common.data.page.SortOrder;
+import org.thingsboard.server.common.data.page.TimePageLink;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import static org.thingsboard.ai.mcp.server.constant.ControllerConstants.ENTITY_ID_PARAM_DESCRIPTION;
+import static org.thingsboard.ai.mcp.server.constant.ControllerConstants.ENTITY_TYPE_PARAM_DESCRIPTION;
+import static org.thingsboard.ai.mcp.server.constant.ControllerConstants.TENANT_OR_CUSTOMER_AUTHORITY_PARAGRAPH;
+import static org.thingsboard.ai.mcp.server.util.ToolUtils.parseIntOrDefault;
+import static org.thingsboard.ai.mcp.server.util.ToolUtils.parseLong;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AlarmFeedTools implements McpTools {
+
+    private static final String DEFAULT_FEED_ID = "default";
+    private static final int FEED_PAGE_SIZE = 100;
+    private static final int MAX_FEED_PAGES = 50;
+    private static final int MAX_CHECKS_PER_POLL = 100;
+    private static final int DEFAULT_CHANGES_LIMIT = 100;
+    private static final int MAX_FEEDS = 100;
+    private static final long DEFAULT_LOOKBACK_MS = TimeUnit.HOURS.toMillis(24);
+    private static final long FEED_IDLE_TIMEOUT_MS = TimeUnit.HOURS.toMillis(1);
+
+    private final RestClientService clientService;
+    private final ConcurrentMap<String, AlarmFeedState> feeds = new ConcurrentHashMap<>();
+
+    @Tool(description = "Incremental alarm feed. Returns only alarms that are new or changed (status, severity or 'endTs') since the previous call with the same 'feedId'. " +
+            "The server keeps the watermark between calls, so use this tool instead of re-reading 'getAllAlarms'/'getAlarms' pages when watching for new alarms. " +
+            "The first call returns the alarms created since 'startTs' (last 24 hours by default). " +
+            "Alarms that are not yet cleared and acknowledged are re-checked for changes, up to 100 per call, least recently checked first. " +
+            "Each change contains: 'change' (NEW, UPDATED or DELETED), 'id', 'type', 'severity', 'status', 'originator', 'originatorName', 'createdTime' and 'endTs'. " +
+            "If 'hasMore' is true, call the tool again to get the remaining changes. " +
+            "Optionally limit the feed to alarms of a single originator using 'entityType' and 'entityId'. " +
+            TENANT_OR_CUSTOMER_AUTHORITY_PARAGRAPH)
+    public String getAlarmFeed(
+            @ToolParam(required = false, description = "A string value representing the feed name. Each feed keeps its own watermark. Default: 'default'") String feedId,
+            @ToolParam(required = false, description = ENTITY_TYPE_PARAM_DESCRIPTION) String entityType,
+            @ToolParam(required = false, description = ENTITY_ID_PARAM_DESCRIPTION) String entityId,
+            @ToolParam(required = false, description = "The start timestamp in milliseconds over the alarm 'createdTime'. Used only on the first call of the feed.") String startTs,
+            @ToolParam(required = false, description = "Maximum number of changes returned by a single call. Default: 100") String limit) {
+        EntityId originator = StringUtils.isNotBlank(entityType) && StringUtils.isNotBlank(entityId) ?
+                EntityIdFactory.getByTypeAndId(entityType, entityId) : null;
+        String key = toFeedKey(feedId, originator);
+        evictIdleFeeds();
+        AlarmFeedState state = feeds.computeIfAbsent(key, k ->
+                new AlarmFeedState(parseLong(startTs, System.currentTimeMillis() - DEFAULT_LOOKBACK_MS)));
+        int changesLimit = Math.max(1, parseIntOrDefault(limit, DEFAULT_CHANGES_LIMIT));
+        synchronized (state) {
+            state.touch();
+            return JacksonUtil.toString(poll(key, toFeedName(feedId), state, originator, changesLimit));
+        }
+    }
+
+    @Tool(description = "Reset the incremental alarm feed, so the next 'getAlarmFeed' call with the same parameters starts from scratch.")
+    public String resetAlarmFeed(
+            @ToolParam(required = false, description = "A string value representing the feed name. Default: 'default'") String feedId,
+            @ToolParam(required = false, description = ENTITY_TYPE_PARAM_DESCRIPTION) String entityType,
+            @ToolParam(required = false, description = ENTITY_ID_PARAM_DESCRIPTION) String entityId) {
+        EntityId originator = StringUtils.isNotBlank(entityType) && StringUtils.isNotBlank(entityId) ?
+                EntityIdFactory.getByTypeAndId(entityType, entityId) : null;
+        String key = toFeedKey(feedId, originator);
+        boolean removed = feeds.remove(key) != null;
+        ObjectNode result = JacksonUtil.newObjectNode();
+        result.put("status", "OK");
+        result.put("feedId", toFeedName(feedId));
+        result.put("removed", removed);
+        return JacksonUtil.toString(result);
+    }
+
+    private Map<String, Object> poll(String key, String feedName, AlarmFeedState state, EntityId originator, int changesLimit) {
+        RestClient client = clientService.getClient();
+        List<Map<String, Object>> changes = new ArrayList<>();
+        // Tracked alarms are older than the watermark, so they are checked by id instead of re-reading everything since them
+        for (UUID id : state.getLeastRecentlyChecked(MAX_CHECKS_PER_POLL)) {
+            if (changes.size() >= changesLimit) {
+                break;
+            }
+            AlarmInfo alarm = client.getAlarmInfoById(new AlarmId(id)).orElse(null);
+            if (alarm == null) {
+                state.remove(id);
+                Map<String, Object> deleted = new LinkedHashMap<>();
+                deleted.put("change", AlarmFeedState.Change.DELETED);
+                deleted.put("id", id);
+                changes.add(deleted);
+                continue;
+            }
+            AlarmFeedState.Change change = state.apply(alarm);
+            if (change != null) {
+                changes.add(toChange(change, alarm));
+            }
+        }
+        // New alarms are read from the watermark, which moves with every reported alarm
+        long queryStartTs = state.getWatermark();
+        boolean complete = false;
+        int page = 0;
+        outer:
+        while (page < MAX_FEED_PAGES) {
+            PageData<AlarmInfo> alarms = fetchPage(client, originator, queryStartTs, page);
+            for (AlarmInfo alarm : alarms.getData()) {
+                if (changes.size() >= changesLimit) {
+                    break outer;
+                }
+                AlarmFeedState.Change change = state.apply(alarm);
+                if (change != null) {
+                    changes.add(toChange(change, alarm));
+                }
+            }
+            if (!alarms.hasNext()) {
+                complete = true;
+                break;
+            }
+            page++;
+        }
+        log.debug("[{}] Alarm feed poll from {} returned {} changes", key, queryStartTs, changes.size());
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("feedId", feedName);
+        result.put("watermark", state.getWatermark());
+        result.put("tracked", state.getTrackedCount());
+        result.put("hasMore", !complete);
+        result.put("changes", changes);
+        return result;
+    }
+
+    private static PageData<AlarmInfo> fetchPage(RestClient client, EntityId originator, long startTs, int page) {
+        PageLink pageLink = new PageLink(FEED_PAGE_SIZE, page, null, new SortOrder("createdTime", SortOrder.Direction.ASC));
+        TimePageLink timePageLink = new TimePageLink(pageLink, startTs, null);
+        if (originator != null) {
+            return client.getAlarms(originator, null, null, timePageLink, true);
+        }
+        return client.getAllAlarms(null, null, null, timePageLink, true);
+    }
+
+    private static Map<String, Object> toChange(AlarmFeedState.Change change, AlarmInfo alarm) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("change", change);
+        result.put("id", alarm.getId().getId());
+        result.put("type", alarm.getType());
+        result.put("severity", alarm.getSeverity());
+        result.put("status", alarm.getStatus());
+        result.put("originator", alarm.getOriginator());
+        result.put("originatorName", alarm.getOriginatorName());
+        result.put("createdTime", alarm.getCreatedTime());
+        result.put("endTs", alarm.getEndTs());
+        return result;
+    }
+
+    private static String toFeedName(String feedId) {
+        return StringUtils.isNotBlank(feedId) ? feedId.trim() : DEFAULT_FEED_ID;
+    }
+
+    private static String toFeedKey(String feedId, EntityId originator) {
+        String name = toFeedName(feedId);
+        ClientCredentials credentials = ClientCredentials.current();
+        if (credentials != null) {
+            // Sessions with their own credentials must not share feeds
+            name = credentials.id() + ":" + name;
+        }
+        return originator == null ? name : name + ":" + originator.getEntityType() + ":" + originator.getId();
+    }
+
+    private void evictIdleFeeds() {
+        long now = System.currentTimeMillis();
+        feeds.values().removeIf(state -> now - state.getLastAccessTs() > FEED_IDLE_TIMEOUT_MS);
+        if (feeds.size() >= MAX_FEEDS) {
+            feeds.entrySet().stream()
+                    .min(Map.Entry.comparingByValue(Comparator.comparingLong(AlarmFeedState::getLastAccessTs)))
+                    .ifPresent(oldest -> feeds.remove(oldest.getKey()));
+        }
+    }
+
+}
@@ -0,0 +1,136 @@
+package org.thingsboard.ai.mcp.server.tools.alarm;
+
+import org.thingsboard.server.common.data.id.EntityId;
+import org.thingsboard.server.common.data.query.AlarmData;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Mergeable counters over a set of alarms. Each page of the alarm query is aggregated independently and the partial
+ * results are merged, so the memory footprint depends on the number of distinct keys, not on the number of alarms.
+ */
+class AlarmSummary {
+
+    private static final int MAX_BUCKETS = 500;
+
+    private final long bucketInterval;
+    private final Map<String, Long> byType = new HashMap<>();
+    private final Map<String, Long> bySeverity = new HashMap<>();
+    private final Map<String, Long> byStatus = new HashMap<>();
+    private final Map<EntityId, Long> byOriginator = new HashMap<>();
+    private final Map<EntityId, String> originatorNames = new HashMap<>();
+    private final TreeMap<Long, Long> buckets = new TreeMap<>();
+    private long count;
+    private long minCreatedTime = Long.MAX_VALUE;
+    private long maxCreatedTime = Long.MIN_VALUE;
+
+    AlarmSummary(long bucketInterval) {
+        this.bucketInterval = bucketInterval;
+    }
+
+    static AlarmSummary of(List<AlarmData> alarms, long bucketInterval) {
+        AlarmSummary summary = new AlarmSummary(bucketInterval);
+        alarms.forEach(summary::add);
+        return summary;
+    }
+
+    void add(AlarmData alarm) {
+        count++;
+        byType.merge(String.valueOf(alarm.getType()), 1L, Long::sum);
+        bySeverity.merge(String.valueOf(alarm.getSeverity()), 1L, Long::sum);
+        byStatus.merge(String.valueOf(alarm.getStatus()), 1L, Long::sum);
+        EntityId originator = alarm.getOriginator();
+        if (originator != null) {
+            byOriginator.merge(originator, 1L, Long::sum);
+            if (alarm.getOriginatorName() != null) {
+                originatorNames.putIfAbsent(originator, alarm.getOriginatorName());
+            }
+        }
+        long createdTime = alarm.getCreatedTime();
+        minCreatedTime = Math.min(minCreatedTime, createdTime);
+        maxCreatedTime = Math.max(maxCreatedTime, createdTime);
+        if (bucketInterval > 0) {
+            buckets.merge(createdTime - Math.floorMod(createdTime, bucketInterval), 1L, Long::sum);
+        }
+    }
+
+    AlarmSummary merge(AlarmSummary other) {
+        count += other.count;
+        other.byType.forEach((k, v) -> byType.merge(k, v, Long::sum));
+        other.bySeverity.forEach((k, v) -> bySeverity.merge(k, v, Long::sum));
+        other.byStatus.forEach((k, v) -> byStatus.merge(k, v, Long::sum));
+        other.byOriginator.forEach((k, v) -> byOriginator.merge(k, v, Long::sum));
+        other.originatorNames.forEach(originatorNames::putIfAbsent);
+        other.buckets.forEach((k, v) -> buckets.merge(k, v, Long::sum));
+        minCreatedTime = Math.min(minCreatedTime, other.minCreatedTime);
+        maxCreatedTime = Math.max(maxCreatedTime, other.maxCreatedTime);
+        return this;
+    }
+
+    Map<String, Object> toResult(int topTypes, int topOriginators) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("count", count);
+        if (count > 0) {
+            result.put("minCreatedTime", minCreatedTime);
+            result.put("maxCreatedTime", maxCreatedTime);
+        }
+        result.put("bySeverity", bySeverity);
+        result.put("byStatus", byStatus);
+        result.put("byType", top(byType, topTypes));
+        result.put("distinctTypes", byType.size());
+        result.put("topOriginators", byOriginator.entrySet().stream()
+                .sorted(Map.Entry.<EntityId, Long>comparingByValue().reversed())
+                .limit(topOriginators)
+                .map(e -> {
+                    Map<String, Object> originator = new LinkedHashMap<>();
+                    originator.put("originator", e.getKey());
+                    originator.put("name", originatorNames.get(e.getKey()));
+                    originator.put("count", e.getValue());
+                    return originator;
+                })
+                .toList());
+        result.put("distinctOriginators", byOriginator.size());
+        if (bucketInterval > 0) {
+            long interval = bucketInterval;
+            TreeMap<Long, Long> merged = buckets;
+            while (merged.size() > MAX_BUCKETS) {
+                interval *= 2;
+                merged = rebucket(merged, interval);
+            }
+            result.put("bucketInterval", interval);
+            result.put("buckets", merged.entrySet().stream()
+                    .map(e -> List.of(e.getKey(), e.getValue()))
+                    .toList());
+        }
+        return result;
+    }
+
+    private static Map<String, Long> top(Map<String, Long> counts, int limit) {
+        Map<String, Long> result = new LinkedHashMap<>();
+        long other = 0;
+        int i = 0;
+        for (Map.Entry<String, Long> e : counts.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed()).toList()) {
+            if (i++ < limit) {
+                result.put(e.getKey(), e.getValue());
+            } else {
+                other += e.getValue();
+            }
+        }
+        if (other > 0) {
+            result.put("(other)", other);
+        }
+        return result;
+    }
+
+    private static TreeMap<Long, Long> rebucket(TreeMap<Long, Long> buckets, long interval) {
+        TreeMap<Long, Long> result = new TreeMap<>();
+        buckets.forEach((ts, v) -> result.merge(ts - Math.floorMod(ts, interval), v, Long::sum));
+        return result;
+    }
+
+}
@@ -0,0 +1,105 @@
+package org.thingsboard.ai.mcp.server.tools.alarm;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.tool.annotation.Tool;
+import org.springframework.ai.tool.annotation.ToolParam;
+import org.springframework.stereotype.Service;
+import org.thingsboard.ai.mcp.server.rest.RestClient;
+import org.thingsboard.ai.mcp.server.rest.RestClientService;
+import org.thingsboard.ai.mcp.server.tools.McpTools;
+import org.thingsboard.common.util.JacksonUtil;
+import org.thingsboard.server.common.data.page.PageData;
+import org.thingsboard.server.common.data.query.AlarmData;
+import org.thingsboard.server.common.data.query.AlarmDataPageLink;
+import org.thingsboard.server.common.data.query.AlarmDataQuery;
+import org.thingsboard.server.common.data.query.EntityDataSortOrder;
+import org.thingsboard.server.common.data.query.EntityKey;
+import org.thingsboard.server.common.data.query.EntityKeyType;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import static org.thingsboard.ai.mcp.server.constant.ControllerConstants.TENANT_OR_CUSTOMER_AUTHORITY_PARAGRAPH;
+import static org.thingsboard.ai.mcp.server.util.ToolUtils.parseIntOrDefault;
+import static org.thingsboard.ai.mcp.server.util.ToolUtils.parseLong;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AlarmSummaryTools implements McpTools {
+
+    private static final int SUMMARY_PAGE_SIZE = 500;
+    private static final int MAX_SUMMARY_PAGES = 200;
+    private static final int DEFAULT_TOP_TYPES = 20;
+    private static final int DEFAULT_TOP_ORIGINATORS = 10;
+
+    private final RestClientService clientService;
+    private final ExecutorService toolExecutor;
+
+    @Tool(description = "Aggregate alarms matching an Alarm Data Query instead of returning them. " +
+            "Use this tool to answer questions like 'how many critical unacknowledged alarms per type in the last 24 hours'. " +
+            "The server pages through all matching alarms and returns only counters: total 'count', 'bySeverity', 'byStatus', 'byType', " +
+            "'topOriginators' and optional 'buckets' ([bucketStartTs, count] pairs over the alarm 'createdTime'). " +
+            "The response size does not depend on the number of alarms. " +
+            "The 'pageLink' of the query is used only for filtering ('typeList', 'statusList', 'severityList', 'startTs', 'endTs', 'timeWindow', 'searchPropagatedAlarms', 'assigneeId'); " +
+            "'page', 'pageSize' and 'sortOrder' are ignored. " +
+            "Tip: for query structure & examples, call getEdqGuide(), getKeyFiltersGuide() or see 'findAlarmDataByQuery'." +
+            TENANT_OR_CUSTOMER_AUTHORITY_PARAGRAPH)
+    public String getAlarmSummary(
+            @ToolParam(description = "A JSON value representing the alarm data query. Entity fields and latest values are ignored.") AlarmDataQuery alarmDataQuery,
+            @ToolParam(required = false, description = "A long value representing the time bucket interval in milliseconds, e.g. '3600000' for hourly counts. Buckets are omitted if not set.") String bucketInterval,
+            @ToolParam(required = false, description = "Maximum number of alarm types returned in 'byType'; the remaining types are summed up as '(other)'. Default: 20") String topTypes,
+            @ToolParam(required = false, description = "Maximum number of originators returned in 'topOriginators'. Default: 10") String topOriginators) {
+        long interval = Math.max(0L, parseLong(bucketInterval, 0L));
+        AlarmDataQuery firstPageQuery = toPageQuery(alarmDataQuery, 0);
+        RestClient client = clientService.getClient();
+        PageData<AlarmData> firstPage = client.findAlarmDataByQuery(firstPageQuery);
+        int pages = Math.min(firstPage.getTotalPages(), MAX_SUMMARY_PAGES);
+
+        // A failed page cancels the pages not yet started; pages already being read finish on their own
+        List<Future<AlarmSummary>> futures = new ArrayList<>(Math.max(0, pages - 1));
+        for (int page = 1; page < pages; page++) {
+            AlarmDataQuery pageQuery = toPageQuery(alarmDataQuery, page);
+            futures.add(toolExecutor.submit(() -> AlarmSummary.of(client.findAlarmDataByQuery(pageQuery).getData(), interval)));
+        }
+        AlarmSummary summary = AlarmSummary.of(firstPage.getData(), interval);
+        try {
+            for (Future<AlarmSummary> future : futures) {
+                summary.merge(future.get());
+            }
+        } catch (ExecutionException e) {
+            futures.forEach(f -> f.cancel(true));
+            throw e.getCause() instanceof RuntimeException re ? re : new RuntimeException(e.getCause());
+        } catch (InterruptedException e) {
+            futures.forEach(f -> f.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while aggregating alarms", e);
+        }
+        log.debug("Aggregated {} alarm pages out of {}", pages, firstPage.getTotalPages());
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("totalElements", firstPage.getTotalElements());
+        result.put("truncated", firstPage.getTotalPages() > pages);
+        result.putAll(summary.toResult(
+                Math.max(1, parseIntOrDefault(topTypes, DEFAULT_TOP_TYPES)),
+                Math.max(0, parseIntOrDefault(topOriginators, DEFAULT_TOP_ORIGINATORS))));
+        return JacksonUtil.toString(result);
+    }
+
+    private static AlarmDataQuery toPageQuery(AlarmDataQuery query, int page) {
+        AlarmDataPageLink pageLink = query.getPageLink() != null ? JacksonUtil.clone(query.getPageLink()) : new AlarmDataPageLink();
+        pageLink.setPage(page);
+        pageLink.setPageSize(SUMMARY_PAGE_SIZE);
+        pageLink.setSortOrder(new EntityDataSortOrder(new EntityKey(EntityKeyType.ALARM_FIELD, "createdTime"), EntityDataSortOrder.Direction.ASC));
+        return new AlarmDataQuery(query.getEntityFilter(), pageLink,
+                Collections.emptyList(), Collections.emptyList(), query.getKeyFilters(), query.getAlarmFields());
+    }
+
+}
@@ -43,6 +43,7 @@ import static org.thingsboard.ai.mcp.server.constant.ControllerConstants.SORT_OR
 import static org.thingsboard.ai.mcp.server.constant.ControllerConstants.SORT_PROPERTY_DESCRIPTION;
 import static org.thingsboard.ai.mcp.server.constant.ControllerConstants.TENANT_AUTHORITY_PARAGRAPH;
 import static org.thingsboard.ai.mcp.server.util.ToolUtils.createPageLink;
+import static org.thingsboard.ai.mcp.server.util.ToolUtils.normalizePathForWindows;
 
 @Service
 @RequiredArgsConstructor
@@ -254,28 +255,6 @@ public class OtaTools implements McpTools {
         return ChecksumAlgorithm.valueOf(checksumAlgorithm.trim().toUpperCase());
     }
 
-    private static String normalizePathForWindows(String path) {
-        if (path == null) {
-            return null;
-        }
-        if (!isWindows()) {
-            return path;
-        }
-        if (path.startsWith("/mnt/") && path.length() > 6) {
-            char drive = path.charAt(5);
-            if (path.charAt(6) == '/') {
-                String rest = path.substring(7).replace("/", "\\\\");
-                return Character.toUpperCase(drive) + ":\\" + rest;
-            }
-        }
-        return path;
-    }
-
-    private static boolean isWindows() {
-        String os = System.getProperty("os.name", "");
-        return os.toLowerCase().contains("win");
-    }
-
     private static String errorJson(String message) {
         Map<String, Object> err = new HashMap<>();
         err.put("status", "ERROR");
@@ -0,0 +1,104 @@
+package org.thingsboard.ai.mcp.server.tools.query;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.tool.annotation.Tool;
+import org.springframework.ai.tool.annotation.ToolParam;
+import org.springframework.stereotype.Service;
+import org.thingsboard.ai.mcp.server.index.EntityNameIndex;
+import org.thingsboard.ai.mcp.server.rest.ClientCredentials;
+import org.thingsboard.ai.mcp.server.rest.RestClient;
+import org.thingsboard.ai.mcp.server.rest.RestClientService;
+import org.thingsboard.ai.mcp.server.tools.McpTools;
+import org.thingsboard.common.util.JacksonUtil;
+import org.thingsboard.server.common.data.EntityType;
+import org.thingsboard.server.common.data.HasName;
+import org.thingsboard.server.common.data.StringUtils;
+import org.thingsboard.server.common.data.page.PageLink;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.thingsboard.ai.mcp.server.constant.ControllerConstants.TENANT_AUTHORITY_PARAGRAPH;
+import static org.thingsboard.ai.mcp.server.util.ToolUtils.parseIntOrDefault;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class EntityNameTools implements McpTools {
+
+    private static final int DEFAULT_LIMIT = 10;
+    private static final int MAX_LIMIT = 100;
+    private static final double MIN_SCORE = 0.2;
+    private static final int SEARCH_PAGE_SIZE = 100;
+    private static final int MAX_SEARCH_WORDS = 3;
+
+    private final RestClientService clientService;
+    private final EntityNameIndex nameIndex;
+
+    @Tool(description = "Resolve an approximate or misspelled name to devices, assets, customers and entity views. " +
+            "Returns candidates ranked by name similarity (1 for an exact match), each with 'entityType', 'id', 'name' and 'score'. " +
+            "Use it instead of guessing exact names for 'getTenantDevice' or name filters when the name is not known exactly. " +
+            "Answered from a local name index without a request to ThingsBoard once the index is built ('source' is 'index'). " +
+            TENANT_AUTHORITY_PARAGRAPH)
+    public String resolveEntityName(
+            @ToolParam(description = "The approximate entity name, e.g. 'temp sensr 12'") @NotBlank String name,
+            @ToolParam(required = false, description = "Limit the candidates to one entity type: 'DEVICE', 'ASSET', 'CUSTOMER' or 'ENTITY_VIEW'") String entityType,
+            @ToolParam(required = false, description = "Maximum number of candidates. Default: 10") String limit) {
+        EntityType type = StringUtils.isNotBlank(entityType) ? EntityType.valueOf(entityType.trim()) : null;
+        int candidates = Math.min(MAX_LIMIT, Math.max(1, parseIntOrDefault(limit, DEFAULT_LIMIT)));
+        Map<String, Object> result = new LinkedHashMap<>();
+        if (ClientCredentials.current() == null && nameIndex.isReady()) {
+            result.put("source", "index");
+            result.put("indexedEntities", nameIndex.size());
+            result.put("candidates", nameIndex.search(name, type, candidates, MIN_SCORE));
+        } else {
+            // The index holds names of the configured user only, so other sessions and early calls search the server
+            result.put("source", "server");
+            result.put("candidates", EntityNameIndex.rank(searchServer(name, type), name, type, candidates, MIN_SCORE));
+        }
+        return JacksonUtil.toString(result);
+    }
+
+    /**
+     * Entities whose names contain any of the longest words of the query, since ThingsBoard text search matches
+     * substrings only.
+     */
+    private List<HasName> searchServer(String name, EntityType type) {
+        RestClient client = clientService.getClient();
+        List<String> words = Arrays.stream(name.trim().split("[^\\p{L}\\p{N}]+"))
+                .filter(word -> word.length() >= 3)
+                .sorted((a, b) -> b.length() - a.length())
+                .limit(MAX_SEARCH_WORDS)
+                .toList();
+        if (words.isEmpty()) {
+            words = List.of(name.trim());
+        }
+        List<HasName> entities = new ArrayList<>();
+        for (String word : words) {
+            PageLink pageLink = new PageLink(SEARCH_PAGE_SIZE, 0, word);
+            try {
+                if (type == null || type == EntityType.DEVICE) {
+                    entities.addAll(client.getTenantDevices(null, pageLink).getData());
+                }
+                if (type == null || type == EntityType.ASSET) {
+                    entities.addAll(client.getTenantAssets(pageLink, null).getData());
+                }
+                if (type == null || type == EntityType.CUSTOMER) {
+                    entities.addAll(client.getCustomers(pageLink).getData());
+                }
+                if (type == null || type == EntityType.ENTITY_VIEW) {
+                    entities.addAll(client.getTenantEntityViews(null, pageLink).getData());
+                }
+            } catch (Exception e) {
+                log.debug("Failed to search entities by '{}'", word, e);
+            }
+        }
+        return entities;
+    }
+
+}
@@ -0,0 +1,114 @@
+package org.thingsboard.ai.mcp.server.tools.query;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Markdown guide loaded once and split into sections by headings. A section spans until the next heading of the same
+ * or a higher level, so it includes its subsections.
+ */
+@Slf4j
+class GuideDocument {
+
+    static final String READ_ERROR = "Error: Could not read documentation file.";
+
+    private static final Pattern HEADING = Pattern.compile("^(#{1,6})\\s+(.+?)\\s*$");
+
+    @Getter
+    private final String content;
+    @Getter
+    private final List<Section> sections;
+
+    record Section(int level, String title, String content) {}
+
+    GuideDocument(String content) {
+        this.content = content;
+        this.sections = Collections.unmodifiableList(parseSections(content));
+    }
+
+    static GuideDocument load(String path) {
+        try (InputStream in = new ClassPathResource(path).getInputStream()) {
+            return new GuideDocument(new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            log.error("Failed to load guide {}", path, e);
+            return new GuideDocument(READ_ERROR);
+        }
+    }
+
+    /**
+     * Finds a section by its heading: an exact case-insensitive match is preferred, then a heading that starts with
+     * or contains the given text.
+     */
+    Optional<Section> findSection(String heading) {
+        String query = normalize(heading);
+        if (query.isEmpty()) {
+            return Optional.empty();
+        }
+        return find(title -> title.equals(query))
+                .or(() -> find(title -> title.startsWith(query)))
+                .or(() -> find(title -> title.contains(query)));
+    }
+
+    String getTableOfContents() {
+        StringBuilder toc = new StringBuilder();
+        for (Section section : sections) {
+            toc.append("  ".repeat(section.level() - 1)).append("- ").append(section.title()).append('\n');
+        }
+        return toc.toString();
+    }
+
+    private Optional<Section> find(Predicate<String> matcher) {
+        return sections.stream().filter(section -> matcher.test(normalize(section.title()))).findFirst();
+    }
+
+    private static String normalize(String heading) {
+        return heading == null ? "" : heading.replaceFirst("^#+", "").trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static List<Section> parseSections(String content) {
+        List<int[]> headings = new ArrayList<>();
+        List<String> titles = new ArrayList<>();
+        boolean inCodeBlock = false;
+        int offset = 0;
+        for (String line : content.split("\n", -1)) {
+            if (line.trim().startsWith("```")) {
+                inCodeBlock = !inCodeBlock;
+            } else if (!inCodeBlock) {
+                Matcher m = HEADING.matcher(line);
+                if (m.matches()) {
+                    headings.add(new int[]{m.group(1).length(), offset});
+                    titles.add(m.group(2));
+                }
+            }
+            offset += line.length() + 1;
+        }
+        List<Section> sections = new ArrayList<>(headings.size());
+        for (int i = 0; i < headings.size(); i++) {
+            int level = headings.get(i)[0];
+            int start = headings.get(i)[1];
+            int end = content.length();
+            for (int j = i + 1; j < headings.size(); j++) {
+                if (headings.get(j)[0] <= level) {
+                    end = headings.get(j)[1];
+                    break;
+                }
+            }
+            sections.add(new Section(level, titles.get(i), content.substring(start, end).strip()));
+        }
+        return sections;
+    }
+
+}
@@ -1,39 +1,55 @@
 package org.thingsboard.ai.mcp.server.tools.query;
 
 import org.springframework.ai.tool.annotation.Tool;
+import org.springframework.ai.tool.annotation.ToolParam;
 import org.springframework.stereotype.Service;
 import org.thingsboard.ai.mcp.server.tools.McpTools;
 import org.thingsboard.common.util.JacksonUtil;
 import org.thingsboard.server.common.data.Device;
 
-import java.io.IOException;
-import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 @Service
 public class GuideTools implements McpTools {
 
+    private final Map<String, GuideDocument> guides = new LinkedHashMap<>();
+
+    public GuideTools() {
+        guides.put("keyFilters", GuideDocument.load("guide/key-filter.md"));
+        guides.put("edq", GuideDocument.load("guide/edq-guide.md"));
+        guides.put("edqCount", GuideDocument.load("guide/edq-count-guide.md"));
+    }
+
     @Tool(description = "Call this to get the full documentation and JSON schema for creating 'keyFilters'. Use it if you are unsure about filter keys, value types, or predicates.")
     public String getKeyFiltersGuide() {
-        return readResourceFile("guide/key-filter.md");
+        return guides.get("keyFilters").getContent();
     }
 
     @Tool(description = "Call this to get the documentation for creating and run complex queries over platform entities based on filters.")
     public String getEdqGuide() {
-        return readResourceFile("guide/edq-guide.md");
+        return guides.get("edq").getContent();
     }
 
     @Tool(description = "Call this to get the documentation for creating and run complex queries to search the count of platform entities based on filters.")
     public String getEdqCountGuide() {
-        return readResourceFile("guide/edq-count-guide.md");
+        return guides.get("edqCount").getContent();
     }
 
-    private String readResourceFile(String path) {
-        try {
-            var resource = new org.springframework.core.io.ClassPathResource(path);
-            return new String(resource.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
-        } catch (IOException e) {
-            return "Error: Could not read documentation file.";
+    @Tool(description = "Call this to get a single section of a guide instead of the full document. " +
+            "Returns the section with the given heading including its subsections. " +
+            "If the heading is not set or not found, returns the list of available headings of the guide.")
+    public String getGuideSection(
+            @ToolParam(description = "Guide name. Allowed values: 'keyFilters', 'edq', 'edqCount'") String guide,
+            @ToolParam(required = false, description = "Section heading, e.g. 'Part 3: Predicate'. Matched case-insensitively, a prefix of the heading is enough.") String heading) {
+        GuideDocument document = guides.get(guide);
+        if (document == null) {
+            return "Error: Unknown guide '" + guide + "'. Allowed values: " + String.join(", ", guides.keySet());
         }
+        return document.findSection(heading)
+                .map(GuideDocument.Section::content)
+                .orElseGet(() -> (heading == null || heading.isBlank() ? "" : "Error: Section '" + heading + "' not found. ") +
+                        "Available sections:\n" + document.getTableOfContents());
     }
 
 }
@@ -0,0 +1,93 @@
+package org.thingsboard.ai.mcp.server.tools.result;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.RequiredArgsConstructor;
+import org.springframework.ai.tool.annotation.Tool;
+import org.springframework.ai.tool.annotation.ToolParam;
+import org.springframework.stereotype.Service;
+import org.thingsboard.ai.mcp.server.result.ResultStore;
+import org.thingsboard.ai.mcp.server.tools.McpTools;
+import org.thingsboard.common.util.JacksonUtil;
+import org.thingsboard.server.common.data.StringUtils;
+
+import java.util.Optional;
+
+import static org.thingsboard.ai.mcp.server.util.ToolUtils.parseIntOrDefault;
+
+@Service
+@RequiredArgsConstructor
+public class ResultTools implements McpTools {
+
+    private static final int DEFAULT_ROWS = 50;
+
+    private final ResultStore resultStore;
+
+    @Tool(description = "Read a part of an oversized tool result that was kept on the server. Tools return a 'resultHandle' with a summary " +
+            "('structure', 'rowsPointer', 'rowCount' and a 'preview' of the first rows) instead of results that are too large. " +
+            "Use 'jsonPointer' to select a part of the result, e.g. '/data' (the default rows), '/data/10/latest' or '/totalElements'. " +
+            "If the selected part is an array, returns the rows in [offset, offset + limit) and 'nextOffset' if more rows remain. " +
+            "Rows are also cut short to keep the response small; continue from 'nextOffset'.")
+    public String readResultSlice(
+            @ToolParam(description = "The 'resultHandle' returned instead of the oversized result") String resultHandle,
+            @ToolParam(required = false, description = "JSON pointer (RFC 6901) of the part to read, e.g. '/data'. Default: the 'rowsPointer' of the summary") String jsonPointer,
+            @ToolParam(required = false, description = "Index of the first row to read. Default: 0") String offset,
+            @ToolParam(required = false, description = "Maximum number of rows to read. Default: 50") String limit) {
+        Optional<JsonNode> stored = resultStore.read(resultHandle);
+        if (stored.isEmpty()) {
+            return "Error: Result '" + resultHandle + "' not found. It may have expired; call the original tool again.";
+        }
+        JsonNode root = stored.get();
+        String pointer = StringUtils.isNotBlank(jsonPointer) ? jsonPointer.trim() : ResultStore.defaultRowsPointer(root);
+        if (pointer == null) {
+            pointer = "";
+        }
+        JsonNode selected;
+        try {
+            selected = root.at(pointer);
+        } catch (IllegalArgumentException e) {
+            return "Error: Invalid JSON pointer '" + pointer + "'. It must start with '/', e.g. '/data/0'.";
+        }
+        if (selected.isMissingNode()) {
+            return "Error: Nothing found at '" + pointer + "'.";
+        }
+        int maxChars = Math.max(1000, resultStore.getThresholdChars() / 2);
+        if (!selected.isArray()) {
+            String value = JacksonUtil.toString(selected);
+            return value.length() <= maxChars ? value :
+                    "Error: The value at '" + pointer + "' has " + value.length() + " characters. Select a narrower JSON pointer.";
+        }
+        int from = Math.max(0, parseIntOrDefault(offset, 0));
+        int count = Math.max(1, parseIntOrDefault(limit, DEFAULT_ROWS));
+        ObjectNode slice = JacksonUtil.newObjectNode();
+        slice.put("resultHandle", resultHandle);
+        slice.put("jsonPointer", pointer);
+        slice.put("offset", from);
+        slice.put("total", selected.size());
+        ArrayNode rows = JacksonUtil.newArrayNode();
+        int size = 0;
+        int next = from;
+        while (next < selected.size() && next < from + count) {
+            String row = JacksonUtil.toString(selected.get(next));
+            if (!rows.isEmpty() && size + row.length() > maxChars) {
+                break;
+            }
+            size += row.length();
+            rows.add(selected.get(next));
+            next++;
+        }
+        slice.put("count", rows.size());
+        if (next < selected.size()) {
+            slice.put("nextOffset", next);
+        }
+        slice.set("rows", rows);
+        return JacksonUtil.toString(slice);
+    }
+
+    @Tool(description = "Release a result kept on the server once it is no longer needed. Results also expire on their own.")
+    public String releaseResult(@ToolParam(description = "The 'resultHandle' of the result") String resultHandle) {
+        return resultStore.release(resultHandle) ? "Released" : "Error: Result '" + resultHandle + "' not found.";
+    }
+
+}
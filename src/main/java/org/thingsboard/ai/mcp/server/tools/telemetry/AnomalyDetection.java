@@ -0,0 +1,388 @@
+package org.thingsboard.ai.mcp.server.tools.telemetry;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * Single-pass anomaly detectors of one numeric time series. Values are fed in timestamp order; every detector keeps
+ * a fixed amount of state, at most a ring buffer of {@code window} values, so any number of points can be scanned.
+ * Consecutive anomalous points of a detector are merged into one segment, and only the {@code maxSegments} segments
+ * with the highest scores relative to their detector's limit are kept. The time before the first point and after the
+ * last point of the scanned range count as gaps as well.
+ */
+final class AnomalyDetection {
+
+    enum Detector {ZSCORE, EWMA, IQR, FLATLINE, GAP}
+
+    record Segment(Detector detector, long startTs, long endTs, int points, double score, long peakTs, double peakValue) {}
+
+    /**
+     * Tukey's fence: values more than 1.5 interquartile ranges outside the quartiles are outliers.
+     */
+    private static final double IQR_FENCE = 1.5;
+    /**
+     * Without an explicit 'gapMs', an interval more than 5 times the average interval is a gap.
+     */
+    private static final double GAP_FACTOR = 5;
+
+    private final Set<Detector> detectors;
+    private final long startTs;
+    private final long endTs;
+    private final int window;
+    private final double threshold;
+    private final long flatlineMs;
+    private final long gapMs;
+    private final int maxSegments;
+
+    private long points;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+    private double sum;
+
+    // ZSCORE: mean and squared deviations of the last 'window' values
+    private final double[] ring;
+    private int ringSize;
+    private int ringPosition;
+    private double ringMean;
+    private double ringM2;
+
+    // EWMA: exponentially weighted mean and variance, with the span of 'window' values
+    private final double alpha;
+    private double ewmaMean;
+    private double ewmaVariance;
+
+    // IQR: streaming quartile estimates
+    private final P2Quantile q1 = new P2Quantile(0.25);
+    private final P2Quantile q3 = new P2Quantile(0.75);
+
+    // FLATLINE: the current run of equal values
+    private double flatValue;
+    private long flatStartTs;
+    private long flatEndTs;
+    private int flatPoints;
+
+    // GAP: the first and previous timestamps and the average interval
+    private long firstTs;
+    private long lastTs;
+    private double intervalMean;
+    private long intervals;
+
+    private final Segment[] open = new Segment[Detector.values().length];
+    private final Map<Detector, Long> counts = new EnumMap<>(Detector.class);
+    private final PriorityQueue<Segment> top;
+
+    /**
+     * @param startTs the start of the scanned range
+     * @param endTs   the end (exclusive) of the scanned range
+     */
+    AnomalyDetection(Set<Detector> detectors, long startTs, long endTs, int window, double threshold, long flatlineMs, long gapMs, int maxSegments) {
+        this.detectors = detectors;
+        this.startTs = startTs;
+        this.endTs = endTs;
+        this.window = window;
+        this.threshold = threshold;
+        this.flatlineMs = flatlineMs;
+        this.gapMs = gapMs;
+        this.maxSegments = maxSegments;
+        this.ring = new double[window];
+        this.alpha = 2.0 / (window + 1);
+        this.top = new PriorityQueue<>(Comparator.comparingDouble(this::severity));
+        detectors.forEach(detector -> counts.put(detector, 0L));
+    }
+
+    void accept(long ts, double value) {
+        if (detectors.contains(Detector.GAP) && points > 0) {
+            checkGap(ts);
+        }
+        if (detectors.contains(Detector.FLATLINE)) {
+            checkFlatline(ts, value);
+        }
+        if (detectors.contains(Detector.ZSCORE)) {
+            double std = ringSize > 1 ? Math.sqrt(ringM2 / (ringSize - 1)) : 0;
+            double score = ringSize == window && std > 0 ? Math.abs(value - ringMean) / std : Double.NaN;
+            mark(Detector.ZSCORE, ts, value, score, score > threshold);
+            addToRing(value);
+        }
+        if (detectors.contains(Detector.EWMA)) {
+            double score = points >= window && ewmaVariance > 0 ? Math.abs(value - ewmaMean) / Math.sqrt(ewmaVariance) : Double.NaN;
+            mark(Detector.EWMA, ts, value, score, score > threshold);
+            if (points == 0) {
+                ewmaMean = value;
+            } else {
+                double diff = value - ewmaMean;
+                double increment = alpha * diff;
+                ewmaMean += increment;
+                ewmaVariance = (1 - alpha) * (ewmaVariance + diff * increment);
+            }
+        }
+        if (detectors.contains(Detector.IQR)) {
+            double score = Double.NaN;
+            if (q1.count() >= Math.max(5, window)) {
+                double lower = q1.value();
+                double upper = q3.value();
+                double iqr = upper - lower;
+                if (iqr > 0) {
+                    score = value > upper ? (value - upper) / iqr : value < lower ? (lower - value) / iqr : 0;
+                }
+            }
+            mark(Detector.IQR, ts, value, score, score > IQR_FENCE);
+            q1.add(value);
+            q3.add(value);
+        }
+        if (points == 0) {
+            firstTs = ts;
+        }
+        points++;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+        sum += value;
+        lastTs = ts;
+    }
+
+    /**
+     * Closes the open segments and returns the summary of the series.
+     */
+    Map<String, Object> finish() {
+        for (Detector detector : Detector.values()) {
+            if (open[detector.ordinal()] != null) {
+                emit(open[detector.ordinal()]);
+                open[detector.ordinal()] = null;
+            }
+        }
+        if (detectors.contains(Detector.FLATLINE)) {
+            closeFlatline();
+        }
+        if (detectors.contains(Detector.GAP)) {
+            checkEdgeGaps();
+        }
+        List<Segment> segments = new ArrayList<>(top);
+        segments.sort(Comparator.comparingLong(Segment::startTs));
+        long total = counts.values().stream().mapToLong(Long::longValue).sum();
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("points", points);
+        result.put("min", points > 0 ? min : null);
+        result.put("max", points > 0 ? max : null);
+        result.put("mean", points > 0 ? sum / points : null);
+        result.put("anomalies", counts);
+        result.put("truncated", total > segments.size());
+        List<Map<String, Object>> segmentList = new ArrayList<>(segments.size());
+        for (Segment segment : segments) {
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("detector", segment.detector());
+            item.put("startTs", segment.startTs());
+            item.put("endTs", segment.endTs());
+            item.put("points", segment.points());
+            item.put("score", Math.round(segment.score() * 100) / 100.0);
+            if (segment.detector() != Detector.GAP) {
+                item.put("peakTs", segment.peakTs());
+                item.put("peakValue", segment.peakValue());
+            }
+            segmentList.add(item);
+        }
+        result.put("segments", segmentList);
+        return result;
+    }
+
+    private void checkGap(long ts) {
+        long interval = ts - lastTs;
+        double expected = expectedInterval();
+        if (interval > expected) {
+            emit(new Segment(Detector.GAP, lastTs, ts, 0, interval / expected, lastTs, Double.NaN));
+            return;
+        }
+        // Gaps are left out of the average, so a long outage does not hide the next one
+        intervals++;
+        intervalMean += (interval - intervalMean) / Math.min(intervals, window);
+    }
+
+    /**
+     * Reports the time from the start of the range to the first point and from the last point to the end of the range
+     * if they are longer than a gap between points. Without points the whole range is a gap.
+     */
+    private void checkEdgeGaps() {
+        if (points == 0) {
+            if (startTs < endTs) {
+                emit(new Segment(Detector.GAP, startTs, endTs, 0, gapMs > 0 ? (endTs - startTs) / (double) gapMs : 1, startTs, Double.NaN));
+            }
+            return;
+        }
+        double expected = expectedInterval();
+        long leading = firstTs - startTs;
+        if (leading > expected) {
+            emit(new Segment(Detector.GAP, startTs, firstTs, 0, leading / expected, startTs, Double.NaN));
+        }
+        long trailing = endTs - lastTs;
+        if (trailing > expected) {
+            emit(new Segment(Detector.GAP, lastTs, endTs, 0, trailing / expected, lastTs, Double.NaN));
+        }
+    }
+
+    /**
+     * The interval between points above which there is a gap, or NaN while the average interval is not known yet.
+     */
+    private double expectedInterval() {
+        return gapMs > 0 ? gapMs : intervals >= window ? GAP_FACTOR * intervalMean : Double.NaN;
+    }
+
+    private void checkFlatline(long ts, double value) {
+        if (flatPoints > 0 && value == flatValue) {
+            flatPoints++;
+            flatEndTs = ts;
+            return;
+        }
+        closeFlatline();
+        flatValue = value;
+        flatStartTs = ts;
+        flatEndTs = ts;
+        flatPoints = 1;
+    }
+
+    private void closeFlatline() {
+        if (flatPoints < 2) {
+            return;
+        }
+        double score = flatlineMs > 0 ? (flatEndTs - flatStartTs) / (double) flatlineMs : flatPoints / (double) window;
+        if (score >= 1) {
+            emit(new Segment(Detector.FLATLINE, flatStartTs, flatEndTs, flatPoints, score, flatStartTs, flatValue));
+        }
+    }
+
+    private void addToRing(double value) {
+        if (ringSize < window) {
+            ring[ringSize++] = value;
+            double delta = value - ringMean;
+            ringMean += delta / ringSize;
+            ringM2 += delta * (value - ringMean);
+        } else {
+            double removed = ring[ringPosition];
+            ring[ringPosition] = value;
+            ringPosition = (ringPosition + 1) % window;
+            double oldMean = ringMean;
+            ringMean += (value - removed) / window;
+            ringM2 = Math.max(0, ringM2 + (value - removed) * (value - ringMean + removed - oldMean));
+        }
+    }
+
+    private void mark(Detector detector, long ts, double value, double score, boolean anomalous) {
+        Segment segment = open[detector.ordinal()];
+        if (anomalous) {
+            open[detector.ordinal()] = segment == null ? new Segment(detector, ts, ts, 1, score, ts, value) :
+                    score > segment.score() ? new Segment(detector, segment.startTs(), ts, segment.points() + 1, score, ts, value) :
+                            new Segment(detector, segment.startTs(), ts, segment.points() + 1, segment.score(), segment.peakTs(), segment.peakValue());
+        } else if (segment != null) {
+            emit(segment);
+            open[detector.ordinal()] = null;
+        }
+    }
+
+    private void emit(Segment segment) {
+        counts.merge(segment.detector(), 1L, Long::sum);
+        top.add(segment);
+        if (top.size() > maxSegments) {
+            top.poll();
+        }
+    }
+
+    /**
+     * The score relative to the limit of its detector, to rank segments of different detectors.
+     */
+    private double severity(Segment segment) {
+        return switch (segment.detector()) {
+            case ZSCORE, EWMA -> segment.score() / threshold;
+            case IQR -> segment.score() / IQR_FENCE;
+            case FLATLINE, GAP -> segment.score();
+        };
+    }
+
+    /**
+     * The P-square algorithm of Jain and Chlamtac: estimates a quantile from five markers, without storing the values.
+     */
+    private static final class P2Quantile {
+
+        private final double[] heights = new double[5];
+        private final double[] positions = new double[5];
+        private final double[] desired = new double[5];
+        private final double[] increments;
+        private int count;
+
+        private P2Quantile(double p) {
+            this.increments = new double[]{0, p / 2, p, (1 + p) / 2, 1};
+            this.desired[0] = 1;
+            this.desired[1] = 1 + 2 * p;
+            this.desired[2] = 1 + 4 * p;
+            this.desired[3] = 3 + 2 * p;
+            this.desired[4] = 5;
+        }
+
+        private int count() {
+            return count;
+        }
+
+        private void add(double x) {
+            if (count < 5) {
+                heights[count++] = x;
+                if (count == 5) {
+                    Arrays.sort(heights);
+                    for (int i = 0; i < 5; i++) {
+                        positions[i] = i + 1;
+                    }
+                }
+                return;
+            }
+            count++;
+            int k;
+            if (x < heights[0]) {
+                heights[0] = x;
+                k = 0;
+            } else if (x >= heights[4]) {
+                heights[4] = x;
+                k = 3;
+            } else {
+                k = 0;
+                while (x >= heights[k + 1]) {
+                    k++;
+                }
+            }
+            for (int i = k + 1; i < 5; i++) {
+                positions[i]++;
+            }
+            for (int i = 0; i < 5; i++) {
+                desired[i] += increments[i];
+            }
+            for (int i = 1; i <= 3; i++) {
+                double d = desired[i] - positions[i];
+                if ((d >= 1 && positions[i + 1] - positions[i] > 1) || (d <= -1 && positions[i - 1] - positions[i] < -1)) {
+                    int sign = d >= 1 ? 1 : -1;
+                    double parabolic = heights[i] + sign / (positions[i + 1] - positions[i - 1]) *
+                            ((positions[i] - positions[i - 1] + sign) * (heights[i + 1] - heights[i]) / (positions[i + 1] - positions[i]) +
+                                    (positions[i + 1] - positions[i] - sign) * (heights[i] - heights[i - 1]) / (positions[i] - positions[i - 1]));
+                    if (heights[i - 1] < parabolic && parabolic < heights[i + 1]) {
+                        heights[i] = parabolic;
+                    } else {
+                        heights[i] += sign * (heights[i + sign] - heights[i]) / (positions[i + sign] - positions[i]);
+                    }
+                    positions[i] += sign;
+                }
+            }
+        }
+
+        private double value() {
+            if (count >= 5) {
+                return heights[2];
+            }
+            double[] sorted = Arrays.copyOf(heights, count);
+            Arrays.sort(sorted);
+            return sorted[(count - 1) / 2];
+        }
+
+    }
+
+}
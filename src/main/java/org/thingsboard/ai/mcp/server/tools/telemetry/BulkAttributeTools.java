@@ -0,0 +1,238 @@
+package org.thingsboard.ai.mcp.server.tools.telemetry;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import jakarta.validation.constraints.NotBlank;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.tool.annotation.Tool;
+import org.springframework.ai.tool.annotation.ToolParam;
+import org.springframework.stereotype.Service;
+import org.thingsboard.ai.mcp.server.rest.RestClient;
+import org.thingsboard.ai.mcp.server.rest.RestClientService;
+import org.thingsboard.ai.mcp.server.tools.McpTools;
+import org.thingsboard.common.util.JacksonUtil;
+import org.thingsboard.server.common.data.StringUtils;
+import org.thingsboard.server.common.data.id.EntityId;
+import org.thingsboard.server.common.data.id.EntityIdFactory;
+import org.thingsboard.server.common.data.page.PageData;
+import org.thingsboard.server.common.data.query.EntityData;
+import org.thingsboard.server.common.data.query.EntityDataPageLink;
+import org.thingsboard.server.common.data.query.EntityDataQuery;
+import org.thingsboard.server.common.data.query.EntityFilter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static org.thingsboard.ai.mcp.server.constant.ControllerConstants.ENTITY_TYPE_PARAM_DESCRIPTION;
+import static org.thingsboard.ai.mcp.server.constant.ControllerConstants.TENANT_OR_CUSTOMER_AUTHORITY_PARAGRAPH;
+import static org.thingsboard.ai.mcp.server.util.ToolUtils.parseIntOrDefault;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BulkAttributeTools implements McpTools {
+
+    static final int MAX_TARGETS = 10000;
+    private static final int DEFAULT_CONCURRENCY = 4;
+    private static final int MAX_CONCURRENCY = 16;
+    private static final int QUERY_PAGE_SIZE = 1000;
+    private static final int MAX_ERRORS = 5;
+    static final long MAX_RUNTIME_MS = TimeUnit.MINUTES.toMillis(10);
+    private static final Set<String> SCOPES = Set.of("SERVER_SCOPE", "SHARED_SCOPE");
+
+    private final RestClientService clientService;
+    private final ExecutorService toolExecutor;
+
+    record Payload(String scope, JsonNode attributes) {}
+
+    @Tool(description = "Creates or updates the same attributes on many entities in one call, e.g. to push a shared configuration to all devices of a type. " +
+            "Targets are either a list of entity ids of one type ('entityType' + 'entityIds') or an Entity Data Query filter ('entityFilter') matching up to 10000 entities. " +
+            "Every payload is saved to every target with 'saveEntityAttributesV2' requests that run with bounded concurrency " +
+            "and, if 'maxRequestsPerSecond' is set, not faster than that; the client-side write rate limit of the server applies too. " +
+            "No new requests are started after 10 minutes; a rate that cannot finish in time is rejected up front. " +
+            "Returns aggregate counts: 'targets', 'requests', 'succeeded', 'failed', 'skipped' (not started in time), " +
+            "the 'failedIds' of entities with at least one failed or skipped request and up to 5 distinct 'errors' with their counts. " +
+            "Failed entities can be retried by passing 'failedIds' as 'entityIds'. " +
+            "Tip: for filter structure & examples, call getEdqGuide()." +
+            TENANT_OR_CUSTOMER_AUTHORITY_PARAGRAPH)
+    public String saveAttributesBulk(
+            @ToolParam(description = "A JSON array of attribute payloads, each an object with the attribute 'scope' ('SERVER_SCOPE' or 'SHARED_SCOPE') " +
+                    "and the 'attributes' to save, e.g. [{\"scope\":\"SHARED_SCOPE\",\"attributes\":{\"reportInterval\":60}}]. A single payload object is accepted as well.")
+            @NotBlank String payloads,
+            @ToolParam(required = false, description = ENTITY_TYPE_PARAM_DESCRIPTION + " Required with 'entityIds'.") String entityType,
+            @ToolParam(required = false, description = "Comma-separated entity ids of the 'entityType' to update. Either 'entityIds' or 'entityFilter' must be set.") String entityIds,
+            @ToolParam(required = false, description = "An Entity Data Query filter selecting the entities to update. Either 'entityIds' or 'entityFilter' must be set.") EntityFilter entityFilter,
+            @ToolParam(required = false, description = "Maximum number of requests in flight, 1 to 16. Default: 4") String concurrency,
+            @ToolParam(required = false, description = "Maximum number of requests started per second. Not limited by default.") String maxRequestsPerSecond) {
+        List<Payload> payloadList = parsePayloads(payloads);
+        RestClient client = clientService.getClient();
+        List<EntityId> targets = resolveTargets(client, entityType, entityIds, entityFilter);
+        int parallelism = Math.min(MAX_CONCURRENCY, Math.max(1, parseIntOrDefault(concurrency, DEFAULT_CONCURRENCY)));
+        int rate = parseIntOrDefault(maxRequestsPerSecond, 0);
+        long intervalNs = rate > 0 ? TimeUnit.SECONDS.toNanos(1) / rate : 0;
+
+        int requests = targets.size() * payloadList.size();
+        if (intervalNs > 0 && (double) intervalNs * requests > TimeUnit.MILLISECONDS.toNanos(MAX_RUNTIME_MS)) {
+            throw new IllegalArgumentException(requests + " requests at " + rate + " per second take longer than " +
+                    TimeUnit.MILLISECONDS.toMinutes(MAX_RUNTIME_MS) + " minutes, raise 'maxRequestsPerSecond' or update fewer entities per call");
+        }
+        AtomicInteger succeeded = new AtomicInteger();
+        AtomicIntegerArray failedTargets = new AtomicIntegerArray(targets.size());
+        Map<String, Integer> errors = new ConcurrentHashMap<>();
+
+        // Requests are paced and started on the calling thread, the executor only runs them
+        Semaphore inFlight = new Semaphore(parallelism);
+        long deadlineNs = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(MAX_RUNTIME_MS);
+        long nextStartNs = System.nanoTime();
+        int started = 0;
+        try {
+            for (; started < requests; started++) {
+                long waitNs = nextStartNs - System.nanoTime();
+                if (waitNs > 0) {
+                    TimeUnit.NANOSECONDS.sleep(waitNs);
+                }
+                long remainingNs = deadlineNs - System.nanoTime();
+                if (remainingNs <= 0 || !inFlight.tryAcquire(remainingNs, TimeUnit.NANOSECONDS)) {
+                    break;
+                }
+                nextStartNs = System.nanoTime() + intervalNs;
+                int target = started / payloadList.size();
+                Payload payload = payloadList.get(started % payloadList.size());
+                try {
+                    toolExecutor.execute(() -> {
+                        try {
+                            String error = save(client, targets.get(target), payload);
+                            if (error == null) {
+                                succeeded.incrementAndGet();
+                            } else {
+                                failedTargets.set(target, 1);
+                                errors.merge(error, 1, Integer::sum);
+                            }
+                        } finally {
+                            inFlight.release();
+                        }
+                    });
+                } catch (RejectedExecutionException e) {
+                    inFlight.release();
+                    throw e;
+                }
+            }
+            inFlight.acquire(parallelism);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted after starting " + started + " of " + requests + " requests", e);
+        }
+        int skipped = requests - started;
+        for (int i = started; i < requests; i++) {
+            failedTargets.set(i / payloadList.size(), 1);
+        }
+
+        Set<String> failedIds = new LinkedHashSet<>();
+        for (int t = 0; t < targets.size(); t++) {
+            if (failedTargets.get(t) == 1) {
+                failedIds.add(targets.get(t).getId().toString());
+            }
+        }
+        Map<String, Integer> topErrors = new LinkedHashMap<>();
+        errors.entrySet().stream()
+                .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
+                .limit(MAX_ERRORS)
+                .forEach(e -> topErrors.put(e.getKey(), e.getValue()));
+        log.debug("Saved {} attribute payloads to {} entities, {} of {} requests succeeded, {} skipped",
+                payloadList.size(), targets.size(), succeeded.get(), requests, skipped);
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("targets", targets.size());
+        result.put("requests", requests);
+        result.put("succeeded", succeeded.get());
+        result.put("failed", started - succeeded.get());
+        result.put("skipped", skipped);
+        result.put("failedIds", failedIds);
+        result.put("errors", topErrors);
+        return JacksonUtil.toString(result);
+    }
+
+    static List<Payload> parsePayloads(String payloads) {
+        JsonNode json = JacksonUtil.toJsonNode(payloads);
+        List<JsonNode> nodes = new ArrayList<>();
+        if (json != null && json.isArray()) {
+            json.forEach(nodes::add);
+        } else if (json != null && json.isObject()) {
+            nodes.add(json);
+        }
+        if (nodes.isEmpty()) {
+            throw new IllegalArgumentException("At least one attribute payload is required");
+        }
+        List<Payload> result = new ArrayList<>(nodes.size());
+        for (JsonNode node : nodes) {
+            String scope = node.path("scope").asText("");
+            if (!SCOPES.contains(scope)) {
+                throw new IllegalArgumentException("Unsupported attribute scope '" + scope + "', only 'SERVER_SCOPE' and 'SHARED_SCOPE' are allowed");
+            }
+            JsonNode attributes = node.get("attributes");
+            if (attributes == null || !attributes.isObject() || attributes.isEmpty()) {
+                throw new IllegalArgumentException("Attribute payload of " + scope + " has no 'attributes' object");
+            }
+            result.add(new Payload(scope, attributes));
+        }
+        return result;
+    }
+
+    private static List<EntityId> resolveTargets(RestClient client, String entityType, String entityIds, EntityFilter entityFilter) {
+        if (StringUtils.isNotBlank(entityIds) == (entityFilter != null)) {
+            throw new IllegalArgumentException("Either 'entityIds' or 'entityFilter' must be set");
+        }
+        Set<EntityId> targets = new LinkedHashSet<>();
+        if (entityFilter == null) {
+            if (StringUtils.isBlank(entityType)) {
+                throw new IllegalArgumentException("'entityType' is required with 'entityIds'");
+            }
+            for (String id : entityIds.split(",")) {
+                if (StringUtils.isNotBlank(id)) {
+                    targets.add(EntityIdFactory.getByTypeAndId(entityType.trim(), id.trim()));
+                }
+            }
+        } else {
+            PageData<EntityData> page;
+            int pageNumber = 0;
+            do {
+                EntityDataPageLink pageLink = new EntityDataPageLink(QUERY_PAGE_SIZE, pageNumber++, null, null);
+                page = client.findEntityDataByQuery(new EntityDataQuery(entityFilter, pageLink,
+                        Collections.emptyList(), Collections.emptyList(), Collections.emptyList()));
+                if (page.getTotalElements() > MAX_TARGETS) {
+                    throw new IllegalArgumentException("The filter matches " + page.getTotalElements() +
+                            " entities, narrow it down to at most " + MAX_TARGETS);
+                }
+                page.getData().forEach(data -> targets.add(data.getEntityId()));
+            } while (page.hasNext());
+        }
+        if (targets.size() > MAX_TARGETS) {
+            throw new IllegalArgumentException("At most " + MAX_TARGETS + " entities can be updated at once");
+        }
+        return new ArrayList<>(targets);
+    }
+
+    /**
+     * Saves the payload to the target and returns the error, or null if it was saved.
+     */
+    private static String save(RestClient client, EntityId target, Payload payload) {
+        try {
+            return client.saveEntityAttributesV2(target, payload.scope(), payload.attributes()) ? null : "Not saved";
+        } catch (Exception e) {
+            return e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+        }
+    }
+
+}
@@ -0,0 +1,171 @@
+package org.thingsboard.ai.mcp.server.tools.telemetry;
+
+import org.thingsboard.server.common.data.kv.TsKvEntry;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Numeric time series as sorted primitive arrays, with merge-join alignment to a timeline and Pearson correlation.
+ * Missing values are {@link Double#NaN}.
+ */
+final class SeriesAlignment {
+
+    enum Alignment {NEAREST, PREVIOUS, LINEAR}
+
+    record Series(long[] ts, double[] values) {
+
+        int size() {
+            return ts.length;
+        }
+
+    }
+
+    private SeriesAlignment() {}
+
+    /**
+     * Numeric values of the entries: booleans are 1 or 0, strings are parsed, other values are skipped.
+     */
+    static Series toSeries(List<TsKvEntry> entries) {
+        long[] ts = new long[entries.size()];
+        double[] values = new double[entries.size()];
+        int size = 0;
+        boolean sorted = true;
+        for (TsKvEntry entry : entries) {
+            double value = toDouble(entry);
+            if (Double.isNaN(value)) {
+                continue;
+            }
+            if (size > 0 && entry.getTs() < ts[size - 1]) {
+                sorted = false;
+            }
+            ts[size] = entry.getTs();
+            values[size++] = value;
+        }
+        ts = Arrays.copyOf(ts, size);
+        values = Arrays.copyOf(values, size);
+        if (!sorted) {
+            Integer[] order = new Integer[size];
+            for (int i = 0; i < size; i++) {
+                order[i] = i;
+            }
+            long[] unsortedTs = ts;
+            Arrays.sort(order, (a, b) -> Long.compare(unsortedTs[a], unsortedTs[b]));
+            long[] sortedTs = new long[size];
+            double[] sortedValues = new double[size];
+            for (int i = 0; i < size; i++) {
+                sortedTs[i] = ts[order[i]];
+                sortedValues[i] = values[order[i]];
+            }
+            ts = sortedTs;
+            values = sortedValues;
+        }
+        return new Series(ts, values);
+    }
+
+    static double toDouble(TsKvEntry entry) {
+        if (entry.getValue() == null) {
+            return Double.NaN;
+        }
+        return switch (entry.getDataType()) {
+            case LONG -> entry.getLongValue().map(Long::doubleValue).orElse(Double.NaN);
+            case DOUBLE -> entry.getDoubleValue().orElse(Double.NaN);
+            case BOOLEAN -> entry.getBooleanValue().map(b -> b ? 1.0 : 0.0).orElse(Double.NaN);
+            case STRING -> {
+                try {
+                    yield entry.getStrValue().map(String::trim).map(Double::parseDouble).orElse(Double.NaN);
+                } catch (NumberFormatException e) {
+                    yield Double.NaN;
+                }
+            }
+            default -> Double.NaN;
+        };
+    }
+
+    /**
+     * Values of the series at the timestamps of the sorted timeline, in a single pass over both. An exact timestamp
+     * match always wins; otherwise the neighbour values are used only if they are at most {@code tolerance} ms away.
+     */
+    static double[] align(Series series, long[] timeline, Alignment alignment, long tolerance) {
+        long[] ts = series.ts();
+        double[] values = series.values();
+        double[] aligned = new double[timeline.length];
+        int next = 0;
+        for (int i = 0; i < timeline.length; i++) {
+            long t = timeline[i];
+            while (next < ts.length && ts[next] <= t) {
+                next++;
+            }
+            int prev = next - 1;
+            boolean hasPrev = prev >= 0 && t - ts[prev] <= tolerance;
+            boolean hasNext = next < ts.length && ts[next] - t <= tolerance;
+            if (prev >= 0 && ts[prev] == t) {
+                aligned[i] = values[prev];
+            } else if (alignment == Alignment.PREVIOUS) {
+                aligned[i] = hasPrev ? values[prev] : Double.NaN;
+            } else if (alignment == Alignment.LINEAR) {
+                aligned[i] = hasPrev && hasNext ?
+                        values[prev] + (values[next] - values[prev]) * (t - ts[prev]) / (double) (ts[next] - ts[prev]) : Double.NaN;
+            } else if (hasPrev && (!hasNext || t - ts[prev] <= ts[next] - t)) {
+                aligned[i] = values[prev];
+            } else {
+                aligned[i] = hasNext ? values[next] : Double.NaN;
+            }
+        }
+        return aligned;
+    }
+
+    /**
+     * Pearson correlation of {@code a[i]} and {@code b[i + lag]} over the rows where both are present, or NaN if there
+     * are fewer than 3 such rows or either side is constant.
+     */
+    static double pearson(double[] a, double[] b, int lag) {
+        int n = 0;
+        double meanA = 0;
+        double meanB = 0;
+        double coMoment = 0;
+        double m2A = 0;
+        double m2B = 0;
+        for (int i = Math.max(0, -lag); i < a.length && i + lag < b.length; i++) {
+            double x = a[i];
+            double y = b[i + lag];
+            if (Double.isNaN(x) || Double.isNaN(y)) {
+                continue;
+            }
+            // Welford's update, stable for large offsets like epoch-based values
+            n++;
+            double dx = x - meanA;
+            meanA += dx / n;
+            double dy = y - meanB;
+            meanB += dy / n;
+            coMoment += dx * (y - meanB);
+            m2A += dx * (x - meanA);
+            m2B += dy * (y - meanB);
+        }
+        if (n < 3 || m2A == 0 || m2B == 0) {
+            return Double.NaN;
+        }
+        return coMoment / Math.sqrt(m2A * m2B);
+    }
+
+    static int count(double[] values) {
+        int count = 0;
+        for (double value : values) {
+            if (!Double.isNaN(value)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    static int pairs(double[] a, double[] b) {
+        int count = 0;
+        for (int i = 0; i < a.length && i < b.length; i++) {
+            if (!Double.isNaN(a[i]) && !Double.isNaN(b[i])) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+}
@@ -0,0 +1,381 @@
+package org.thingsboard.ai.mcp.server.tools.telemetry;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import jakarta.validation.constraints.NotBlank;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.tool.annotation.Tool;
+import org.springframework.ai.tool.annotation.ToolParam;
+import org.springframework.stereotype.Service;
+import org.thingsboard.ai.mcp.server.rest.RestClient;
+import org.thingsboard.ai.mcp.server.rest.RestClientService;
+import org.thingsboard.ai.mcp.server.tools.McpTools;
+import org.thingsboard.ai.mcp.server.tools.telemetry.AnomalyDetection.Detector;
+import org.thingsboard.ai.mcp.server.tools.telemetry.SeriesAlignment.Alignment;
+import org.thingsboard.ai.mcp.server.tools.telemetry.SeriesAlignment.Series;
+import org.thingsboard.ai.mcp.server.tools.telemetry.TelemetryFileTools.Window;
+import org.thingsboard.common.util.JacksonUtil;
+import org.thingsboard.server.common.data.StringUtils;
+import org.thingsboard.server.common.data.id.EntityId;
+import org.thingsboard.server.common.data.id.EntityIdFactory;
+import org.thingsboard.server.common.data.kv.Aggregation;
+import org.thingsboard.server.common.data.kv.TsKvEntry;
+import org.thingsboard.server.common.data.page.SortOrder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+import static org.thingsboard.ai.mcp.server.constant.ControllerConstants.ENTITY_ID_PARAM_DESCRIPTION;
+import static org.thingsboard.ai.mcp.server.constant.ControllerConstants.ENTITY_TYPE_PARAM_DESCRIPTION;
+import static org.thingsboard.ai.mcp.server.constant.ControllerConstants.TELEMETRY_KEYS_DESCRIPTION;
+import static org.thingsboard.ai.mcp.server.constant.ControllerConstants.TENANT_OR_CUSTOMER_AUTHORITY_PARAGRAPH;
+import static org.thingsboard.ai.mcp.server.util.ToolUtils.parseIntOrDefault;
+import static org.thingsboard.ai.mcp.server.util.ToolUtils.parseLong;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TelemetryAnalysisTools implements McpTools {
+
+    private static final int MAX_SERIES = 20;
+    private static final int DEFAULT_SERIES_LIMIT = 10000;
+    private static final int MAX_SERIES_LIMIT = 50000;
+    private static final int MAX_TIMELINE = 100000;
+    private static final int DEFAULT_MAX_ROWS = 500;
+    private static final int MAX_ROWS = 10000;
+    private static final int MAX_LAG = 1000;
+    /**
+     * Maximum number of value pairs compared by the lag search; a long timeline or many series narrow the searched lags.
+     */
+    private static final long LAG_SEARCH_BUDGET = 100_000_000L;
+    private static final int DEFAULT_DETECTOR_WINDOW = 30;
+    private static final int MAX_DETECTOR_WINDOW = 10000;
+    private static final double DEFAULT_THRESHOLD = 3.0;
+    private static final int DEFAULT_MAX_SEGMENTS = 20;
+    private static final int MAX_SEGMENTS = 500;
+
+    private final RestClientService clientService;
+    private final ExecutorService toolExecutor;
+
+    /**
+     * One requested series: a time series key of an entity and its column name in the result.
+     */
+    record SeriesSpec(EntityId entityId, String key, String label) {}
+
+    @Tool(description = "Join numeric time series of several entities and keys on timestamp, e.g. to check whether pressure dropped when pump current spiked. " +
+            "The series are read concurrently and aligned on the server to one timeline: a fixed grid of 'interval' ms, or the timestamps of the first series. " +
+            "Each series is aligned with 'alignment': 'NEAREST' value, 'PREVIOUS' value (like a sample-and-hold) or 'LINEAR' interpolation between the neighbours. " +
+            "Returns 'columns' (\"ts\" and one label per series), 'rows' of [ts, value...] with null for missing values, 'points' read per series and 'totalRows'. " +
+            "With 'correlation', returns the Pearson correlation of every pair of series over the whole timeline; " +
+            "with 'maxLag', also the lag in timeline steps (and ms on a grid) at which each series correlates best with the first one, " +
+            "and 'maxLagSearched', which is less than 'maxLag' when the timeline is too long to search every lag. " +
+            "Booleans are read as 1 and 0, numeric strings are parsed and other values are skipped. " +
+            TENANT_OR_CUSTOMER_AUTHORITY_PARAGRAPH)
+    public String joinTimeseries(
+            @ToolParam(description = "A JSON array of up to 20 series, each an object with 'entityType', 'entityId', 'key' and an optional column 'label', " +
+                    "e.g. [{\"entityType\":\"DEVICE\",\"entityId\":\"...\",\"key\":\"current\"},{\"entityType\":\"DEVICE\",\"entityId\":\"...\",\"key\":\"pressure\"}]. " +
+                    "Default label: the key, or 'entityId/key' if several series have the same key.") @NotBlank String series,
+            @ToolParam(description = "A long value representing the start timestamp of the time range in milliseconds, UTC.") @NotBlank String startTs,
+            @ToolParam(description = "A long value representing the end timestamp (exclusive) of the time range in milliseconds, UTC.") @NotBlank String endTs,
+            @ToolParam(required = false, description = "Timeline grid step in milliseconds, e.g. '60000'. If not set, the timestamps of the first series are used.") String interval,
+            @ToolParam(required = false, description = "Alignment of the series to the timeline: 'NEAREST', 'PREVIOUS' or 'LINEAR'. Default: 'NEAREST'") String alignment,
+            @ToolParam(required = false, description = "Maximum distance in milliseconds between a timeline timestamp and the values used for it. Default: 'interval' if set, otherwise not limited") String tolerance,
+            @ToolParam(required = false, description = "Compute the Pearson correlation of every pair of series (true/false). Default: false") String correlation,
+            @ToolParam(required = false, description = "Maximum lag in timeline steps searched for the best correlation of each series with the first one, up to 1000. Default: 0 (no lag search)") String maxLag,
+            @ToolParam(required = false, description = "Maximum number of returned rows, up to 10000; correlations always use the whole timeline. Set to '0' to return only correlations. Default: 500") String maxRows,
+            @ToolParam(required = false, description = "Maximum number of points read per series, up to 50000. Default: 10000") String limit) {
+        List<SeriesSpec> specs = parseSeries(series);
+        Long start = parseLong(startTs);
+        Long end = parseLong(endTs);
+        if (start == null || end == null || start >= end) {
+            throw new IllegalArgumentException("'startTs' must be less than 'endTs'");
+        }
+        long step = Math.max(0L, parseLong(interval, 0L));
+        Alignment seriesAlignment = StringUtils.isNotBlank(alignment) ? Alignment.valueOf(alignment.trim().toUpperCase(Locale.ROOT)) : Alignment.NEAREST;
+        long maxDistance = Math.max(0L, parseLong(tolerance, step > 0 ? step : Long.MAX_VALUE));
+        int lags = Math.min(MAX_LAG, Math.max(0, parseIntOrDefault(maxLag, 0)));
+        boolean correlate = Boolean.parseBoolean(correlation) || lags > 0;
+        int rowLimit = Math.min(MAX_ROWS, Math.max(0, parseIntOrDefault(maxRows, DEFAULT_MAX_ROWS)));
+        int seriesLimit = Math.min(MAX_SERIES_LIMIT, Math.max(1, parseIntOrDefault(limit, DEFAULT_SERIES_LIMIT)));
+        if (step > 0 && (end - start) / step >= MAX_TIMELINE) {
+            throw new IllegalArgumentException("The timeline has more than " + MAX_TIMELINE + " steps, increase 'interval' or narrow the time range");
+        }
+
+        List<Series> fetched = fetchSeries(specs, start, end, seriesLimit);
+        long[] timeline = step > 0 ? grid(start, end, step) : distinct(fetched.get(0).ts());
+        List<double[]> columns = new ArrayList<>(specs.size());
+        for (Series s : fetched) {
+            columns.add(SeriesAlignment.align(s, timeline, seriesAlignment, maxDistance));
+        }
+        log.debug("Joined {} series on {} timestamps", specs.size(), timeline.length);
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        List<String> labels = new ArrayList<>();
+        labels.add("ts");
+        specs.forEach(spec -> labels.add(spec.label()));
+        result.put("columns", labels);
+        Map<String, Object> points = new LinkedHashMap<>();
+        for (int i = 0; i < specs.size(); i++) {
+            Map<String, Object> seriesPoints = new LinkedHashMap<>();
+            seriesPoints.put("read", fetched.get(i).size());
+            seriesPoints.put("aligned", SeriesAlignment.count(columns.get(i)));
+            seriesPoints.put("truncated", fetched.get(i).size() >= seriesLimit);
+            points.put(specs.get(i).label(), seriesPoints);
+        }
+        result.put("points", points);
+        result.put("totalRows", timeline.length);
+        result.put("truncated", timeline.length > rowLimit);
+        List<Object[]> rows = new ArrayList<>(Math.min(rowLimit, timeline.length));
+        for (int i = 0; i < timeline.length && i < rowLimit; i++) {
+            Object[] row = new Object[columns.size() + 1];
+            row[0] = timeline[i];
+            for (int c = 0; c < columns.size(); c++) {
+                row[c + 1] = toJsonValue(columns.get(c)[i]);
+            }
+            rows.add(row);
+        }
+        result.put("rows", rows);
+        if (correlate) {
+            result.put("correlation", correlations(specs, columns));
+        }
+        if (lags > 0) {
+            // Every searched lag is one pass over the timeline per series
+            long passes = LAG_SEARCH_BUDGET / Math.max(1L, (long) timeline.length * (specs.size() - 1));
+            int searchedLags = (int) Math.min(lags, Math.max(0L, (passes - 1) / 2));
+            result.put("maxLagSearched", searchedLags);
+            result.put("lag", bestLags(specs, columns, searchedLags, step));
+        }
+        return JacksonUtil.toString(result);
+    }
+
+    @Tool(description = "Find anomalies in time series of an entity, e.g. 'find anomalies in the last week', without reading the raw points. " +
+            "The raw values are read window by window and scanned on the server by single-pass detectors: " +
+            "'ZSCORE' (distance from the mean of the previous 'window' values in standard deviations), " +
+            "'EWMA' (distance from the exponentially weighted mean in standard deviations), " +
+            "'IQR' (more than 1.5 interquartile ranges outside the quartiles), " +
+            "'FLATLINE' (the same value repeated for 'flatlineMs', or for 'window' points; a stuck sensor) and " +
+            "'GAP' (no data for longer than 'gapMs', or 5 times the average interval, also before the first and after the last point of the range; " +
+            "a key without data in the range is one gap). " +
+            "Returns per key only 'points', 'min', 'max', 'mean', the number of 'anomalies' per detector and the top anomalous 'segments' " +
+            "with 'detector', 'startTs', 'endTs', 'points', 'score' and the 'peakTs'/'peakValue' of the segment. " +
+            "Booleans are read as 1 and 0, numeric strings are parsed and other values are skipped. " +
+            TENANT_OR_CUSTOMER_AUTHORITY_PARAGRAPH)
+    public String detectAnomalies(
+            @ToolParam(description = ENTITY_TYPE_PARAM_DESCRIPTION) @NotBlank String entityType,
+            @ToolParam(description = ENTITY_ID_PARAM_DESCRIPTION) @NotBlank String entityIdStr,
+            @ToolParam(description = TELEMETRY_KEYS_DESCRIPTION) @NotBlank String keys,
+            @ToolParam(description = "A long value representing the start timestamp of the time range in milliseconds, UTC.") @NotBlank String startTs,
+            @ToolParam(required = false, description = "A long value representing the end timestamp (exclusive) of the time range in milliseconds, UTC. If not set, current ts is used") String endTs,
+            @ToolParam(required = false, description = "Comma-separated detectors: 'ZSCORE', 'EWMA', 'IQR', 'FLATLINE', 'GAP'. Default: all") String detectors,
+            @ToolParam(required = false, description = "Number of preceding values the detectors learn from before reporting, up to 10000. Default: 30") String window,
+            @ToolParam(required = false, description = "Score above which 'ZSCORE' and 'EWMA' report a value, in standard deviations. Default: 3") String threshold,
+            @ToolParam(required = false, description = "Minimum duration in milliseconds of repeated values reported by 'FLATLINE'. Default: 'window' points") String flatlineMs,
+            @ToolParam(required = false, description = "Minimum interval in milliseconds without data reported by 'GAP'. Default: 5 times the average interval") String gapMs,
+            @ToolParam(required = false, description = "Maximum number of segments returned per key, the ones with the highest scores, up to 500. Default: 20") String maxSegments) {
+        EntityId entityId = EntityIdFactory.getByTypeAndId(entityType, entityIdStr);
+        List<String> keyList = Arrays.stream(keys.split(",")).map(String::trim).filter(StringUtils::isNotEmpty).distinct().toList();
+        Long start = parseLong(startTs);
+        long end = parseLong(endTs, System.currentTimeMillis());
+        if (start == null || start >= end) {
+            throw new IllegalArgumentException("'startTs' must be less than 'endTs'");
+        }
+        Set<Detector> detectorSet = EnumSet.noneOf(Detector.class);
+        if (StringUtils.isNotBlank(detectors)) {
+            Arrays.stream(detectors.split(",")).map(String::trim).filter(StringUtils::isNotEmpty)
+                    .forEach(name -> detectorSet.add(Detector.valueOf(name.toUpperCase(Locale.ROOT))));
+        }
+        if (detectorSet.isEmpty()) {
+            detectorSet.addAll(EnumSet.allOf(Detector.class));
+        }
+        int windowSize = Math.min(MAX_DETECTOR_WINDOW, Math.max(2, parseIntOrDefault(window, DEFAULT_DETECTOR_WINDOW)));
+        double scoreThreshold = StringUtils.isNotBlank(threshold) ? Double.parseDouble(threshold.trim()) : DEFAULT_THRESHOLD;
+        long flatline = Math.max(0L, parseLong(flatlineMs, 0L));
+        long gap = Math.max(0L, parseLong(gapMs, 0L));
+        int segments = Math.min(MAX_SEGMENTS, Math.max(1, parseIntOrDefault(maxSegments, DEFAULT_MAX_SEGMENTS)));
+        Map<String, AnomalyDetection> detections = new LinkedHashMap<>();
+        keyList.forEach(key -> detections.put(key, new AnomalyDetection(detectorSet, start, end, windowSize, scoreThreshold, flatline, gap, segments)));
+        RestClient client = clientService.getClient();
+
+        int requests = 0;
+        long skipped = 0;
+        Window current = TelemetryFileTools.fetch(client, entityId, keyList, start, Math.min(end, start + TelemetryFileTools.DEFAULT_WINDOW_MS), end,
+                TelemetryFileTools.DEFAULT_WINDOW_LIMIT);
+        while (current != null) {
+            requests += current.requests();
+            long nextStart = current.writeUntil() + 1;
+            // The next window is read while the current one is scanned
+            CompletableFuture<Window> next = nextStart < end ? CompletableFuture.supplyAsync(() ->
+                    TelemetryFileTools.fetch(client, entityId, keyList, nextStart, Math.min(end, nextStart + TelemetryFileTools.DEFAULT_WINDOW_MS), end,
+                            TelemetryFileTools.DEFAULT_WINDOW_LIMIT), toolExecutor) : null;
+            for (TsKvEntry entry : current.entries()) {
+                AnomalyDetection detection = detections.get(entry.getKey());
+                if (detection == null || entry.getTs() > current.writeUntil()) {
+                    continue;
+                }
+                double value = SeriesAlignment.toDouble(entry);
+                if (Double.isNaN(value)) {
+                    skipped++;
+                } else {
+                    detection.accept(entry.getTs(), value);
+                }
+            }
+            try {
+                current = next != null ? next.join() : null;
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException re ? re : e;
+            }
+        }
+        log.debug("Scanned time series of {} in {} requests", entityId, requests);
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        Map<String, Object> keyResults = new LinkedHashMap<>();
+        detections.forEach((key, detection) -> keyResults.put(key, detection.finish()));
+        result.put("keys", keyResults);
+        result.put("detectors", detectorSet);
+        result.put("skippedValues", skipped);
+        result.put("requests", requests);
+        return JacksonUtil.toString(result);
+    }
+
+    static List<SeriesSpec> parseSeries(String series) {
+        JsonNode json = JacksonUtil.toJsonNode(series);
+        if (json == null || !json.isArray() || json.isEmpty()) {
+            throw new IllegalArgumentException("'series' must be a non-empty JSON array");
+        }
+        if (json.size() > MAX_SERIES) {
+            throw new IllegalArgumentException("At most " + MAX_SERIES + " series can be joined");
+        }
+        List<SeriesSpec> specs = new ArrayList<>(json.size());
+        Map<String, Long> keyCounts = new LinkedHashMap<>();
+        for (JsonNode node : json) {
+            String key = node.path("key").asText("").trim();
+            if (key.isEmpty() || node.path("entityType").asText("").isBlank() || node.path("entityId").asText("").isBlank()) {
+                throw new IllegalArgumentException("Each series needs 'entityType', 'entityId' and 'key'");
+            }
+            keyCounts.merge(key, 1L, Long::sum);
+        }
+        Set<String> labels = new HashSet<>();
+        for (JsonNode node : json) {
+            EntityId entityId = EntityIdFactory.getByTypeAndId(node.get("entityType").asText().trim(), node.get("entityId").asText().trim());
+            String key = node.get("key").asText().trim();
+            String label = node.path("label").asText("").trim();
+            if (label.isEmpty()) {
+                label = keyCounts.get(key) > 1 ? entityId.getId() + "/" + key : key;
+            }
+            if (!labels.add(label)) {
+                throw new IllegalArgumentException("Duplicate series '" + label + "'");
+            }
+            specs.add(new SeriesSpec(entityId, key, label));
+        }
+        return specs;
+    }
+
+    /**
+     * Reads the series with one request per entity, all entities concurrently. A failed read cancels the reads that
+     * have not started yet.
+     */
+    private List<Series> fetchSeries(List<SeriesSpec> specs, long start, long end, int limit) {
+        RestClient client = clientService.getClient();
+        Map<EntityId, List<String>> keysByEntity = specs.stream().collect(Collectors.groupingBy(SeriesSpec::entityId,
+                LinkedHashMap::new, Collectors.mapping(SeriesSpec::key, Collectors.toList())));
+        Map<EntityId, Future<List<TsKvEntry>>> futures = new LinkedHashMap<>();
+        keysByEntity.forEach((entityId, keys) -> futures.put(entityId, toolExecutor.submit(() ->
+                client.getTimeseries(entityId, keys, 0L, Aggregation.NONE, null, null, SortOrder.Direction.ASC, start, end, limit, true))));
+        List<Series> result = new ArrayList<>(specs.size());
+        try {
+            for (SeriesSpec spec : specs) {
+                List<TsKvEntry> entries = futures.get(spec.entityId()).get().stream()
+                        .filter(entry -> entry.getKey().equals(spec.key()))
+                        .toList();
+                result.add(SeriesAlignment.toSeries(entries));
+            }
+        } catch (ExecutionException e) {
+            futures.values().forEach(f -> f.cancel(true));
+            throw e.getCause() instanceof RuntimeException re ? re : new RuntimeException(e.getCause());
+        } catch (InterruptedException e) {
+            futures.values().forEach(f -> f.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while reading time series", e);
+        }
+        return result;
+    }
+
+    private static List<Map<String, Object>> correlations(List<SeriesSpec> specs, List<double[]> columns) {
+        List<Map<String, Object>> result = new ArrayList<>();
+        for (int a = 0; a < columns.size(); a++) {
+            for (int b = a + 1; b < columns.size(); b++) {
+                Map<String, Object> pair = new LinkedHashMap<>();
+                pair.put("a", specs.get(a).label());
+                pair.put("b", specs.get(b).label());
+                pair.put("r", round(SeriesAlignment.pearson(columns.get(a), columns.get(b), 0)));
+                pair.put("n", SeriesAlignment.pairs(columns.get(a), columns.get(b)));
+                result.add(pair);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * For every series, the lag in [-maxLag, maxLag] with the strongest correlation to the first series. A positive
+     * lag means the series follows the first one.
+     */
+    private static List<Map<String, Object>> bestLags(List<SeriesSpec> specs, List<double[]> columns, int maxLag, long step) {
+        List<Map<String, Object>> result = new ArrayList<>();
+        double[] reference = columns.get(0);
+        for (int b = 1; b < columns.size(); b++) {
+            int bestLag = 0;
+            double bestR = Double.NaN;
+            for (int lag = -maxLag; lag <= maxLag; lag++) {
+                double r = SeriesAlignment.pearson(reference, columns.get(b), lag);
+                if (!Double.isNaN(r) && (Double.isNaN(bestR) || Math.abs(r) > Math.abs(bestR))) {
+                    bestR = r;
+                    bestLag = lag;
+                }
+            }
+            Map<String, Object> pair = new LinkedHashMap<>();
+            pair.put("a", specs.get(0).label());
+            pair.put("b", specs.get(b).label());
+            pair.put("lag", bestLag);
+            if (step > 0) {
+                pair.put("lagMs", bestLag * step);
+            }
+            pair.put("r", round(bestR));
+            result.add(pair);
+        }
+        return result;
+    }
+
+    private static long[] grid(long start, long end, long step) {
+        long[] timeline = new long[(int) ((end - start + step - 1) / step)];
+        for (int i = 0; i < timeline.length; i++) {
+            timeline[i] = start + i * step;
+        }
+        return timeline;
+    }
+
+    private static long[] distinct(long[] sorted) {
+        return Arrays.stream(sorted).distinct().toArray();
+    }
+
+    private static Object toJsonValue(double value) {
+        return Double.isNaN(value) ? null : value;
+    }
+
+    private static Double round(double value) {
+        return Double.isNaN(value) ? null : Math.round(value * 10000) / 10000.0;
+    }
+
+}
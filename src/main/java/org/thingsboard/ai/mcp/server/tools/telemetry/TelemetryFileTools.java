@@ -0,0 +1,344 @@
+package org.thingsboard.ai.mcp.server.tools.telemetry;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.modelcontextprotocol.spec.McpSchema;
+import jakarta.validation.constraints.NotBlank;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.chat.model.ToolContext;
+import org.springframework.ai.mcp.McpToolUtils;
+import org.springframework.ai.tool.annotation.Tool;
+import org.springframework.ai.tool.annotation.ToolParam;
+import org.springframework.stereotype.Service;
+import org.thingsboard.ai.mcp.server.rest.RestClient;
+import org.thingsboard.ai.mcp.server.rest.RestClientService;
+import org.thingsboard.ai.mcp.server.tools.McpTools;
+import org.thingsboard.common.util.JacksonUtil;
+import org.thingsboard.server.common.data.StringUtils;
+import org.thingsboard.server.common.data.id.EntityId;
+import org.thingsboard.server.common.data.id.EntityIdFactory;
+import org.thingsboard.server.common.data.kv.Aggregation;
+import org.thingsboard.server.common.data.kv.TsKvEntry;
+import org.thingsboard.server.common.data.page.SortOrder;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.thingsboard.ai.mcp.server.constant.ControllerConstants.ENTITY_ID_PARAM_DESCRIPTION;
+import static org.thingsboard.ai.mcp.server.constant.ControllerConstants.ENTITY_TYPE_PARAM_DESCRIPTION;
+import static org.thingsboard.ai.mcp.server.constant.ControllerConstants.TELEMETRY_KEYS_DESCRIPTION;
+import static org.thingsboard.ai.mcp.server.constant.ControllerConstants.TENANT_OR_CUSTOMER_AUTHORITY_PARAGRAPH;
+import static org.thingsboard.ai.mcp.server.util.ToolUtils.normalizePathForWindows;
+import static org.thingsboard.ai.mcp.server.util.ToolUtils.parseIntOrDefault;
+import static org.thingsboard.ai.mcp.server.util.ToolUtils.parseLong;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TelemetryFileTools implements McpTools {
+
+    enum FileFormat {CSV, NDJSON}
+
+    static final long DEFAULT_WINDOW_MS = TimeUnit.DAYS.toMillis(1);
+    static final int DEFAULT_WINDOW_LIMIT = 10000;
+    private static final int MAX_WINDOW_LIMIT = 50000;
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+    private static final int DEFAULT_BATCH_ROWS = 1000;
+    private static final int MAX_BATCH_ROWS = 10000;
+    private static final int DEFAULT_IMPORT_CONCURRENCY = 4;
+    private static final int MAX_IMPORT_CONCURRENCY = 16;
+    private static final int DEFAULT_MAX_RETRIES = 3;
+    private static final long RETRY_DELAY_MS = 500;
+
+    private final RestClientService clientService;
+    private final ExecutorService toolExecutor;
+
+    /**
+     * Time series of [start, writeUntil] of a fetched window and the number of requests it took; the next window starts
+     * right after.
+     */
+    record Window(List<TsKvEntry> entries, long writeUntil, int requests) {}
+
+    @Tool(description = "Export raw time series of an entity to a CSV or NDJSON file on the MCP host, e.g. a year of data for offline analysis. " +
+            "The data is read window by window and streamed to the file, so it never enters the model context and any range can be exported. " +
+            "Gaps without data are skipped, so a range that starts long before the first point does not cost a request per window. " +
+            "CSV files have a 'ts' column and one column per key; NDJSON files have one {\"ts\":...,\"values\":{...}} object per line, " +
+            "the format accepted by 'saveEntityTelemetry'. Rows are ordered by timestamp. " +
+            "Returns only a summary: 'rows', 'points' per key, 'minTs', 'maxTs', 'requests' and 'fileSizeBytes'. " +
+            TENANT_OR_CUSTOMER_AUTHORITY_PARAGRAPH)
+    public String exportTimeseries(
+            @ToolParam(description = ENTITY_TYPE_PARAM_DESCRIPTION) @NotBlank String entityType,
+            @ToolParam(description = ENTITY_ID_PARAM_DESCRIPTION) @NotBlank String entityIdStr,
+            @ToolParam(description = TELEMETRY_KEYS_DESCRIPTION) @NotBlank String keys,
+            @ToolParam(description = "Destination file path on the MCP host. An existing file is replaced.") @NotBlank String filePath,
+            @ToolParam(required = false, description = "A long value representing the start timestamp of the time range in milliseconds, UTC. If not set 0 ts is used") String startTs,
+            @ToolParam(required = false, description = "A long value representing the end timestamp (exclusive) of the time range in milliseconds, UTC. If not set, current ts is used") String endTs,
+            @ToolParam(required = false, description = "File format: 'CSV' or 'NDJSON'. Default: 'NDJSON' for '.ndjson' and '.jsonl' files, 'CSV' otherwise") String format,
+            @ToolParam(required = false, description = "Compress the file with gzip. Default: true for '.gz' files") String gzip,
+            @ToolParam(required = false, description = "Length of the time windows read per request in milliseconds. Default: 86400000 (one day)") String windowMs,
+            @ToolParam(required = false, description = "Maximum number of points per key read per request, up to 50000. Default: 10000") String windowLimit) throws IOException {
+        EntityId entityId = EntityIdFactory.getByTypeAndId(entityType, entityIdStr);
+        List<String> keyList = Arrays.stream(keys.split(",")).map(String::trim).filter(StringUtils::isNotEmpty).distinct().toList();
+        long start = parseLong(startTs, 0L);
+        long end = parseLong(endTs, System.currentTimeMillis());
+        long window = Math.max(1L, parseLong(windowMs, DEFAULT_WINDOW_MS));
+        int limit = Math.min(MAX_WINDOW_LIMIT, Math.max(1, parseIntOrDefault(windowLimit, DEFAULT_WINDOW_LIMIT)));
+        Path target = Paths.get(normalizePathForWindows(filePath));
+        String fileName = target.getFileName().toString().toLowerCase(Locale.ROOT);
+        boolean compress = StringUtils.isNotBlank(gzip) ? Boolean.parseBoolean(gzip) : fileName.endsWith(".gz");
+        FileFormat fileFormat = resolveFormat(format, fileName);
+        RestClient client = clientService.getClient();
+
+        Path parent = target.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path part = target.resolveSibling(target.getFileName() + ".part");
+        Map<String, Long> points = new LinkedHashMap<>();
+        keyList.forEach(key -> points.put(key, 0L));
+        long rows = 0;
+        long minTs = Long.MAX_VALUE;
+        long maxTs = Long.MIN_VALUE;
+        int requests = 0;
+        try (OutputStream out = openOutput(part, compress);
+             Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), WRITE_BUFFER_SIZE)) {
+            if (fileFormat == FileFormat.CSV) {
+                writer.write("ts");
+                for (String key : keyList) {
+                    writer.write(',');
+                    writer.write(csvValue(key));
+                }
+                writer.write('\n');
+            }
+            Window current = start < end ? fetch(client, entityId, keyList, start, Math.min(end, start + window), end, limit) : null;
+            while (current != null) {
+                requests += current.requests();
+                long nextStart = current.writeUntil() + 1;
+                // The next window is read while the current one is written
+                CompletableFuture<Window> next = nextStart < end ? CompletableFuture.supplyAsync(() ->
+                        fetch(client, entityId, keyList, nextStart, Math.min(end, nextStart + window), end, limit), toolExecutor) : null;
+                TreeMap<Long, Object[]> windowRows;
+                try {
+                    windowRows = toRows(current, keyList, points);
+                    for (Map.Entry<Long, Object[]> row : windowRows.entrySet()) {
+                        if (fileFormat == FileFormat.CSV) {
+                            writeCsvRow(writer, row.getKey(), row.getValue());
+                        } else {
+                            writeNdjsonRow(writer, row.getKey(), row.getValue(), keyList);
+                        }
+                    }
+                } catch (IOException | RuntimeException e) {
+                    if (next != null) {
+                        next.cancel(true);
+                    }
+                    throw e;
+                }
+                if (!windowRows.isEmpty()) {
+                    rows += windowRows.size();
+                    minTs = Math.min(minTs, windowRows.firstKey());
+                    maxTs = Math.max(maxTs, windowRows.lastKey());
+                }
+                current = next != null ? join(next) : null;
+            }
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(part);
+            throw e;
+        }
+        Files.move(part, target, StandardCopyOption.REPLACE_EXISTING);
+        log.debug("Exported {} rows of {} in {} requests to {}", rows, entityId, requests, target);
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("status", "OK");
+        result.put("path", target.toString());
+        result.put("format", fileFormat);
+        result.put("gzip", compress);
+        result.put("rows", rows);
+        result.put("points", points);
+        result.put("minTs", rows > 0 ? minTs : null);
+        result.put("maxTs", rows > 0 ? maxTs : null);
+        result.put("requests", requests);
+        result.put("fileSizeBytes", Files.size(target));
+        return JacksonUtil.toString(result);
+    }
+
+    @Tool(description = "Import time series from a CSV or NDJSON file on the MCP host, e.g. a file written by 'exportTimeseries' or historical data from another system. " +
+            "The file is read as a stream, so it never enters the model context and its size is not limited. " +
+            "CSV files need a header with a 'ts' column; every other column is a key, and empty cells are skipped. " +
+            "NDJSON files have one {\"ts\":...,\"values\":{...}} object per line. " +
+            "Rows may name their own entity with 'entityType' and 'entityId' columns or fields; other rows are saved to the entity of the tool. " +
+            "Rows are grouped per entity into batches saved by concurrent requests; failed requests are retried. " +
+            "Progress is reported with MCP logging notifications. " +
+            "If a request still fails, the import stops with status 'FAILED' and a 'checkpoint': call the tool again with 'startOffset' set to it to resume. " +
+            "Returns only a summary: 'rows', 'savedRows', 'savedPoints', 'requests', 'retries', 'skippedRows', 'bytesRead' and 'checkpoint'. " +
+            TENANT_OR_CUSTOMER_AUTHORITY_PARAGRAPH)
+    public String importTimeseries(
+            @ToolParam(description = "Source file path on the MCP host.") @NotBlank String filePath,
+            @ToolParam(required = false, description = ENTITY_TYPE_PARAM_DESCRIPTION + " Required unless every row names its entity.") String entityType,
+            @ToolParam(required = false, description = ENTITY_ID_PARAM_DESCRIPTION + " Required unless every row names its entity.") String entityIdStr,
+            @ToolParam(required = false, description = "File format: 'CSV' or 'NDJSON'. Default: 'NDJSON' for '.ndjson' and '.jsonl' files, 'CSV' otherwise") String format,
+            @ToolParam(required = false, description = "Decompress the file with gzip. Default: true for '.gz' files") String gzip,
+            @ToolParam(required = false, description = "Byte offset of the uncompressed file to resume from, the 'checkpoint' of a failed import. Default: 0") String startOffset,
+            @ToolParam(required = false, description = "Maximum number of rows saved per request, up to 10000. Default: 1000") String batchRows,
+            @ToolParam(required = false, description = "Maximum number of requests in flight, up to 16. Default: 4") String concurrency,
+            ToolContext toolContext) throws IOException {
+        Path source = Paths.get(normalizePathForWindows(filePath));
+        String fileName = source.getFileName().toString().toLowerCase(Locale.ROOT);
+        boolean compressed = StringUtils.isNotBlank(gzip) ? Boolean.parseBoolean(gzip) : fileName.endsWith(".gz");
+        FileFormat fileFormat = resolveFormat(format, fileName);
+        EntityId entityId = StringUtils.isNotBlank(entityType) && StringUtils.isNotBlank(entityIdStr) ?
+                EntityIdFactory.getByTypeAndId(entityType, entityIdStr) : null;
+        long offset = Math.max(0L, parseLong(startOffset, 0L));
+        int rowsPerBatch = Math.min(MAX_BATCH_ROWS, Math.max(1, parseIntOrDefault(batchRows, DEFAULT_BATCH_ROWS)));
+        int inFlight = Math.min(MAX_IMPORT_CONCURRENCY, Math.max(1, parseIntOrDefault(concurrency, DEFAULT_IMPORT_CONCURRENCY)));
+        long totalBytes = compressed ? -1 : Files.size(source);
+        RestClient client = clientService.getClient();
+
+        TelemetryImport telemetryImport = new TelemetryImport(client, toolExecutor, entityId,
+                rowsPerBatch, inFlight, DEFAULT_MAX_RETRIES, RETRY_DELAY_MS);
+        Map<String, Object> result;
+        try (InputStream in = openInput(source, compressed)) {
+            result = telemetryImport.run(in, fileFormat, offset, totalBytes, progressNotifier(toolContext));
+        }
+        log.debug("Imported time series from {}: {}", source, result);
+        result.put("path", source.toString());
+        result.put("format", fileFormat);
+        return JacksonUtil.toString(result);
+    }
+
+    private static FileFormat resolveFormat(String format, String fileName) {
+        return StringUtils.isNotBlank(format) ? FileFormat.valueOf(format.trim().toUpperCase(Locale.ROOT)) :
+                fileName.contains(".ndjson") || fileName.contains(".jsonl") ? FileFormat.NDJSON : FileFormat.CSV;
+    }
+
+    private static Consumer<TelemetryImport.Progress> progressNotifier(ToolContext toolContext) {
+        if (toolContext == null) {
+            return progress -> {};
+        }
+        return McpToolUtils.getMcpExchange(toolContext)
+                .<Consumer<TelemetryImport.Progress>>map(exchange -> progress -> {
+                    try {
+                        exchange.loggingNotification(new McpSchema.LoggingMessageNotification(
+                                McpSchema.LoggingLevel.INFO, "importTimeseries", JacksonUtil.toString(progress)));
+                    } catch (Exception e) {
+                        log.debug("Failed to send import progress", e);
+                    }
+                })
+                .orElse(progress -> {});
+    }
+
+    /**
+     * Reads raw values of [start, end) in ascending order. If a key returns 'limit' values, the window may hold more of
+     * them, so the window is complete only up to the last timestamp of that key and the next one starts right after.
+     * If the window is empty, the first point of [end, rangeEnd) is read as well and the window extends up to it, so
+     * the next window starts at the next point instead of stepping through the gap.
+     */
+    static Window fetch(RestClient client, EntityId entityId, List<String> keys, long start, long end, long rangeEnd, int limit) {
+        List<TsKvEntry> entries = client.getTimeseries(entityId, keys, 0L, Aggregation.NONE, null, null,
+                SortOrder.Direction.ASC, start, end, limit, true);
+        if (entries.isEmpty() && end < rangeEnd) {
+            List<TsKvEntry> first = client.getTimeseries(entityId, keys, 0L, Aggregation.NONE, null, null,
+                    SortOrder.Direction.ASC, end, rangeEnd, 1, true);
+            long nextTs = first.stream().mapToLong(TsKvEntry::getTs).min().orElse(rangeEnd);
+            return new Window(entries, nextTs - 1, 2);
+        }
+        Map<String, Integer> counts = new HashMap<>();
+        Map<String, Long> lastTs = new HashMap<>();
+        for (TsKvEntry entry : entries) {
+            counts.merge(entry.getKey(), 1, Integer::sum);
+            lastTs.merge(entry.getKey(), entry.getTs(), Math::max);
+        }
+        long writeUntil = end - 1;
+        for (Map.Entry<String, Integer> count : counts.entrySet()) {
+            if (count.getValue() >= limit) {
+                writeUntil = Math.min(writeUntil, lastTs.get(count.getKey()));
+            }
+        }
+        return new Window(entries, writeUntil, 1);
+    }
+
+    private static TreeMap<Long, Object[]> toRows(Window window, List<String> keys, Map<String, Long> points) {
+        TreeMap<Long, Object[]> rows = new TreeMap<>();
+        for (TsKvEntry entry : window.entries()) {
+            int column = keys.indexOf(entry.getKey());
+            if (column < 0 || entry.getTs() > window.writeUntil() || entry.getValue() == null) {
+                continue;
+            }
+            rows.computeIfAbsent(entry.getTs(), ts -> new Object[keys.size()])[column] = entry.getValue();
+            points.merge(entry.getKey(), 1L, Long::sum);
+        }
+        return rows;
+    }
+
+    private static void writeCsvRow(Writer writer, long ts, Object[] values) throws IOException {
+        writer.write(Long.toString(ts));
+        for (Object value : values) {
+            writer.write(',');
+            if (value != null) {
+                writer.write(value instanceof String s ? csvValue(s) : value.toString());
+            }
+        }
+        writer.write('\n');
+    }
+
+    private static void writeNdjsonRow(Writer writer, long ts, Object[] values, List<String> keys) throws IOException {
+        ObjectNode row = JacksonUtil.newObjectNode();
+        row.put("ts", ts);
+        ObjectNode rowValues = row.putObject("values");
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] != null) {
+                rowValues.set(keys.get(i), JacksonUtil.valueToTree(values[i]));
+            }
+        }
+        writer.write(JacksonUtil.toString(row));
+        writer.write('\n');
+    }
+
+    static String csvValue(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private static OutputStream openOutput(Path path, boolean compress) throws IOException {
+        OutputStream out = Files.newOutputStream(path);
+        return compress ? new GZIPOutputStream(out, WRITE_BUFFER_SIZE) : out;
+    }
+
+    private static InputStream openInput(Path path, boolean compressed) throws IOException {
+        InputStream in = Files.newInputStream(path);
+        return compressed ? new GZIPInputStream(in, WRITE_BUFFER_SIZE) : in;
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException re ? re : e;
+        }
+    }
+
+}
@@ -0,0 +1,450 @@
+package org.thingsboard.ai.mcp.server.tools.telemetry;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.client.HttpClientErrorException;
+import org.thingsboard.ai.mcp.server.rest.RestClient;
+import org.thingsboard.ai.mcp.server.tools.telemetry.TelemetryFileTools.FileFormat;
+import org.thingsboard.common.util.JacksonUtil;
+import org.thingsboard.server.common.data.StringUtils;
+import org.thingsboard.server.common.data.id.EntityId;
+import org.thingsboard.server.common.data.id.EntityIdFactory;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * One run of 'importTimeseries'. Reads the rows of a CSV or NDJSON stream from a byte offset, groups them into
+ * {@code [{ts, values}]} batches per entity and saves every full batch on the executor, with at most
+ * {@code concurrency} requests in flight; reading waits while all of them are busy. A failed request is retried, and
+ * if it still fails, reading stops. The checkpoint is the offset of the first row of the oldest batch not saved yet,
+ * so a new run from the checkpoint saves every row that may be missing; rows saved again overwrite the same values.
+ */
+@Slf4j
+class TelemetryImport {
+
+    record Progress(long bytesRead, long totalBytes, long rows, long pointsSaved, long checkpoint) {}
+
+    private record Row(EntityId entityId, long ts, ObjectNode values) {}
+
+    private static final class Batch {
+
+        private final long firstOffset;
+        private final ArrayNode rows = JacksonUtil.newArrayNode();
+        private int points;
+
+        private Batch(long firstOffset) {
+            this.firstOffset = firstOffset;
+        }
+
+    }
+
+    private static final Pattern NUMBER = Pattern.compile("-?\\d+(\\.\\d+)?([eE][-+]?\\d+)?");
+    private static final long PROGRESS_INTERVAL_MS = 1000;
+    private static final long MAX_RETRY_DELAY_MS = 10000;
+
+    private final RestClient client;
+    private final ExecutorService executor;
+    private final EntityId defaultEntityId;
+    private final int batchRows;
+    private final int concurrency;
+    private final int maxRetries;
+    private final long retryDelayMs;
+    private final Semaphore inFlight;
+    private final Map<EntityId, Batch> batches = new HashMap<>();
+    /**
+     * First offsets of the batches not saved yet, with the number of batches starting there.
+     */
+    private final TreeMap<Long, Integer> unsavedOffsets = new TreeMap<>();
+    private final AtomicLong savedRows = new AtomicLong();
+    private final AtomicLong savedPoints = new AtomicLong();
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong retries = new AtomicLong();
+    private volatile String error;
+    private long rows;
+    private long skippedRows;
+    private String firstSkipped;
+
+    TelemetryImport(RestClient client, ExecutorService executor, EntityId defaultEntityId,
+                    int batchRows, int concurrency, int maxRetries, long retryDelayMs) {
+        this.client = client;
+        this.executor = executor;
+        this.defaultEntityId = defaultEntityId;
+        this.batchRows = batchRows;
+        this.concurrency = concurrency;
+        this.maxRetries = maxRetries;
+        this.retryDelayMs = retryDelayMs;
+        this.inFlight = new Semaphore(concurrency);
+    }
+
+    Map<String, Object> run(InputStream in, FileFormat format, long startOffset, long totalBytes, Consumer<Progress> progress) throws IOException {
+        LineReader reader = new LineReader(in, format == FileFormat.CSV);
+        List<String> header = null;
+        if (format == FileFormat.CSV) {
+            String headerLine = reader.readLine();
+            header = headerLine != null ? parseCsvLine(headerLine) : List.of("ts");
+            if (!header.contains("ts")) {
+                throw new IllegalArgumentException("CSV header must have a 'ts' column");
+            }
+        }
+        if (startOffset > reader.offset) {
+            reader.skip(startOffset - reader.offset);
+        }
+        long lastProgressMs = System.currentTimeMillis();
+        String line;
+        while (error == null && (line = reader.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            Row row;
+            try {
+                row = format == FileFormat.CSV ? parseCsvRow(header, line) : parseNdjsonRow(line);
+            } catch (RuntimeException e) {
+                skippedRows++;
+                if (firstSkipped == null) {
+                    firstSkipped = "Row at offset " + reader.lineStart + ": " + e.getMessage();
+                }
+                continue;
+            }
+            rows++;
+            add(row, reader.lineStart);
+            if (System.currentTimeMillis() - lastProgressMs >= PROGRESS_INTERVAL_MS) {
+                lastProgressMs = System.currentTimeMillis();
+                progress.accept(new Progress(reader.offset, totalBytes, rows, savedPoints.get(), checkpoint(reader.offset)));
+            }
+        }
+        if (error == null) {
+            for (Map.Entry<EntityId, Batch> entry : new ArrayList<>(batches.entrySet())) {
+                submit(entry.getKey(), entry.getValue());
+            }
+            batches.clear();
+        }
+        awaitInFlight();
+        long checkpoint = checkpoint(reader.offset);
+        progress.accept(new Progress(reader.offset, totalBytes, rows, savedPoints.get(), checkpoint));
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("status", error == null ? "OK" : "FAILED");
+        result.put("rows", rows);
+        result.put("savedRows", savedRows.get());
+        result.put("savedPoints", savedPoints.get());
+        result.put("requests", requests.get());
+        result.put("retries", retries.get());
+        result.put("skippedRows", skippedRows);
+        if (firstSkipped != null) {
+            result.put("firstSkipped", firstSkipped);
+        }
+        result.put("bytesRead", reader.offset);
+        result.put("checkpoint", checkpoint);
+        if (error != null) {
+            result.put("error", error);
+        }
+        return result;
+    }
+
+    private void add(Row row, long offset) {
+        Batch batch = batches.get(row.entityId());
+        if (batch == null) {
+            batch = new Batch(offset);
+            batches.put(row.entityId(), batch);
+            synchronized (unsavedOffsets) {
+                unsavedOffsets.merge(offset, 1, Integer::sum);
+            }
+        }
+        ObjectNode tsRow = batch.rows.addObject();
+        tsRow.put("ts", row.ts());
+        tsRow.set("values", row.values());
+        batch.points += row.values().size();
+        if (batch.rows.size() >= batchRows) {
+            batches.remove(row.entityId());
+            submit(row.entityId(), batch);
+        }
+    }
+
+    private void submit(EntityId entityId, Batch batch) {
+        try {
+            inFlight.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while importing time series", e);
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    save(entityId, batch);
+                } finally {
+                    inFlight.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inFlight.release();
+            throw e;
+        }
+    }
+
+    private void save(EntityId entityId, Batch batch) {
+        for (int attempt = 0; ; attempt++) {
+            if (error != null) {
+                return;
+            }
+            requests.incrementAndGet();
+            String failure;
+            try {
+                failure = client.saveEntityTelemetry(entityId, "ANY", batch.rows) ? null : "Not saved";
+            } catch (HttpClientErrorException e) {
+                if (e.getStatusCode().value() != 429) {
+                    fail(entityId, e.getMessage());
+                    return;
+                }
+                failure = e.getMessage();
+            } catch (RuntimeException e) {
+                failure = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+            }
+            if (failure == null) {
+                synchronized (unsavedOffsets) {
+                    unsavedOffsets.computeIfPresent(batch.firstOffset, (offset, count) -> count > 1 ? count - 1 : null);
+                }
+                savedRows.addAndGet(batch.rows.size());
+                savedPoints.addAndGet(batch.points);
+                return;
+            }
+            if (attempt >= maxRetries) {
+                fail(entityId, failure);
+                return;
+            }
+            retries.incrementAndGet();
+            try {
+                TimeUnit.MILLISECONDS.sleep(Math.min(MAX_RETRY_DELAY_MS, retryDelayMs << attempt));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                fail(entityId, "Interrupted");
+                return;
+            }
+        }
+    }
+
+    private synchronized void fail(EntityId entityId, String failure) {
+        log.debug("Failed to import time series of {}: {}", entityId, failure);
+        if (error == null) {
+            error = "Failed to save time series of " + entityId.getEntityType() + " " + entityId.getId() + ": " + failure;
+        }
+    }
+
+    private void awaitInFlight() {
+        try {
+            inFlight.acquire(concurrency);
+            inFlight.release(concurrency);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while importing time series", e);
+        }
+    }
+
+    private long checkpoint(long bytesRead) {
+        synchronized (unsavedOffsets) {
+            return unsavedOffsets.isEmpty() ? bytesRead : unsavedOffsets.firstKey();
+        }
+    }
+
+    private Row parseCsvRow(List<String> header, String line) {
+        List<String> fields = parseCsvLine(line);
+        ObjectNode values = JacksonUtil.newObjectNode();
+        Long ts = null;
+        String entityType = null;
+        String entityId = null;
+        for (int i = 0; i < header.size() && i < fields.size(); i++) {
+            String column = header.get(i);
+            String field = fields.get(i);
+            switch (column) {
+                case "ts" -> ts = Long.parseLong(field.trim());
+                case "entityType" -> entityType = field;
+                case "entityId" -> entityId = field;
+                default -> {
+                    if (!field.isEmpty()) {
+                        values.set(column, toValue(field));
+                    }
+                }
+            }
+        }
+        return toRow(ts, values, entityType, entityId);
+    }
+
+    private Row parseNdjsonRow(String line) {
+        JsonNode json = JacksonUtil.toJsonNode(line);
+        if (json == null || !json.path("ts").canConvertToLong() || !json.path("values").isObject()) {
+            throw new IllegalArgumentException("Expected {\"ts\":...,\"values\":{...}}");
+        }
+        return toRow(json.get("ts").asLong(), (ObjectNode) json.get("values"),
+                json.path("entityType").asText(null), json.path("entityId").asText(null));
+    }
+
+    private Row toRow(Long ts, ObjectNode values, String entityType, String entityId) {
+        if (ts == null) {
+            throw new IllegalArgumentException("No timestamp");
+        }
+        if (values.isEmpty()) {
+            throw new IllegalArgumentException("No values");
+        }
+        EntityId rowEntityId = StringUtils.isNotBlank(entityType) && StringUtils.isNotBlank(entityId) ?
+                EntityIdFactory.getByTypeAndId(entityType.trim(), entityId.trim()) : defaultEntityId;
+        if (rowEntityId == null) {
+            throw new IllegalArgumentException("No entity, set 'entityType' and 'entityId' of the tool or the row");
+        }
+        return new Row(rowEntityId, ts, values);
+    }
+
+    /**
+     * Restores the type of a CSV field. A number is only typed if it formats back to the same text, the way
+     * 'exportTimeseries' writes it, so text like '007' or '1.50' is saved as text.
+     */
+    private static JsonNode toValue(String field) {
+        if (field.equals("true") || field.equals("false")) {
+            return JacksonUtil.valueToTree(Boolean.parseBoolean(field));
+        }
+        if (NUMBER.matcher(field).matches()) {
+            if (field.indexOf('.') < 0 && field.indexOf('e') < 0 && field.indexOf('E') < 0) {
+                try {
+                    long parsed = Long.parseLong(field);
+                    if (Long.toString(parsed).equals(field)) {
+                        return JacksonUtil.valueToTree(parsed);
+                    }
+                } catch (NumberFormatException ignored) {
+                    // Too large for a long, kept as text
+                }
+            } else {
+                double parsed = Double.parseDouble(field);
+                if (Double.isFinite(parsed) && (Double.toString(parsed).equals(field) || BigDecimal.valueOf(parsed).toPlainString().equals(field))) {
+                    return JacksonUtil.valueToTree(parsed);
+                }
+            }
+        }
+        return JacksonUtil.valueToTree(field);
+    }
+
+    /**
+     * Splits a CSV record into fields, with RFC 4180 quoting; quoted fields may span lines.
+     */
+    static List<String> parseCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    /**
+     * Reads UTF-8 lines and counts the bytes read, so rows can be addressed by offset. In CSV mode a line break within
+     * double quotes belongs to the field, so a record is read up to the first line break outside of quotes.
+     */
+    private static final class LineReader {
+
+        private final InputStream in;
+        private final boolean csv;
+        private final byte[] buffer = new byte[64 * 1024];
+        private byte[] line = new byte[256];
+        private int position;
+        private int limit;
+        private long offset;
+        private long lineStart;
+
+        private LineReader(InputStream in, boolean csv) {
+            this.in = in;
+            this.csv = csv;
+        }
+
+        private String readLine() throws IOException {
+            lineStart = offset;
+            int length = 0;
+            boolean quoted = false;
+            while (true) {
+                if (position == limit && !fill()) {
+                    return length > 0 ? decode(length) : null;
+                }
+                byte b = buffer[position++];
+                offset++;
+                if (b == '\n' && !quoted) {
+                    return decode(length);
+                }
+                if (b == '"' && csv) {
+                    // An escaped quote toggles twice
+                    quoted = !quoted;
+                }
+                if (length == line.length) {
+                    line = Arrays.copyOf(line, length * 2);
+                }
+                line[length++] = b;
+            }
+        }
+
+        private void skip(long bytes) throws IOException {
+            long remaining = bytes;
+            while (remaining > 0) {
+                if (position == limit && !fill()) {
+                    throw new EOFException("Offset " + (offset + remaining) + " is beyond the end of the file");
+                }
+                int skipped = (int) Math.min(remaining, limit - position);
+                position += skipped;
+                offset += skipped;
+                remaining -= skipped;
+            }
+        }
+
+        private boolean fill() throws IOException {
+            int read = in.read(buffer);
+            if (read <= 0) {
+                return false;
+            }
+            position = 0;
+            limit = read;
+            return true;
+        }
+
+        private String decode(int length) {
+            if (length > 0 && line[length - 1] == '\r') {
+                length--;
+            }
+            return new String(line, 0, length, StandardCharsets.UTF_8);
+        }
+
+    }
+
+}
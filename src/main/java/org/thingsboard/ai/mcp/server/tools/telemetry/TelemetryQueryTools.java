@@ -0,0 +1,249 @@
+package org.thingsboard.ai.mcp.server.tools.telemetry;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import jakarta.validation.constraints.NotBlank;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.tool.annotation.Tool;
+import org.springframework.ai.tool.annotation.ToolParam;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.UnknownContentTypeException;
+import org.thingsboard.ai.mcp.server.rest.RestClient;
+import org.thingsboard.ai.mcp.server.rest.RestClientService;
+import org.thingsboard.ai.mcp.server.tools.McpTools;
+import org.thingsboard.common.util.JacksonUtil;
+import org.thingsboard.server.common.data.StringUtils;
+import org.thingsboard.server.common.data.id.EntityId;
+import org.thingsboard.server.common.data.id.EntityIdFactory;
+import org.thingsboard.server.common.data.kv.Aggregation;
+import org.thingsboard.server.common.data.kv.BaseReadTsKvQuery;
+import org.thingsboard.server.common.data.kv.ReadTsKvQuery;
+import org.thingsboard.server.common.data.kv.ReadTsKvQueryResult;
+import org.thingsboard.server.common.data.kv.TsKvEntry;
+import org.thingsboard.server.common.data.page.SortOrder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import static org.thingsboard.ai.mcp.server.constant.ControllerConstants.ENTITY_ID_PARAM_DESCRIPTION;
+import static org.thingsboard.ai.mcp.server.constant.ControllerConstants.ENTITY_TYPE_PARAM_DESCRIPTION;
+import static org.thingsboard.ai.mcp.server.constant.ControllerConstants.TENANT_OR_CUSTOMER_AUTHORITY_PARAGRAPH;
+import static org.thingsboard.ai.mcp.server.util.ToolUtils.parseLong;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TelemetryQueryTools implements McpTools {
+
+    private static final int MAX_QUERIES = 20;
+    private static final int DEFAULT_LIMIT = 100;
+
+    private final RestClientService clientService;
+    private final ExecutorService toolExecutor;
+
+    /**
+     * Set once the ThingsBoard server has shown it does not support multi-query reads, so later calls skip the attempt.
+     */
+    private volatile boolean queriesUnsupported;
+
+    /**
+     * One read of the request: its keys share the time range, interval, aggregation, limit and order.
+     */
+    record ReadSpec(String label, List<String> keys, long startTs, long endTs, long interval, Aggregation agg, int limit, SortOrder.Direction order) {}
+
+    @Tool(description = "Run several time series reads of one entity with different keys, time ranges, intervals and aggregations in a single call, " +
+            "e.g. hourly average temperature, daily maximum humidity and the last 50 raw status values. " +
+            "The reads are sent to ThingsBoard as one request; servers without multi-query reads get one concurrent request per read. " +
+            "Returns 'results' in the order of the reads, each with its 'label' and 'data' as {\"key\":[{\"ts\":...,\"value\":...}]}, " +
+            "and the 'mode' used: 'BATCH' or 'CONCURRENT'. " +
+            TENANT_OR_CUSTOMER_AUTHORITY_PARAGRAPH)
+    public String getTimeseriesByQueries(
+            @ToolParam(description = ENTITY_TYPE_PARAM_DESCRIPTION) @NotBlank String entityType,
+            @ToolParam(description = ENTITY_ID_PARAM_DESCRIPTION) @NotBlank String entityIdStr,
+            @ToolParam(description = "A JSON array of up to 20 reads, each an object with comma-separated 'keys' and optional 'label', " +
+                    "'startTs', 'endTs' (override the defaults below), 'interval' (aggregation interval in milliseconds), " +
+                    "'agg' ('MIN', 'MAX', 'SUM', 'AVG', 'COUNT' or 'NONE', default 'NONE'), 'limit' (max raw values per key, default 100) " +
+                    "and 'orderBy' ('ASC' or 'DESC', default 'ASC'). E.g. [{\"keys\":\"temperature\",\"agg\":\"AVG\",\"interval\":3600000}," +
+                    "{\"keys\":\"status\",\"limit\":50,\"orderBy\":\"DESC\"}]. " +
+                    "An aggregated read without 'interval' returns one value for its whole time range.") @NotBlank String queries,
+            @ToolParam(required = false, description = "A long value representing the default start timestamp of the reads in milliseconds, UTC. If not set 0 ts is used") String startTs,
+            @ToolParam(required = false, description = "A long value representing the default end timestamp of the reads in milliseconds, UTC. If not set, current ts is used") String endTs) {
+        EntityId entityId = EntityIdFactory.getByTypeAndId(entityType, entityIdStr);
+        List<ReadSpec> specs = parseQueries(queries, parseLong(startTs, 0L), parseLong(endTs, System.currentTimeMillis()));
+        RestClient client = clientService.getClient();
+
+        List<Map<String, List<TsKvEntry>>> data = null;
+        String mode = "BATCH";
+        if (!queriesUnsupported) {
+            try {
+                data = readBatch(client, entityId, specs);
+                if (data == null) {
+                    markQueriesUnsupported("the number of results does not match the queries");
+                }
+            } catch (HttpStatusCodeException e) {
+                HttpStatus status = HttpStatus.resolve(e.getStatusCode().value());
+                if (status == HttpStatus.METHOD_NOT_ALLOWED || status == HttpStatus.NOT_IMPLEMENTED) {
+                    markQueriesUnsupported(e.getStatusCode());
+                } else if (status == HttpStatus.NOT_FOUND) {
+                    log.debug("Multi-query time series read failed with {}, reading concurrently", e.getStatusCode());
+                } else {
+                    throw e;
+                }
+            } catch (ResourceAccessException e) {
+                // Timeouts, open circuit breakers and rate limit rejections say nothing about multi-query support
+                throw e;
+            } catch (UnknownContentTypeException e) {
+                markQueriesUnsupported(e.getMessage());
+            } catch (RestClientException e) {
+                // The server answered, but not with query results
+                if (!(e.getCause() instanceof HttpMessageNotReadableException)) {
+                    throw e;
+                }
+                markQueriesUnsupported(e.getCause().getMessage());
+            } catch (HttpMessageNotReadableException e) {
+                markQueriesUnsupported(e.getMessage());
+            }
+        }
+        if (data == null) {
+            mode = "CONCURRENT";
+            data = readConcurrently(client, entityId, specs);
+        }
+
+        List<Map<String, Object>> results = new ArrayList<>(specs.size());
+        for (int i = 0; i < specs.size(); i++) {
+            ReadSpec spec = specs.get(i);
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("label", spec.label());
+            result.put("agg", spec.agg());
+            if (spec.agg() != Aggregation.NONE) {
+                result.put("interval", spec.interval());
+            }
+            Map<String, List<Map<String, Object>>> values = new LinkedHashMap<>();
+            data.get(i).forEach((key, entries) -> values.put(key, entries.stream().map(entry -> {
+                Map<String, Object> value = new LinkedHashMap<>();
+                value.put("ts", entry.getTs());
+                value.put("value", entry.getValue());
+                return value;
+            }).toList()));
+            result.put("data", values);
+            results.add(result);
+        }
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("mode", mode);
+        response.put("results", results);
+        return JacksonUtil.toString(response);
+    }
+
+    private void markQueriesUnsupported(Object reason) {
+        queriesUnsupported = true;
+        log.debug("Multi-query time series read is not supported ({}), reading concurrently", reason);
+    }
+
+    static List<ReadSpec> parseQueries(String queries, long defaultStartTs, long defaultEndTs) {
+        JsonNode json = JacksonUtil.toJsonNode(queries);
+        if (json == null || !json.isArray() || json.isEmpty()) {
+            throw new IllegalArgumentException("'queries' must be a non-empty JSON array");
+        }
+        if (json.size() > MAX_QUERIES) {
+            throw new IllegalArgumentException("At most " + MAX_QUERIES + " reads are allowed");
+        }
+        List<ReadSpec> specs = new ArrayList<>(json.size());
+        for (JsonNode node : json) {
+            List<String> keys = Arrays.stream(node.path("keys").asText("").split(","))
+                    .map(String::trim).filter(StringUtils::isNotEmpty).distinct().toList();
+            if (keys.isEmpty()) {
+                throw new IllegalArgumentException("Each read needs 'keys'");
+            }
+            long start = node.path("startTs").asLong(defaultStartTs);
+            long end = node.path("endTs").asLong(defaultEndTs);
+            if (start >= end) {
+                throw new IllegalArgumentException("'startTs' must be less than 'endTs' in the read of " + keys);
+            }
+            Aggregation agg = Aggregation.valueOf(node.path("agg").asText("NONE").trim().toUpperCase(Locale.ROOT));
+            long interval = node.path("interval").asLong(0);
+            if (agg != Aggregation.NONE && interval <= 0) {
+                interval = end - start;
+            }
+            int limit = Math.max(1, node.path("limit").asInt(DEFAULT_LIMIT));
+            SortOrder.Direction order = SortOrder.Direction.valueOf(node.path("orderBy").asText("ASC").trim().toUpperCase(Locale.ROOT));
+            String label = node.path("label").asText("").trim();
+            if (label.isEmpty()) {
+                label = String.join(",", keys) + (agg != Aggregation.NONE ? " " + agg + " " + interval + "ms" : "");
+            }
+            specs.add(new ReadSpec(label, keys, start, end, interval, agg, limit, order));
+        }
+        return specs;
+    }
+
+    /**
+     * Reads all specs with one POST; every key of a spec is a query, and results come back in the order of the queries.
+     * Returns null if the server answered with a different number of results, i.e. did not run the queries.
+     */
+    private static List<Map<String, List<TsKvEntry>>> readBatch(RestClient client, EntityId entityId, List<ReadSpec> specs) {
+        List<ReadTsKvQuery> queries = new ArrayList<>();
+        for (ReadSpec spec : specs) {
+            for (String key : spec.keys()) {
+                queries.add(new BaseReadTsKvQuery(key, spec.startTs(), spec.endTs(), spec.interval(), spec.limit(), spec.agg(), spec.order().name()));
+            }
+        }
+        List<ReadTsKvQueryResult> results = client.getTimeseriesByQueries(entityId, queries);
+        if (results == null || results.size() != queries.size()) {
+            return null;
+        }
+        List<Map<String, List<TsKvEntry>>> data = new ArrayList<>(specs.size());
+        int index = 0;
+        for (ReadSpec spec : specs) {
+            Map<String, List<TsKvEntry>> values = new LinkedHashMap<>();
+            for (String key : spec.keys()) {
+                List<TsKvEntry> entries = results.get(index++).getData();
+                values.put(key, entries != null ? entries : List.of());
+            }
+            data.add(values);
+        }
+        return data;
+    }
+
+    private List<Map<String, List<TsKvEntry>>> readConcurrently(RestClient client, EntityId entityId, List<ReadSpec> specs) {
+        // Cancelled on failure, which skips the reads not yet started
+        List<Future<List<TsKvEntry>>> futures = new ArrayList<>(specs.size());
+        for (ReadSpec spec : specs) {
+            futures.add(toolExecutor.submit(() -> client.getTimeseries(entityId, spec.keys(), spec.interval(), spec.agg(),
+                    null, null, spec.order(), spec.startTs(), spec.endTs(), spec.limit(), true)));
+        }
+        List<Map<String, List<TsKvEntry>>> data = new ArrayList<>(specs.size());
+        try {
+            for (int i = 0; i < specs.size(); i++) {
+                Map<String, List<TsKvEntry>> values = new LinkedHashMap<>();
+                specs.get(i).keys().forEach(key -> values.put(key, new ArrayList<>()));
+                for (TsKvEntry entry : futures.get(i).get()) {
+                    List<TsKvEntry> entries = values.get(entry.getKey());
+                    if (entries != null) {
+                        entries.add(entry);
+                    }
+                }
+                data.add(values);
+            }
+        } catch (ExecutionException e) {
+            futures.forEach(f -> f.cancel(true));
+            throw e.getCause() instanceof RuntimeException re ? re : new RuntimeException(e.getCause());
+        } catch (InterruptedException e) {
+            futures.forEach(f -> f.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while reading time series", e);
+        }
+        return data;
+    }
+
+}
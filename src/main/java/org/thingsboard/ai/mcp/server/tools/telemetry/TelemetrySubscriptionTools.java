@@ -0,0 +1,65 @@
+package org.thingsboard.ai.mcp.server.tools.telemetry;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.RequiredArgsConstructor;
+import org.springframework.ai.tool.annotation.Tool;
+import org.springframework.ai.tool.annotation.ToolParam;
+import org.springframework.stereotype.Service;
+import org.thingsboard.ai.mcp.server.tools.McpTools;
+import org.thingsboard.ai.mcp.server.ws.TelemetrySubscriptionService;
+import org.thingsboard.ai.mcp.server.ws.TelemetrySubscriptionService.SubscriptionType;
+import org.thingsboard.common.util.JacksonUtil;
+import org.thingsboard.server.common.data.StringUtils;
+import org.thingsboard.server.common.data.id.EntityId;
+import org.thingsboard.server.common.data.id.EntityIdFactory;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.thingsboard.ai.mcp.server.constant.ControllerConstants.ENTITY_ID_PARAM_DESCRIPTION;
+import static org.thingsboard.ai.mcp.server.constant.ControllerConstants.ENTITY_TYPE_PARAM_DESCRIPTION;
+import static org.thingsboard.ai.mcp.server.constant.ControllerConstants.TENANT_OR_CUSTOMER_AUTHORITY_PARAGRAPH;
+import static org.thingsboard.ai.mcp.server.util.ToolUtils.parseIntOrDefault;
+
+@Service
+@RequiredArgsConstructor
+public class TelemetrySubscriptionTools implements McpTools {
+
+    private final TelemetrySubscriptionService subscriptionService;
+
+    @Tool(description = "Subscribe to live latest time series or attributes of an entity over the ThingsBoard WebSocket API. " +
+            "While the subscription is live, 'getLatestTimeseries', 'getAttributes' and 'getAttributesByScope' answer for the entity " +
+            "from the values pushed by ThingsBoard without a request to the server. Use it for entities that are read repeatedly, " +
+            "e.g. when watching a device. Subscribing again to the same entity, type and scope replaces the keys. " +
+            "Returns 'subscriptionId', 'live' and the number of keys received so far. " + TENANT_OR_CUSTOMER_AUTHORITY_PARAGRAPH)
+    public String subscribeTelemetry(
+            @ToolParam(description = ENTITY_TYPE_PARAM_DESCRIPTION) @NotBlank String entityType,
+            @ToolParam(description = ENTITY_ID_PARAM_DESCRIPTION) @NotBlank String entityIdStr,
+            @ToolParam(required = false, description = "What to subscribe to: 'TIMESERIES' (latest time series) or 'ATTRIBUTES'. Default: 'TIMESERIES'") String type,
+            @ToolParam(required = false, description = "Attributes scope: 'SERVER_SCOPE', 'SHARED_SCOPE' or 'CLIENT_SCOPE'. Used only for 'ATTRIBUTES'; all scopes if not set") String scope,
+            @ToolParam(required = false, description = "Comma-separated keys to subscribe to. All keys if not set") String keys) {
+        EntityId entityId = EntityIdFactory.getByTypeAndId(entityType, entityIdStr);
+        SubscriptionType subscriptionType = StringUtils.isNotBlank(type) ? SubscriptionType.valueOf(type.trim()) : SubscriptionType.TIMESERIES;
+        return JacksonUtil.toString(subscriptionService.subscribe(entityId, subscriptionType, scope, parseKeys(keys)));
+    }
+
+    @Tool(description = "Cancel a telemetry subscription created by 'subscribeTelemetry'.")
+    public String unsubscribeTelemetry(
+            @ToolParam(description = "The 'subscriptionId' returned by 'subscribeTelemetry'") @NotBlank String subscriptionId) {
+        int id = parseIntOrDefault(subscriptionId, -1);
+        return subscriptionService.unsubscribe(id) ? "Unsubscribed" : "Error: Subscription '" + subscriptionId + "' not found.";
+    }
+
+    @Tool(description = "List the telemetry subscriptions with their entity, keys, 'live' state and the number of keys received.")
+    public String getTelemetrySubscriptions() {
+        return JacksonUtil.toString(subscriptionService.getSubscriptions());
+    }
+
+    private static List<String> parseKeys(String keys) {
+        if (StringUtils.isBlank(keys)) {
+            return List.of();
+        }
+        return Arrays.stream(keys.split(",")).map(String::trim).filter(StringUtils::isNotEmpty).toList();
+    }
+
+}
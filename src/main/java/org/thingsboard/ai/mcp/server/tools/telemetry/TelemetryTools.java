@@ -7,8 +7,10 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.ai.tool.annotation.Tool;
 import org.springframework.ai.tool.annotation.ToolParam;
 import org.springframework.stereotype.Service;
+import org.thingsboard.ai.mcp.server.buffer.TelemetryWriteBuffer;
 import org.thingsboard.ai.mcp.server.rest.RestClientService;
 import org.thingsboard.ai.mcp.server.tools.McpTools;
+import org.thingsboard.ai.mcp.server.ws.TelemetrySubscriptionService;
 import org.thingsboard.common.util.JacksonUtil;
 import org.thingsboard.server.common.data.id.DeviceId;
 import org.thingsboard.server.common.data.id.EntityId;
@@ -47,7 +49,13 @@ import static org.thingsboard.ai.mcp.server.util.ToolUtils.parseLong;
 @RequiredArgsConstructor
 public class TelemetryTools implements McpTools {
 
+    private static final String BUFFERED_TELEMETRY_DESCRIPTION = "\n\nIf the server buffers time series saves, the points are queued and merged with other saves " +
+            "of the entity into fewer requests; the result then holds the 'firstPointId' and 'lastPointId' of the queued points. " +
+            "Call 'flushTelemetry' to send them and get their acknowledgements. ";
+
     private final RestClientService clientService;
+    private final TelemetrySubscriptionService subscriptionService;
+    private final TelemetryWriteBuffer writeBuffer;
 
     private static List<String> parseKeys(String keys) {
         if (keys == null || keys.isBlank()) {
@@ -93,7 +101,9 @@ public class TelemetryTools implements McpTools {
             @ToolParam(description = ENTITY_ID_PARAM_DESCRIPTION) @NotBlank String entityIdStr,
             @ToolParam(required = false, description = ATTRIBUTES_KEYS_DESCRIPTION) String keys) {
         EntityId entityId = EntityIdFactory.getByTypeAndId(entityType, entityIdStr);
-        return JacksonUtil.toString(clientService.getClient().getAttributeKvEntries(entityId, parseKeys(keys)));
+        List<String> keyList = parseKeys(keys);
+        return JacksonUtil.toString(subscriptionService.getAttributes(entityId, null, keyList)
+                .orElseGet(() -> clientService.getClient().getAttributeKvEntries(entityId, keyList)));
     }
 
     @Tool(description = "Returns all attributes of a specified scope that belong to specified entity." +
@@ -110,7 +120,9 @@ public class TelemetryTools implements McpTools {
             @ToolParam(description = ATTRIBUTES_SCOPE_DESCRIPTION + " Allowable values: 'SERVER_SCOPE', 'SHARED_SCOPE', 'CLIENT_SCOPE'") @NotBlank String scope,
             @ToolParam(required = false, description = ATTRIBUTES_KEYS_DESCRIPTION) String keys) {
         EntityId entityId = EntityIdFactory.getByTypeAndId(entityType, entityIdStr);
-        return JacksonUtil.toString(clientService.getClient().getAttributesByScope(entityId, scope, parseKeys(keys)));
+        List<String> keyList = parseKeys(keys);
+        return JacksonUtil.toString(subscriptionService.getAttributes(entityId, scope, keyList)
+                .orElseGet(() -> clientService.getClient().getAttributesByScope(entityId, scope, keyList)));
     }
 
     @Tool(description = "Returns a set of unique time series key names for the selected entity. " +
@@ -139,7 +151,10 @@ public class TelemetryTools implements McpTools {
             @ToolParam(required = false, description = TELEMETRY_KEYS_DESCRIPTION) String keys,
             @ToolParam(required = false, description = STRICT_DATA_TYPES_DESCRIPTION) String useStrictDataTypes) {
         EntityId entityId = EntityIdFactory.getByTypeAndId(entityType, entityIdStr);
-        return JacksonUtil.toString(clientService.getClient().getLatestTimeseries(entityId, parseKeys(keys), Boolean.parseBoolean(useStrictDataTypes)));
+        List<String> keyList = parseKeys(keys);
+        boolean strict = Boolean.parseBoolean(useStrictDataTypes);
+        return JacksonUtil.toString(subscriptionService.getLatestTimeseries(entityId, keyList, strict)
+                .orElseGet(() -> clientService.getClient().getLatestTimeseries(entityId, keyList, strict)));
     }
 
     @Tool(description =
@@ -261,12 +276,16 @@ public class TelemetryTools implements McpTools {
     @Tool(description = "Creates or updates the entity time series data based on the Entity Id and request payload." +
             SAVE_TIMESERIES_REQUEST_PAYLOAD +
             "\n\n The scope parameter is not used in the API call implementation but should be specified whatever value because it is used as a path variable. "
+            + BUFFERED_TELEMETRY_DESCRIPTION
             + INVALID_ENTITY_ID_OR_ENTITY_TYPE_DESCRIPTION + TENANT_OR_CUSTOMER_AUTHORITY_PARAGRAPH)
     public String saveEntityTelemetry(
             @ToolParam(description = ENTITY_TYPE_PARAM_DESCRIPTION) @NotBlank String entityType,
             @ToolParam(description = ENTITY_ID_PARAM_DESCRIPTION) @NotBlank String entityIdStr,
             @ToolParam(description = TELEMETRY_JSON_REQUEST_DESCRIPTION) @NotBlank String jsonBody) {
         EntityId entityId = EntityIdFactory.getByTypeAndId(entityType, entityIdStr);
+        if (writeBuffer.isEnabled()) {
+            return JacksonUtil.toString(writeBuffer.add(entityId, "ANY", null, JacksonUtil.toJsonNode(jsonBody)));
+        }
         boolean result = clientService.getClient().saveEntityTelemetry(entityId, "ANY", JacksonUtil.toJsonNode(jsonBody));
         if (result) {
             return "{\"status\":\"Telemetry submitted successfully\"}";
@@ -278,6 +297,7 @@ public class TelemetryTools implements McpTools {
             SAVE_TIMESERIES_REQUEST_PAYLOAD +
             "\n\n The scope parameter is not used in the API call implementation but should be specified whatever value because it is used as a path variable. "
             + "\n\nThe ttl parameter takes affect only in case of Cassandra DB."
+            + BUFFERED_TELEMETRY_DESCRIPTION
             + INVALID_ENTITY_ID_OR_ENTITY_TYPE_DESCRIPTION + TENANT_OR_CUSTOMER_AUTHORITY_PARAGRAPH)
     public String saveEntityTelemetryWithTTL(
             @ToolParam(description = ENTITY_TYPE_PARAM_DESCRIPTION) @NotBlank String entityType,
@@ -285,6 +305,9 @@ public class TelemetryTools implements McpTools {
             @ToolParam(description = "A  long value representing TTL (Time to Live) parameter.") @PositiveOrZero String ttl,
             @ToolParam(description = TELEMETRY_JSON_REQUEST_DESCRIPTION) @NotBlank String jsonBody) {
         EntityId entityId = EntityIdFactory.getByTypeAndId(entityType, entityIdStr);
+        if (writeBuffer.isEnabled()) {
+            return JacksonUtil.toString(writeBuffer.add(entityId, "ANY", parseLong(ttl, 0L), JacksonUtil.toJsonNode(jsonBody)));
+        }
         boolean result = clientService.getClient().saveEntityTelemetryWithTTL(entityId, "ANY", parseLong(ttl, 0L), JacksonUtil.toJsonNode(jsonBody));
         if (result) {
             return "{\"status\":\"Telemetry with TTL submitted successfully\"}";
@@ -292,4 +315,21 @@ public class TelemetryTools implements McpTools {
         return "{\"status\":\"Failed to submit telemetry with TTL\"}";
     }
 
+    @Tool(description = "Sends all time series points buffered by 'saveEntityTelemetry' and 'saveEntityTelemetryWithTTL' to ThingsBoard and waits for them. " +
+            "Returns the acknowledgements of the points from 'fromPointId' through 'completedThrough' (every point id up to this one was processed): " +
+            "the 'acknowledged' and 'failed' point counts, and 'failedPoints' with the id, entity, timestamp and error of each failed point " +
+            "('failuresTruncated' is true if not all of them are listed). " +
+            "Points of the range that are not listed as failed are saved. " +
+            "Point ids are shared by all sessions of the server, so the range also counts points that other sessions buffered in the meantime; " +
+            "match the listed failures against the 'firstPointId' and 'lastPointId' of your own saves. " +
+            "Call it after the last buffered save of a backfill. " + TENANT_OR_CUSTOMER_AUTHORITY_PARAGRAPH)
+    public String flushTelemetry(
+            @ToolParam(required = false, description = "The 'firstPointId' of your first buffered save, so points buffered before it are not reported. " +
+                    "If not set, all points buffered since the server started are reported.") String fromPointId) {
+        if (!writeBuffer.isEnabled()) {
+            return "{\"status\":\"Time series saves are not buffered, nothing to flush\"}";
+        }
+        return JacksonUtil.toString(writeBuffer.flush(parseLong(fromPointId, 1L)));
+    }
+
 }
@@ -0,0 +1,34 @@
+package org.thingsboard.ai.mcp.server.trace;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+@Name("org.thingsboard.mcp.RestCall")
+@Label("ThingsBoard REST Call")
+@Description("HTTP exchange with the ThingsBoard REST API")
+@Category({"ThingsBoard", "MCP"})
+@StackTrace(false)
+class RestCallEvent extends jdk.jfr.Event {
+
+    @Label("Tool")
+    String tool;
+
+    @Label("Method")
+    String method;
+
+    @Label("URI Template")
+    String uri;
+
+    @Label("Status")
+    int status;
+
+    @Label("Wait Time")
+    @Description("Time until the response headers were received")
+    @Timespan(Timespan.NANOSECONDS)
+    long waitTime;
+
+}
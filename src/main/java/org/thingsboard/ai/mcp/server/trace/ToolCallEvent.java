@@ -0,0 +1,39 @@
+package org.thingsboard.ai.mcp.server.trace;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+@Name("org.thingsboard.mcp.ToolCall")
+@Label("MCP Tool Call")
+@Description("Invocation of an MCP tool")
+@Category({"ThingsBoard", "MCP"})
+@StackTrace(false)
+class ToolCallEvent extends jdk.jfr.Event {
+
+    @Label("Tool")
+    String tool;
+
+    @Label("Success")
+    boolean success;
+
+    @Label("REST Calls")
+    int restCalls;
+
+    @Label("REST Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long restTime;
+
+    @Label("ThingsBoard Wait Time")
+    @Description("Time spent until ThingsBoard response headers were received")
+    @Timespan(Timespan.NANOSECONDS)
+    long waitTime;
+
+    @Label("Result Size")
+    @Description("Number of characters in the tool result")
+    int resultSize;
+
+}
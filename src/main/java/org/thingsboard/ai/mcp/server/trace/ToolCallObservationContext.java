@@ -0,0 +1,33 @@
+package org.thingsboard.ai.mcp.server.trace;
+
+import io.micrometer.observation.Observation;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Observation context of a single MCP tool call. ThingsBoard REST exchanges observed while the tool call is in scope
+ * are collected here, so the slow-call log and the JFR event can show where the time went.
+ */
+@Getter
+public class ToolCallObservationContext extends Observation.Context {
+
+    private final String toolName;
+    private final List<RestSpan> restSpans = Collections.synchronizedList(new ArrayList<>());
+    @Setter
+    private int resultSize = -1;
+
+    public ToolCallObservationContext(String toolName) {
+        this.toolName = toolName;
+    }
+
+    /**
+     * @param durationNs total duration of the exchange, including reading and decoding of the response body
+     * @param exchangeNs time until the response headers were received
+     */
+    public record RestSpan(String method, String uri, int status, long durationNs, long exchangeNs) {}
+
+}
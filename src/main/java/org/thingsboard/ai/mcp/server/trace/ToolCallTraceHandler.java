@@ -0,0 +1,154 @@
+package org.thingsboard.ai.mcp.server.trace;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationHandler;
+import io.micrometer.observation.ObservationView;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.client.observation.ClientRequestObservationContext;
+import org.springframework.stereotype.Component;
+import org.thingsboard.ai.mcp.server.trace.ToolCallObservationContext.RestSpan;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Builds the per-call breakdown of tool calls: every ThingsBoard REST exchange observed within a tool call is
+ * attached to it, tool calls slower than {@code thingsboard.slow-tool-call-threshold-ms} are logged with their
+ * breakdown, and JFR events are emitted for both tool calls and REST exchanges.
+ */
+@Slf4j
+@Component
+public class ToolCallTraceHandler implements ObservationHandler<Observation.Context> {
+
+    /**
+     * Context key for the time in nanoseconds until the ThingsBoard response headers were received.
+     */
+    public static final String EXCHANGE_NANOS_KEY = ToolCallTraceHandler.class.getName() + ".exchangeNanos";
+
+    private static final String START_NANOS_KEY = ToolCallTraceHandler.class.getName() + ".startNanos";
+    private static final String EVENT_KEY = ToolCallTraceHandler.class.getName() + ".event";
+    private static final int MAX_LOGGED_SPANS = 20;
+
+    @Value("${thingsboard.slow-tool-call-threshold-ms:5000}")
+    private long slowCallThresholdMs;
+
+    @Override
+    public boolean supportsContext(Observation.Context context) {
+        return context instanceof ToolCallObservationContext || context instanceof ClientRequestObservationContext;
+    }
+
+    @Override
+    public void onStart(Observation.Context context) {
+        context.put(START_NANOS_KEY, System.nanoTime());
+        jdk.jfr.Event event = context instanceof ToolCallObservationContext ? new ToolCallEvent() : new RestCallEvent();
+        if (event.isEnabled()) {
+            event.begin();
+            context.put(EVENT_KEY, event);
+        }
+    }
+
+    @Override
+    public void onStop(Observation.Context context) {
+        Long startNs = context.get(START_NANOS_KEY);
+        if (startNs == null) {
+            return;
+        }
+        long durationNs = System.nanoTime() - startNs;
+        if (context instanceof ToolCallObservationContext toolCall) {
+            onToolCallStop(toolCall, durationNs);
+        } else if (context instanceof ClientRequestObservationContext request) {
+            onRestCallStop(request, durationNs);
+        }
+    }
+
+    private void onRestCallStop(ClientRequestObservationContext context, long durationNs) {
+        String method = context.getCarrier() != null ? context.getCarrier().getMethod().name() : "UNKNOWN";
+        String uri = context.getUriTemplate() != null ? context.getUriTemplate() :
+                context.getCarrier() != null ? context.getCarrier().getURI().getPath() : "none";
+        Long exchangeNs = context.get(EXCHANGE_NANOS_KEY);
+        RestSpan span = new RestSpan(method, uri, statusOf(context.getResponse()), durationNs, exchangeNs != null ? exchangeNs : durationNs);
+        ToolCallObservationContext toolCall = findToolCall(context);
+        if (toolCall != null) {
+            toolCall.getRestSpans().add(span);
+        }
+        RestCallEvent event = context.get(EVENT_KEY);
+        if (event != null) {
+            event.end();
+            if (event.shouldCommit()) {
+                event.tool = toolCall != null ? toolCall.getToolName() : null;
+                event.method = span.method();
+                event.uri = span.uri();
+                event.status = span.status();
+                event.waitTime = span.exchangeNs();
+                event.commit();
+            }
+        }
+    }
+
+    private void onToolCallStop(ToolCallObservationContext context, long durationNs) {
+        List<RestSpan> spans;
+        synchronized (context.getRestSpans()) {
+            spans = List.copyOf(context.getRestSpans());
+        }
+        long restNs = spans.stream().mapToLong(RestSpan::durationNs).sum();
+        long waitNs = spans.stream().mapToLong(RestSpan::exchangeNs).sum();
+        ToolCallEvent event = context.get(EVENT_KEY);
+        if (event != null) {
+            event.end();
+            if (event.shouldCommit()) {
+                event.tool = context.getToolName();
+                event.success = context.getError() == null;
+                event.restCalls = spans.size();
+                event.restTime = restNs;
+                event.waitTime = waitNs;
+                event.resultSize = context.getResultSize();
+                event.commit();
+            }
+        }
+        if (slowCallThresholdMs > 0 && durationNs >= TimeUnit.MILLISECONDS.toNanos(slowCallThresholdMs)) {
+            StringBuilder breakdown = new StringBuilder();
+            for (int i = 0; i < Math.min(spans.size(), MAX_LOGGED_SPANS); i++) {
+                RestSpan span = spans.get(i);
+                breakdown.append("\n    ").append(span.method()).append(' ').append(span.uri()).append(' ').append(span.status())
+                        .append(": ").append(toMillis(span.durationNs())).append(" ms (wait ").append(toMillis(span.exchangeNs())).append(" ms)");
+            }
+            if (spans.size() > MAX_LOGGED_SPANS) {
+                breakdown.append("\n    ... ").append(spans.size() - MAX_LOGGED_SPANS).append(" more");
+            }
+            log.warn("Slow tool call [{}] took {} ms: {} REST calls {} ms (waiting for ThingsBoard {} ms, reading and decoding {} ms), " +
+                            "local processing and serialization {} ms, result size {}{}",
+                    context.getToolName(), toMillis(durationNs), spans.size(), toMillis(restNs), toMillis(waitNs), toMillis(restNs - waitNs),
+                    toMillis(Math.max(0L, durationNs - restNs)), context.getResultSize(), breakdown);
+        }
+    }
+
+    private static ToolCallObservationContext findToolCall(Observation.ContextView context) {
+        ObservationView parent = context.getParentObservation();
+        while (parent != null) {
+            if (parent.getContextView() instanceof ToolCallObservationContext toolCall) {
+                return toolCall;
+            }
+            parent = parent.getContextView().getParentObservation();
+        }
+        return null;
+    }
+
+    private static int statusOf(ClientHttpResponse response) {
+        if (response == null) {
+            return 0;
+        }
+        try {
+            return response.getStatusCode().value();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private static long toMillis(long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+
+}
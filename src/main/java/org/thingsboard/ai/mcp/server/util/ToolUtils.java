@@ -116,6 +116,31 @@ public class ToolUtils {
         return parseLong(value, null);
     }
 
+    /**
+     * Converts WSL paths like '/mnt/c/data' to Windows paths when the server runs on Windows.
+     */
+    public static String normalizePathForWindows(String path) {
+        if (path == null) {
+            return null;
+        }
+        if (!isWindows()) {
+            return path;
+        }
+        if (path.startsWith("/mnt/") && path.length() > 6) {
+            char drive = path.charAt(5);
+            if (path.charAt(6) == '/') {
+                String rest = path.substring(7).replace("/", "\\\\");
+                return Character.toUpperCase(drive) + ":\\" + rest;
+            }
+        }
+        return path;
+    }
+
+    private static boolean isWindows() {
+        String os = System.getProperty("os.name", "");
+        return os.toLowerCase().contains("win");
+    }
+
     private static boolean isValidProperty(String key) {
         return StringUtils.isEmpty(key) || RegexUtils.matches(key, PROPERTY_PATTERN);
     }
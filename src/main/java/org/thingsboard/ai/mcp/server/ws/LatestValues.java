@@ -0,0 +1,151 @@
+package org.thingsboard.ai.mcp.server.ws;
+
+import org.thingsboard.server.common.data.kv.AttributeKvEntry;
+import org.thingsboard.server.common.data.kv.BaseAttributeKvEntry;
+import org.thingsboard.server.common.data.kv.BasicTsKvEntry;
+import org.thingsboard.server.common.data.kv.BooleanDataEntry;
+import org.thingsboard.server.common.data.kv.DoubleDataEntry;
+import org.thingsboard.server.common.data.kv.JsonDataEntry;
+import org.thingsboard.server.common.data.kv.KvEntry;
+import org.thingsboard.server.common.data.kv.LongDataEntry;
+import org.thingsboard.server.common.data.kv.StringDataEntry;
+import org.thingsboard.server.common.data.kv.TsKvEntry;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Latest value of every key of a subscription, kept in parallel arrays indexed by key slot. Every slot keeps the value
+ * string as received, which is returned as is unless strict data types are requested; numbers and booleans are also
+ * kept as raw {@code long} bits to build typed entries without parsing again.
+ */
+final class LatestValues {
+
+    private static final byte BOOLEAN = 1;
+    private static final byte LONG = 2;
+    private static final byte DOUBLE = 3;
+    private static final byte STRING = 4;
+    private static final byte JSON = 5;
+
+    private final Map<String, Integer> slots = new HashMap<>();
+    private String[] keys = new String[8];
+    private long[] ts = new long[8];
+    private byte[] types = new byte[8];
+    private long[] numbers = new long[8];
+    private String[] strings = new String[8];
+    private int size;
+
+    /**
+     * Stores the value unless a newer one is already known. WebSocket updates carry values as strings, so the type
+     * is restored the way ThingsBoard formats them: {@link Long#toString} or {@link Double#toString}, which always has
+     * a '.' or an exponent. Values that do not format back to the same string, e.g. '007' or '1.50', stay strings.
+     */
+    synchronized void update(String key, long valueTs, String value) {
+        Integer slot = slots.get(key);
+        if (slot == null) {
+            slot = size++;
+            if (slot == keys.length) {
+                grow();
+            }
+            keys[slot] = key;
+            slots.put(key, slot);
+        } else if (ts[slot] > valueTs) {
+            return;
+        }
+        ts[slot] = valueTs;
+        strings[slot] = value;
+        if ("true".equals(value) || "false".equals(value)) {
+            types[slot] = BOOLEAN;
+            numbers[slot] = "true".equals(value) ? 1 : 0;
+            return;
+        }
+        if (isNumeric(value)) {
+            try {
+                if (value.indexOf('.') < 0 && value.indexOf('E') < 0) {
+                    long parsed = Long.parseLong(value);
+                    if (Long.toString(parsed).equals(value)) {
+                        numbers[slot] = parsed;
+                        types[slot] = LONG;
+                        return;
+                    }
+                } else {
+                    double parsed = Double.parseDouble(value);
+                    if (Double.toString(parsed).equals(value)) {
+                        numbers[slot] = Double.doubleToRawLongBits(parsed);
+                        types[slot] = DOUBLE;
+                        return;
+                    }
+                }
+            } catch (NumberFormatException ignored) {
+                // Too large for a long or not a number at all, kept as text
+            }
+        }
+        types[slot] = !value.isEmpty() && (value.charAt(0) == '{' || value.charAt(0) == '[') ? JSON : STRING;
+    }
+
+    synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Returns the latest values of the keys, or of all keys if {@code requested} is empty, in the same form as the
+     * REST API: strings unless {@code strict} data types are requested.
+     */
+    synchronized List<TsKvEntry> toTimeseries(List<String> requested, boolean strict) {
+        List<TsKvEntry> result = new ArrayList<>();
+        for (int slot : select(requested)) {
+            KvEntry entry = strict ? entry(slot) : new StringDataEntry(keys[slot], strings[slot]);
+            result.add(new BasicTsKvEntry(ts[slot], entry));
+        }
+        return result;
+    }
+
+    synchronized List<AttributeKvEntry> toAttributes(List<String> requested) {
+        List<AttributeKvEntry> result = new ArrayList<>();
+        for (int slot : select(requested)) {
+            result.add(new BaseAttributeKvEntry(entry(slot), ts[slot]));
+        }
+        return result;
+    }
+
+    private int[] select(List<String> requested) {
+        if (requested.isEmpty()) {
+            int[] all = new int[size];
+            Arrays.setAll(all, i -> i);
+            return all;
+        }
+        return requested.stream().map(slots::get).filter(slot -> slot != null).mapToInt(Integer::intValue).toArray();
+    }
+
+    private KvEntry entry(int slot) {
+        String key = keys[slot];
+        return switch (types[slot]) {
+            case BOOLEAN -> new BooleanDataEntry(key, numbers[slot] != 0);
+            case LONG -> new LongDataEntry(key, numbers[slot]);
+            case DOUBLE -> new DoubleDataEntry(key, Double.longBitsToDouble(numbers[slot]));
+            case JSON -> new JsonDataEntry(key, strings[slot]);
+            default -> new StringDataEntry(key, strings[slot]);
+        };
+    }
+
+    private void grow() {
+        int capacity = keys.length * 2;
+        keys = Arrays.copyOf(keys, capacity);
+        ts = Arrays.copyOf(ts, capacity);
+        types = Arrays.copyOf(types, capacity);
+        numbers = Arrays.copyOf(numbers, capacity);
+        strings = Arrays.copyOf(strings, capacity);
+    }
+
+    private static boolean isNumeric(String value) {
+        if (value.isEmpty()) {
+            return false;
+        }
+        char first = value.charAt(0);
+        return first == '-' || first >= '0' && first <= '9';
+    }
+
+}
@@ -0,0 +1,445 @@
+package org.thingsboard.ai.mcp.server.ws;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.thingsboard.ai.mcp.server.rest.ClientCredentials;
+import org.thingsboard.ai.mcp.server.rest.RestClient;
+import org.thingsboard.ai.mcp.server.rest.RestClientService;
+import org.thingsboard.common.util.JacksonUtil;
+import org.thingsboard.common.util.ThingsBoardThreadFactory;
+import org.thingsboard.server.common.data.StringUtils;
+import org.thingsboard.server.common.data.id.EntityId;
+import org.thingsboard.server.common.data.kv.AttributeKvEntry;
+import org.thingsboard.server.common.data.kv.TsKvEntry;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.WebSocket;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Subscribes to latest telemetry and attributes of selected entities over the ThingsBoard WebSocket API and keeps
+ * their latest values locally, so telemetry tools answer for subscribed entities without a REST round trip. A single
+ * WebSocket is opened on the first subscription with the ThingsBoard credentials configured on the server, and is
+ * reopened with all subscriptions after a disconnect; values of a subscription are not used until ThingsBoard sends
+ * them again after the reconnect.
+ */
+@Slf4j
+@Service
+public class TelemetrySubscriptionService {
+
+    public enum SubscriptionType {TIMESERIES, ATTRIBUTES}
+
+    public record SubscriptionInfo(int subscriptionId, String entityType, String entityId, SubscriptionType type,
+                                   String scope, List<String> keys, boolean live, int keysReceived, String error) {
+    }
+
+    private record SubscriptionKey(EntityId entityId, SubscriptionType type, String scope) {
+    }
+
+    private final RestClientService clientService;
+    private final String url;
+    private final String apiKey;
+    private final int maxSubscriptions;
+    private final long reconnectDelayMs;
+    private final long snapshotTimeoutMs;
+    private final Counter hits;
+    private final Counter misses;
+    private final Map<Integer, Subscription> subscriptions = new ConcurrentHashMap<>();
+    private final Map<SubscriptionKey, Subscription> subscriptionsByKey = new ConcurrentHashMap<>();
+    private final AtomicInteger cmdIds = new AtomicInteger();
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+    private final ScheduledExecutorService reconnectExecutor = Executors.newSingleThreadScheduledExecutor(ThingsBoardThreadFactory.forName("tb-ws-reconnect"));
+
+    private WebSocket webSocket;
+    private CompletableFuture<WebSocket> connecting;
+    private CompletableFuture<Void> sending = CompletableFuture.completedFuture(null);
+    private String authToken;
+    private volatile boolean destroyed;
+
+    public TelemetrySubscriptionService(RestClientService clientService, MeterRegistry meterRegistry,
+                                        @Value("${thingsboard.url:}") String url,
+                                        @Value("${thingsboard.api-key:}") String apiKey,
+                                        @Value("${thingsboard.ws-max-subscriptions:100}") int maxSubscriptions,
+                                        @Value("${thingsboard.ws-reconnect-delay-ms:5000}") long reconnectDelayMs,
+                                        @Value("${thingsboard.ws-snapshot-timeout-ms:5000}") long snapshotTimeoutMs) {
+        this.clientService = clientService;
+        this.url = StringUtils.isNotBlank(url) && url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+        this.apiKey = apiKey;
+        this.maxSubscriptions = maxSubscriptions;
+        this.reconnectDelayMs = Math.max(100, reconnectDelayMs);
+        this.snapshotTimeoutMs = snapshotTimeoutMs;
+        Gauge.builder("thingsboard.ws.subscriptions", subscriptions, Map::size)
+                .description("Number of live ThingsBoard telemetry subscriptions")
+                .register(meterRegistry);
+        this.hits = Counter.builder("thingsboard.ws.latest.reads")
+                .description("Latest telemetry and attribute reads by source")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder("thingsboard.ws.latest.reads")
+                .description("Latest telemetry and attribute reads by source")
+                .tag("result", "miss")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        destroyed = true;
+        reconnectExecutor.shutdownNow();
+        synchronized (this) {
+            if (webSocket != null) {
+                webSocket.abort();
+                webSocket = null;
+            }
+        }
+        subscriptions.clear();
+        subscriptionsByKey.clear();
+    }
+
+    /**
+     * Subscribes to the keys of the entity, or to all its keys if {@code keys} is empty, and waits for the first
+     * values. Subscribing again to the same entity, type and scope replaces the keys of the existing subscription.
+     */
+    public SubscriptionInfo subscribe(EntityId entityId, SubscriptionType type, String scope, List<String> keys) {
+        checkServerCredentials();
+        if (StringUtils.isBlank(url)) {
+            throw new IllegalStateException("ThingsBoard URL is not configured");
+        }
+        String subscriptionScope = type == SubscriptionType.ATTRIBUTES && StringUtils.isNotBlank(scope) ? scope : null;
+        SubscriptionKey key = new SubscriptionKey(entityId, type, subscriptionScope);
+        Subscription existing = subscriptionsByKey.get(key);
+        if (existing != null) {
+            if (existing.keys.equals(keys)) {
+                return existing.info();
+            }
+            unsubscribe(existing.id);
+        }
+        if (subscriptions.size() >= maxSubscriptions) {
+            throw new IllegalStateException("Maximum number of subscriptions (" + maxSubscriptions + ") reached, unsubscribe first");
+        }
+        Subscription subscription = new Subscription(cmdIds.incrementAndGet(), key, List.copyOf(keys));
+        synchronized (this) {
+            subscriptions.put(subscription.id, subscription);
+            subscriptionsByKey.put(key, subscription);
+            if (webSocket != null) {
+                send(commands(List.of(subscription), false, false));
+            } else {
+                try {
+                    connect();
+                } catch (RuntimeException e) {
+                    subscriptions.remove(subscription.id);
+                    subscriptionsByKey.remove(key, subscription);
+                    throw e;
+                }
+            }
+        }
+        try {
+            subscription.firstUpdate.get(snapshotTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (TimeoutException e) {
+            log.debug("No values for subscription {} of {} yet", subscription.id, entityId);
+        } catch (Exception e) {
+            log.debug("Subscription {} of {} failed", subscription.id, entityId, e);
+        }
+        return subscription.info();
+    }
+
+    public boolean unsubscribe(int subscriptionId) {
+        Subscription subscription = subscriptions.remove(subscriptionId);
+        if (subscription == null) {
+            return false;
+        }
+        subscriptionsByKey.remove(subscription.key, subscription);
+        synchronized (this) {
+            if (webSocket != null) {
+                if (subscriptions.isEmpty()) {
+                    // Nothing left to listen to, the socket is opened again by the next subscription
+                    WebSocket socket = webSocket;
+                    webSocket = null;
+                    sending = sending.exceptionally(e -> null)
+                            .thenCompose(v -> socket.sendClose(WebSocket.NORMAL_CLOSURE, ""))
+                            .thenAccept(ws -> {
+                            });
+                } else {
+                    send(commands(List.of(subscription), false, true));
+                }
+            }
+        }
+        return true;
+    }
+
+    public List<SubscriptionInfo> getSubscriptions() {
+        return subscriptions.values().stream().map(Subscription::info).toList();
+    }
+
+    /**
+     * Returns the latest time series of a subscribed entity, or empty if the entity or the keys are not subscribed,
+     * or the subscription is not live.
+     */
+    public Optional<List<TsKvEntry>> getLatestTimeseries(EntityId entityId, List<String> keys, boolean strict) {
+        return read(new SubscriptionKey(entityId, SubscriptionType.TIMESERIES, null), keys, values -> values.toTimeseries(keys, strict));
+    }
+
+    /**
+     * Returns the latest attributes of a subscribed entity of the scope, or of all scopes if {@code scope} is null.
+     */
+    public Optional<List<AttributeKvEntry>> getAttributes(EntityId entityId, String scope, List<String> keys) {
+        return read(new SubscriptionKey(entityId, SubscriptionType.ATTRIBUTES, scope), keys, values -> values.toAttributes(keys));
+    }
+
+    private <T> Optional<T> read(SubscriptionKey key, List<String> keys, Function<LatestValues, T> reader) {
+        if (subscriptions.isEmpty() || ClientCredentials.current() != null) {
+            return Optional.empty();
+        }
+        Subscription subscription = subscriptionsByKey.get(key);
+        if (subscription == null || !subscription.live || !subscription.covers(keys)) {
+            misses.increment();
+            return Optional.empty();
+        }
+        hits.increment();
+        return Optional.of(reader.apply(subscription.values));
+    }
+
+    /**
+     * Subscriptions share one WebSocket authenticated as the configured user, so sessions with their own
+     * credentials must not see or create them.
+     */
+    private void checkServerCredentials() {
+        if (ClientCredentials.current() != null) {
+            throw new IllegalStateException("Telemetry subscriptions are only available with the ThingsBoard credentials configured on the server");
+        }
+    }
+
+    private synchronized void connect() {
+        if (connecting != null || destroyed) {
+            return;
+        }
+        WebSocket.Builder builder = httpClient.newWebSocketBuilder().connectTimeout(Duration.ofSeconds(10));
+        if (StringUtils.isNotBlank(apiKey)) {
+            builder.header("X-Authorization", "ApiKey " + apiKey);
+            authToken = null;
+        } else {
+            RestClient client = clientService.getClient();
+            authToken = client != null ? client.getToken() : null;
+            if (authToken == null) {
+                throw new IllegalStateException("Not logged in to ThingsBoard");
+            }
+        }
+        URI uri = URI.create(url.replaceFirst("^http", "ws") + "/api/ws");
+        connecting = builder.buildAsync(uri, new Listener());
+        connecting.whenComplete((socket, e) -> {
+            if (e != null) {
+                log.warn("Failed to connect to ThingsBoard WebSocket at {}: {}", uri, e.getMessage());
+                onDisconnected(null);
+            }
+        });
+    }
+
+    private synchronized void onOpen(WebSocket socket) {
+        webSocket = socket;
+        connecting = null;
+        sending = CompletableFuture.completedFuture(null);
+        log.info("Connected to ThingsBoard WebSocket, subscribing to {} entities", subscriptions.size());
+        send(commands(subscriptions.values(), true, false));
+    }
+
+    private void onDisconnected(WebSocket socket) {
+        synchronized (this) {
+            if (socket != null && webSocket != socket) {
+                return;
+            }
+            webSocket = null;
+            connecting = null;
+        }
+        subscriptions.values().forEach(subscription -> subscription.live = false);
+        if (!subscriptions.isEmpty() && !destroyed) {
+            reconnectExecutor.schedule(this::reconnect, reconnectDelayMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void reconnect() {
+        synchronized (this) {
+            if (webSocket != null || subscriptions.isEmpty()) {
+                return;
+            }
+            try {
+                connect();
+                return;
+            } catch (RuntimeException e) {
+                log.warn("Failed to reconnect to ThingsBoard WebSocket: {}", e.getMessage());
+            }
+        }
+        onDisconnected(null);
+    }
+
+    /**
+     * Sends are chained, because {@link WebSocket} rejects a message while the previous one is still being sent.
+     */
+    private synchronized void send(String text) {
+        WebSocket socket = webSocket;
+        sending = sending.exceptionally(e -> null)
+                .thenCompose(v -> socket.sendText(text, true))
+                .thenAccept(ws -> {
+                });
+        sending.whenComplete((v, e) -> {
+            if (e != null) {
+                log.debug("Failed to send command to ThingsBoard WebSocket", e);
+            }
+        });
+    }
+
+    private String commands(Collection<Subscription> targets, boolean auth, boolean unsubscribe) {
+        ObjectNode message = JacksonUtil.newObjectNode();
+        if (auth && authToken != null) {
+            message.putObject("authCmd").put("cmdId", 0).put("token", authToken);
+        }
+        ArrayNode cmds = message.putArray("cmds");
+        for (Subscription subscription : targets) {
+            ObjectNode cmd = cmds.addObject();
+            cmd.put("type", subscription.key.type.name());
+            cmd.put("entityType", subscription.key.entityId.getEntityType().name());
+            cmd.put("entityId", subscription.key.entityId.getId().toString());
+            cmd.put("cmdId", subscription.id);
+            if (subscription.key.type == SubscriptionType.TIMESERIES) {
+                cmd.put("scope", "LATEST_TELEMETRY");
+            } else if (subscription.key.scope != null) {
+                cmd.put("scope", subscription.key.scope);
+            }
+            if (!subscription.keys.isEmpty()) {
+                cmd.put("keys", String.join(",", subscription.keys));
+            }
+            if (unsubscribe) {
+                cmd.put("unsubscribe", true);
+            }
+        }
+        return JacksonUtil.toString(message);
+    }
+
+    /**
+     * Handles a subscription update: {@code {"subscriptionId": 1, "errorCode": 0, "data": {"key": [[ts, "value"]]}}}.
+     */
+    void onMessage(String text) {
+        JsonNode message = JacksonUtil.toJsonNode(text);
+        Subscription subscription = subscriptions.get(message.path("subscriptionId").asInt(-1));
+        if (subscription == null) {
+            if (message.path("errorCode").asInt() != 0) {
+                log.warn("ThingsBoard WebSocket error: {}", message.path("errorMsg").asText());
+            }
+            return;
+        }
+        if (message.path("errorCode").asInt() != 0) {
+            subscription.error = message.path("errorMsg").asText();
+            subscription.live = false;
+            subscription.firstUpdate.complete(null);
+            log.warn("Subscription {} of {} failed: {}", subscription.id, subscription.key.entityId, subscription.error);
+            return;
+        }
+        for (Iterator<Map.Entry<String, JsonNode>> it = message.path("data").fields(); it.hasNext(); ) {
+            Map.Entry<String, JsonNode> field = it.next();
+            for (JsonNode point : field.getValue()) {
+                JsonNode value = point.path(1);
+                if (!value.isMissingNode() && !value.isNull()) {
+                    subscription.values.update(field.getKey(), point.path(0).asLong(), value.isTextual() ? value.textValue() : value.toString());
+                }
+            }
+        }
+        subscription.error = null;
+        subscription.live = true;
+        subscription.firstUpdate.complete(null);
+    }
+
+    private static final class Subscription {
+
+        private final int id;
+        private final SubscriptionKey key;
+        private final List<String> keys;
+        private final LatestValues values = new LatestValues();
+        private final CompletableFuture<Void> firstUpdate = new CompletableFuture<>();
+        private volatile boolean live;
+        private volatile String error;
+
+        private Subscription(int id, SubscriptionKey key, List<String> keys) {
+            this.id = id;
+            this.key = key;
+            this.keys = keys;
+        }
+
+        /**
+         * A subscription to all keys also answers for keys the entity does not have, like the REST API does.
+         */
+        private boolean covers(List<String> requested) {
+            return keys.isEmpty() || !requested.isEmpty() && keys.containsAll(requested);
+        }
+
+        private SubscriptionInfo info() {
+            return new SubscriptionInfo(id, key.entityId.getEntityType().name(), key.entityId.getId().toString(),
+                    key.type, key.scope, keys, live, values.size(), error);
+        }
+
+    }
+
+    private class Listener implements WebSocket.Listener {
+
+        private final StringBuilder buffer = new StringBuilder();
+
+        @Override
+        public void onOpen(WebSocket socket) {
+            TelemetrySubscriptionService.this.onOpen(socket);
+            socket.request(1);
+        }
+
+        @Override
+        public CompletionStage<?> onText(WebSocket socket, CharSequence data, boolean last) {
+            buffer.append(data);
+            if (last) {
+                try {
+                    onMessage(buffer.toString());
+                } catch (Exception e) {
+                    log.warn("Failed to process ThingsBoard WebSocket message", e);
+                } finally {
+                    buffer.setLength(0);
+                }
+            }
+            socket.request(1);
+            return null;
+        }
+
+        @Override
+        public CompletionStage<?> onClose(WebSocket socket, int statusCode, String reason) {
+            log.info("ThingsBoard WebSocket closed [{}] {}", statusCode, reason);
+            onDisconnected(socket);
+            return null;
+        }
+
+        @Override
+        public void onError(WebSocket socket, Throwable error) {
+            log.warn("ThingsBoard WebSocket error: {}", error.getMessage());
+            onDisconnected(socket);
+        }
+
+    }
+
+}
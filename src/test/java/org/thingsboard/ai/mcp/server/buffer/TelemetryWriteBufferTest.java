@@ -0,0 +1,166 @@
+package org.thingsboard.ai.mcp.server.buffer;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.thingsboard.ai.mcp.server.buffer.TelemetryWriteBuffer.AddResult;
+import org.thingsboard.ai.mcp.server.buffer.TelemetryWriteBuffer.FlushResult;
+import org.thingsboard.ai.mcp.server.rest.RestClient;
+import org.thingsboard.ai.mcp.server.rest.RestClientService;
+import org.thingsboard.common.util.JacksonUtil;
+import org.thingsboard.server.common.data.id.DeviceId;
+import org.thingsboard.server.common.data.id.EntityId;
+
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class TelemetryWriteBufferTest {
+
+    private final DeviceId deviceId = new DeviceId(UUID.randomUUID());
+
+    private RestClient client;
+    private RestClientService clientService;
+    private TelemetryWriteBuffer buffer;
+
+    @BeforeEach
+    void setup() {
+        client = mock(RestClient.class);
+        clientService = mock(RestClientService.class);
+        when(clientService.getClient()).thenReturn(client);
+        when(client.saveEntityTelemetry(any(EntityId.class), any(String.class), any(JsonNode.class))).thenReturn(true);
+        when(client.saveEntityTelemetryWithTTL(any(EntityId.class), any(String.class), anyLong(), any(JsonNode.class))).thenReturn(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (buffer != null) {
+            buffer.destroy();
+        }
+    }
+
+    @Test
+    void testFlush_mergesPointsOfEntityIntoOneRequest() {
+        buffer = new TelemetryWriteBuffer(clientService, new SimpleMeterRegistry(), true, 100, 100, 60000, 1000);
+
+        buffer.add(deviceId, "ANY", null, JacksonUtil.toJsonNode("{\"ts\":2000,\"values\":{\"temperature\":21}}"));
+        buffer.add(deviceId, "ANY", null, JacksonUtil.toJsonNode("[{\"ts\":1000,\"values\":{\"temperature\":20}},{\"ts\":2000,\"values\":{\"humidity\":40}}]"));
+        AddResult last = buffer.add(deviceId, "ANY", 3600L, JacksonUtil.toJsonNode("{\"ts\":1000,\"values\":{\"temperature\":20}}"));
+        assertThat(last.firstPointId()).isEqualTo(4);
+        assertThat(last.bufferedPoints()).isEqualTo(4);
+        verify(client, never()).saveEntityTelemetry(any(EntityId.class), any(String.class), any(JsonNode.class));
+
+        FlushResult result = buffer.flush(1);
+
+        assertThat(result.completedThrough()).isEqualTo(4);
+        assertThat(result.acknowledged()).isEqualTo(4);
+        assertThat(result.failedPoints()).isEmpty();
+        assertThat(result.bufferedPoints()).isZero();
+        ArgumentCaptor<JsonNode> request = ArgumentCaptor.forClass(JsonNode.class);
+        verify(client).saveEntityTelemetry(eq(deviceId), eq("ANY"), request.capture());
+        assertThat(JacksonUtil.toString(request.getValue()))
+                .isEqualTo("[{\"ts\":1000,\"values\":{\"temperature\":20}},{\"ts\":2000,\"values\":{\"temperature\":21,\"humidity\":40}}]");
+        verify(client).saveEntityTelemetryWithTTL(eq(deviceId), eq("ANY"), eq(3600L), any(JsonNode.class));
+
+        assertThat(buffer.flush(last.lastPointId() + 1).acknowledged()).isZero();
+    }
+
+    @Test
+    void testAdd_sendsOnBatchSizeAndAge() {
+        buffer = new TelemetryWriteBuffer(clientService, new SimpleMeterRegistry(), true, 100, 2, 100, 1000);
+        DeviceId otherId = new DeviceId(UUID.randomUUID());
+
+        buffer.add(deviceId, "ANY", null, JacksonUtil.toJsonNode("[{\"ts\":1,\"values\":{\"a\":1}},{\"ts\":2,\"values\":{\"a\":2}}]"));
+        buffer.add(otherId, "ANY", null, JacksonUtil.toJsonNode("{\"a\":1}"));
+
+        verify(client, timeout(1000)).saveEntityTelemetry(eq(deviceId), eq("ANY"), any(JsonNode.class));
+        verify(client, timeout(2000)).saveEntityTelemetry(eq(otherId), eq("ANY"), any(JsonNode.class));
+        assertThat(buffer.flush(1).acknowledged()).isEqualTo(3);
+    }
+
+    @Test
+    void testFlush_reportsFailedPoints() {
+        buffer = new TelemetryWriteBuffer(clientService, new SimpleMeterRegistry(), true, 100, 100, 60000, 1000);
+        DeviceId failingId = new DeviceId(UUID.randomUUID());
+        when(client.saveEntityTelemetry(eq(failingId), any(String.class), any(JsonNode.class))).thenThrow(new IllegalStateException("Forbidden"));
+
+        buffer.add(deviceId, "ANY", null, JacksonUtil.toJsonNode("{\"ts\":1,\"values\":{\"a\":1}}"));
+        buffer.add(failingId, "ANY", null, JacksonUtil.toJsonNode("{\"ts\":5,\"values\":{\"a\":1}}"));
+        FlushResult result = buffer.flush(1);
+
+        assertThat(result.acknowledged()).isEqualTo(1);
+        assertThat(result.failed()).isEqualTo(1);
+        assertThat(result.failedPoints()).hasSize(1);
+        assertThat(result.failedPoints().get(0).pointId()).isEqualTo(2);
+        assertThat(result.failedPoints().get(0).entityId()).isEqualTo(failingId.getId().toString());
+        assertThat(result.failedPoints().get(0).ts()).isEqualTo(5);
+        assertThat(result.failedPoints().get(0).error()).isEqualTo("Forbidden");
+    }
+
+    @Test
+    void testFlush_reportsPointIdRange() {
+        buffer = new TelemetryWriteBuffer(clientService, new SimpleMeterRegistry(), true, 100, 100, 60000, 1000);
+        DeviceId failingId = new DeviceId(UUID.randomUUID());
+        when(client.saveEntityTelemetry(eq(failingId), any(String.class), any(JsonNode.class))).thenThrow(new IllegalStateException("Forbidden"));
+
+        AddResult first = buffer.add(failingId, "ANY", null, JacksonUtil.toJsonNode("{\"ts\":1,\"values\":{\"a\":1}}"));
+        AddResult second = buffer.add(deviceId, "ANY", null, JacksonUtil.toJsonNode("[{\"ts\":1,\"values\":{\"a\":1}},{\"ts\":2,\"values\":{\"a\":2}}]"));
+        FlushResult secondResult = buffer.flush(second.firstPointId());
+        FlushResult firstResult = buffer.flush(first.firstPointId());
+
+        assertThat(secondResult.acknowledged()).isEqualTo(2);
+        assertThat(secondResult.failed()).isZero();
+        assertThat(secondResult.failedPoints()).isEmpty();
+        // A flush does not take the failure away from later flushes, and the range holds the points of every save in it
+        assertThat(firstResult.acknowledged()).isEqualTo(2);
+        assertThat(firstResult.failed()).isEqualTo(1);
+        assertThat(firstResult.failedPoints()).extracting(TelemetryWriteBuffer.FailedPoint::pointId).containsExactly(first.firstPointId());
+        assertThat(firstResult.failuresTruncated()).isFalse();
+    }
+
+    @Test
+    void testAdd_waitsWhenFull() throws Exception {
+        buffer = new TelemetryWriteBuffer(clientService, new SimpleMeterRegistry(), true, 2, 2, 60000, 100);
+        CountDownLatch release = new CountDownLatch(1);
+        when(client.saveEntityTelemetry(eq(deviceId), any(String.class), any(JsonNode.class))).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return true;
+        });
+
+        buffer.add(deviceId, "ANY", null, JacksonUtil.toJsonNode("[{\"ts\":1,\"values\":{\"a\":1}},{\"ts\":2,\"values\":{\"a\":2}}]"));
+        assertThatThrownBy(() -> buffer.add(deviceId, "ANY", null, JacksonUtil.toJsonNode("{\"ts\":3,\"values\":{\"a\":3}}")))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("full");
+
+        release.countDown();
+        AddResult result = buffer.add(deviceId, "ANY", null, JacksonUtil.toJsonNode("{\"ts\":3,\"values\":{\"a\":3}}"));
+        assertThat(result.firstPointId()).isEqualTo(3);
+        assertThat(buffer.flush(1).acknowledged()).isEqualTo(3);
+    }
+
+    @Test
+    void testAdd_rejectsInvalidPoints() {
+        buffer = new TelemetryWriteBuffer(clientService, new SimpleMeterRegistry(), true, 100, 100, 60000, 1000);
+
+        assertThatThrownBy(() -> buffer.add(deviceId, "ANY", null, JacksonUtil.toJsonNode("[1]")))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> buffer.add(deviceId, "ANY", null, JacksonUtil.toJsonNode("{\"ts\":\"x\",\"values\":{\"a\":1}}")))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(buffer.flush(1).completedThrough()).isZero();
+    }
+
+}
@@ -0,0 +1,122 @@
+package org.thingsboard.ai.mcp.server.config;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.annotation.Tool;
+import org.thingsboard.ai.mcp.server.annotation.CeOnly;
+import org.thingsboard.ai.mcp.server.annotation.PeOnly;
+import org.thingsboard.ai.mcp.server.data.AddToolsEvent;
+import org.thingsboard.ai.mcp.server.data.EditionChangedEvent;
+import org.thingsboard.ai.mcp.server.data.RemoveToolsEvent;
+import org.thingsboard.ai.mcp.server.data.ThingsBoardEdition;
+import org.thingsboard.ai.mcp.server.rest.RestClientService;
+import org.thingsboard.ai.mcp.server.result.ResultStore;
+import org.thingsboard.ai.mcp.server.tools.McpTools;
+import org.thingsboard.common.util.JacksonUtil;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class EditionAwareToolProviderTest {
+
+    private final List<Object> events = new CopyOnWriteArrayList<>();
+
+    @Mock
+    private RestClientService clientService;
+
+    @Test
+    void testGetToolCallbacks_waitsForDetectedEdition() {
+        when(clientService.awaitEdition(5000)).thenReturn(Optional.of(ThingsBoardEdition.CE));
+        EditionAwareToolProvider provider = createProvider(null);
+
+        ToolCallback[] callbacks = provider.getToolCallbacks();
+
+        assertThat(callbacks).extracting(callback -> callback.getToolDefinition().name())
+                .containsExactlyInAnyOrder("getDevice", "getCeDashboard");
+        assertThat(provider.getToolCallbacks()).isSameAs(callbacks);
+        JsonNode listing = JacksonUtil.toJsonNode(provider.getToolListing());
+        assertThat(listing.get("tools")).extracting(tool -> tool.get("name").asText())
+                .containsExactlyInAnyOrder("getDevice", "getCeDashboard");
+        assertThat(provider.getToolListing()).isSameAs(provider.getToolListing());
+        verify(clientService, times(1)).awaitEdition(5000);
+
+        provider.onEditionChanged(new EditionChangedEvent(ThingsBoardEdition.CE));
+        assertThat(events).isEmpty();
+    }
+
+    @Test
+    void testGetToolCallbacks_usesConfiguredEdition() {
+        EditionAwareToolProvider provider = createProvider("pe");
+
+        assertThat(provider.getToolCallbacks()).extracting(callback -> callback.getToolDefinition().name())
+                .containsExactlyInAnyOrder("getDevice", "getPeIntegration");
+        verify(clientService, never()).awaitEdition(5000);
+    }
+
+    @Test
+    void testOnEditionChanged_replacesToolsOfUndetectedEdition() {
+        when(clientService.awaitEdition(5000)).thenReturn(Optional.empty());
+        EditionAwareToolProvider provider = createProvider(null);
+        assertThat(provider.getToolCallbacks()).hasSize(3);
+
+        provider.onEditionChanged(new EditionChangedEvent(ThingsBoardEdition.PE));
+
+        assertThat(events).containsExactly(new RemoveToolsEvent(List.of("getCeDashboard")));
+        assertThat(provider.getToolCallbacks()).hasSize(2);
+        assertThat(JacksonUtil.toJsonNode(provider.getToolListing()).get("tools")).hasSize(2);
+    }
+
+    @Test
+    void testOnEditionChanged_addsToolsOfDetectedEdition() {
+        EditionAwareToolProvider provider = createProvider("CE");
+        provider.getToolCallbacks();
+
+        provider.onEditionChanged(new EditionChangedEvent(ThingsBoardEdition.PE));
+
+        assertThat(events).hasSize(2);
+        assertThat(events.get(0)).isEqualTo(new RemoveToolsEvent(List.of("getCeDashboard")));
+        assertThat(((AddToolsEvent) events.get(1)).tools()).extracting(specification -> specification.tool().name())
+                .containsExactly("getPeIntegration");
+    }
+
+    private EditionAwareToolProvider createProvider(String configuredEdition) {
+        return new EditionAwareToolProvider(List.of(new SampleTools()), events::add, new SimpleMeterRegistry(), ObservationRegistry.NOOP,
+                new ResultStore(0, 0, 0, 1), clientService, configuredEdition, 5000);
+    }
+
+    public static class SampleTools implements McpTools {
+
+        @Tool(description = "Get a device")
+        public String getDevice(String id) {
+            return id;
+        }
+
+        @CeOnly
+        @Tool(description = "Get a dashboard of the community edition")
+        public String getCeDashboard(String id) {
+            return id;
+        }
+
+        @PeOnly
+        @Tool(description = "Get an integration of the professional edition")
+        public String getPeIntegration(String id) {
+            return id;
+        }
+
+    }
+
+}
@@ -0,0 +1,68 @@
+package org.thingsboard.ai.mcp.server.config;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.thingsboard.ai.mcp.server.rest.RestClient;
+import org.thingsboard.ai.mcp.server.stub.ThingsBoardStubServer;
+import org.thingsboard.ai.mcp.server.trace.ToolCallObservationContext;
+import org.thingsboard.ai.mcp.server.trace.ToolCallObservationContext.RestSpan;
+import org.thingsboard.ai.mcp.server.trace.ToolCallTraceHandler;
+import org.thingsboard.common.util.ThingsBoardExecutors;
+import org.thingsboard.server.common.data.page.PageLink;
+
+import java.util.concurrent.ExecutorService;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ToolExecutorConfigTest {
+
+    private ThingsBoardStubServer stub;
+    private ObservationRegistry registry;
+    private RestClient client;
+    private ExecutorService pool;
+
+    @BeforeEach
+    void setup() throws Exception {
+        stub = new ThingsBoardStubServer(3).start();
+        registry = ObservationRegistry.create();
+        registry.observationConfig().observationHandler(new ToolCallTraceHandler());
+        client = new RestClient(stub.getUrl());
+        client.getRestTemplate().setObservationRegistry(registry);
+        client.login("tenant@thingsboard.org", "tenant");
+        pool = ThingsBoardExecutors.newWorkStealingPool(2, "tool-executor-test");
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+        client.close();
+        stub.close();
+    }
+
+    @Test
+    void testToolExecutor_attachesRestCallsToToolCall() throws Exception {
+        ToolCallObservationContext wrapped = callOn(ToolExecutorConfig.wrap(pool));
+        ToolCallObservationContext plain = callOn(pool);
+
+        assertThat(wrapped.getRestSpans()).singleElement().satisfies(span -> {
+            assertThat(span.method()).isEqualTo("GET");
+            assertThat(span.status()).isEqualTo(200);
+        });
+        assertThat(plain.getRestSpans()).extracting(RestSpan::method).isEmpty();
+    }
+
+    private ToolCallObservationContext callOn(ExecutorService executor) throws Exception {
+        ToolCallObservationContext context = new ToolCallObservationContext("getTenantDevices");
+        Observation observation = Observation.createNotStarted("mcp.tool.calls", () -> context, registry).start();
+        try (Observation.Scope scope = observation.openScope()) {
+            executor.submit(() -> client.getTenantDevices(null, new PageLink(10))).get();
+        } finally {
+            observation.stop();
+        }
+        return context;
+    }
+
+}
@@ -0,0 +1,105 @@
+package org.thingsboard.ai.mcp.server.index;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.thingsboard.ai.mcp.server.data.EntityChangedEvent;
+import org.thingsboard.ai.mcp.server.index.EntityNameIndex.Match;
+import org.thingsboard.ai.mcp.server.rest.RestClient;
+import org.thingsboard.ai.mcp.server.rest.RestClientService;
+import org.thingsboard.server.common.data.Customer;
+import org.thingsboard.server.common.data.Device;
+import org.thingsboard.server.common.data.EntityType;
+import org.thingsboard.server.common.data.asset.Asset;
+import org.thingsboard.server.common.data.id.AssetId;
+import org.thingsboard.server.common.data.id.CustomerId;
+import org.thingsboard.server.common.data.id.DeviceId;
+import org.thingsboard.server.common.data.page.PageData;
+import org.thingsboard.server.common.data.page.PageLink;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class EntityNameIndexTest {
+
+    private EntityNameIndex nameIndex;
+    private DeviceId boilerId;
+
+    @BeforeEach
+    void setup() {
+        List<Device> devices = new ArrayList<>();
+        for (int i = 0; i < 1500; i++) {
+            Device device = new Device(new DeviceId(UUID.randomUUID()));
+            device.setName("Temperature Sensor " + i);
+            devices.add(device);
+        }
+        Device boiler = new Device(new DeviceId(UUID.randomUUID()));
+        boiler.setName("Boiler Room Thermostat");
+        devices.add(boiler);
+        boilerId = boiler.getId();
+        Asset building = new Asset(new AssetId(UUID.randomUUID()));
+        building.setName("Building A");
+        Customer customer = new Customer(new CustomerId(UUID.randomUUID()));
+        customer.setTitle("Acme Thermostats Inc");
+
+        RestClient client = mock(RestClient.class);
+        when(client.getTenantDevices(isNull(), any(PageLink.class))).thenAnswer(invocation -> page(devices, invocation.getArgument(1)));
+        when(client.getTenantAssets(any(PageLink.class), isNull())).thenReturn(new PageData<>(List.of(building), 1, 1, false));
+        when(client.getCustomers(any(PageLink.class))).thenReturn(new PageData<>(List.of(customer), 1, 1, false));
+        when(client.getTenantEntityViews(isNull(), any(PageLink.class))).thenThrow(new IllegalStateException("Forbidden"));
+        RestClientService clientService = mock(RestClientService.class);
+        when(clientService.getClient()).thenReturn(client);
+
+        nameIndex = new EntityNameIndex(clientService, new SimpleMeterRegistry(), true, 0, 100000);
+        nameIndex.rebuild();
+    }
+
+    @Test
+    void testSearch_ranksMisspelledNames() {
+        assertThat(nameIndex.isReady()).isTrue();
+        assertThat(nameIndex.size()).isEqualTo(1503);
+
+        List<Match> matches = nameIndex.search("boiler thermostta", null, 3, 0.2);
+        assertThat(matches.get(0).id()).isEqualTo(boilerId.getId().toString());
+        assertThat(matches.get(0).entityType()).isEqualTo(EntityType.DEVICE);
+
+        List<Match> exact = nameIndex.search("temperature sensor 42", null, 5, 0.2);
+        assertThat(exact.get(0).name()).isEqualTo("Temperature Sensor 42");
+        assertThat(exact.get(0).score()).isEqualTo(1.0);
+        assertThat(exact).hasSize(5);
+
+        assertThat(nameIndex.search("thermostat", EntityType.CUSTOMER, 5, 0.2))
+                .extracting(Match::name).containsExactly("Acme Thermostats Inc");
+        assertThat(nameIndex.search("xyzzy", null, 5, 0.2)).isEmpty();
+    }
+
+    @Test
+    void testOnEntityChanged_keepsIndexCurrent() {
+        DeviceId pumpId = new DeviceId(UUID.randomUUID());
+        nameIndex.onEntityChanged(new EntityChangedEvent(pumpId, "Water Pump 3"));
+        assertThat(nameIndex.search("water pmp 3", null, 1, 0.2)).extracting(Match::name).containsExactly("Water Pump 3");
+
+        nameIndex.onEntityChanged(new EntityChangedEvent(pumpId, "Fire Pump 3"));
+        assertThat(nameIndex.search("water pump 3", null, 1, 0.5)).isEmpty();
+        assertThat(nameIndex.search("fire pump", null, 1, 0.2)).extracting(Match::name).containsExactly("Fire Pump 3");
+
+        nameIndex.onEntityChanged(new EntityChangedEvent(boilerId, null));
+        assertThat(nameIndex.search("boiler room thermostat", EntityType.DEVICE, 5, 0.5)).isEmpty();
+        assertThat(nameIndex.size()).isEqualTo(1503);
+    }
+
+    private static PageData<Device> page(List<Device> devices, PageLink pageLink) {
+        int from = pageLink.getPage() * pageLink.getPageSize();
+        int to = Math.min(devices.size(), from + pageLink.getPageSize());
+        int totalPages = (devices.size() + pageLink.getPageSize() - 1) / pageLink.getPageSize();
+        return new PageData<>(devices.subList(from, to), totalPages, devices.size(), to < devices.size());
+    }
+
+}
@@ -0,0 +1,75 @@
+package org.thingsboard.ai.mcp.server.load;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Throughput and latency percentiles of a load run, per tool and in total.
+ */
+record LoadReport(Map<String, ToolStats> stats, long durationMs, long allocationBytesPerSecond) {
+
+    void print(String mode, int concurrency) {
+        System.out.printf("MCP load test: mode=%s, concurrency=%d, duration=%ds%n", mode, concurrency, durationMs / 1000);
+        System.out.printf("%-36s %8s %7s %9s %9s %9s %9s %9s%n", "tool", "calls", "errors", "calls/s", "p50 ms", "p90 ms", "p99 ms", "max ms");
+        ToolStats total = new ToolStats();
+        stats.forEach((tool, toolStats) -> {
+            printRow(tool, toolStats);
+            total.merge(toolStats);
+        });
+        printRow("TOTAL", total);
+        if (allocationBytesPerSecond >= 0) {
+            System.out.printf("Server allocation rate: %.1f MB/s (%.1f KB per call)%n",
+                    allocationBytesPerSecond / 1024.0 / 1024.0,
+                    total.count > 0 ? allocationBytesPerSecond * (durationMs / 1000.0) / total.count / 1024.0 : 0.0);
+        } else {
+            System.out.println("Server allocation rate: n/a (server runs in a separate process)");
+        }
+    }
+
+    private void printRow(String tool, ToolStats toolStats) {
+        long[] sorted = toolStats.sortedLatencies();
+        System.out.printf("%-36s %8d %7d %9.1f %9.1f %9.1f %9.1f %9.1f%n", tool, toolStats.count, toolStats.errors,
+                toolStats.count * 1000.0 / Math.max(1, durationMs),
+                percentile(sorted, 0.5), percentile(sorted, 0.9), percentile(sorted, 0.99), percentile(sorted, 1.0));
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int idx = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, idx))] / 1_000_000.0;
+    }
+
+    static class ToolStats {
+
+        private long[] latencies = new long[1024];
+        private int count;
+        private int errors;
+
+        synchronized void record(long latencyNs, boolean error) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = latencyNs;
+            if (error) {
+                errors++;
+            }
+        }
+
+        synchronized void merge(ToolStats other) {
+            for (int i = 0; i < other.count; i++) {
+                record(other.latencies[i], false);
+            }
+            errors += other.errors;
+        }
+
+        synchronized long[] sortedLatencies() {
+            long[] sorted = Arrays.copyOf(latencies, count);
+            Arrays.sort(sorted);
+            return sorted;
+        }
+
+    }
+
+}
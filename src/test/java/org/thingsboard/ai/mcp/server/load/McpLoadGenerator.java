@@ -0,0 +1,212 @@
+package org.thingsboard.ai.mcp.server.load;
+
+import io.modelcontextprotocol.client.McpClient;
+import io.modelcontextprotocol.client.McpSyncClient;
+import io.modelcontextprotocol.client.transport.HttpClientSseClientTransport;
+import io.modelcontextprotocol.client.transport.ServerParameters;
+import io.modelcontextprotocol.client.transport.StdioClientTransport;
+import io.modelcontextprotocol.spec.McpClientTransport;
+import io.modelcontextprotocol.spec.McpSchema;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.thingsboard.ai.mcp.server.McpServerApplication;
+import org.thingsboard.ai.mcp.server.stub.ThingsBoardStubServer;
+import org.thingsboard.server.common.data.id.DeviceId;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.Function;
+
+/**
+ * Drives the MCP server with a weighted mix of tool calls against {@link ThingsBoardStubServer} and reports throughput,
+ * latency percentiles and, when the server runs in-process, its allocation rate.
+ * <p>
+ * Configured with system properties:
+ * <ul>
+ *     <li>{@code load.mode} - {@code sse} (default, server runs in-process) or {@code stdio} (server jar runs as a child process)</li>
+ *     <li>{@code load.jar} - server jar for the {@code stdio} mode. Default: target/thingsboard-mcp-server-2.0.0.jar</li>
+ *     <li>{@code load.concurrency} - number of concurrent callers. Default: 8</li>
+ *     <li>{@code load.warmup} / {@code load.duration} - warmup and measurement time in seconds. Default: 10 / 30</li>
+ *     <li>{@code load.mix} - comma-separated {@code tool:weight} pairs, see {@link #DEFAULT_MIX}</li>
+ *     <li>{@code stub.devices}, {@code stub.latency-ms}, {@code stub.latency-jitter-ms}, {@code stub.error-rate},
+ *     {@code stub.timeseries-points}, {@code stub.entity-padding} - ThingsBoard stub settings</li>
+ * </ul>
+ */
+@Slf4j
+public class McpLoadGenerator {
+
+    static final String DEFAULT_MIX = "getLatestTimeseries:30,getTimeseries:20,getTenantDevices:20," +
+            "findEntityDataByEntityTypeFilter:15,getAllAlarms:10,findInfoByFrom:5";
+
+    private final List<DeviceId> deviceIds;
+    private final Map<String, Function<Random, Map<String, Object>>> argumentFactories = new LinkedHashMap<>();
+
+    McpLoadGenerator(List<DeviceId> deviceIds) {
+        this.deviceIds = deviceIds;
+        argumentFactories.put("getLatestTimeseries", r -> Map.of(
+                "entityType", "DEVICE", "entityIdStr", randomDevice(r), "keys", "temperature,humidity"));
+        argumentFactories.put("getTimeseries", r -> Map.of(
+                "entityType", "DEVICE", "entityIdStr", randomDevice(r), "keys", "temperature",
+                "startTs", String.valueOf(System.currentTimeMillis() - 86_400_000L), "limit", "500"));
+        argumentFactories.put("getTenantDevices", r -> Map.of(
+                "pageSize", "50", "page", String.valueOf(r.nextInt(2))));
+        argumentFactories.put("findEntityDataByEntityTypeFilter", r -> Map.of(
+                "entityTypeFilter", Map.of("type", "entityType", "entityType", "DEVICE"),
+                "entityFields", List.of(Map.of("type", "ENTITY_FIELD", "key", "name")),
+                "latestValues", List.of(Map.of("type", "TIME_SERIES", "key", "temperature")),
+                "pageSize", "100", "page", "0"));
+        argumentFactories.put("getAllAlarms", r -> Map.of(
+                "pageSize", "50", "page", "0", "sortProperty", "createdTime", "sortOrder", "DESC"));
+        argumentFactories.put("findInfoByFrom", r -> Map.of(
+                "strFromId", randomDevice(r), "strFromType", "DEVICE"));
+    }
+
+    public static void main(String[] args) throws Exception {
+        String mode = System.getProperty("load.mode", "sse");
+        int concurrency = Integer.getInteger("load.concurrency", 8);
+        long warmupMs = Long.getLong("load.warmup", 10) * 1000;
+        long durationMs = Long.getLong("load.duration", 30) * 1000;
+
+        try (ThingsBoardStubServer stub = new ThingsBoardStubServer(Integer.getInteger("stub.devices", 500))) {
+            stub.setLatencyMs(Long.getLong("stub.latency-ms", 20));
+            stub.setLatencyJitterMs(Long.getLong("stub.latency-jitter-ms", 10));
+            stub.setErrorRate(Double.parseDouble(System.getProperty("stub.error-rate", "0")));
+            stub.setTimeseriesPoints(Integer.getInteger("stub.timeseries-points", 500));
+            stub.setEntityPadding(Integer.getInteger("stub.entity-padding", 0));
+            stub.start();
+
+            McpLoadGenerator generator = new McpLoadGenerator(stub.getDeviceIds());
+            Map<String, Integer> mix = parseMix(System.getProperty("load.mix", DEFAULT_MIX));
+            ConfigurableApplicationContext context = null;
+            McpClientTransport transport;
+            if ("stdio".equals(mode)) {
+                transport = new StdioClientTransport(ServerParameters.builder("java")
+                        .args("-jar", System.getProperty("load.jar", "target/thingsboard-mcp-server-2.0.0.jar"))
+                        .env(Map.of("THINGSBOARD_URL", stub.getUrl(),
+                                "THINGSBOARD_USERNAME", "tenant@thingsboard.org",
+                                "THINGSBOARD_PASSWORD", "tenant"))
+                        .build());
+            } else {
+                context = new SpringApplicationBuilder(McpServerApplication.class).run(
+                        "--spring.main.web-application-type=servlet",
+                        "--spring.ai.mcp.server.stdio=false",
+                        "--server.port=0",
+                        "--thingsboard.url=" + stub.getUrl(),
+                        "--thingsboard.username=tenant@thingsboard.org",
+                        "--thingsboard.password=tenant");
+                int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+                transport = HttpClientSseClientTransport.builder("http://127.0.0.1:" + port).build();
+            }
+            try (McpSyncClient client = McpClient.sync(transport).requestTimeout(Duration.ofSeconds(60)).build()) {
+                client.initialize();
+                LoadReport report = generator.run(client, mix, concurrency, warmupMs, durationMs, context != null);
+                report.print(mode, concurrency);
+                System.out.println("ThingsBoard stub requests: " + new TreeMap<>(stub.getRequestCounts()));
+            } finally {
+                if (context != null) {
+                    context.close();
+                }
+            }
+        }
+    }
+
+    LoadReport run(McpSyncClient client, Map<String, Integer> mix, int concurrency, long warmupMs, long durationMs, boolean inProcess) throws InterruptedException {
+        List<String> weighted = new ArrayList<>();
+        mix.forEach((tool, weight) -> {
+            if (!argumentFactories.containsKey(tool)) {
+                throw new IllegalArgumentException("Unsupported tool in load mix: " + tool + ". Supported: " + argumentFactories.keySet());
+            }
+            for (int i = 0; i < weight; i++) {
+                weighted.add(tool);
+            }
+        });
+        Map<String, LoadReport.ToolStats> stats = new ConcurrentHashMap<>();
+        long startNs = System.nanoTime();
+        long measureStartNs = startNs + warmupMs * 1_000_000;
+        long endNs = measureStartNs + durationMs * 1_000_000;
+        Set<Long> workerThreadIds = ConcurrentHashMap.newKeySet();
+        CountDownLatch done = new CountDownLatch(concurrency);
+        AllocationSampler allocations = new AllocationSampler(workerThreadIds);
+
+        for (int w = 0; w < concurrency; w++) {
+            int seed = w;
+            Thread worker = new Thread(() -> {
+                workerThreadIds.add(Thread.currentThread().getId());
+                Random random = new Random(seed);
+                try {
+                    while (System.nanoTime() < endNs) {
+                        String tool = weighted.get(random.nextInt(weighted.size()));
+                        Map<String, Object> arguments = argumentFactories.get(tool).apply(random);
+                        long callStartNs = System.nanoTime();
+                        boolean error;
+                        try {
+                            McpSchema.CallToolResult result = client.callTool(new McpSchema.CallToolRequest(tool, arguments));
+                            error = Boolean.TRUE.equals(result.isError());
+                        } catch (Exception e) {
+                            error = true;
+                        }
+                        long callEndNs = System.nanoTime();
+                        if (callStartNs >= measureStartNs && callEndNs <= endNs) {
+                            stats.computeIfAbsent(tool, t -> new LoadReport.ToolStats()).record(callEndNs - callStartNs, error);
+                        }
+                    }
+                } finally {
+                    done.countDown();
+                }
+            }, "mcp-load-worker-" + w);
+            worker.start();
+        }
+        Thread.sleep(Math.max(0, (measureStartNs - System.nanoTime()) / 1_000_000));
+        long allocatedAtStart = inProcess ? allocations.allocatedBytes() : -1;
+        done.await();
+        long allocatedAtEnd = inProcess ? allocations.allocatedBytes() : -1;
+        long allocationRate = inProcess ? (allocatedAtEnd - allocatedAtStart) * 1000 / Math.max(1, durationMs) : -1;
+        return new LoadReport(new TreeMap<>(stats), durationMs, allocationRate);
+    }
+
+    private String randomDevice(Random random) {
+        return deviceIds.get(random.nextInt(deviceIds.size())).getId().toString();
+    }
+
+    static Map<String, Integer> parseMix(String mix) {
+        Map<String, Integer> result = new LinkedHashMap<>();
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split(":");
+            result.put(parts[0], parts.length > 1 ? Integer.parseInt(parts[1]) : 1);
+        }
+        return result;
+    }
+
+    /**
+     * Sums the bytes allocated by all live threads except the load workers. Threads that terminate during the run are
+     * not accounted, so the result is a lower bound of the server allocation rate.
+     */
+    private record AllocationSampler(Set<Long> excludedThreadIds) {
+
+        long allocatedBytes() {
+            if (!(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads)
+                    || !threads.isThreadAllocatedMemorySupported()) {
+                return -1;
+            }
+            threads.setThreadAllocatedMemoryEnabled(true);
+            Set<Long> excluded = new HashSet<>(excludedThreadIds);
+            long[] ids = Arrays.stream(threads.getAllThreadIds()).filter(id -> !excluded.contains(id)).toArray();
+            return Arrays.stream(threads.getThreadAllocatedBytes(ids)).filter(bytes -> bytes > 0).sum();
+        }
+
+    }
+
+}
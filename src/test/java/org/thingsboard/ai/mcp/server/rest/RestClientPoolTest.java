@@ -0,0 +1,96 @@
+package org.thingsboard.ai.mcp.server.rest;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.RestTemplate;
+import org.thingsboard.ai.mcp.server.stub.ThingsBoardStubServer;
+import org.thingsboard.server.common.data.page.PageLink;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RestClientPoolTest {
+
+    private ThingsBoardStubServer stub;
+    private RestClientPool pool;
+
+    @BeforeEach
+    void setup() throws Exception {
+        stub = new ThingsBoardStubServer(5).start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (pool != null) {
+            pool.close();
+        }
+        stub.close();
+    }
+
+    @Test
+    void testGetClient_reusesClientPerCredentialsAndEvictsLeastRecentlyUsed() {
+        pool = new RestClientPool(this::login, 2, 60_000);
+        ClientCredentials first = basic("first@thingsboard.org");
+        ClientCredentials second = basic("second@thingsboard.org");
+        ClientCredentials third = basic("third@thingsboard.org");
+
+        RestClient firstClient = pool.getClient(first);
+        assertThat(pool.getClient(basic("first@thingsboard.org"))).isSameAs(firstClient);
+        assertThat(firstClient.getTenantDevices(null, new PageLink(10)).getData()).hasSize(5);
+
+        RestClient secondClient = pool.getClient(second);
+        pool.getClient(first);
+        pool.getClient(third);
+
+        assertThat(pool.size()).isEqualTo(2);
+        assertThat(pool.getEvictionCount()).isEqualTo(1);
+        assertThat(pool.getClient(first)).isSameAs(firstClient);
+        assertThat(pool.getClient(second)).isNotSameAs(secondClient);
+        assertThat(stub.getRequestCounts().get("/api/auth/login")).isEqualTo(4L);
+    }
+
+    @Test
+    void testEvictIdle_closesIdleClients() throws Exception {
+        pool = new RestClientPool(this::login, 10, 50);
+        pool.getClient(basic("first@thingsboard.org"));
+        pool.getClient(ClientCredentials.parse("ApiKey abc"));
+        Thread.sleep(100);
+        pool.getClient(basic("second@thingsboard.org"));
+
+        pool.evictIdle();
+
+        assertThat(pool.size()).isEqualTo(1);
+        assertThat(pool.getEvictionCount()).isEqualTo(2);
+    }
+
+    @Test
+    void testParseCredentials() {
+        assertThat(basic("tenant@thingsboard.org")).isEqualTo(
+                new ClientCredentials(RestClient.AuthType.JWT, "tenant@thingsboard.org", "tenant", null));
+        assertThat(ClientCredentials.parse("Bearer eyJ.token")).isEqualTo(
+                new ClientCredentials(RestClient.AuthType.JWT, null, null, "eyJ.token"));
+        assertThat(ClientCredentials.parse("apikey tb_key").authType()).isEqualTo(RestClient.AuthType.API_KEY);
+        assertThat(ClientCredentials.parse("Basic not-base64!")).isNull();
+        assertThat(ClientCredentials.parse("Digest abc")).isNull();
+        assertThat(ClientCredentials.parse(null)).isNull();
+        assertThat(ClientCredentials.parse("ApiKey secret-key").toString()).doesNotContain("secret-key");
+    }
+
+    private RestClient login(ClientCredentials credentials) {
+        if (credentials.username() == null) {
+            return new RestClient(new RestTemplate(), stub.getUrl(), credentials.authType(), credentials.token());
+        }
+        RestClient client = new RestClient(stub.getUrl());
+        client.login(credentials.username(), credentials.password());
+        return client;
+    }
+
+    private static ClientCredentials basic(String username) {
+        String secret = Base64.getEncoder().encodeToString((username + ":tenant").getBytes(StandardCharsets.UTF_8));
+        return ClientCredentials.parse("Basic " + secret);
+    }
+
+}
@@ -0,0 +1,77 @@
+package org.thingsboard.ai.mcp.server.rest;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.thingsboard.ai.mcp.server.data.ThingsBoardEdition;
+import org.thingsboard.ai.mcp.server.stub.ThingsBoardStubServer;
+import org.thingsboard.server.common.data.page.PageLink;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RestClientServiceTest {
+
+    private final List<Object> events = new CopyOnWriteArrayList<>();
+
+    private ThingsBoardStubServer stub;
+    private RestClientService service;
+
+    @BeforeEach
+    void setup() throws Exception {
+        stub = new ThingsBoardStubServer(3).start();
+        MeterRegistry registry = new SimpleMeterRegistry();
+        service = new RestClientService(events::add, registry, ObservationRegistry.create(),
+                new RestCoalescingInterceptor(registry, true), new RestResilienceInterceptor(registry, 2, 1, 10, 0, 20, 30_000));
+        ReflectionTestUtils.setField(service, "url", stub.getUrl());
+        ReflectionTestUtils.setField(service, "username", "tenant@thingsboard.org");
+        ReflectionTestUtils.setField(service, "password", "tenant");
+        ReflectionTestUtils.setField(service, "intervalSeconds", 1800);
+        ReflectionTestUtils.setField(service, "compressionEnabled", true);
+        ReflectionTestUtils.setField(service, "rateLimitMaxWaitMs", 10_000L);
+        ReflectionTestUtils.setField(service, "clientPoolMaxSize", 10);
+        ReflectionTestUtils.setField(service, "clientPoolIdleTimeoutSeconds", 900);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ClientCredentials.clearCurrent();
+        service.destroy();
+        stub.close();
+    }
+
+    @Test
+    void testGetClient_logsInWithConfiguredCredentials() {
+        service.init();
+
+        RestClient client = service.getClient();
+
+        assertThat(client).isNotNull();
+        assertThat(client.getLoginCount()).isEqualTo(1);
+        assertThat(client.getTenantDevices(null, new PageLink(10)).getData()).hasSize(3);
+        assertThat(service.getEdition()).isEqualTo(ThingsBoardEdition.CE);
+        assertThat(stub.getRequestCounts().get("/api/auth/login")).isEqualTo(1L);
+    }
+
+    @Test
+    void testGetClient_logsInWithSessionCredentials() {
+        service.init();
+        String secret = Base64.getEncoder().encodeToString("customer@thingsboard.org:customer".getBytes(StandardCharsets.UTF_8));
+        ClientCredentials.setCurrent(ClientCredentials.parse("Basic " + secret));
+
+        RestClient client = service.getClient();
+
+        assertThat(client.getLoginCount()).isEqualTo(1);
+        assertThat(client.getTenantDevices(null, new PageLink(10)).getData()).hasSize(3);
+        assertThat(service.getClient()).isSameAs(client);
+    }
+
+}
@@ -0,0 +1,87 @@
+package org.thingsboard.ai.mcp.server.rest;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.thingsboard.ai.mcp.server.stub.ThingsBoardStubServer;
+import org.thingsboard.server.common.data.id.DeviceId;
+import org.thingsboard.server.common.data.kv.TsKvEntry;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RestCoalescingInterceptorTest {
+
+    private static final String VALUES_ROUTE = "/api/plugins/telemetry/{entityType}/{entityId}/values/timeseries";
+
+    private ThingsBoardStubServer stub;
+    private RestClient client;
+    private MeterRegistry registry;
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setup() throws Exception {
+        stub = new ThingsBoardStubServer(5).start();
+        registry = new SimpleMeterRegistry();
+        client = new RestClient(stub.getUrl());
+        client.getRestTemplate().getInterceptors().add(new RestCoalescingInterceptor(registry, true));
+        client.login("tenant@thingsboard.org", "tenant");
+        executor = Executors.newFixedThreadPool(8);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+        client.close();
+        stub.close();
+    }
+
+    @Test
+    void testIntercept_sharesConcurrentIdenticalReads() throws Exception {
+        stub.setLatencyMs(300);
+        DeviceId deviceId = stub.getDeviceIds().get(0);
+        CountDownLatch start = new CountDownLatch(1);
+        List<CompletableFuture<List<TsKvEntry>>> results = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            results.add(CompletableFuture.supplyAsync(() -> {
+                awaitQuietly(start);
+                return client.getLatestTimeseries(deviceId, List.of("temperature"));
+            }, executor));
+        }
+        start.countDown();
+
+        for (CompletableFuture<List<TsKvEntry>> result : results) {
+            assertThat(result.get()).isNotEmpty();
+        }
+        assertThat(stub.getRequestCounts().get(VALUES_ROUTE)).isLessThan(8L);
+        assertThat(registry.counter("thingsboard.rest.coalesced").count())
+                .isEqualTo(8 - stub.getRequestCounts().get(VALUES_ROUTE));
+    }
+
+    @Test
+    void testIntercept_doesNotCacheCompletedReads() {
+        DeviceId deviceId = stub.getDeviceIds().get(0);
+        client.getLatestTimeseries(deviceId, List.of("temperature"));
+        client.getLatestTimeseries(deviceId, List.of("temperature"));
+
+        assertThat(stub.getRequestCounts().get(VALUES_ROUTE)).isEqualTo(2L);
+        assertThat(registry.counter("thingsboard.rest.coalesced").count()).isZero();
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
@@ -0,0 +1,55 @@
+package org.thingsboard.ai.mcp.server.rest;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.thingsboard.ai.mcp.server.stub.ThingsBoardStubServer;
+import org.thingsboard.server.common.data.kv.TsKvEntry;
+import org.thingsboard.server.common.data.page.SortOrder;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RestCompressionInterceptorTest {
+
+    private ThingsBoardStubServer stub;
+    private RestClient client;
+
+    @BeforeEach
+    void setup() throws Exception {
+        stub = new ThingsBoardStubServer(1).start();
+        stub.setTimeseriesPoints(500);
+        client = new RestClient(stub.getUrl());
+        client.getRestTemplate().getInterceptors().add(0, new RestCompressionInterceptor());
+        client.login("tenant@thingsboard.org", "tenant");
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.close();
+        stub.close();
+    }
+
+    @Test
+    void testIntercept_decompressesGzipResponses() {
+        long start = stub.getBytesSent();
+        List<TsKvEntry> plain = getTimeseries();
+        long plainBytes = stub.getBytesSent() - start;
+
+        stub.setCompression(true);
+        start = stub.getBytesSent();
+        List<TsKvEntry> compressed = getTimeseries();
+        long compressedBytes = stub.getBytesSent() - start;
+
+        assertThat(compressed).hasSize(500).hasSameSizeAs(plain);
+        assertThat(compressed.get(0).getKey()).isEqualTo(plain.get(0).getKey());
+        assertThat(compressedBytes).isLessThan(plainBytes / 2);
+    }
+
+    private List<TsKvEntry> getTimeseries() {
+        return client.getTimeseries(stub.getDeviceIds().get(0), List.of("temperature"), 0L, null, null, null,
+                SortOrder.Direction.ASC, 0L, System.currentTimeMillis(), 500, true);
+    }
+
+}
@@ -0,0 +1,62 @@
+package org.thingsboard.ai.mcp.server.rest;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.thingsboard.ai.mcp.server.data.EntityChangedEvent;
+import org.thingsboard.ai.mcp.server.stub.ThingsBoardStubServer;
+import org.thingsboard.server.common.data.Device;
+import org.thingsboard.server.common.data.page.PageLink;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RestEntityChangeInterceptorTest {
+
+    private final List<Object> events = new CopyOnWriteArrayList<>();
+
+    private ThingsBoardStubServer stub;
+    private RestClient client;
+
+    @BeforeEach
+    void setup() throws Exception {
+        stub = new ThingsBoardStubServer(3).start();
+        client = new RestClient(stub.getUrl());
+        client.getRestTemplate().getInterceptors().add(0, new RestEntityChangeInterceptor(events::add));
+        client.login("tenant@thingsboard.org", "tenant");
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.close();
+        stub.close();
+    }
+
+    @Test
+    void testIntercept_publishesSavedAndDeletedEntities() {
+        Device device = new Device();
+        device.setName("Boiler 7");
+        device.setType("default");
+
+        Device saved = client.saveDevice(device);
+
+        assertThat(saved.getId()).isNotNull();
+        assertThat(saved.getName()).isEqualTo("Boiler 7");
+        assertThat(events).containsExactly(new EntityChangedEvent(saved.getId(), "Boiler 7"));
+
+        client.deleteDevice(saved.getId());
+
+        assertThat(events).last().isEqualTo(new EntityChangedEvent(saved.getId(), null));
+    }
+
+    @Test
+    void testIntercept_ignoresReads() {
+        client.getDeviceById(stub.getDeviceIds().get(0));
+        client.getTenantDevices(null, new PageLink(10));
+
+        assertThat(events).isEmpty();
+    }
+
+}
@@ -0,0 +1,123 @@
+package org.thingsboard.ai.mcp.server.rest;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.web.client.ResourceAccessException;
+import org.thingsboard.ai.mcp.server.stub.ThingsBoardStubServer;
+import org.thingsboard.server.common.data.id.DeviceId;
+import org.thingsboard.server.common.data.page.PageLink;
+
+import java.net.URI;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class RestRateLimitInterceptorTest {
+
+    private ThingsBoardStubServer stub;
+    private RestClient client;
+    private MeterRegistry registry;
+
+    @BeforeEach
+    void setup() throws Exception {
+        stub = new ThingsBoardStubServer(5).start();
+        registry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (client != null) {
+            client.close();
+        }
+        stub.close();
+    }
+
+    @Test
+    void testIntercept_waitsForTokens() {
+        client = createClient("2:1", 1000);
+        DeviceId deviceId = stub.getDeviceIds().get(0);
+
+        long startNs = System.nanoTime();
+        for (int i = 0; i < 3; i++) {
+            client.getLatestTimeseries(deviceId, List.of("temperature"));
+        }
+        // Device listing is not a telemetry read, so it is not limited
+        client.getTenantDevices(null, new PageLink(10));
+
+        assertThat(System.nanoTime() - startNs).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(400));
+        assertThat(registry.get("thingsboard.rest.rate.limit.wait").tag("class", "telemetry-reads").timer().count()).isEqualTo(3);
+        assertThat(stub.getRequestCounts()).doesNotContainKey("injected-error");
+    }
+
+    @Test
+    void testIntercept_failsWhenWaitExceedsMax() {
+        client = createClient("2:1", 300);
+        DeviceId deviceId = stub.getDeviceIds().get(0);
+        client.getLatestTimeseries(deviceId, List.of("temperature"));
+        client.getLatestTimeseries(deviceId, List.of("temperature"));
+
+        assertThatThrownBy(() -> client.getLatestTimeseries(deviceId, List.of("temperature")))
+                .isInstanceOf(ResourceAccessException.class)
+                .hasMessageContaining("rate limit");
+    }
+
+    @Test
+    void testIntercept_limitsEachClientSeparately() {
+        client = createClient("2:1", 0);
+        DeviceId deviceId = stub.getDeviceIds().get(0);
+        client.getLatestTimeseries(deviceId, List.of("temperature"));
+        client.getLatestTimeseries(deviceId, List.of("temperature"));
+
+        try (RestClient other = createClient("2:1", 0)) {
+            other.getLatestTimeseries(deviceId, List.of("temperature"));
+            other.getLatestTimeseries(deviceId, List.of("temperature"));
+        }
+        assertThatThrownBy(() -> client.getLatestTimeseries(deviceId, List.of("temperature")))
+                .isInstanceOf(ResourceAccessException.class);
+        assertThat(registry.get("thingsboard.rest.rate.limit.wait").tag("class", "telemetry-reads").timer().count()).isEqualTo(4);
+    }
+
+    @Test
+    void testTokenBucket_queuesWithinCapacity() {
+        RestRateLimitInterceptor.TokenBucket bucket = RestRateLimitInterceptor.parse("2:1").get(0);
+        long now = System.nanoTime();
+        assertThat(bucket.waitNanos(now)).isZero();
+        bucket.take();
+        assertThat(bucket.waitNanos(now)).isZero();
+        bucket.take();
+        assertThat(bucket.waitNanos(now)).isBetween(TimeUnit.MILLISECONDS.toNanos(499), TimeUnit.MILLISECONDS.toNanos(501));
+        bucket.take();
+        assertThat(bucket.waitNanos(now)).isBetween(TimeUnit.MILLISECONDS.toNanos(999), TimeUnit.MILLISECONDS.toNanos(1001));
+        assertThat(bucket.waitNanos(now + TimeUnit.SECONDS.toNanos(10))).isZero();
+    }
+
+    @Test
+    void testClassify() throws Exception {
+        SimpleClientHttpRequestFactory factory = new SimpleClientHttpRequestFactory();
+        assertThat(RestRateLimitInterceptor.classify(factory.createRequest(URI.create("http://tb/api/plugins/telemetry/DEVICE/1/values/timeseries"), HttpMethod.GET)))
+                .isEqualTo(RestRateLimitInterceptor.EndpointClass.TELEMETRY_READS);
+        assertThat(RestRateLimitInterceptor.classify(factory.createRequest(URI.create("http://tb/api/entitiesQuery/find"), HttpMethod.POST)))
+                .isEqualTo(RestRateLimitInterceptor.EndpointClass.ENTITY_QUERIES);
+        assertThat(RestRateLimitInterceptor.classify(factory.createRequest(URI.create("http://tb/api/plugins/telemetry/DEVICE/1/timeseries/ANY"), HttpMethod.POST)))
+                .isEqualTo(RestRateLimitInterceptor.EndpointClass.WRITES);
+        assertThat(RestRateLimitInterceptor.classify(factory.createRequest(URI.create("http://tb/api/plugins/telemetry/DEVICE/1/values/timeseries"), HttpMethod.POST)))
+                .isEqualTo(RestRateLimitInterceptor.EndpointClass.TELEMETRY_READS);
+        assertThat(RestRateLimitInterceptor.classify(factory.createRequest(URI.create("http://tb/api/tenant/devices"), HttpMethod.GET))).isNull();
+        assertThat(RestRateLimitInterceptor.parse("100:1, 2000:60")).hasSize(2);
+    }
+
+    private RestClient createClient(String telemetryReadsLimit, long maxWaitMs) {
+        RestClient restClient = new RestClient(stub.getUrl());
+        restClient.getRestTemplate().getInterceptors().add(new RestRateLimitInterceptor(registry, telemetryReadsLimit, "", "", maxWaitMs));
+        restClient.login("tenant@thingsboard.org", "tenant");
+        return restClient;
+    }
+
+}
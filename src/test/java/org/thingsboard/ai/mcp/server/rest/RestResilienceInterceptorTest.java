@@ -0,0 +1,139 @@
+package org.thingsboard.ai.mcp.server.rest;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.thingsboard.ai.mcp.server.stub.ThingsBoardStubServer;
+import org.thingsboard.server.common.data.id.DeviceId;
+import org.thingsboard.server.common.data.page.PageLink;
+
+import java.net.URI;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class RestResilienceInterceptorTest {
+
+    private ThingsBoardStubServer stub;
+    private RestClient client;
+    private MeterRegistry registry;
+    private RestResilienceInterceptor interceptor;
+
+    @BeforeEach
+    void setup() throws Exception {
+        stub = new ThingsBoardStubServer(5).start();
+        stub.setErrorStatus(503);
+        registry = new SimpleMeterRegistry();
+        interceptor = new RestResilienceInterceptor(registry, 2, 1, 10, 0, 3, 60_000);
+        client = createClient(interceptor);
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.close();
+        stub.close();
+    }
+
+    @Test
+    void testIntercept_retriesTransientErrors() {
+        stub.failNext(2);
+
+        assertThat(client.getTenantDevices(null, new PageLink(10)).getData()).hasSize(5);
+        assertThat(stub.getRequestCounts()).containsEntry("/api/tenant/devices", 1L).containsEntry("injected-error", 2L);
+        assertThat(registry.counter("thingsboard.rest.retries", "group", "tenant").count()).isEqualTo(2.0);
+    }
+
+    @Test
+    void testIntercept_opensCircuitAfterRepeatedErrors() {
+        stub.setErrorRate(1.0);
+
+        assertThatThrownBy(() -> client.getTenantDevices(null, new PageLink(10)))
+                .isInstanceOf(HttpServerErrorException.ServiceUnavailable.class);
+        assertThatThrownBy(() -> client.getTenantDevices(null, new PageLink(10)))
+                .isInstanceOf(ResourceAccessException.class)
+                .hasMessageContaining("'tenant' is unavailable");
+        assertThat(stub.getRequestCounts()).containsEntry("injected-error", 3L);
+
+        stub.setErrorRate(0);
+        assertThat(client.getSystemVersionInfo()).isPresent();
+    }
+
+    @Test
+    void testIntercept_circuitIsPerClient() {
+        stub.setErrorRate(1.0);
+        assertThatThrownBy(() -> client.getTenantDevices(null, new PageLink(10)))
+                .isInstanceOf(HttpServerErrorException.ServiceUnavailable.class);
+        assertThatThrownBy(() -> client.getTenantDevices(null, new PageLink(10)))
+                .isInstanceOf(ResourceAccessException.class);
+        stub.setErrorRate(0);
+
+        try (RestClient other = createClient(interceptor.forClient(null))) {
+            assertThat(other.getTenantDevices(null, new PageLink(10)).getData()).hasSize(5);
+        }
+    }
+
+    @Test
+    void testIntercept_tooManyRequestsDoesNotOpenCircuit() {
+        stub.setErrorStatus(429);
+        stub.setErrorRate(1.0);
+
+        for (int i = 0; i < 3; i++) {
+            assertThatThrownBy(() -> client.getTenantDevices(null, new PageLink(10)))
+                    .isInstanceOf(HttpClientErrorException.TooManyRequests.class);
+        }
+        assertThat(stub.getRequestCounts()).containsEntry("injected-error", 9L);
+    }
+
+    @Test
+    void testIntercept_retriesTakeRateLimitTokens() {
+        RestRateLimitInterceptor rateLimiter = new RestRateLimitInterceptor(registry, "3:1", "", "", 0);
+        DeviceId deviceId = stub.getDeviceIds().get(0);
+        try (RestClient limited = createClient(interceptor.forClient(rateLimiter))) {
+            stub.failNext(2);
+
+            assertThat(limited.getLatestTimeseries(deviceId, List.of("temperature"))).isNotEmpty();
+            assertThat(registry.get("thingsboard.rest.rate.limit.wait").tag("class", "telemetry-reads").timer().count()).isEqualTo(3);
+            // The original request and both retries used up the tokens
+            assertThatThrownBy(() -> limited.getLatestTimeseries(deviceId, List.of("temperature")))
+                    .isInstanceOf(ResourceAccessException.class)
+                    .hasMessageContaining("rate limit");
+        }
+        assertThat(stub.getRequestCounts()).containsEntry("injected-error", 2L);
+    }
+
+    @Test
+    void testRetryAfter() {
+        HttpHeaders headers = new HttpHeaders();
+        assertThat(RestResilienceInterceptor.retryAfter(headers)).isEmpty();
+        headers.set(HttpHeaders.RETRY_AFTER, "2");
+        assertThat(RestResilienceInterceptor.retryAfter(headers)).hasValue(2000L);
+        headers.set(HttpHeaders.RETRY_AFTER, "Wed, 21 Oct 2015 07:28:00 GMT");
+        assertThat(RestResilienceInterceptor.retryAfter(headers)).hasValue(0L);
+    }
+
+    @Test
+    void testIsIdempotent() throws Exception {
+        SimpleClientHttpRequestFactory factory = new SimpleClientHttpRequestFactory();
+        assertThat(RestResilienceInterceptor.isIdempotent(factory.createRequest(URI.create("http://tb/api/tenant/devices"), HttpMethod.GET))).isTrue();
+        assertThat(RestResilienceInterceptor.isIdempotent(factory.createRequest(URI.create("http://tb/api/entitiesQuery/find"), HttpMethod.POST))).isTrue();
+        assertThat(RestResilienceInterceptor.isIdempotent(factory.createRequest(URI.create("http://tb/api/plugins/telemetry/DEVICE/1/values/timeseries"), HttpMethod.POST))).isTrue();
+        assertThat(RestResilienceInterceptor.isIdempotent(factory.createRequest(URI.create("http://tb/api/plugins/telemetry/DEVICE/1/timeseries/ANY"), HttpMethod.POST))).isFalse();
+    }
+
+    private RestClient createClient(RestResilienceInterceptor resilienceInterceptor) {
+        RestClient restClient = new RestClient(stub.getUrl());
+        restClient.getRestTemplate().getInterceptors().add(resilienceInterceptor);
+        restClient.login("tenant@thingsboard.org", "tenant");
+        return restClient;
+    }
+
+}
@@ -0,0 +1,168 @@
+package org.thingsboard.ai.mcp.server.service.tools;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.thingsboard.ai.mcp.server.rest.RestClient;
+import org.thingsboard.ai.mcp.server.rest.RestClientService;
+import org.thingsboard.ai.mcp.server.tools.alarm.AlarmFeedTools;
+import org.thingsboard.common.util.JacksonUtil;
+import org.thingsboard.server.common.data.alarm.AlarmInfo;
+import org.thingsboard.server.common.data.alarm.AlarmSeverity;
+import org.thingsboard.server.common.data.id.AlarmId;
+import org.thingsboard.server.common.data.id.DeviceId;
+import org.thingsboard.server.common.data.id.EntityId;
+import org.thingsboard.server.common.data.page.PageData;
+import org.thingsboard.server.common.data.page.TimePageLink;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class AlarmFeedToolsTest {
+
+    @InjectMocks
+    private AlarmFeedTools tools;
+
+    @Mock
+    private RestClientService clientService;
+
+    @Mock
+    private RestClient restClient;
+
+    @BeforeEach
+    void setup() {
+        when(clientService.getClient()).thenReturn(restClient);
+    }
+
+    @Test
+    void testAlarmFeed_returnsOnlyNewAndChangedAlarms() {
+        DeviceId originator = new DeviceId(UUID.randomUUID());
+        AlarmInfo first = createAlarmInfo(originator, 1000L, AlarmSeverity.MAJOR);
+        AlarmInfo second = createAlarmInfo(originator, 2000L, AlarmSeverity.CRITICAL);
+        when(restClient.getAllAlarms(isNull(), isNull(), isNull(), any(TimePageLink.class), eq(true)))
+                .thenReturn(new PageData<>(List.of(first, second), 1, 2, false));
+
+        JsonNode firstPoll = JacksonUtil.toJsonNode(tools.getAlarmFeed("watch", null, null, "500", null));
+        assertThat(firstPoll.get("changes")).hasSize(2);
+        assertThat(firstPoll.get("changes").get(0).get("change").asText()).isEqualTo("NEW");
+        assertThat(firstPoll.get("watermark").asLong()).isEqualTo(2000L);
+        assertThat(firstPoll.get("tracked").asInt()).isEqualTo(2);
+
+        AlarmInfo acked = createAlarmInfo(originator, 1000L, AlarmSeverity.MAJOR);
+        acked.setId(first.getId());
+        acked.setAcknowledged(true);
+        AlarmInfo third = createAlarmInfo(originator, 3000L, AlarmSeverity.MINOR);
+        when(restClient.getAlarmInfoById(first.getId())).thenReturn(Optional.of(acked));
+        when(restClient.getAlarmInfoById(second.getId())).thenReturn(Optional.of(second));
+        when(restClient.getAllAlarms(isNull(), isNull(), isNull(), any(TimePageLink.class), eq(true)))
+                .thenReturn(new PageData<>(List.of(second, third), 1, 2, false));
+
+        JsonNode secondPoll = JacksonUtil.toJsonNode(tools.getAlarmFeed("watch", null, null, null, null));
+        assertThat(secondPoll.get("changes")).hasSize(2);
+        assertThat(secondPoll.get("changes").get(0).get("change").asText()).isEqualTo("UPDATED");
+        assertThat(secondPoll.get("changes").get(0).get("id").asText()).isEqualTo(first.getId().getId().toString());
+        assertThat(secondPoll.get("changes").get(1).get("change").asText()).isEqualTo("NEW");
+        assertThat(secondPoll.get("changes").get(1).get("id").asText()).isEqualTo(third.getId().getId().toString());
+
+        ArgumentCaptor<TimePageLink> pageCap = ArgumentCaptor.forClass(TimePageLink.class);
+        verify(restClient, times(2)).getAllAlarms(isNull(), isNull(), isNull(), pageCap.capture(), eq(true));
+        assertThat(pageCap.getAllValues().get(0).getStartTime()).isEqualTo(500L);
+        assertThat(pageCap.getAllValues().get(1).getStartTime()).isEqualTo(2000L);
+        assertThat(pageCap.getAllValues().get(1).getSortOrder().getProperty()).isEqualTo("createdTime");
+    }
+
+    @Test
+    void testAlarmFeed_reportsDeletedAlarms() {
+        DeviceId originator = new DeviceId(UUID.randomUUID());
+        AlarmInfo alarm = createAlarmInfo(originator, 1000L, AlarmSeverity.WARNING);
+        when(restClient.getAlarms(any(EntityId.class), isNull(), isNull(), any(TimePageLink.class), eq(true)))
+                .thenReturn(new PageData<>(List.of(alarm), 1, 1, false));
+
+        tools.getAlarmFeed(null, "DEVICE", originator.getId().toString(), "0", null);
+
+        when(restClient.getAlarms(any(EntityId.class), isNull(), isNull(), any(TimePageLink.class), eq(true)))
+                .thenReturn(new PageData<>(List.of(), 0, 0, false));
+        when(restClient.getAlarmInfoById(alarm.getId())).thenReturn(Optional.empty());
+
+        JsonNode poll = JacksonUtil.toJsonNode(tools.getAlarmFeed(null, "DEVICE", originator.getId().toString(), null, null));
+        assertThat(poll.get("changes")).hasSize(1);
+        assertThat(poll.get("changes").get(0).get("change").asText()).isEqualTo("DELETED");
+        assertThat(poll.get("tracked").asInt()).isZero();
+    }
+
+    @Test
+    void testAlarmFeed_movesPastOldOpenAlarm() {
+        DeviceId originator = new DeviceId(UUID.randomUUID());
+        AlarmInfo old = createAlarmInfo(originator, 1000L, AlarmSeverity.MAJOR);
+        List<AlarmInfo> all = new ArrayList<>();
+        all.add(old);
+        for (int i = 0; i < 6000; i++) {
+            all.add(createAlarmInfo(originator, 2000L + i, AlarmSeverity.MINOR));
+        }
+        when(restClient.getAllAlarms(isNull(), isNull(), isNull(), any(TimePageLink.class), eq(true))).thenAnswer(invocation -> {
+            TimePageLink link = invocation.getArgument(3);
+            List<AlarmInfo> matching = all.stream().filter(alarm -> alarm.getCreatedTime() >= link.getStartTime()).toList();
+            int from = Math.min(matching.size(), link.getPage() * link.getPageSize());
+            int to = Math.min(matching.size(), from + link.getPageSize());
+            return new PageData<>(matching.subList(from, to), (matching.size() + link.getPageSize() - 1) / link.getPageSize(), matching.size(), to < matching.size());
+        });
+        when(restClient.getAlarmInfoById(any(AlarmId.class))).thenAnswer(invocation ->
+                all.stream().filter(alarm -> alarm.getId().equals(invocation.getArgument(0))).findFirst());
+
+        JsonNode firstPoll = JacksonUtil.toJsonNode(tools.getAlarmFeed("watch", null, null, "500", "100000"));
+        assertThat(firstPoll.get("changes")).hasSize(5000);
+        assertThat(firstPoll.get("hasMore").asBoolean()).isTrue();
+
+        JsonNode secondPoll = JacksonUtil.toJsonNode(tools.getAlarmFeed("watch", null, null, null, "100000"));
+        assertThat(secondPoll.get("changes")).hasSize(1001);
+        assertThat(secondPoll.get("hasMore").asBoolean()).isFalse();
+        assertThat(secondPoll.get("watermark").asLong()).isEqualTo(7999L);
+
+        JsonNode thirdPoll = JacksonUtil.toJsonNode(tools.getAlarmFeed("watch", null, null, null, "100000"));
+        assertThat(thirdPoll.get("changes")).isEmpty();
+        assertThat(thirdPoll.get("hasMore").asBoolean()).isFalse();
+    }
+
+    @Test
+    void testResetAlarmFeed() {
+        when(restClient.getAllAlarms(isNull(), isNull(), isNull(), any(TimePageLink.class), eq(true)))
+                .thenReturn(new PageData<>(List.of(), 0, 0, false));
+        tools.getAlarmFeed("watch", null, null, null, null);
+
+        JsonNode result = JacksonUtil.toJsonNode(tools.resetAlarmFeed("watch\"s", null, null));
+        assertThat(result.get("removed").asBoolean()).isFalse();
+        assertThat(result.get("feedId").asText()).isEqualTo("watch\"s");
+
+        result = JacksonUtil.toJsonNode(tools.resetAlarmFeed("watch", null, null));
+        assertThat(result.get("removed").asBoolean()).isTrue();
+        assertThat(result.get("feedId").asText()).isEqualTo("watch");
+    }
+
+    private AlarmInfo createAlarmInfo(EntityId originator, long createdTime, AlarmSeverity severity) {
+        AlarmInfo alarmInfo = new AlarmInfo();
+        alarmInfo.setId(new AlarmId(UUID.randomUUID()));
+        alarmInfo.setCreatedTime(createdTime);
+        alarmInfo.setType("High Temperature");
+        alarmInfo.setOriginator(originator);
+        alarmInfo.setSeverity(severity);
+        alarmInfo.setEndTs(createdTime);
+        return alarmInfo;
+    }
+
+}
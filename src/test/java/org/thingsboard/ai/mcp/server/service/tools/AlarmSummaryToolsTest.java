@@ -0,0 +1,157 @@
+package org.thingsboard.ai.mcp.server.service.tools;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.thingsboard.ai.mcp.server.rest.RestClient;
+import org.thingsboard.ai.mcp.server.rest.RestClientService;
+import org.thingsboard.ai.mcp.server.tools.alarm.AlarmSummaryTools;
+import org.thingsboard.common.util.JacksonUtil;
+import org.thingsboard.server.common.data.EntityType;
+import org.thingsboard.server.common.data.alarm.AlarmInfo;
+import org.thingsboard.server.common.data.alarm.AlarmSeverity;
+import org.thingsboard.server.common.data.id.AlarmId;
+import org.thingsboard.server.common.data.id.DeviceId;
+import org.thingsboard.server.common.data.id.EntityId;
+import org.thingsboard.server.common.data.page.PageData;
+import org.thingsboard.server.common.data.query.AlarmData;
+import org.thingsboard.server.common.data.query.AlarmDataPageLink;
+import org.thingsboard.server.common.data.query.AlarmDataQuery;
+import org.thingsboard.server.common.data.query.EntityTypeFilter;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class AlarmSummaryToolsTest {
+
+    @Mock
+    private RestClientService clientService;
+
+    @Mock
+    private RestClient restClient;
+
+    private ExecutorService executor;
+
+    private AlarmSummaryTools tools;
+
+    @BeforeEach
+    void setup() {
+        when(clientService.getClient()).thenReturn(restClient);
+        executor = Executors.newFixedThreadPool(2);
+        tools = new AlarmSummaryTools(clientService, executor);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void testAlarmSummary_aggregatesAllPages() {
+        DeviceId first = new DeviceId(UUID.randomUUID());
+        DeviceId second = new DeviceId(UUID.randomUUID());
+        PageData<AlarmData> page0 = new PageData<>(List.of(
+                createAlarmData(first, "Overheat", AlarmSeverity.CRITICAL, 1_000L),
+                createAlarmData(first, "Overheat", AlarmSeverity.CRITICAL, 3_601_000L)), 2, 3, true);
+        PageData<AlarmData> page1 = new PageData<>(List.of(
+                createAlarmData(second, "Low Battery", AlarmSeverity.MINOR, 7_201_000L)), 2, 3, false);
+        when(restClient.findAlarmDataByQuery(any(AlarmDataQuery.class))).thenAnswer(invocation -> {
+            AlarmDataQuery query = invocation.getArgument(0);
+            return query.getPageLink().getPage() == 0 ? page0 : page1;
+        });
+
+        String result = tools.getAlarmSummary(createQuery(), "3600000", null, "1");
+
+        JsonNode summary = JacksonUtil.toJsonNode(result);
+        assertThat(summary.get("count").asLong()).isEqualTo(3);
+        assertThat(summary.get("truncated").asBoolean()).isFalse();
+        assertThat(summary.get("byType").get("Overheat").asLong()).isEqualTo(2);
+        assertThat(summary.get("byType").get("Low Battery").asLong()).isEqualTo(1);
+        assertThat(summary.get("bySeverity").get("CRITICAL").asLong()).isEqualTo(2);
+        assertThat(summary.get("byStatus").get("ACTIVE_UNACK").asLong()).isEqualTo(3);
+        assertThat(summary.get("topOriginators")).hasSize(1);
+        assertThat(summary.get("topOriginators").get(0).get("count").asLong()).isEqualTo(2);
+        assertThat(summary.get("distinctOriginators").asInt()).isEqualTo(2);
+        assertThat(summary.get("buckets")).hasSize(3);
+        assertThat(summary.get("buckets").get(1).get(0).asLong()).isEqualTo(3_600_000L);
+
+        ArgumentCaptor<AlarmDataQuery> queryCap = ArgumentCaptor.forClass(AlarmDataQuery.class);
+        verify(restClient, times(2)).findAlarmDataByQuery(queryCap.capture());
+        assertThat(queryCap.getAllValues()).allSatisfy(query -> {
+            assertThat(query.getPageLink().getPageSize()).isEqualTo(500);
+            assertThat(query.getPageLink().getSeverityList()).containsExactly(AlarmSeverity.CRITICAL, AlarmSeverity.MINOR);
+            assertThat(query.getEntityFields()).isEmpty();
+        });
+    }
+
+    @Test
+    void testAlarmSummary_groupsRareTypesAsOther() {
+        DeviceId originator = new DeviceId(UUID.randomUUID());
+        when(restClient.findAlarmDataByQuery(any(AlarmDataQuery.class))).thenReturn(new PageData<>(List.of(
+                createAlarmData(originator, "A", AlarmSeverity.MAJOR, 1L),
+                createAlarmData(originator, "A", AlarmSeverity.MAJOR, 2L),
+                createAlarmData(originator, "B", AlarmSeverity.MAJOR, 3L),
+                createAlarmData(originator, "C", AlarmSeverity.MAJOR, 4L)), 1, 4, false));
+
+        JsonNode summary = JacksonUtil.toJsonNode(tools.getAlarmSummary(createQuery(), null, "1", null));
+
+        assertThat(summary.get("byType").get("A").asLong()).isEqualTo(2);
+        assertThat(summary.get("byType").get("(other)").asLong()).isEqualTo(2);
+        assertThat(summary.get("distinctTypes").asInt()).isEqualTo(3);
+        assertThat(summary.has("buckets")).isFalse();
+    }
+
+    @Test
+    void testAlarmSummary_rethrowsPageFailure() {
+        DeviceId originator = new DeviceId(UUID.randomUUID());
+        PageData<AlarmData> page0 = new PageData<>(List.of(createAlarmData(originator, "A", AlarmSeverity.MAJOR, 1L)), 3, 3, true);
+        when(restClient.findAlarmDataByQuery(any(AlarmDataQuery.class))).thenAnswer(invocation -> {
+            AlarmDataQuery query = invocation.getArgument(0);
+            if (query.getPageLink().getPage() == 0) {
+                return page0;
+            }
+            throw new IllegalStateException("page " + query.getPageLink().getPage());
+        });
+
+        assertThatThrownBy(() -> tools.getAlarmSummary(createQuery(), null, null, null))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageStartingWith("page ");
+    }
+
+    private AlarmDataQuery createQuery() {
+        EntityTypeFilter filter = new EntityTypeFilter();
+        filter.setEntityType(EntityType.DEVICE);
+        AlarmDataPageLink pageLink = new AlarmDataPageLink();
+        pageLink.setPageSize(10);
+        pageLink.setSeverityList(List.of(AlarmSeverity.CRITICAL, AlarmSeverity.MINOR));
+        return new AlarmDataQuery(filter, pageLink, Collections.emptyList(), Collections.emptyList(), Collections.emptyList(), Collections.emptyList());
+    }
+
+    private AlarmData createAlarmData(EntityId originator, String type, AlarmSeverity severity, long createdTime) {
+        AlarmInfo alarmInfo = new AlarmInfo();
+        alarmInfo.setId(new AlarmId(UUID.randomUUID()));
+        alarmInfo.setCreatedTime(createdTime);
+        alarmInfo.setType(type);
+        alarmInfo.setOriginator(originator);
+        alarmInfo.setOriginatorName("Device " + originator.getId());
+        alarmInfo.setSeverity(severity);
+        return new AlarmData(alarmInfo, originator);
+    }
+
+}
@@ -0,0 +1,159 @@
+package org.thingsboard.ai.mcp.server.service.tools;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import org.thingsboard.ai.mcp.server.rest.RestClient;
+import org.thingsboard.ai.mcp.server.rest.RestClientService;
+import org.thingsboard.ai.mcp.server.tools.telemetry.BulkAttributeTools;
+import org.thingsboard.common.util.JacksonUtil;
+import org.thingsboard.server.common.data.EntityType;
+import org.thingsboard.server.common.data.id.DeviceId;
+import org.thingsboard.server.common.data.id.EntityId;
+import org.thingsboard.server.common.data.page.PageData;
+import org.thingsboard.server.common.data.query.EntityData;
+import org.thingsboard.server.common.data.query.EntityDataQuery;
+import org.thingsboard.server.common.data.query.EntityTypeFilter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class BulkAttributeToolsTest {
+
+    @Mock
+    private RestClientService clientService;
+
+    @Mock
+    private RestClient restClient;
+
+    private ExecutorService executor;
+
+    private BulkAttributeTools tools;
+
+    @BeforeEach
+    void setup() {
+        when(clientService.getClient()).thenReturn(restClient);
+        executor = Executors.newFixedThreadPool(4);
+        tools = new BulkAttributeTools(clientService, executor);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void testSaveAttributesBulk_byIdsReportsFailedIdsOnly() {
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            ids.add(UUID.randomUUID().toString());
+        }
+        String failing = ids.get(7);
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        when(restClient.saveEntityAttributesV2(any(EntityId.class), any(String.class), any(JsonNode.class))).thenAnswer(invocation -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(2);
+                EntityId entityId = invocation.getArgument(0);
+                if (entityId.getId().toString().equals(failing) && "SERVER_SCOPE".equals(invocation.getArgument(1))) {
+                    throw new HttpClientErrorException(HttpStatus.FORBIDDEN, "Forbidden");
+                }
+                return true;
+            } finally {
+                inFlight.decrementAndGet();
+            }
+        });
+
+        String payloads = "[{\"scope\":\"SHARED_SCOPE\",\"attributes\":{\"reportInterval\":60}}," +
+                "{\"scope\":\"SERVER_SCOPE\",\"attributes\":{\"firmwareChannel\":\"stable\"}}]";
+        JsonNode result = JacksonUtil.toJsonNode(tools.saveAttributesBulk(payloads, "DEVICE", String.join(",", ids), null, "3", null));
+
+        assertThat(result.get("targets").asInt()).isEqualTo(50);
+        assertThat(result.get("requests").asInt()).isEqualTo(100);
+        assertThat(result.get("succeeded").asInt()).isEqualTo(99);
+        assertThat(result.get("failed").asInt()).isEqualTo(1);
+        assertThat(result.get("skipped").asInt()).isZero();
+        assertThat(result.get("failedIds")).hasSize(1);
+        assertThat(result.get("failedIds").get(0).asText()).isEqualTo(failing);
+        assertThat(result.get("errors").get("403 Forbidden").asInt()).isEqualTo(1);
+        assertThat(maxInFlight.get()).isBetween(1, 3);
+        verify(restClient).saveEntityAttributesV2(eq(new DeviceId(UUID.fromString(failing))), eq("SHARED_SCOPE"),
+                eq(JacksonUtil.toJsonNode("{\"reportInterval\":60}")));
+    }
+
+    @Test
+    void testSaveAttributesBulk_byFilterPagesTargetsAndPacesRequests() {
+        EntityTypeFilter filter = new EntityTypeFilter();
+        filter.setEntityType(EntityType.DEVICE);
+        List<EntityData> all = new ArrayList<>();
+        for (int i = 0; i < 1200; i++) {
+            EntityData data = new EntityData();
+            data.setEntityId(new DeviceId(UUID.randomUUID()));
+            all.add(data);
+        }
+        when(restClient.findEntityDataByQuery(any(EntityDataQuery.class))).thenAnswer(invocation -> {
+            EntityDataQuery query = invocation.getArgument(0);
+            int from = query.getPageLink().getPage() * query.getPageLink().getPageSize();
+            int to = Math.min(all.size(), from + query.getPageLink().getPageSize());
+            return new PageData<>(all.subList(from, to), 2, all.size(), to < all.size());
+        });
+        when(restClient.saveEntityAttributesV2(any(EntityId.class), eq("SHARED_SCOPE"), any(JsonNode.class))).thenReturn(true);
+
+        long startTs = System.currentTimeMillis();
+        JsonNode result = JacksonUtil.toJsonNode(tools.saveAttributesBulk(
+                "{\"scope\":\"SHARED_SCOPE\",\"attributes\":{\"mode\":\"eco\"}}", null, null, filter, "8", "20000"));
+
+        assertThat(result.get("targets").asInt()).isEqualTo(1200);
+        assertThat(result.get("succeeded").asInt()).isEqualTo(1200);
+        assertThat(result.get("failedIds")).isEmpty();
+        // 1200 requests at 20000 per second take at least 60 ms
+        assertThat(System.currentTimeMillis() - startTs).isGreaterThanOrEqualTo(55);
+        verify(restClient, times(2)).findEntityDataByQuery(any(EntityDataQuery.class));
+        verify(restClient, times(1200)).saveEntityAttributesV2(any(EntityId.class), eq("SHARED_SCOPE"), any(JsonNode.class));
+    }
+
+    @Test
+    void testSaveAttributesBulk_rejectsInvalidInput() {
+        String payload = "{\"scope\":\"SHARED_SCOPE\",\"attributes\":{\"mode\":\"eco\"}}";
+        String id = UUID.randomUUID().toString();
+
+        assertThatThrownBy(() -> tools.saveAttributesBulk(payload, "DEVICE", null, null, null, null))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> tools.saveAttributesBulk(payload, null, id, null, null, null))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> tools.saveAttributesBulk("{\"scope\":\"CLIENT_SCOPE\",\"attributes\":{\"a\":1}}", "DEVICE", id, null, null, null))
+                .hasMessageContaining("CLIENT_SCOPE");
+        assertThatThrownBy(() -> tools.saveAttributesBulk("[]", "DEVICE", id, null, null, null))
+                .isInstanceOf(IllegalArgumentException.class);
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 601; i++) {
+            ids.add(UUID.randomUUID().toString());
+        }
+        // 601 requests at one per second do not finish within the 10 minutes limit
+        assertThatThrownBy(() -> tools.saveAttributesBulk(payload, "DEVICE", String.join(",", ids), null, null, "1"))
+                .hasMessageContaining("maxRequestsPerSecond");
+        verifyNoInteractions(restClient);
+    }
+
+}
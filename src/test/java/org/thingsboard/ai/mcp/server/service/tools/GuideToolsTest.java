@@ -0,0 +1,45 @@
+package org.thingsboard.ai.mcp.server.service.tools;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.thingsboard.ai.mcp.server.tools.query.GuideTools;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class GuideToolsTest {
+
+    private GuideTools tools;
+
+    @BeforeEach
+    void setup() {
+        tools = new GuideTools();
+    }
+
+    @Test
+    void testGuides_loadedFromClasspath() {
+        assertThat(tools.getKeyFiltersGuide()).startsWith("# KeyFilter");
+        assertThat(tools.getEdqGuide()).startsWith("# Entity Data Query");
+        assertThat(tools.getEdqCountGuide()).startsWith("# Entity Count Query");
+        assertThat(tools.getEdqGuide()).isSameAs(tools.getEdqGuide());
+    }
+
+    @Test
+    void testGetGuideSection_returnsSectionWithSubsections() {
+        String section = tools.getGuideSection("keyFilters", "part 2");
+
+        assertThat(section).startsWith("## Part 2: Value Type (Data type)");
+        assertThat(section).contains("### Value Types & Operations", "### Operation Details");
+        assertThat(section).doesNotContain("## Part 3");
+    }
+
+    @Test
+    void testGetGuideSection_listsHeadingsWhenNotFound() {
+        assertThat(tools.getGuideSection("edq", null))
+                .startsWith("Available sections:")
+                .contains("- Entity Data Query (EDQ)", "  - Query Structure");
+        assertThat(tools.getGuideSection("edq", "Unknown heading"))
+                .startsWith("Error: Section 'Unknown heading' not found.");
+        assertThat(tools.getGuideSection("unknown", null)).startsWith("Error: Unknown guide");
+    }
+
+}
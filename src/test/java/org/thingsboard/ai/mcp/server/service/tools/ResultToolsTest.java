@@ -0,0 +1,111 @@
+package org.thingsboard.ai.mcp.server.service.tools;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.thingsboard.ai.mcp.server.rest.ClientCredentials;
+import org.thingsboard.ai.mcp.server.result.ResultStore;
+import org.thingsboard.ai.mcp.server.tools.result.ResultTools;
+import org.thingsboard.common.util.JacksonUtil;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ResultToolsTest {
+
+    private ResultStore resultStore;
+    private ResultTools tools;
+
+    @BeforeEach
+    void setup() {
+        // No heap budget, so every stored result is spilled to a memory-mapped file
+        resultStore = new ResultStore(2000, 0, 30, 10);
+        tools = new ResultTools(resultStore);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ClientCredentials.clearCurrent();
+        resultStore.destroy();
+    }
+
+    @Test
+    void testOffload_returnsSmallResultsAsIs() {
+        String small = JacksonUtil.toString(page(5));
+        assertThat(resultStore.offload("getTenantDevices", small)).isSameAs(small);
+        assertThat(resultStore.offload("getTenantDevices", "x".repeat(5000))).hasSize(5000);
+    }
+
+    @Test
+    void testOffload_storesLargeResultAndReadsSlices() {
+        JsonNode summary = JacksonUtil.toJsonNode(resultStore.offload("getTenantDevices", JacksonUtil.toString(page(200))));
+
+        assertThat(summary.get("resultHandle").asText()).startsWith("res-");
+        assertThat(summary.get("rowsPointer").asText()).isEqualTo("/data");
+        assertThat(summary.get("rowCount").asInt()).isEqualTo(200);
+        assertThat(summary.get("preview")).hasSize(3);
+        assertThat(summary.get("structure").get("totalElements").asInt()).isEqualTo(200);
+        assertThat(summary.get("structure").get("data").asText()).isEqualTo("array[200]");
+        String handle = summary.get("resultHandle").asText();
+
+        JsonNode slice = JacksonUtil.toJsonNode(tools.readResultSlice(handle, null, "10", "5"));
+        assertThat(slice.get("total").asInt()).isEqualTo(200);
+        assertThat(slice.get("rows")).hasSize(5);
+        assertThat(slice.get("rows").get(0).get("name").asText()).isEqualTo("Device 10");
+        assertThat(slice.get("nextOffset").asInt()).isEqualTo(15);
+
+        JsonNode capped = JacksonUtil.toJsonNode(tools.readResultSlice(handle, "/data", "0", "200"));
+        assertThat(capped.get("count").asInt()).isLessThan(200);
+        assertThat(capped.get("nextOffset").asInt()).isEqualTo(capped.get("count").asInt());
+
+        assertThat(tools.readResultSlice(handle, "/totalElements", null, null)).isEqualTo("200");
+        assertThat(tools.readResultSlice(handle, "/unknown", null, null)).startsWith("Error: Nothing found");
+
+        assertThat(tools.releaseResult(handle)).isEqualTo("Released");
+        assertThat(tools.readResultSlice(handle, null, null, null)).startsWith("Error: Result");
+    }
+
+    @Test
+    void testOffload_resultsBelongToTheStoringCredentials() {
+        ClientCredentials.setCurrent(ClientCredentials.parse("ApiKey owner-key"));
+        String handle = JacksonUtil.toJsonNode(resultStore.offload("getTenantDevices", JacksonUtil.toString(page(200))))
+                .get("resultHandle").asText();
+        assertThat(handle).hasSize("res-".length() + 36);
+
+        ClientCredentials.setCurrent(ClientCredentials.parse("ApiKey other-key"));
+        assertThat(tools.readResultSlice(handle, null, null, null)).startsWith("Error: Result");
+        assertThat(tools.releaseResult(handle)).startsWith("Error: Result");
+        ClientCredentials.clearCurrent();
+        assertThat(tools.readResultSlice(handle, null, null, null)).startsWith("Error: Result");
+
+        ClientCredentials.setCurrent(ClientCredentials.parse("ApiKey owner-key"));
+        assertThat(JacksonUtil.toJsonNode(tools.readResultSlice(handle, null, null, null)).get("total").asInt()).isEqualTo(200);
+        assertThat(tools.releaseResult(handle)).isEqualTo("Released");
+    }
+
+    @Test
+    void testOffload_unwrapsJsonStringResults() {
+        String quoted = JacksonUtil.toString(JacksonUtil.toString(page(200)));
+        JsonNode summary = JacksonUtil.toJsonNode(resultStore.offload("findEntityDataByQuery", quoted));
+
+        assertThat(summary.get("rowCount").asInt()).isEqualTo(200);
+    }
+
+    private static ObjectNode page(int size) {
+        ObjectNode page = JacksonUtil.newObjectNode();
+        ArrayNode data = page.putArray("data");
+        for (int i = 0; i < size; i++) {
+            ObjectNode device = data.addObject();
+            device.put("name", "Device " + i);
+            device.put("type", "default");
+            device.put("label", "Label of device " + i);
+        }
+        page.put("totalPages", 1);
+        page.put("totalElements", size);
+        page.put("hasNext", false);
+        return page;
+    }
+
+}
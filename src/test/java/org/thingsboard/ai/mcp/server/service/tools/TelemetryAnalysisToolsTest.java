@@ -0,0 +1,273 @@
+package org.thingsboard.ai.mcp.server.service.tools;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.thingsboard.ai.mcp.server.rest.RestClient;
+import org.thingsboard.ai.mcp.server.rest.RestClientService;
+import org.thingsboard.ai.mcp.server.tools.telemetry.TelemetryAnalysisTools;
+import org.thingsboard.common.util.JacksonUtil;
+import org.thingsboard.server.common.data.id.DeviceId;
+import org.thingsboard.server.common.data.id.EntityId;
+import org.thingsboard.server.common.data.kv.Aggregation;
+import org.thingsboard.server.common.data.kv.BasicTsKvEntry;
+import org.thingsboard.server.common.data.kv.BooleanDataEntry;
+import org.thingsboard.server.common.data.kv.DoubleDataEntry;
+import org.thingsboard.server.common.data.kv.LongDataEntry;
+import org.thingsboard.server.common.data.kv.StringDataEntry;
+import org.thingsboard.server.common.data.kv.TsKvEntry;
+import org.thingsboard.server.common.data.page.SortOrder;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.StreamSupport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+public class TelemetryAnalysisToolsTest {
+
+    private final DeviceId pumpId = new DeviceId(UUID.randomUUID());
+    private final DeviceId sensorId = new DeviceId(UUID.randomUUID());
+    private final Map<EntityId, List<TsKvEntry>> data = new HashMap<>();
+
+    @Mock
+    private RestClientService clientService;
+
+    @Mock
+    private RestClient restClient;
+
+    private ExecutorService executor;
+
+    private TelemetryAnalysisTools tools;
+
+    @BeforeEach
+    void setup() {
+        List<TsKvEntry> pump = new ArrayList<>();
+        List<TsKvEntry> sensor = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            pump.add(new BasicTsKvEntry(i * 1000L, new LongDataEntry("current", (long) (i * 37 % 11))));
+            if (i >= 2) {
+                // Pressure drops two seconds after the current rises
+                sensor.add(new BasicTsKvEntry(i * 1000L, new DoubleDataEntry("pressure", 100.0 - (i - 2) * 37 % 11)));
+            }
+        }
+        for (int i = 0; i < 500; i++) {
+            if (i >= 200 && i < 210) {
+                continue;
+            }
+            double temperature = i == 300 ? 50.0 : i >= 400 && i <= 450 ? 20.0 : 20.0 + (i * 37 % 11) / 10.0;
+            pump.add(new BasicTsKvEntry(i * 1000L, new DoubleDataEntry("temperature", temperature)));
+        }
+        pump.add(new BasicTsKvEntry(500L, new BooleanDataEntry("running", true)));
+        pump.add(new BasicTsKvEntry(1500L, new BooleanDataEntry("running", false)));
+        data.put(pumpId, pump);
+        data.put(sensorId, sensor);
+
+        lenient().when(clientService.getClient()).thenReturn(restClient);
+        lenient().when(restClient.getTimeseries(any(EntityId.class), anyList(), eq(0L), eq(Aggregation.NONE), isNull(), isNull(),
+                eq(SortOrder.Direction.ASC), anyLong(), anyLong(), anyInt(), eq(true))).thenAnswer(invocation -> {
+            EntityId entityId = invocation.getArgument(0);
+            List<String> keys = invocation.getArgument(1);
+            long startTs = invocation.getArgument(7);
+            long endTs = invocation.getArgument(8);
+            return data.get(entityId).stream()
+                    .filter(entry -> keys.contains(entry.getKey()) && entry.getTs() >= startTs && entry.getTs() < endTs)
+                    .toList();
+        });
+        executor = Executors.newFixedThreadPool(2);
+        tools = new TelemetryAnalysisTools(clientService, executor);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void testJoinTimeseries_gridWithCorrelationAndLag() {
+        String series = "[{\"entityType\":\"DEVICE\",\"entityId\":\"" + pumpId.getId() + "\",\"key\":\"current\"}," +
+                "{\"entityType\":\"DEVICE\",\"entityId\":\"" + sensorId.getId() + "\",\"key\":\"pressure\"}]";
+
+        JsonNode result = JacksonUtil.toJsonNode(tools.joinTimeseries(series, "0", "100000", "1000", null, null, "true", "5", "10", null));
+
+        assertThat(result.get("columns").toString()).isEqualTo("[\"ts\",\"current\",\"pressure\"]");
+        assertThat(result.get("totalRows").asInt()).isEqualTo(100);
+        assertThat(result.get("truncated").asBoolean()).isTrue();
+        assertThat(result.get("rows")).hasSize(10);
+        JsonNode first = result.get("rows").get(0);
+        assertThat(first.get(0).asLong()).isZero();
+        assertThat(first.get(1).asDouble()).isZero();
+        assertThat(first.get(2).isNull()).isTrue();
+        assertThat(result.get("rows").get(1).get(2).asDouble()).isEqualTo(100.0);
+        assertThat(result.get("points").get("pressure").get("read").asInt()).isEqualTo(98);
+
+        JsonNode correlation = result.get("correlation").get(0);
+        assertThat(correlation.get("n").asInt()).isEqualTo(99);
+        assertThat(Math.abs(correlation.get("r").asDouble())).isLessThan(0.9);
+        JsonNode lag = result.get("lag").get(0);
+        assertThat(lag.get("b").asText()).isEqualTo("pressure");
+        assertThat(lag.get("lag").asInt()).isEqualTo(2);
+        assertThat(lag.get("lagMs").asLong()).isEqualTo(2000);
+        assertThat(lag.get("r").asDouble()).isEqualTo(-1.0);
+        assertThat(result.get("maxLagSearched").asInt()).isEqualTo(5);
+    }
+
+    @Test
+    void testJoinTimeseries_narrowsLagSearchOnLongTimeline() {
+        String series = "[{\"entityType\":\"DEVICE\",\"entityId\":\"" + pumpId.getId() + "\",\"key\":\"current\"}," +
+                "{\"entityType\":\"DEVICE\",\"entityId\":\"" + sensorId.getId() + "\",\"key\":\"pressure\"}]";
+
+        // 99999 timeline steps leave room for 1000 passes, lags -499..499
+        JsonNode result = JacksonUtil.toJsonNode(tools.joinTimeseries(series, "0", "99999", "1", null, "0", null, "1000", "0", null));
+
+        assertThat(result.get("totalRows").asInt()).isEqualTo(99999);
+        assertThat(result.get("maxLagSearched").asInt()).isEqualTo(499);
+        assertThat(result.get("lag")).hasSize(1);
+    }
+
+    @Test
+    void testJoinTimeseries_alignmentToFirstSeries() {
+        String series = "[{\"entityType\":\"DEVICE\",\"entityId\":\"" + pumpId.getId() + "\",\"key\":\"current\"}," +
+                "{\"entityType\":\"DEVICE\",\"entityId\":\"" + pumpId.getId() + "\",\"key\":\"running\",\"label\":\"on\"}]";
+
+        JsonNode linear = JacksonUtil.toJsonNode(tools.joinTimeseries(series, "0", "3000", null, "LINEAR", null, null, null, null, null));
+        JsonNode previous = JacksonUtil.toJsonNode(tools.joinTimeseries(series, "0", "3000", null, "PREVIOUS", "600", null, null, null, null));
+
+        assertThat(linear.get("columns").get(2).asText()).isEqualTo("on");
+        assertThat(linear.get("rows")).hasSize(3);
+        assertThat(linear.get("rows").get(0).get(2).isNull()).isTrue();
+        assertThat(linear.get("rows").get(1).get(2).asDouble()).isEqualTo(0.5);
+        assertThat(linear.get("rows").get(2).get(2).isNull()).isTrue();
+        assertThat(previous.get("rows").get(0).get(2).isNull()).isTrue();
+        assertThat(previous.get("rows").get(1).get(2).asDouble()).isEqualTo(1.0);
+        assertThat(previous.get("rows").get(2).get(2).asDouble()).isEqualTo(0.0);
+        verify(restClient, times(2)).getTimeseries(eq(pumpId), anyList(), eq(0L), eq(Aggregation.NONE), isNull(), isNull(),
+                eq(SortOrder.Direction.ASC), anyLong(), anyLong(), anyInt(), eq(true));
+    }
+
+    @Test
+    void testJoinTimeseries_labelsAndValidation() {
+        String sameKey = "[{\"entityType\":\"DEVICE\",\"entityId\":\"" + pumpId.getId() + "\",\"key\":\"current\"}," +
+                "{\"entityType\":\"DEVICE\",\"entityId\":\"" + sensorId.getId() + "\",\"key\":\"current\"}]";
+        data.get(sensorId).add(new BasicTsKvEntry(0L, new LongDataEntry("current", 1L)));
+
+        JsonNode result = JacksonUtil.toJsonNode(tools.joinTimeseries(sameKey, "0", "1000", null, null, null, null, null, null, null));
+
+        assertThat(result.get("columns").get(1).asText()).isEqualTo(pumpId.getId() + "/current");
+        assertThat(result.get("columns").get(2).asText()).isEqualTo(sensorId.getId() + "/current");
+        assertThat(result.get("rows").get(0).get(2).asLong()).isEqualTo(1);
+        assertThatThrownBy(() -> tools.joinTimeseries("[{\"key\":\"current\"}]", "0", "1000", null, null, null, null, null, null, null))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> tools.joinTimeseries(sameKey, "1000", "0", null, null, null, null, null, null, null))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> tools.joinTimeseries(sameKey, "0", "100000000", "1", null, null, null, null, null, null))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void testDetectAnomalies_allDetectors() {
+        data.get(pumpId).add(new BasicTsKvEntry(0L, new StringDataEntry("mode", "auto")));
+
+        JsonNode result = JacksonUtil.toJsonNode(tools.detectAnomalies("DEVICE", pumpId.getId().toString(), "temperature,mode",
+                "0", "1000000", null, null, null, null, null, "50"));
+
+        assertThat(result.get("requests").asInt()).isEqualTo(1);
+        assertThat(result.get("skippedValues").asLong()).isEqualTo(1);
+        assertThat(result.get("keys").get("mode").get("points").asLong()).isZero();
+        // A key without values in the range is one gap
+        assertThat(result.get("keys").get("mode").get("segments")).singleElement().satisfies(segment -> {
+            assertThat(segment.get("detector").asText()).isEqualTo("GAP");
+            assertThat(segment.get("startTs").asLong()).isZero();
+            assertThat(segment.get("endTs").asLong()).isEqualTo(1000000);
+        });
+        JsonNode temperature = result.get("keys").get("temperature");
+        assertThat(temperature.get("points").asLong()).isEqualTo(490);
+        assertThat(temperature.get("max").asDouble()).isEqualTo(50.0);
+        List<JsonNode> segments = StreamSupport.stream(temperature.get("segments").spliterator(), false).toList();
+        assertThat(segments).extracting(segment -> segment.get("startTs").asLong()).isSorted();
+        for (String detector : List.of("ZSCORE", "EWMA", "IQR")) {
+            assertThat(segments).anySatisfy(segment -> {
+                assertThat(segment.get("detector").asText()).isEqualTo(detector);
+                assertThat(segment.get("peakTs").asLong()).isEqualTo(300000);
+                assertThat(segment.get("peakValue").asDouble()).isEqualTo(50.0);
+            });
+        }
+        assertThat(segments).anySatisfy(segment -> {
+            assertThat(segment.get("detector").asText()).isEqualTo("FLATLINE");
+            assertThat(segment.get("startTs").asLong()).isEqualTo(400000);
+            assertThat(segment.get("endTs").asLong()).isEqualTo(451000);
+            assertThat(segment.get("points").asInt()).isEqualTo(52);
+        });
+        assertThat(segments).anySatisfy(segment -> {
+            assertThat(segment.get("detector").asText()).isEqualTo("GAP");
+            assertThat(segment.get("startTs").asLong()).isEqualTo(199000);
+            assertThat(segment.get("endTs").asLong()).isEqualTo(210000);
+        });
+        assertThat(segments).anySatisfy(segment -> {
+            assertThat(segment.get("detector").asText()).isEqualTo("GAP");
+            assertThat(segment.get("startTs").asLong()).isEqualTo(499000);
+            assertThat(segment.get("endTs").asLong()).isEqualTo(1000000);
+        });
+        // Noise before the gap is not reported
+        assertThat(segments).allSatisfy(segment -> assertThat(segment.get("endTs").asLong()).isGreaterThanOrEqualTo(199000));
+    }
+
+    @Test
+    void testDetectAnomalies_selectedDetectorsWithLimits() {
+        JsonNode result = JacksonUtil.toJsonNode(tools.detectAnomalies("DEVICE", pumpId.getId().toString(), "temperature",
+                "0", "1000000", "flatline, gap", null, null, "20000", "5000", null));
+
+        JsonNode temperature = result.get("keys").get("temperature");
+        assertThat(temperature.get("anomalies").toString()).isEqualTo("{\"FLATLINE\":1,\"GAP\":2}");
+        assertThat(temperature.get("truncated").asBoolean()).isFalse();
+        JsonNode gap = temperature.get("segments").get(0);
+        assertThat(gap.get("detector").asText()).isEqualTo("GAP");
+        assertThat(gap.get("score").asDouble()).isEqualTo(2.2);
+        assertThat(gap.has("peakValue")).isFalse();
+        JsonNode flatline = temperature.get("segments").get(1);
+        assertThat(flatline.get("detector").asText()).isEqualTo("FLATLINE");
+        assertThat(flatline.get("score").asDouble()).isEqualTo(2.55);
+        assertThat(flatline.get("peakValue").asDouble()).isEqualTo(20.0);
+        // No data from the last point to the end of the range
+        JsonNode trailing = temperature.get("segments").get(2);
+        assertThat(trailing.get("detector").asText()).isEqualTo("GAP");
+        assertThat(trailing.get("startTs").asLong()).isEqualTo(499000);
+        assertThat(trailing.get("endTs").asLong()).isEqualTo(1000000);
+        assertThat(trailing.get("score").asDouble()).isEqualTo(100.2);
+    }
+
+    @Test
+    void testDetectAnomalies_gapAtRangeStart() {
+        JsonNode result = JacksonUtil.toJsonNode(tools.detectAnomalies("DEVICE", pumpId.getId().toString(), "temperature",
+                "205000", "260000", "gap", null, null, null, "2000", null));
+
+        JsonNode temperature = result.get("keys").get("temperature");
+        assertThat(temperature.get("segments")).singleElement().satisfies(segment -> {
+            assertThat(segment.get("detector").asText()).isEqualTo("GAP");
+            assertThat(segment.get("startTs").asLong()).isEqualTo(205000);
+            assertThat(segment.get("endTs").asLong()).isEqualTo(210000);
+            assertThat(segment.get("score").asDouble()).isEqualTo(2.5);
+        });
+    }
+
+}
@@ -0,0 +1,315 @@
+package org.thingsboard.ai.mcp.server.service.tools;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import org.thingsboard.ai.mcp.server.rest.RestClient;
+import org.thingsboard.ai.mcp.server.rest.RestClientService;
+import org.thingsboard.ai.mcp.server.tools.telemetry.TelemetryFileTools;
+import org.thingsboard.common.util.JacksonUtil;
+import org.thingsboard.server.common.data.id.DeviceId;
+import org.thingsboard.server.common.data.id.EntityId;
+import org.thingsboard.server.common.data.kv.Aggregation;
+import org.thingsboard.server.common.data.kv.BasicTsKvEntry;
+import org.thingsboard.server.common.data.kv.DoubleDataEntry;
+import org.thingsboard.server.common.data.kv.StringDataEntry;
+import org.thingsboard.server.common.data.kv.TsKvEntry;
+import org.thingsboard.server.common.data.page.SortOrder;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class TelemetryFileToolsTest {
+
+    private final DeviceId deviceId = new DeviceId(UUID.randomUUID());
+    private final List<TsKvEntry> data = new ArrayList<>();
+
+    @Mock
+    private RestClientService clientService;
+
+    @Mock
+    private RestClient restClient;
+
+    @TempDir
+    Path tempDir;
+
+    private ExecutorService executor;
+
+    private TelemetryFileTools tools;
+
+    @BeforeEach
+    void setup() {
+        for (int i = 0; i < 100; i++) {
+            data.add(new BasicTsKvEntry(i * 1000L, new DoubleDataEntry("temperature", i * 0.5)));
+            if (i % 5 == 0) {
+                data.add(new BasicTsKvEntry(i * 1000L, new StringDataEntry("status", "ok, \"fine\"")));
+            }
+        }
+        when(clientService.getClient()).thenReturn(restClient);
+        lenient().when(restClient.getTimeseries(eq(deviceId), anyList(), eq(0L), eq(Aggregation.NONE), isNull(), isNull(),
+                eq(SortOrder.Direction.ASC), anyLong(), anyLong(), anyInt(), eq(true))).thenAnswer(invocation -> {
+            List<String> keys = invocation.getArgument(1);
+            long startTs = invocation.getArgument(7);
+            long endTs = invocation.getArgument(8);
+            int limit = invocation.getArgument(9);
+            List<TsKvEntry> result = new ArrayList<>();
+            for (String key : keys) {
+                data.stream()
+                        .filter(entry -> entry.getKey().equals(key) && entry.getTs() >= startTs && entry.getTs() < endTs)
+                        .limit(limit)
+                        .forEach(result::add);
+            }
+            return result;
+        });
+        executor = Executors.newFixedThreadPool(2);
+        tools = new TelemetryFileTools(clientService, executor);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void testExportTimeseries_csvAcrossTruncatedWindows() throws Exception {
+        Path file = tempDir.resolve("export/data.csv");
+
+        JsonNode summary = JacksonUtil.toJsonNode(tools.exportTimeseries("DEVICE", deviceId.getId().toString(),
+                "temperature,status", file.toString(), "0", "100000", null, null, "30000", "7"));
+
+        assertThat(summary.get("rows").asLong()).isEqualTo(100);
+        assertThat(summary.get("points").get("temperature").asLong()).isEqualTo(100);
+        assertThat(summary.get("points").get("status").asLong()).isEqualTo(20);
+        assertThat(summary.get("minTs").asLong()).isEqualTo(0);
+        assertThat(summary.get("maxTs").asLong()).isEqualTo(99000);
+        assertThat(summary.get("requests").asInt()).isGreaterThan(14);
+        assertThat(summary.get("fileSizeBytes").asLong()).isEqualTo(Files.size(file));
+        assertThat(Files.exists(tempDir.resolve("export/data.csv.part"))).isFalse();
+
+        List<String> lines = Files.readAllLines(file);
+        assertThat(lines).hasSize(101);
+        assertThat(lines.get(0)).isEqualTo("ts,temperature,status");
+        assertThat(lines.get(1)).isEqualTo("0,0.0,\"ok, \"\"fine\"\"\"");
+        assertThat(lines.get(2)).isEqualTo("1000,0.5,");
+        for (int i = 1; i < lines.size(); i++) {
+            assertThat(lines.get(i)).startsWith((i - 1) * 1000 + ",");
+        }
+    }
+
+    @Test
+    void testExportTimeseries_gzippedNdjson() throws Exception {
+        Path file = tempDir.resolve("data.ndjson.gz");
+
+        JsonNode summary = JacksonUtil.toJsonNode(tools.exportTimeseries("DEVICE", deviceId.getId().toString(),
+                "temperature", file.toString(), "50000", "60000", null, null, null, null));
+
+        assertThat(summary.get("format").asText()).isEqualTo("NDJSON");
+        assertThat(summary.get("gzip").asBoolean()).isTrue();
+        assertThat(summary.get("requests").asInt()).isEqualTo(1);
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(file)), StandardCharsets.UTF_8))) {
+            List<String> lines = reader.lines().toList();
+            assertThat(lines).hasSize(10);
+            JsonNode first = JacksonUtil.toJsonNode(lines.get(0));
+            assertThat(first.get("ts").asLong()).isEqualTo(50000);
+            assertThat(first.get("values").get("temperature").asDouble()).isEqualTo(25.0);
+        }
+    }
+
+    @Test
+    void testExportTimeseries_emptyRange() throws Exception {
+        Path file = tempDir.resolve("empty.csv");
+
+        JsonNode summary = JacksonUtil.toJsonNode(tools.exportTimeseries("DEVICE", deviceId.getId().toString(),
+                "temperature", file.toString(), "200000", "300000", "CSV", "false", "60000", null));
+
+        assertThat(summary.get("rows").asLong()).isZero();
+        assertThat(summary.get("minTs").isNull()).isTrue();
+        assertThat(summary.get("requests").asInt()).isEqualTo(2);
+        assertThat(Files.readAllLines(file)).containsExactly("ts,temperature");
+    }
+
+    @Test
+    void testExportTimeseries_skipsEmptyWindows() throws Exception {
+        long dayMs = TimeUnit.DAYS.toMillis(1);
+        data.add(new BasicTsKvEntry(30 * dayMs, new DoubleDataEntry("temperature", 1.0)));
+        Path file = tempDir.resolve("sparse.csv");
+
+        JsonNode summary = JacksonUtil.toJsonNode(tools.exportTimeseries("DEVICE", deviceId.getId().toString(),
+                "temperature", file.toString(), null, Long.toString(365 * dayMs), null, null, null, null));
+
+        assertThat(summary.get("rows").asLong()).isEqualTo(101);
+        assertThat(summary.get("maxTs").asLong()).isEqualTo(30 * dayMs);
+        // The first day, a probe over the gap, the day of the last point and a probe up to the end of the range
+        assertThat(summary.get("requests").asInt()).isEqualTo(6);
+        assertThat(Files.readAllLines(file)).hasSize(102).last().isEqualTo(30 * dayMs + ",1.0");
+    }
+
+    @Test
+    void testImportTimeseries_csvBatchesPerEntity() throws Exception {
+        DeviceId otherId = new DeviceId(UUID.randomUUID());
+        Path file = tempDir.resolve("import.csv");
+        StringBuilder csv = new StringBuilder("ts,temperature,status,entityType,entityId\n");
+        for (int i = 0; i < 10; i++) {
+            csv.append(i * 1000).append(',').append(i * 0.5).append(",\"ok, \"\"fine\"\"\"");
+            csv.append(i % 2 == 0 ? ",,\r\n" : ",DEVICE," + otherId.getId() + "\r\n");
+        }
+        csv.append("bad,1,,,\n");
+        Files.writeString(file, csv);
+        Set<Long> saved = new ConcurrentSkipListSet<>();
+        when(restClient.saveEntityTelemetry(any(EntityId.class), eq("ANY"), any(JsonNode.class))).thenAnswer(invocation -> {
+            JsonNode rows = invocation.getArgument(2);
+            assertThat(rows.size()).isLessThanOrEqualTo(2);
+            for (JsonNode row : rows) {
+                long ts = row.get("ts").asLong();
+                assertThat(invocation.<EntityId>getArgument(0)).isEqualTo(ts / 1000 % 2 == 0 ? deviceId : otherId);
+                assertThat(row.get("values").get("status").asText()).isEqualTo("ok, \"fine\"");
+                assertThat(row.get("values").get("temperature").isNumber()).isTrue();
+                saved.add(ts);
+            }
+            return true;
+        });
+
+        JsonNode summary = JacksonUtil.toJsonNode(tools.importTimeseries(file.toString(), "DEVICE", deviceId.getId().toString(),
+                null, null, null, "2", "3", null));
+
+        assertThat(summary.get("status").asText()).isEqualTo("OK");
+        assertThat(summary.get("rows").asLong()).isEqualTo(10);
+        assertThat(summary.get("savedRows").asLong()).isEqualTo(10);
+        assertThat(summary.get("savedPoints").asLong()).isEqualTo(20);
+        assertThat(summary.get("requests").asLong()).isEqualTo(6);
+        assertThat(summary.get("skippedRows").asLong()).isEqualTo(1);
+        assertThat(summary.get("checkpoint").asLong()).isEqualTo(Files.size(file));
+        assertThat(saved).hasSize(10);
+    }
+
+    @Test
+    void testImportTimeseries_roundTripsExportedCsv() throws Exception {
+        data.add(new BasicTsKvEntry(0L, new StringDataEntry("note", "first line\nsecond, \"quoted\" line")));
+        data.add(new BasicTsKvEntry(0L, new StringDataEntry("code", "007")));
+        data.add(new BasicTsKvEntry(1000L, new StringDataEntry("code", "1.50")));
+        data.add(new BasicTsKvEntry(1000L, new DoubleDataEntry("note", 12345678.9)));
+        Path file = tempDir.resolve("roundtrip.csv");
+        tools.exportTimeseries("DEVICE", deviceId.getId().toString(), "temperature,note,code", file.toString(), "0", "2000", null, null, null, null);
+        Map<Long, JsonNode> saved = new ConcurrentHashMap<>();
+        when(restClient.saveEntityTelemetry(eq(deviceId), eq("ANY"), any(JsonNode.class))).thenAnswer(invocation -> {
+            invocation.<JsonNode>getArgument(2).forEach(row -> saved.put(row.get("ts").asLong(), row.get("values")));
+            return true;
+        });
+
+        JsonNode summary = JacksonUtil.toJsonNode(tools.importTimeseries(file.toString(), "DEVICE", deviceId.getId().toString(),
+                null, null, null, null, null, null));
+
+        assertThat(summary.get("status").asText()).isEqualTo("OK");
+        assertThat(summary.get("rows").asLong()).isEqualTo(2);
+        assertThat(summary.get("skippedRows").asLong()).isZero();
+        assertThat(saved.get(0L).get("note").asText()).isEqualTo("first line\nsecond, \"quoted\" line");
+        assertThat(saved.get(0L).get("code").isTextual()).isTrue();
+        assertThat(saved.get(0L).get("code").asText()).isEqualTo("007");
+        assertThat(saved.get(0L).get("temperature").isNumber()).isTrue();
+        assertThat(saved.get(1000L).get("code").asText()).isEqualTo("1.50");
+        assertThat(saved.get(1000L).get("code").isTextual()).isTrue();
+        assertThat(saved.get(1000L).get("note").asDouble()).isEqualTo(12345678.9);
+    }
+
+    @Test
+    void testImportTimeseries_retriesFailedRequest() throws Exception {
+        Path file = tempDir.resolve("import.ndjson.gz");
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(file))) {
+            for (int i = 0; i < 5; i++) {
+                out.write(("{\"ts\":" + i + ",\"values\":{\"a\":" + i + "}}\n").getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        AtomicInteger calls = new AtomicInteger();
+        when(restClient.saveEntityTelemetry(eq(deviceId), eq("ANY"), any(JsonNode.class))).thenAnswer(invocation -> {
+            if (calls.getAndIncrement() == 0) {
+                throw new IllegalStateException("Connection reset");
+            }
+            return true;
+        });
+
+        JsonNode summary = JacksonUtil.toJsonNode(tools.importTimeseries(file.toString(), "DEVICE", deviceId.getId().toString(),
+                null, null, null, null, null, null));
+
+        assertThat(summary.get("status").asText()).isEqualTo("OK");
+        assertThat(summary.get("format").asText()).isEqualTo("NDJSON");
+        assertThat(summary.get("savedRows").asLong()).isEqualTo(5);
+        assertThat(summary.get("requests").asLong()).isEqualTo(2);
+        assertThat(summary.get("retries").asLong()).isEqualTo(1);
+    }
+
+    @Test
+    void testImportTimeseries_resumesFromCheckpoint() throws Exception {
+        Path file = tempDir.resolve("import.jsonl");
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 0; i < 10; i++) {
+            ndjson.append("{\"ts\":").append(i).append(",\"values\":{\"a\":").append(i).append("}}\n");
+        }
+        Files.writeString(file, ndjson);
+        AtomicBoolean forbidden = new AtomicBoolean(true);
+        Set<Long> saved = new ConcurrentSkipListSet<>();
+        when(restClient.saveEntityTelemetry(eq(deviceId), eq("ANY"), any(JsonNode.class))).thenAnswer(invocation -> {
+            JsonNode rows = invocation.getArgument(2);
+            if (forbidden.get() && rows.get(0).get("ts").asLong() == 3) {
+                throw HttpClientErrorException.create(HttpStatus.FORBIDDEN, "Forbidden", null, null, null);
+            }
+            rows.forEach(row -> saved.add(row.get("ts").asLong()));
+            return true;
+        });
+
+        JsonNode failed = JacksonUtil.toJsonNode(tools.importTimeseries(file.toString(), "DEVICE", deviceId.getId().toString(),
+                null, null, null, "3", "1", null));
+
+        assertThat(failed.get("status").asText()).isEqualTo("FAILED");
+        assertThat(failed.get("retries").asLong()).isZero();
+        assertThat(failed.get("error").asText()).contains("Forbidden");
+        long checkpoint = failed.get("checkpoint").asLong();
+        assertThat(checkpoint).isEqualTo(ndjson.indexOf("{\"ts\":3,"));
+        assertThat(saved).containsExactly(0L, 1L, 2L);
+
+        forbidden.set(false);
+        JsonNode resumed = JacksonUtil.toJsonNode(tools.importTimeseries(file.toString(), "DEVICE", deviceId.getId().toString(),
+                null, null, Long.toString(checkpoint), "3", "1", null));
+
+        assertThat(resumed.get("status").asText()).isEqualTo("OK");
+        assertThat(resumed.get("rows").asLong()).isEqualTo(7);
+        assertThat(saved).hasSize(10);
+    }
+
+}
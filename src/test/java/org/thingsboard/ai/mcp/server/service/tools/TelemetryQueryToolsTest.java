@@ -0,0 +1,171 @@
+package org.thingsboard.ai.mcp.server.service.tools;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.thingsboard.ai.mcp.server.rest.RestClient;
+import org.thingsboard.ai.mcp.server.rest.RestClientService;
+import org.thingsboard.ai.mcp.server.tools.telemetry.TelemetryQueryTools;
+import org.thingsboard.common.util.JacksonUtil;
+import org.thingsboard.server.common.data.id.DeviceId;
+import org.thingsboard.server.common.data.kv.Aggregation;
+import org.thingsboard.server.common.data.kv.BasicTsKvEntry;
+import org.thingsboard.server.common.data.kv.DoubleDataEntry;
+import org.thingsboard.server.common.data.kv.ReadTsKvQuery;
+import org.thingsboard.server.common.data.kv.ReadTsKvQueryResult;
+import org.thingsboard.server.common.data.kv.StringDataEntry;
+import org.thingsboard.server.common.data.kv.TsKvEntry;
+import org.thingsboard.server.common.data.page.SortOrder;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class TelemetryQueryToolsTest {
+
+    private static final String QUERIES = "[{\"keys\":\"temperature\",\"agg\":\"AVG\",\"interval\":3600000}," +
+            "{\"keys\":\"humidity\",\"agg\":\"max\",\"interval\":86400000,\"label\":\"daily max\"}," +
+            "{\"keys\":\"status\",\"limit\":50,\"orderBy\":\"DESC\",\"startTs\":1000}]";
+
+    private final DeviceId deviceId = new DeviceId(UUID.randomUUID());
+
+    @Mock
+    private RestClientService clientService;
+
+    @Mock
+    private RestClient restClient;
+
+    private ExecutorService executor;
+
+    private TelemetryQueryTools tools;
+
+    @BeforeEach
+    void setup() {
+        executor = Executors.newFixedThreadPool(2);
+        tools = new TelemetryQueryTools(clientService, executor);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testGetTimeseriesByQueries_singleRequest() {
+        when(clientService.getClient()).thenReturn(restClient);
+        when(restClient.getTimeseriesByQueries(eq(deviceId), anyList())).thenReturn(List.of(
+                new ReadTsKvQueryResult(1, List.of(new BasicTsKvEntry(0L, new DoubleDataEntry("temperature", 21.5))), 0L),
+                new ReadTsKvQueryResult(2, List.of(new BasicTsKvEntry(0L, new DoubleDataEntry("humidity", 60.0))), 0L),
+                new ReadTsKvQueryResult(3, List.of(new BasicTsKvEntry(5000L, new StringDataEntry("status", "ok"))), 5000L)));
+
+        JsonNode result = JacksonUtil.toJsonNode(tools.getTimeseriesByQueries("DEVICE", deviceId.getId().toString(), QUERIES, "0", "172800000"));
+
+        assertThat(result.get("mode").asText()).isEqualTo("BATCH");
+        JsonNode results = result.get("results");
+        assertThat(results).hasSize(3);
+        assertThat(results.get(0).get("label").asText()).isEqualTo("temperature AVG 3600000ms");
+        assertThat(results.get(0).get("data").get("temperature").get(0).get("value").asDouble()).isEqualTo(21.5);
+        assertThat(results.get(1).get("label").asText()).isEqualTo("daily max");
+        assertThat(results.get(2).get("agg").asText()).isEqualTo("NONE");
+        assertThat(results.get(2).has("interval")).isFalse();
+        assertThat(results.get(2).get("data").get("status").get(0).get("ts").asLong()).isEqualTo(5000);
+
+        ArgumentCaptor<List<ReadTsKvQuery>> captor = ArgumentCaptor.forClass(List.class);
+        verify(restClient).getTimeseriesByQueries(eq(deviceId), captor.capture());
+        List<ReadTsKvQuery> queries = captor.getValue();
+        assertThat(queries).extracting(ReadTsKvQuery::getKey).containsExactly("temperature", "humidity", "status");
+        assertThat(queries.get(1).getAggregation()).isEqualTo(Aggregation.MAX);
+        assertThat(queries.get(2).getStartTs()).isEqualTo(1000);
+        assertThat(queries.get(2).getLimit()).isEqualTo(50);
+        assertThat(queries.get(2).getOrder()).isEqualTo("DESC");
+        verify(restClient, never()).getTimeseries(any(), anyList(), any(), any(), any(), any(), any(), any(), any(), any(), anyBoolean());
+    }
+
+    @Test
+    void testGetTimeseriesByQueries_fallsBackToConcurrentReads() {
+        when(clientService.getClient()).thenReturn(restClient);
+        when(restClient.getTimeseriesByQueries(eq(deviceId), anyList())).thenThrow(new HttpClientErrorException(HttpStatus.METHOD_NOT_ALLOWED));
+        when(restClient.getTimeseries(eq(deviceId), anyList(), any(Long.class), any(Aggregation.class), isNull(), isNull(),
+                any(SortOrder.Direction.class), any(Long.class), any(Long.class), any(Integer.class), eq(true))).thenAnswer(invocation -> {
+            List<String> keys = invocation.getArgument(1);
+            return keys.stream().<TsKvEntry>map(key -> new BasicTsKvEntry(0L, new DoubleDataEntry(key, 1.0))).toList();
+        });
+
+        JsonNode first = JacksonUtil.toJsonNode(tools.getTimeseriesByQueries("DEVICE", deviceId.getId().toString(), QUERIES, "0", "172800000"));
+        JsonNode second = JacksonUtil.toJsonNode(tools.getTimeseriesByQueries("DEVICE", deviceId.getId().toString(), QUERIES, "0", "172800000"));
+
+        assertThat(first.get("mode").asText()).isEqualTo("CONCURRENT");
+        assertThat(second.get("mode").asText()).isEqualTo("CONCURRENT");
+        assertThat(first.get("results").get(1).get("data").get("humidity").get(0).get("value").asDouble()).isEqualTo(1.0);
+        verify(restClient, times(1)).getTimeseriesByQueries(eq(deviceId), anyList());
+        verify(restClient, times(2)).getTimeseries(eq(deviceId), eq(List.of("humidity")), eq(86400000L), eq(Aggregation.MAX), isNull(), isNull(),
+                eq(SortOrder.Direction.ASC), eq(0L), eq(172800000L), eq(100), eq(true));
+        verify(restClient, times(2)).getTimeseries(eq(deviceId), eq(List.of("status")), eq(0L), eq(Aggregation.NONE), isNull(), isNull(),
+                eq(SortOrder.Direction.DESC), eq(1000L), eq(172800000L), eq(50), eq(true));
+    }
+
+    @Test
+    void testGetTimeseriesByQueries_rethrowsTransportErrors() {
+        when(clientService.getClient()).thenReturn(restClient);
+        when(restClient.getTimeseriesByQueries(eq(deviceId), anyList()))
+                .thenThrow(new ResourceAccessException("Read timed out"))
+                .thenReturn(List.of(new ReadTsKvQueryResult(1, List.of(new BasicTsKvEntry(0L, new DoubleDataEntry("temperature", 21.5))), 0L)));
+        String queries = "[{\"keys\":\"temperature\"}]";
+
+        assertThatThrownBy(() -> tools.getTimeseriesByQueries("DEVICE", deviceId.getId().toString(), queries, "0", "1000"))
+                .isInstanceOf(ResourceAccessException.class);
+        JsonNode result = JacksonUtil.toJsonNode(tools.getTimeseriesByQueries("DEVICE", deviceId.getId().toString(), queries, "0", "1000"));
+
+        assertThat(result.get("mode").asText()).isEqualTo("BATCH");
+        verify(restClient, never()).getTimeseries(any(), anyList(), any(), any(), any(), any(), any(), any(), any(), any(), anyBoolean());
+    }
+
+    @Test
+    void testGetTimeseriesByQueries_fallsBackOnMismatchedResults() {
+        when(clientService.getClient()).thenReturn(restClient);
+        when(restClient.getTimeseriesByQueries(eq(deviceId), anyList())).thenReturn(List.of());
+        when(restClient.getTimeseries(eq(deviceId), anyList(), any(Long.class), any(Aggregation.class), isNull(), isNull(),
+                any(SortOrder.Direction.class), any(Long.class), any(Long.class), any(Integer.class), eq(true)))
+                .thenReturn(List.of(new BasicTsKvEntry(0L, new DoubleDataEntry("temperature", 21.5))));
+        String queries = "[{\"keys\":\"temperature\"}]";
+
+        tools.getTimeseriesByQueries("DEVICE", deviceId.getId().toString(), queries, "0", "1000");
+        JsonNode result = JacksonUtil.toJsonNode(tools.getTimeseriesByQueries("DEVICE", deviceId.getId().toString(), queries, "0", "1000"));
+
+        assertThat(result.get("mode").asText()).isEqualTo("CONCURRENT");
+        assertThat(result.get("results").get(0).get("data").get("temperature").get(0).get("value").asDouble()).isEqualTo(21.5);
+        verify(restClient, times(1)).getTimeseriesByQueries(eq(deviceId), anyList());
+    }
+
+    @Test
+    void testGetTimeseriesByQueries_rejectsInvalidReads() {
+        assertThatThrownBy(() -> tools.getTimeseriesByQueries("DEVICE", deviceId.getId().toString(), "[{\"agg\":\"AVG\"}]", null, null))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> tools.getTimeseriesByQueries("DEVICE", deviceId.getId().toString(), "{}", null, null))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+}
@@ -8,9 +8,11 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.thingsboard.ai.mcp.server.buffer.TelemetryWriteBuffer;
 import org.thingsboard.ai.mcp.server.rest.RestClient;
 import org.thingsboard.ai.mcp.server.rest.RestClientService;
 import org.thingsboard.ai.mcp.server.tools.telemetry.TelemetryTools;
+import org.thingsboard.ai.mcp.server.ws.TelemetrySubscriptionService;
 import org.thingsboard.common.util.JacksonUtil;
 import org.thingsboard.server.common.data.id.DeviceId;
 import org.thingsboard.server.common.data.id.EntityId;
@@ -31,6 +33,8 @@ import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -46,9 +50,15 @@ public class TelemetryToolsTest {
     @Mock
     private RestClient restClient;
 
+    @Mock
+    private TelemetrySubscriptionService subscriptionService;
+
+    @Mock
+    private TelemetryWriteBuffer writeBuffer;
+
     @BeforeEach
     void setup() {
-        when(clientService.getClient()).thenReturn(restClient);
+        lenient().when(clientService.getClient()).thenReturn(restClient);
     }
 
     @Test
@@ -432,4 +442,18 @@ public class TelemetryToolsTest {
         assertThat(result).isEqualTo("{\"status\":\"Telemetry with TTL submitted successfully\"}");
     }
 
+    @Test
+    void testSaveEntityTelemetryBuffered() {
+        UUID id = UUID.randomUUID();
+        when(writeBuffer.isEnabled()).thenReturn(true);
+        when(writeBuffer.add(any(EntityId.class), eq("ANY"), eq(60L), any(JsonNode.class)))
+                .thenReturn(new TelemetryWriteBuffer.AddResult("Telemetry buffered", 1, 1, 1));
+
+        String result = tools.saveEntityTelemetryWithTTL("DEVICE", id.toString(), "60", "{\"t\":21}");
+
+        verify(writeBuffer).add(eq(new DeviceId(id)), eq("ANY"), eq(60L), eq(JacksonUtil.toJsonNode("{\"t\":21}")));
+        verify(restClient, never()).saveEntityTelemetryWithTTL(any(EntityId.class), any(String.class), any(Long.class), any(JsonNode.class));
+        assertThat(JacksonUtil.toJsonNode(result).get("lastPointId").asLong()).isEqualTo(1L);
+    }
+
 }
@@ -0,0 +1,512 @@
+package org.thingsboard.ai.mcp.server.stub;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import org.thingsboard.common.util.JacksonUtil;
+import org.thingsboard.server.common.data.Device;
+import org.thingsboard.server.common.data.EntityType;
+import org.thingsboard.server.common.data.alarm.AlarmInfo;
+import org.thingsboard.server.common.data.alarm.AlarmSeverity;
+import org.thingsboard.server.common.data.id.AlarmId;
+import org.thingsboard.server.common.data.id.DeviceId;
+import org.thingsboard.server.common.data.id.EntityId;
+import org.thingsboard.server.common.data.id.EntityIdFactory;
+import org.thingsboard.server.common.data.id.TenantId;
+import org.thingsboard.server.common.data.page.PageData;
+import org.thingsboard.server.common.data.query.AlarmData;
+import org.thingsboard.server.common.data.query.EntityData;
+import org.thingsboard.server.common.data.query.EntityKeyType;
+import org.thingsboard.server.common.data.query.TsValue;
+import org.thingsboard.server.common.data.relation.EntityRelation;
+import org.thingsboard.server.common.data.relation.EntityRelationInfo;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Embedded ThingsBoard REST API stub for tests and load tests. Implements the endpoints used by the most common tools
+ * with generated data, and allows to inject latency and errors at runtime.
+ */
+@Slf4j
+@Setter
+public class ThingsBoardStubServer implements AutoCloseable {
+
+    private static final Pattern DEVICE_PATH = Pattern.compile("^/api/device/([^/]+)$");
+    private static final Pattern TELEMETRY_KEYS_PATH = Pattern.compile("^/api/plugins/telemetry/([A-Z_]+)/([^/]+)/keys/(timeseries|attributes)(/\\w+)?$");
+    private static final Pattern TIMESERIES_PATH = Pattern.compile("^/api/plugins/telemetry/([A-Z_]+)/([^/]+)/values/timeseries$");
+    private static final Pattern ATTRIBUTES_PATH = Pattern.compile("^/api/plugins/telemetry/([A-Z_]+)/([^/]+)/values/attributes(/\\w+)?$");
+    private static final Pattern ENTITY_ALARMS_PATH = Pattern.compile("^/api/alarm/([A-Z_]+)/([^/]+)$");
+    private static final Algorithm JWT_ALGORITHM = Algorithm.HMAC256("thingsboard-stub");
+
+    /**
+     * Fixed delay added to every response.
+     */
+    private volatile long latencyMs;
+    /**
+     * Random delay in [0, latencyJitterMs) added on top of {@link #latencyMs}.
+     */
+    private volatile long latencyJitterMs;
+    /**
+     * Probability in [0, 1] that a request fails with {@link #errorStatus}.
+     */
+    private volatile double errorRate;
+    private volatile int errorStatus = 500;
+    /**
+     * Maximum number of data points returned per time series key.
+     */
+    private volatile int timeseriesPoints = 1000;
+    /**
+     * Number of characters added to every generated entity to control payload sizes.
+     */
+    private volatile int entityPadding;
+    /**
+     * Gzip responses of requests that accept it.
+     */
+    private volatile boolean compression;
+    /**
+     * Simulated link speed for response bodies; 0 means unlimited.
+     */
+    private volatile long bandwidthBytesPerSecond;
+    private volatile long tokenTtlSeconds = 900;
+    private volatile String edition = "CE";
+    private volatile List<String> timeseriesKeys = List.of("temperature", "humidity", "pressure");
+    private volatile List<String> attributeKeys = List.of("active", "firmwareVersion", "location");
+
+    @Getter
+    private final List<DeviceId> deviceIds;
+    private final TenantId tenantId = new TenantId(UUID.randomUUID());
+    private final Map<String, LongAdder> requestCounts = new ConcurrentHashMap<>();
+    private final AtomicInteger failNext = new AtomicInteger();
+    private final LongAdder bytesSent = new LongAdder();
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    public ThingsBoardStubServer(int devices) throws IOException {
+        List<DeviceId> ids = new ArrayList<>(devices);
+        for (int i = 0; i < devices; i++) {
+            ids.add(new DeviceId(UUID.randomUUID()));
+        }
+        this.deviceIds = Collections.unmodifiableList(ids);
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        this.executor = Executors.newFixedThreadPool(32);
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+    }
+
+    public ThingsBoardStubServer start() {
+        server.start();
+        log.info("ThingsBoard stub server started at {}", getUrl());
+        return this;
+    }
+
+    public String getUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    /**
+     * Fails the next {@code count} requests with {@link #errorStatus}, regardless of {@link #errorRate}.
+     */
+    public void failNext(int count) {
+        failNext.set(count);
+    }
+
+    public Map<String, Long> getRequestCounts() {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        requestCounts.forEach((route, count) -> counts.put(route, count.sum()));
+        return counts;
+    }
+
+    /**
+     * Total size of the response bodies sent so far, as they went over the wire.
+     */
+    public long getBytesSent() {
+        return bytesSent.sum();
+    }
+
+    public void resetRequestCounts() {
+        requestCounts.clear();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) {
+        try {
+            String method = exchange.getRequestMethod();
+            String path = exchange.getRequestURI().getPath();
+            Map<String, String> params = parseQuery(exchange.getRequestURI().getRawQuery());
+            byte[] requestBody;
+            try (InputStream in = exchange.getRequestBody()) {
+                requestBody = in.readAllBytes();
+            }
+            delay();
+            if (!path.startsWith("/api/auth/") && exchange.getRequestHeaders().getFirst("X-Authorization") == null) {
+                count("unauthorized");
+                sendError(exchange, 401, "Authentication failed");
+                return;
+            }
+            if (shouldFail()) {
+                count("injected-error");
+                sendError(exchange, errorStatus, "Injected error");
+                return;
+            }
+            Object response = route(method, path, params, requestBody);
+            if (response == null) {
+                count("not-found");
+                sendError(exchange, 404, "Requested item wasn't found!");
+            } else {
+                send(exchange, 200, response instanceof String s ? s : JacksonUtil.toString(response));
+            }
+        } catch (Exception e) {
+            log.warn("Failed to handle stub request {}", exchange.getRequestURI(), e);
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private Object route(String method, String path, Map<String, String> params, byte[] body) {
+        Matcher m;
+        if ("POST".equals(method) && (path.equals("/api/auth/login") || path.equals("/api/auth/token"))) {
+            count(path);
+            return tokens();
+        } else if (path.equals("/api/system/info")) {
+            count(path);
+            return Map.of("type", edition, "version", "4.0.0");
+        } else if (path.equals("/api/tenant/devices")) {
+            count(path);
+            if (params.containsKey("deviceName")) {
+                return device(deviceIds.get(0), params.get("deviceName"));
+            }
+            int pageSize = intParam(params, "pageSize", 10);
+            int page = intParam(params, "page", 0);
+            List<Device> devices = new ArrayList<>();
+            for (int i = page * pageSize; i < Math.min(deviceIds.size(), (page + 1) * pageSize); i++) {
+                devices.add(device(deviceIds.get(i), "Device " + i));
+            }
+            return pageData(devices, pageSize, page, deviceIds.size());
+        } else if ("POST".equals(method) && path.equals("/api/device")) {
+            count("POST /api/device");
+            Device device = JacksonUtil.fromString(new String(body, StandardCharsets.UTF_8), Device.class);
+            if (device.getId() == null) {
+                device.setId(new DeviceId(UUID.randomUUID()));
+            }
+            return device;
+        } else if ("DELETE".equals(method) && (m = DEVICE_PATH.matcher(path)).matches()) {
+            count("DELETE /api/device/{deviceId}");
+            return "";
+        } else if ((m = DEVICE_PATH.matcher(path)).matches()) {
+            count("/api/device/{deviceId}");
+            return device(new DeviceId(UUID.fromString(m.group(1))), "Device " + m.group(1));
+        } else if ((m = TELEMETRY_KEYS_PATH.matcher(path)).matches()) {
+            count("/api/plugins/telemetry/{entityType}/{entityId}/keys/" + m.group(3));
+            return m.group(3).equals("timeseries") ? timeseriesKeys : attributeKeys;
+        } else if ((m = TIMESERIES_PATH.matcher(path)).matches()) {
+            count("/api/plugins/telemetry/{entityType}/{entityId}/values/timeseries");
+            return timeseries(params);
+        } else if ((m = ATTRIBUTES_PATH.matcher(path)).matches()) {
+            count("/api/plugins/telemetry/{entityType}/{entityId}/values/attributes");
+            return attributes(params);
+        } else if ("POST".equals(method) && path.startsWith("/api/plugins/telemetry/")) {
+            count("POST /api/plugins/telemetry");
+            return "";
+        } else if (path.equals("/api/entitiesQuery/find")) {
+            count(path);
+            return entityData(JacksonUtil.toJsonNode(new String(body, StandardCharsets.UTF_8)));
+        } else if (path.equals("/api/entitiesQuery/count")) {
+            count(path);
+            return deviceIds.size();
+        } else if (path.equals("/api/alarmsQuery/find")) {
+            count(path);
+            return alarmData(JacksonUtil.toJsonNode(new String(body, StandardCharsets.UTF_8)));
+        } else if (path.equals("/api/alarmsQuery/count")) {
+            count(path);
+            return deviceIds.size();
+        } else if (path.equals("/api/alarms")) {
+            count(path);
+            return alarms(null, params);
+        } else if ((m = ENTITY_ALARMS_PATH.matcher(path)).matches()) {
+            count("/api/alarm/{entityType}/{entityId}");
+            return alarms(EntityIdFactory.getByTypeAndId(m.group(1), m.group(2)), params);
+        } else if (path.equals("/api/relations") || path.equals("/api/relations/info")) {
+            count(path);
+            return relations(params, path.endsWith("/info"));
+        }
+        return null;
+    }
+
+    private Map<String, String> tokens() {
+        long now = System.currentTimeMillis();
+        Map<String, String> tokens = new HashMap<>();
+        tokens.put("token", JWT.create().withSubject("tenant@thingsboard.org")
+                .withIssuedAt(new Date(now))
+                .withExpiresAt(new Date(now + tokenTtlSeconds * 1000))
+                .sign(JWT_ALGORITHM));
+        tokens.put("refreshToken", JWT.create().withSubject("tenant@thingsboard.org")
+                .withIssuedAt(new Date(now))
+                .withExpiresAt(new Date(now + tokenTtlSeconds * 4000))
+                .sign(JWT_ALGORITHM));
+        return tokens;
+    }
+
+    private Device device(DeviceId id, String name) {
+        Device device = new Device(id);
+        device.setTenantId(tenantId);
+        device.setCreatedTime(1_700_000_000_000L);
+        device.setName(name);
+        device.setType("thermostat");
+        device.setLabel("Thermostat");
+        if (entityPadding > 0) {
+            ObjectNode additionalInfo = JacksonUtil.newObjectNode();
+            additionalInfo.put("description", "x".repeat(entityPadding));
+            device.setAdditionalInfo(additionalInfo);
+        }
+        return device;
+    }
+
+    private Map<String, List<Map<String, Object>>> timeseries(Map<String, String> params) {
+        List<String> keys = params.containsKey("keys") ? Arrays.asList(params.get("keys").split(",")) : timeseriesKeys;
+        boolean strict = Boolean.parseBoolean(params.getOrDefault("useStrictDataTypes", "false"));
+        long endTs = longParam(params, "endTs", System.currentTimeMillis());
+        long startTs = longParam(params, "startTs", endTs - 3_600_000L);
+        int points = params.containsKey("startTs") ? Math.min(intParam(params, "limit", 100), timeseriesPoints) : 1;
+        long step = Math.max(1L, (endTs - startTs) / Math.max(1, points));
+        boolean asc = "ASC".equals(params.get("orderBy"));
+        Map<String, List<Map<String, Object>>> result = new LinkedHashMap<>();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (String key : keys) {
+            List<Map<String, Object>> values = new ArrayList<>(points);
+            for (int i = 0; i < points; i++) {
+                long ts = asc ? startTs + i * step : endTs - i * step;
+                double value = Math.round((20 + random.nextGaussian() * 5) * 100) / 100.0;
+                values.add(Map.of("ts", ts, "value", strict ? value : String.valueOf(value)));
+            }
+            result.put(key.trim(), values);
+        }
+        return result;
+    }
+
+    private List<Map<String, Object>> attributes(Map<String, String> params) {
+        List<String> keys = params.containsKey("keys") ? Arrays.asList(params.get("keys").split(",")) : attributeKeys;
+        List<Map<String, Object>> result = new ArrayList<>();
+        for (String key : keys) {
+            result.add(Map.of("key", key.trim(), "value", key.hashCode() % 2 == 0 ? "v-" + key : 42, "lastUpdateTs", 1_700_000_000_000L));
+        }
+        return result;
+    }
+
+    private PageData<EntityData> entityData(JsonNode query) {
+        JsonNode pageLink = query.path("pageLink");
+        int pageSize = pageLink.path("pageSize").asInt(10);
+        int page = pageLink.path("page").asInt(0);
+        List<EntityData> data = new ArrayList<>();
+        for (int i = page * pageSize; i < Math.min(deviceIds.size(), (page + 1) * pageSize); i++) {
+            EntityData ed = new EntityData();
+            ed.setEntityId(deviceIds.get(i));
+            Map<EntityKeyType, Map<String, TsValue>> latest = new HashMap<>();
+            Map<String, TsValue> fields = new HashMap<>();
+            fields.put("name", new TsValue(0, "Device " + i));
+            fields.put("type", new TsValue(0, "thermostat"));
+            if (entityPadding > 0) {
+                fields.put("description", new TsValue(0, "x".repeat(entityPadding)));
+            }
+            latest.put(EntityKeyType.ENTITY_FIELD, fields);
+            Map<String, TsValue> telemetry = new HashMap<>();
+            for (String key : timeseriesKeys) {
+                telemetry.put(key, new TsValue(System.currentTimeMillis(), String.valueOf(20 + i % 10)));
+            }
+            latest.put(EntityKeyType.TIME_SERIES, telemetry);
+            ed.setLatest(latest);
+            data.add(ed);
+        }
+        return pageData(data, pageSize, page, deviceIds.size());
+    }
+
+    private PageData<AlarmData> alarmData(JsonNode query) {
+        JsonNode pageLink = query.path("pageLink");
+        int pageSize = pageLink.path("pageSize").asInt(10);
+        int page = pageLink.path("page").asInt(0);
+        List<AlarmData> data = new ArrayList<>();
+        for (int i = page * pageSize; i < Math.min(deviceIds.size(), (page + 1) * pageSize); i++) {
+            DeviceId originator = deviceIds.get(i);
+            data.add(new AlarmData(alarm(originator, i), originator));
+        }
+        return pageData(data, pageSize, page, deviceIds.size());
+    }
+
+    private PageData<AlarmInfo> alarms(EntityId originator, Map<String, String> params) {
+        int pageSize = intParam(params, "pageSize", 10);
+        int page = intParam(params, "page", 0);
+        List<AlarmInfo> data = new ArrayList<>();
+        for (int i = page * pageSize; i < Math.min(deviceIds.size(), (page + 1) * pageSize); i++) {
+            data.add(alarm(originator != null ? originator : deviceIds.get(i), i));
+        }
+        return pageData(data, pageSize, page, deviceIds.size());
+    }
+
+    private AlarmInfo alarm(EntityId originator, int i) {
+        AlarmInfo alarm = new AlarmInfo();
+        alarm.setId(new AlarmId(UUID.nameUUIDFromBytes(("alarm-" + originator.getId() + "-" + i).getBytes(StandardCharsets.UTF_8))));
+        alarm.setTenantId(tenantId);
+        alarm.setCreatedTime(1_700_000_000_000L + i * 60_000L);
+        alarm.setStartTs(alarm.getCreatedTime());
+        alarm.setType(i % 3 == 0 ? "High Temperature" : "Low Battery");
+        alarm.setSeverity(AlarmSeverity.values()[i % AlarmSeverity.values().length]);
+        alarm.setOriginator(originator);
+        alarm.setOriginatorName("Device " + i);
+        alarm.setAcknowledged(i % 2 == 0);
+        alarm.setCleared(i % 5 == 0);
+        return alarm;
+    }
+
+    private List<?> relations(Map<String, String> params, boolean info) {
+        String fromId = params.get("fromId");
+        String toId = params.get("toId");
+        EntityId anchor = EntityIdFactory.getByTypeAndId(params.getOrDefault(fromId != null ? "fromType" : "toType", EntityType.DEVICE.name()),
+                fromId != null ? fromId : toId != null ? toId : deviceIds.get(0).getId().toString());
+        List<Object> relations = new ArrayList<>();
+        for (int i = 0; i < Math.min(10, deviceIds.size()); i++) {
+            DeviceId other = deviceIds.get(i);
+            EntityRelation relation = fromId != null || toId == null ?
+                    new EntityRelation(anchor, other, params.getOrDefault("relationType", "Contains")) :
+                    new EntityRelation(other, anchor, params.getOrDefault("relationType", "Contains"));
+            if (info) {
+                EntityRelationInfo relationInfo = new EntityRelationInfo(relation);
+                relationInfo.setFromName("Device " + i);
+                relationInfo.setToName("Device " + i);
+                relations.add(relationInfo);
+            } else {
+                relations.add(relation);
+            }
+        }
+        return relations;
+    }
+
+    private static <T> PageData<T> pageData(List<T> data, int pageSize, int page, int total) {
+        int totalPages = pageSize > 0 ? (total + pageSize - 1) / pageSize : 0;
+        return new PageData<>(data, totalPages, total, page + 1 < totalPages);
+    }
+
+    private boolean shouldFail() {
+        if (failNext.getAndUpdate(n -> Math.max(0, n - 1)) > 0) {
+            return true;
+        }
+        return errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate;
+    }
+
+    private void delay() throws InterruptedException {
+        long delay = latencyMs + (latencyJitterMs > 0 ? ThreadLocalRandom.current().nextLong(latencyJitterMs) : 0);
+        if (delay > 0) {
+            Thread.sleep(delay);
+        }
+    }
+
+    private void count(String route) {
+        requestCounts.computeIfAbsent(route, r -> new LongAdder()).increment();
+    }
+
+    private void sendError(HttpExchange exchange, int status, String message) throws IOException {
+        ObjectNode error = JacksonUtil.newObjectNode();
+        error.put("status", status);
+        error.put("message", message);
+        error.put("errorCode", status == 401 ? 10 : status == 404 ? 32 : 2);
+        error.put("timestamp", System.currentTimeMillis());
+        send(exchange, status, JacksonUtil.toString(error));
+    }
+
+    private void send(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        String acceptEncoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+        if (compression && bytes.length > 0 && acceptEncoding != null && acceptEncoding.contains("gzip")) {
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+            try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+                gzip.write(bytes);
+            }
+            bytes = compressed.toByteArray();
+            exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+        }
+        bytesSent.add(bytes.length);
+        if (bandwidthBytesPerSecond > 0) {
+            try {
+                Thread.sleep(bytes.length * 1000L / bandwidthBytesPerSecond);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException();
+            }
+        }
+        exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+        if (bytes.length > 0) {
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        }
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> params = new HashMap<>();
+        if (rawQuery == null) {
+            return params;
+        }
+        for (String pair : rawQuery.split("&")) {
+            if (pair.isEmpty()) {
+                continue;
+            }
+            int idx = pair.indexOf('=');
+            String key = URLDecoder.decode(idx > 0 ? pair.substring(0, idx) : pair, StandardCharsets.UTF_8);
+            String value = idx > 0 ? URLDecoder.decode(pair.substring(idx + 1), StandardCharsets.UTF_8) : "";
+            params.put(key, value);
+        }
+        return params;
+    }
+
+    private static int intParam(Map<String, String> params, String name, int defaultValue) {
+        try {
+            return Integer.parseInt(params.get(name));
+        } catch (Exception e) {
+            return defaultValue;
+        }
+    }
+
+    private static long longParam(Map<String, String> params, String name, long defaultValue) {
+        try {
+            return Long.parseLong(params.get(name));
+        } catch (Exception e) {
+            return defaultValue;
+        }
+    }
+
+}
@@ -0,0 +1,64 @@
+package org.thingsboard.ai.mcp.server.stub;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.HttpServerErrorException;
+import org.thingsboard.ai.mcp.server.rest.RestClient;
+import org.thingsboard.server.common.data.Device;
+import org.thingsboard.server.common.data.kv.TsKvEntry;
+import org.thingsboard.server.common.data.page.PageData;
+import org.thingsboard.server.common.data.page.PageLink;
+import org.thingsboard.server.common.data.page.SortOrder;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class ThingsBoardStubServerTest {
+
+    private ThingsBoardStubServer stub;
+    private RestClient client;
+
+    @BeforeEach
+    void setup() throws Exception {
+        stub = new ThingsBoardStubServer(25).start();
+        client = new RestClient(stub.getUrl());
+        client.login("tenant@thingsboard.org", "tenant");
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.close();
+        stub.close();
+    }
+
+    @Test
+    void testStub_servesDevicesAndTelemetry() {
+        PageData<Device> devices = client.getTenantDevices(null, new PageLink(10, 2));
+        assertThat(devices.getData()).hasSize(5);
+        assertThat(devices.getTotalElements()).isEqualTo(25);
+        assertThat(devices.hasNext()).isFalse();
+
+        stub.setTimeseriesPoints(50);
+        List<TsKvEntry> timeseries = client.getTimeseries(stub.getDeviceIds().get(0), List.of("temperature", "humidity"),
+                0L, null, null, null, SortOrder.Direction.ASC, 0L, System.currentTimeMillis(), 100, true);
+        assertThat(timeseries).hasSize(100);
+        assertThat(stub.getRequestCounts()).containsKeys("/api/auth/login", "/api/tenant/devices");
+    }
+
+    @Test
+    void testStub_injectsErrors() {
+        stub.failNext(1);
+        assertThatThrownBy(() -> client.getTenantDevices(null, new PageLink(10)))
+                .isInstanceOf(HttpServerErrorException.class);
+        assertThat(client.getTenantDevices(null, new PageLink(10)).getData()).hasSize(10);
+
+        stub.setErrorStatus(503);
+        stub.setErrorRate(1.0);
+        assertThatThrownBy(() -> client.getTenantDevices(null, new PageLink(10)))
+                .isInstanceOf(HttpServerErrorException.ServiceUnavailable.class);
+    }
+
+}
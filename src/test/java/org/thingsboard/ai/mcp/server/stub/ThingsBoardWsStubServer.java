@@ -0,0 +1,284 @@
+package org.thingsboard.ai.mcp.server.stub;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.thingsboard.common.util.JacksonUtil;
+import org.thingsboard.server.common.data.id.EntityId;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Minimal ThingsBoard WebSocket API stub for tests: accepts connections on '/api/ws', records the commands, answers
+ * TIMESERIES and ATTRIBUTES subscriptions with the current values and pushes values published with
+ * {@link #publish(EntityId, String, long, String)} to the subscribers. Implements just enough of RFC 6455 for the
+ * JDK WebSocket client: unfragmented server frames, masked client frames, ping and close.
+ */
+@Slf4j
+public class ThingsBoardWsStubServer implements AutoCloseable {
+
+    private static final String WS_GUID = "258EAFA5-E914-47DA-95CA-C5AB0DC85B11";
+
+    private final ServerSocket serverSocket;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final List<Connection> connections = new CopyOnWriteArrayList<>();
+    private final Map<String, Map<String, Long>> timestamps = new ConcurrentHashMap<>();
+    private final Map<String, Map<String, String>> values = new ConcurrentHashMap<>();
+    @Getter
+    private final List<JsonNode> commands = new CopyOnWriteArrayList<>();
+    private final AtomicInteger connectionCount = new AtomicInteger();
+
+    public ThingsBoardWsStubServer() throws IOException {
+        this.serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+    }
+
+    public ThingsBoardWsStubServer start() {
+        executor.execute(this::accept);
+        return this;
+    }
+
+    public String getUrl() {
+        return "http://127.0.0.1:" + serverSocket.getLocalPort();
+    }
+
+    public int getConnectionCount() {
+        return connectionCount.get();
+    }
+
+    /**
+     * Sets the latest value of the key and sends it to the subscribers of the entity.
+     */
+    public void publish(EntityId entityId, String key, long ts, String value) {
+        String entity = entityId.getId().toString();
+        values.computeIfAbsent(entity, k -> new ConcurrentHashMap<>()).put(key, value);
+        timestamps.computeIfAbsent(entity, k -> new ConcurrentHashMap<>()).put(key, ts);
+        for (Connection connection : connections) {
+            connection.subscriptions.forEach((cmdId, cmd) -> {
+                if (cmd.path("entityId").asText().equals(entity) && subscribed(cmd, key)) {
+                    connection.sendUpdate(cmdId, Map.of(key, value), entity);
+                }
+            });
+        }
+    }
+
+    /**
+     * Drops all connections without a close handshake, as if the network failed.
+     */
+    public void disconnectAll() {
+        for (Connection connection : connections) {
+            connection.closeQuietly();
+        }
+    }
+
+    @Override
+    public void close() {
+        disconnectAll();
+        try {
+            serverSocket.close();
+        } catch (IOException ignored) {
+        }
+        executor.shutdownNow();
+    }
+
+    private void accept() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                executor.execute(() -> new Connection(socket).run());
+            } catch (IOException e) {
+                return;
+            }
+        }
+    }
+
+    private static boolean subscribed(JsonNode cmd, String key) {
+        String keys = cmd.path("keys").asText("");
+        return keys.isEmpty() || List.of(keys.split(",")).contains(key);
+    }
+
+    private class Connection {
+
+        private final Socket socket;
+        private final Map<Integer, JsonNode> subscriptions = new ConcurrentHashMap<>();
+        private OutputStream out;
+
+        Connection(Socket socket) {
+            this.socket = socket;
+        }
+
+        void run() {
+            try (socket) {
+                InputStream in = socket.getInputStream();
+                out = socket.getOutputStream();
+                if (!handshake(in)) {
+                    return;
+                }
+                connections.add(this);
+                connectionCount.incrementAndGet();
+                DataInputStream data = new DataInputStream(in);
+                ByteArrayOutputStream message = new ByteArrayOutputStream();
+                while (true) {
+                    int b0 = data.readUnsignedByte();
+                    int b1 = data.readUnsignedByte();
+                    int opcode = b0 & 0x0F;
+                    long length = b1 & 0x7F;
+                    if (length == 126) {
+                        length = data.readUnsignedShort();
+                    } else if (length == 127) {
+                        length = data.readLong();
+                    }
+                    byte[] mask = new byte[4];
+                    if ((b1 & 0x80) != 0) {
+                        data.readFully(mask);
+                    }
+                    byte[] payload = new byte[(int) length];
+                    data.readFully(payload);
+                    for (int i = 0; i < payload.length; i++) {
+                        payload[i] ^= mask[i % 4];
+                    }
+                    if (opcode == 0x8) {
+                        sendFrame(0x8, payload);
+                        return;
+                    } else if (opcode == 0x9) {
+                        sendFrame(0xA, payload);
+                    } else if (opcode == 0x1 || opcode == 0x0) {
+                        message.write(payload);
+                        if ((b0 & 0x80) != 0) {
+                            onMessage(JacksonUtil.toJsonNode(message.toString(StandardCharsets.UTF_8)));
+                            message.reset();
+                        }
+                    }
+                }
+            } catch (EOFException ignored) {
+                // Client went away
+            } catch (IOException e) {
+                log.debug("WebSocket stub connection closed: {}", e.getMessage());
+            } finally {
+                connections.remove(this);
+            }
+        }
+
+        private boolean handshake(InputStream in) throws IOException {
+            String key = null;
+            String path = null;
+            String line;
+            while (!(line = readLine(in)).isEmpty()) {
+                if (path == null) {
+                    path = line.split(" ")[1];
+                } else if (line.toLowerCase().startsWith("sec-websocket-key:")) {
+                    key = line.substring(line.indexOf(':') + 1).trim();
+                }
+            }
+            if (key == null || !path.startsWith("/api/ws")) {
+                out.write("HTTP/1.1 404 Not Found\r\nContent-Length: 0\r\n\r\n".getBytes(StandardCharsets.US_ASCII));
+                return false;
+            }
+            String accept;
+            try {
+                accept = Base64.getEncoder().encodeToString(MessageDigest.getInstance("SHA-1")
+                        .digest((key + WS_GUID).getBytes(StandardCharsets.US_ASCII)));
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
+            out.write(("HTTP/1.1 101 Switching Protocols\r\nUpgrade: websocket\r\nConnection: Upgrade\r\n" +
+                    "Sec-WebSocket-Accept: " + accept + "\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+            return true;
+        }
+
+        private void onMessage(JsonNode message) {
+            commands.add(message);
+            for (JsonNode cmd : message.path("cmds")) {
+                int cmdId = cmd.path("cmdId").asInt();
+                if (cmd.path("unsubscribe").asBoolean()) {
+                    subscriptions.remove(cmdId);
+                    continue;
+                }
+                subscriptions.put(cmdId, cmd);
+                String entity = cmd.path("entityId").asText();
+                Map<String, String> snapshot = new ConcurrentHashMap<>();
+                values.getOrDefault(entity, Map.of()).forEach((key, value) -> {
+                    if (subscribed(cmd, key)) {
+                        snapshot.put(key, value);
+                    }
+                });
+                sendUpdate(cmdId, snapshot, entity);
+            }
+        }
+
+        private void sendUpdate(int cmdId, Map<String, String> update, String entity) {
+            ObjectNode message = JacksonUtil.newObjectNode();
+            message.put("subscriptionId", cmdId);
+            message.put("errorCode", 0);
+            message.putNull("errorMsg");
+            ObjectNode data = message.putObject("data");
+            Map<String, Long> entityTs = timestamps.getOrDefault(entity, Map.of());
+            update.forEach((key, value) -> data.putArray(key).addArray().add(entityTs.get(key)).add(value));
+            try {
+                sendFrame(0x1, JacksonUtil.toString(message).getBytes(StandardCharsets.UTF_8));
+            } catch (IOException e) {
+                log.debug("Failed to send WebSocket stub update: {}", e.getMessage());
+            }
+        }
+
+        private synchronized void sendFrame(int opcode, byte[] payload) throws IOException {
+            ByteArrayOutputStream frame = new ByteArrayOutputStream(payload.length + 10);
+            frame.write(0x80 | opcode);
+            if (payload.length < 126) {
+                frame.write(payload.length);
+            } else if (payload.length <= 0xFFFF) {
+                frame.write(126);
+                frame.write(payload.length >>> 8);
+                frame.write(payload.length & 0xFF);
+            } else {
+                frame.write(127);
+                for (int shift = 56; shift >= 0; shift -= 8) {
+                    frame.write((int) ((long) payload.length >>> shift) & 0xFF);
+                }
+            }
+            frame.write(payload);
+            out.write(frame.toByteArray());
+            out.flush();
+        }
+
+        private void closeQuietly() {
+            try {
+                socket.close();
+            } catch (IOException ignored) {
+            }
+        }
+
+        private static String readLine(InputStream in) throws IOException {
+            StringBuilder line = new StringBuilder();
+            int c;
+            while ((c = in.read()) != -1 && c != '\n') {
+                if (c != '\r') {
+                    line.append((char) c);
+                }
+            }
+            return line.toString();
+        }
+
+    }
+
+}
@@ -0,0 +1,43 @@
+package org.thingsboard.ai.mcp.server.ws;
+
+import org.junit.jupiter.api.Test;
+import org.thingsboard.server.common.data.kv.DataType;
+import org.thingsboard.server.common.data.kv.TsKvEntry;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class LatestValuesTest {
+
+    @Test
+    void testToTimeseries_keepsReceivedStrings() {
+        LatestValues values = new LatestValues();
+        List<String> received = List.of("007", "1.50", "1e3", "true", "7", "22.5", "1.0E10", "99999999999999999999", "{\"a\":1}");
+        for (int i = 0; i < received.size(); i++) {
+            values.update("key" + i, 1000L, received.get(i));
+        }
+
+        assertThat(values.toTimeseries(List.of(), false)).extracting(TsKvEntry::getValueAsString).containsExactlyElementsOf(received);
+        assertThat(values.toTimeseries(List.of(), false)).extracting(TsKvEntry::getDataType).containsOnly(DataType.STRING);
+
+        List<TsKvEntry> strict = values.toTimeseries(List.of(), true);
+        assertThat(strict).extracting(TsKvEntry::getDataType).containsExactly(DataType.STRING, DataType.STRING, DataType.STRING,
+                DataType.BOOLEAN, DataType.LONG, DataType.DOUBLE, DataType.DOUBLE, DataType.STRING, DataType.JSON);
+        assertThat(strict).extracting(TsKvEntry::getValueAsString).containsExactlyElementsOf(received);
+    }
+
+    @Test
+    void testUpdate_ignoresOlderValues() {
+        LatestValues values = new LatestValues();
+        values.update("temperature", 2000L, "21.5");
+        values.update("temperature", 1000L, "20.0");
+
+        assertThat(values.toTimeseries(List.of("temperature"), true)).singleElement()
+                .satisfies(entry -> {
+                    assertThat(entry.getTs()).isEqualTo(2000L);
+                    assertThat(entry.getValue()).isEqualTo(21.5);
+                });
+    }
+
+}
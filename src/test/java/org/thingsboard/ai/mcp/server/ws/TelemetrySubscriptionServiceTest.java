@@ -0,0 +1,162 @@
+package org.thingsboard.ai.mcp.server.ws;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.thingsboard.ai.mcp.server.buffer.TelemetryWriteBuffer;
+import org.thingsboard.ai.mcp.server.rest.ClientCredentials;
+import org.thingsboard.ai.mcp.server.rest.RestClient;
+import org.thingsboard.ai.mcp.server.rest.RestClientService;
+import org.thingsboard.ai.mcp.server.stub.ThingsBoardWsStubServer;
+import org.thingsboard.ai.mcp.server.tools.telemetry.TelemetryTools;
+import org.thingsboard.ai.mcp.server.ws.TelemetrySubscriptionService.SubscriptionInfo;
+import org.thingsboard.ai.mcp.server.ws.TelemetrySubscriptionService.SubscriptionType;
+import org.thingsboard.common.util.JacksonUtil;
+import org.thingsboard.server.common.data.id.DeviceId;
+import org.thingsboard.server.common.data.kv.AttributeKvEntry;
+import org.thingsboard.server.common.data.kv.DoubleDataEntry;
+import org.thingsboard.server.common.data.kv.LongDataEntry;
+import org.thingsboard.server.common.data.kv.StringDataEntry;
+import org.thingsboard.server.common.data.kv.TsKvEntry;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class TelemetrySubscriptionServiceTest {
+
+    private final DeviceId deviceId = new DeviceId(UUID.randomUUID());
+
+    private ThingsBoardWsStubServer server;
+    private RestClientService clientService;
+    private TelemetrySubscriptionService service;
+
+    @BeforeEach
+    void setup() throws Exception {
+        server = new ThingsBoardWsStubServer().start();
+        RestClient client = mock(RestClient.class);
+        when(client.getToken()).thenReturn("test-token");
+        clientService = mock(RestClientService.class);
+        when(clientService.getClient()).thenReturn(client);
+        service = new TelemetrySubscriptionService(clientService, new SimpleMeterRegistry(), server.getUrl(), "", 10, 100, 5000);
+        server.publish(deviceId, "temperature", 1000L, "22.5");
+        server.publish(deviceId, "count", 1000L, "7");
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.destroy();
+        server.close();
+    }
+
+    @Test
+    void testSubscribe_answersLatestTimeseriesFromPushedValues() {
+        SubscriptionInfo info = service.subscribe(deviceId, SubscriptionType.TIMESERIES, null, List.of());
+
+        assertThat(info.live()).isTrue();
+        assertThat(info.keysReceived()).isEqualTo(2);
+        JsonNode first = server.getCommands().get(0);
+        assertThat(first.get("authCmd").get("token").asText()).isEqualTo("test-token");
+        assertThat(first.get("cmds").get(0).get("scope").asText()).isEqualTo("LATEST_TELEMETRY");
+
+        List<TsKvEntry> strict = service.getLatestTimeseries(deviceId, List.of("temperature", "count"), true).orElseThrow();
+        assertThat(strict).extracting(TsKvEntry::getTs).containsOnly(1000L);
+        assertThat(strict.get(0).getValue()).isEqualTo(22.5);
+        assertThat(strict.get(0)).extracting("kv").isInstanceOf(DoubleDataEntry.class);
+        assertThat(strict.get(1)).extracting("kv").isInstanceOf(LongDataEntry.class);
+        assertThat(service.getLatestTimeseries(deviceId, List.of("count"), false).orElseThrow().get(0))
+                .extracting("kv").isEqualTo(new StringDataEntry("count", "7"));
+
+        server.publish(deviceId, "temperature", 2000L, "23.0");
+        awaitTrue(() -> service.getLatestTimeseries(deviceId, List.of("temperature"), true).orElseThrow().get(0).getTs() == 2000L);
+        assertThat(service.getLatestTimeseries(deviceId, List.of("temperature"), true).orElseThrow().get(0).getValue()).isEqualTo(23.0);
+
+        assertThat(service.getLatestTimeseries(new DeviceId(UUID.randomUUID()), List.of(), true)).isEmpty();
+        assertThat(service.getAttributes(deviceId, null, List.of())).isEmpty();
+    }
+
+    @Test
+    void testSubscribe_keysAndAttributes() {
+        service.subscribe(deviceId, SubscriptionType.ATTRIBUTES, "SHARED_SCOPE", List.of("count"));
+
+        List<AttributeKvEntry> attributes = service.getAttributes(deviceId, "SHARED_SCOPE", List.of("count")).orElseThrow();
+        assertThat(attributes).hasSize(1);
+        assertThat(attributes.get(0).getLastUpdateTs()).isEqualTo(1000L);
+        assertThat(attributes.get(0).getValue()).isEqualTo(7L);
+        // Keys outside of the subscription and other scopes go to the REST API
+        assertThat(service.getAttributes(deviceId, "SHARED_SCOPE", List.of("temperature"))).isEmpty();
+        assertThat(service.getAttributes(deviceId, "SHARED_SCOPE", List.of())).isEmpty();
+        assertThat(service.getAttributes(deviceId, "SERVER_SCOPE", List.of("count"))).isEmpty();
+    }
+
+    @Test
+    void testUnsubscribe_removesSubscriptionAndClosesSocket() {
+        int id = service.subscribe(deviceId, SubscriptionType.TIMESERIES, null, List.of()).subscriptionId();
+
+        assertThat(service.unsubscribe(id)).isTrue();
+        assertThat(service.unsubscribe(id)).isFalse();
+        assertThat(service.getSubscriptions()).isEmpty();
+        assertThat(service.getLatestTimeseries(deviceId, List.of(), true)).isEmpty();
+    }
+
+    @Test
+    void testReconnect_resubscribesAfterDisconnect() {
+        service.subscribe(deviceId, SubscriptionType.TIMESERIES, null, List.of("temperature"));
+
+        server.disconnectAll();
+        awaitTrue(() -> server.getConnectionCount() == 2 && service.getSubscriptions().get(0).live());
+
+        server.publish(deviceId, "temperature", 3000L, "25.5");
+        awaitTrue(() -> service.getLatestTimeseries(deviceId, List.of("temperature"), true)
+                .map(values -> values.get(0).getTs() == 3000L).orElse(false));
+    }
+
+    @Test
+    void testTelemetryTools_readFromSubscriptionWithoutRestCall() {
+        service.subscribe(deviceId, SubscriptionType.TIMESERIES, null, List.of());
+        RestClientService toolsClientService = mock(RestClientService.class);
+        TelemetryTools tools = new TelemetryTools(toolsClientService, service, mock(TelemetryWriteBuffer.class));
+
+        JsonNode result = JacksonUtil.toJsonNode(tools.getLatestTimeseries("DEVICE", deviceId.getId().toString(), "temperature", "false"));
+
+        assertThat(result.get(0).get("key").asText()).isEqualTo("temperature");
+        assertThat(result.get(0).get("value").asText()).isEqualTo("22.5");
+        verify(toolsClientService, never()).getClient();
+    }
+
+    @Test
+    void testSessionCredentials_bypassSubscriptions() {
+        service.subscribe(deviceId, SubscriptionType.TIMESERIES, null, List.of());
+        ClientCredentials.setCurrent(ClientCredentials.parse("Bearer other-tenant-token"));
+        try {
+            assertThat(service.getLatestTimeseries(deviceId, List.of(), true)).isEmpty();
+            assertThatThrownBy(() -> service.subscribe(deviceId, SubscriptionType.ATTRIBUTES, null, List.of()))
+                    .isInstanceOf(IllegalStateException.class);
+        } finally {
+            ClientCredentials.clearCurrent();
+        }
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            assertThat(System.currentTimeMillis()).as("condition not met in time").isLessThan(deadline);
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+}